@@ -0,0 +1,412 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import myExceptions.IllegalStateException;
+
+/**
+ * Base delle liste i cui elementi vengono prodotti solo quando vengono letti, come
+ * {@link LazyDecodedListAdapter} e {@link LazyListAdapter}.
+ * <p>
+ * Finché la lista non viene modificata, le operazioni di lettura ({@code get}, ricerche,
+ * iteratori, {@code toArray}, {@code equals}, {@code hashCode}) chiedono alla sottoclasse solo
+ * gli elementi che esaminano. La prima modifica, anche tramite un iteratore, copia tutti gli
+ * elementi in una {@link ListAdapter} e libera la rappresentazione pigra: da quel momento ogni
+ * operazione viene delegata alla {@code ListAdapter}. {@code clear()} la sostituisce con una
+ * lista vuota senza produrre alcun elemento. Anche {@code subList} e {@code sort} copiano prima
+ * gli elementi, perché la sottolista deve vedere le modifiche successive della lista.
+ * </p>
+ */
+abstract class AbstractLazyList implements HList
+{
+    private ListAdapter materialized;       // Lista a cui si delega dopo la prima modifica, null prima
+
+    /**
+     * Restituisce il numero di elementi della rappresentazione pigra.
+     */
+    abstract int lazySize();
+
+    /**
+     * Restituisce l'elemento alla posizione specificata, compresa tra 0 e {@link #lazySize()}.
+     */
+    abstract Object lazyGet(int index);
+
+    /**
+     * Libera la rappresentazione pigra, dopo che gli elementi sono stati copiati.
+     */
+    abstract void release();
+
+    /**
+     * Indica se la lista è stata copiata in una {@link ListAdapter} a causa di una modifica.
+     *
+     * @return true se le operazioni vengono delegate a una {@code ListAdapter}
+     */
+    public boolean isMaterialized()
+    {
+        return materialized != null;
+    }
+
+    /**
+     * Copia gli elementi in una {@link ListAdapter}, se non è già avvenuto, e la restituisce.
+     * La lista restituita è quella a cui questa lista delega: le modifiche dell'una sono visibili
+     * nell'altra.
+     *
+     * @return la {@code ListAdapter} con gli elementi di questa lista
+     */
+    public ListAdapter toListAdapter()
+    {
+        if (materialized == null)
+        {
+            int size = lazySize();
+            Object[] block = new Object[size];
+            for (int i = 0; i < size; i++)
+            {
+                block[i] = lazyGet(i);
+            }
+            ListAdapter list = new ListAdapter(size);
+            if (size > 0)
+            {
+                list.addBlock(0, block, size);
+            }
+            materialized = list;
+            release();
+        }
+        return materialized;
+    }
+
+    // =============== LETTURA ===============
+
+    public int size()
+    {
+        return materialized != null ? materialized.size() : lazySize();
+    }
+
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    public Object get(int index)
+    {
+        if (materialized != null)
+        {
+            return materialized.get(index);
+        }
+        if (index < 0 || index >= lazySize())
+        {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+        return lazyGet(index);
+    }
+
+    public boolean contains(Object o)
+    {
+        return indexOf(o) >= 0;
+    }
+
+    public boolean containsAll(HCollection c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        HIterator it = c.iterator();
+        while (it.hasNext())
+        {
+            if (!contains(it.next()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int indexOf(Object o)
+    {
+        if (materialized != null)
+        {
+            return materialized.indexOf(o);
+        }
+        int size = lazySize();
+        for (int i = 0; i < size; i++)
+        {
+            if (same(o, lazyGet(i)))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(Object o)
+    {
+        if (materialized != null)
+        {
+            return materialized.lastIndexOf(o);
+        }
+        for (int i = lazySize() - 1; i >= 0; i--)
+        {
+            if (same(o, lazyGet(i)))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public Object[] toArray()
+    {
+        return toArray(new Object[0]);
+    }
+
+    public Object[] toArray(Object[] a)
+    {
+        if (materialized != null)
+        {
+            return materialized.toArray(a);
+        }
+        if (a == null)
+        {
+            throw new NullPointerException("Input array is null");
+        }
+        int size = lazySize();
+        Object[] result = a.length < size ? new Object[size] : a;
+        for (int i = 0; i < size; i++)
+        {
+            result[i] = lazyGet(i);
+        }
+        if (result.length > size)
+        {
+            result[size] = null;
+        }
+        return result;
+    }
+
+    public HIterator iterator()
+    {
+        return new LazyIterator(0);
+    }
+
+    public HListIterator listIterator()
+    {
+        return new LazyIterator(0);
+    }
+
+    public HListIterator listIterator(int index)
+    {
+        if (index < 0 || index > size())
+        {
+            throw new IndexOutOfBoundsException("Indice fuori dai limiti: " + index);
+        }
+        return new LazyIterator(index);
+    }
+
+    /**
+     * Confronta questa lista con l'oggetto specificato secondo il contratto di {@link HList#equals(Object)},
+     * producendo gli elementi uno alla volta finché non ne trova due diversi.
+     */
+    public boolean equals(Object o)
+    {
+        if (o == this)
+        {
+            return true;
+        }
+        if (materialized != null)
+        {
+            return materialized.equals(o);
+        }
+        if (!(o instanceof HList))
+        {
+            return false;
+        }
+        HList other = (HList) o;
+        int size = lazySize();
+        if (other.size() != size)
+        {
+            return false;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            if (!same(lazyGet(i), other.get(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int hashCode()
+    {
+        if (materialized != null)
+        {
+            return materialized.hashCode();
+        }
+        int hash = 1;
+        int size = lazySize();
+        for (int i = 0; i < size; i++)
+        {
+            Object element = lazyGet(i);
+            hash = 31 * hash + (element == null ? 0 : element.hashCode());
+        }
+        return hash;
+    }
+
+    private static boolean same(Object a, Object b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // =============== MODIFICA ===============
+
+    public boolean add(Object o)
+    {
+        return toListAdapter().add(o);
+    }
+
+    public void add(int index, Object element)
+    {
+        toListAdapter().add(index, element);
+    }
+
+    public boolean addAll(HCollection c)
+    {
+        return toListAdapter().addAll(c);
+    }
+
+    public boolean addAll(int index, HCollection c)
+    {
+        return toListAdapter().addAll(index, c);
+    }
+
+    public Object set(int index, Object element)
+    {
+        return toListAdapter().set(index, element);
+    }
+
+    public Object remove(int index)
+    {
+        return toListAdapter().remove(index);
+    }
+
+    public boolean remove(Object o)
+    {
+        return toListAdapter().remove(o);
+    }
+
+    public boolean removeAll(HCollection c)
+    {
+        return toListAdapter().removeAll(c);
+    }
+
+    public boolean retainAll(HCollection c)
+    {
+        return toListAdapter().retainAll(c);
+    }
+
+    /**
+     * Svuota la lista senza produrre gli elementi non ancora letti.
+     */
+    public void clear()
+    {
+        if (materialized == null)
+        {
+            materialized = new ListAdapter();
+            release();
+        }
+        else
+        {
+            materialized.clear();
+        }
+    }
+
+    public HList subList(int fromIndex, int toIndex)
+    {
+        return toListAdapter().subList(fromIndex, toIndex);
+    }
+
+    public void sort(HComparator c)
+    {
+        toListAdapter().sort(c);
+    }
+
+    /**
+     * Iteratore bidirezionale che legge gli elementi con {@link AbstractLazyList#get(int)}, così
+     * da produrre solo quelli attraversati, e modifica la lista tramite i suoi metodi posizionali.
+     */
+    private class LazyIterator implements HListIterator
+    {
+        private int cursor;             // Indice dell'elemento restituito da next()
+        private int lastReturned = -1;  // Indice dell'ultimo elemento restituito, -1 se nessuno
+
+        LazyIterator(int index)
+        {
+            cursor = index;
+        }
+
+        public boolean hasNext()
+        {
+            return cursor < size();
+        }
+
+        public Object next()
+        {
+            if (!hasNext())
+            {
+                throw new java.util.NoSuchElementException("Nessun elemento successivo disponibile.");
+            }
+            lastReturned = cursor;
+            return get(cursor++);
+        }
+
+        public boolean hasPrevious()
+        {
+            return cursor > 0;
+        }
+
+        public Object previous()
+        {
+            if (!hasPrevious())
+            {
+                throw new java.util.NoSuchElementException("Nessun elemento precedente disponibile.");
+            }
+            lastReturned = --cursor;
+            return get(cursor);
+        }
+
+        public int nextIndex()
+        {
+            return cursor;
+        }
+
+        public int previousIndex()
+        {
+            return cursor - 1;
+        }
+
+        public void remove()
+        {
+            if (lastReturned < 0)
+            {
+                throw new IllegalStateException("next() o previous() non sono stati chiamati, oppure remove() o add() sono stati chiamati dopo l'ultima chiamata a next() o previous().");
+            }
+            AbstractLazyList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+        }
+
+        public void set(Object o)
+        {
+            if (lastReturned < 0)
+            {
+                throw new IllegalStateException("next() o previous() non sono stati chiamati, oppure remove() o add() sono stati chiamati dopo l'ultima chiamata a next() o previous().");
+            }
+            AbstractLazyList.this.set(lastReturned, o);
+        }
+
+        public void add(Object o)
+        {
+            AbstractLazyList.this.add(cursor++, o);
+            lastReturned = -1;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Filtro di Bloom sugli elementi di una lista, usato da {@link BloomListAdapter}.
+ * <p>
+ * Il filtro risponde "sicuramente assente" oppure "forse presente": un elemento inserito non
+ * viene mai dato per assente, mentre un elemento mai inserito viene dato per presente con
+ * probabilità pari circa al tasso di falsi positivi scelto, finché il numero di inserimenti
+ * non supera la capacità. Gli elementi non possono essere tolti dal filtro.
+ * </p>
+ * <p>
+ * Il filtro usa {@code m} bit e {@code k} funzioni hash, ottenute con il doppio hashing da due
+ * rimescolamenti di {@code hashCode()}; {@code m} e {@code k} sono i valori ottimi per la
+ * capacità e il tasso richiesti. Poiché CLDC 1.1 non dispone di {@code Math.log}, il logaritmo
+ * naturale viene calcolato con una serie.
+ * </p>
+ */
+final class BloomFilter
+{
+    private static final double LN2 = 0.6931471805599453;
+
+    private final long[] bits;      // Vettore di bit del filtro
+    private final int size;         // Numero di bit (m)
+    private final int hashes;       // Numero di funzioni hash (k)
+
+    /**
+     * Costruisce un filtro vuoto dimensionato per la capacità e il tasso di falsi positivi specificati.
+     *
+     * @param capacity il numero di inserimenti previsti (almeno 1)
+     * @param falsePositiveRate il tasso di falsi positivi desiderato, strettamente tra 0 e 1
+     */
+    BloomFilter(int capacity, double falsePositiveRate)
+    {
+        int n = Math.max(1, capacity);
+        double m = -n * ln(falsePositiveRate) / (LN2 * LN2);
+        this.size = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, Math.ceil(m)));
+        this.hashes = (int) Math.max(1, Math.min(30, Math.floor((double) size / n * LN2 + 0.5)));
+        this.bits = new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Registra l'elemento nel filtro.
+     *
+     * @param o l'elemento da registrare (può essere null)
+     */
+    void put(Object o)
+    {
+        int h = o == null ? 0 : o.hashCode();
+        int h1 = mix(h);
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        for (int i = 0; i < hashes; i++)
+        {
+            int bit = ((h1 + i * h2) & 0x7fffffff) % size;
+            bits[bit >>> 6] |= 1L << (bit & 63);
+        }
+    }
+
+    /**
+     * Restituisce false se l'elemento non è sicuramente mai stato registrato.
+     *
+     * @param o l'elemento da verificare (può essere null)
+     * @return false se l'elemento è sicuramente assente, true se potrebbe essere presente
+     */
+    boolean mightContain(Object o)
+    {
+        int h = o == null ? 0 : o.hashCode();
+        int h1 = mix(h);
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        for (int i = 0; i < hashes; i++)
+        {
+            int bit = ((h1 + i * h2) & 0x7fffffff) % size;
+            if ((bits[bit >>> 6] & (1L << (bit & 63))) == 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rimescola i bit dell'hash, così che hash vicini (come quelli di interi consecutivi)
+     * producano posizioni indipendenti.
+     */
+    private static int mix(int h)
+    {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Logaritmo naturale di un numero positivo: il numero viene ridotto all'intervallo [1, 2]
+     * con potenze di 2, e sul resto si usa la serie {@code ln(x) = 2 atanh((x - 1) / (x + 1))}.
+     */
+    static double ln(double x)
+    {
+        int exponent = 0;
+        while (x > 2)
+        {
+            x /= 2;
+            exponent++;
+        }
+        while (x < 1)
+        {
+            x *= 2;
+            exponent--;
+        }
+        double y = (x - 1) / (x + 1);
+        double y2 = y * y;
+        double term = y;
+        double sum = 0;
+        for (int n = 1; n < 41; n += 2)
+        {
+            sum += term / n;
+            term *= y2;
+        }
+        return 2 * sum + exponent * LN2;
+    }
+}
@@ -0,0 +1,318 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.util.Vector;
+
+/**
+ * Una {@link ListAdapter} che mantiene, accanto agli elementi, un filtro di Bloom con cui
+ * {@link #contains(Object)}, {@link #indexOf(Object)}, {@link #lastIndexOf(Object)} e
+ * {@link #remove(Object)} riconoscono senza scorrere la lista gli elementi sicuramente assenti.
+ * <p>
+ * Ogni elemento inserito (con {@code add}, {@code addAll}, {@code set}, iteratori o sottoliste)
+ * viene registrato nel filtro. Le rimozioni e le sostituzioni non possono togliere elementi dal
+ * filtro, che resta corretto ma diventa via via meno selettivo: il filtro viene quindi ricostruito
+ * pigramente, alla prima ricerca, quando gli inserimenti registrati superano la sua capacità oppure
+ * quando gli elementi non più presenti superano un quarto di quelli della lista. Un elemento
+ * presente nella lista non viene mai dato per assente, purché il suo {@code hashCode} non cambi
+ * mentre è nella lista.
+ * </p>
+ * <p>
+ * I contatori {@link #getAvoidedScans()}, {@link #getScans()} e {@link #getFalsePositives()}
+ * riportano quante ricerche sono state risolte dal filtro, quante hanno dovuto scorrere la
+ * lista e quante di queste non hanno trovato l'elemento.
+ * </p>
+ *
+ * @see myAdapter.BloomFilter
+ */
+public class BloomListAdapter extends ListAdapter
+{
+    /** Tasso di falsi positivi predefinito del filtro. */
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private static final int MIN_CAPACITY = 64;
+
+    private double falsePositiveRate;   // Tasso di falsi positivi desiderato
+    private BloomFilter filter;         // Filtro sugli elementi, null se va ricostruito
+    private int capacity;               // Inserimenti per cui il filtro è dimensionato
+    private int registered;             // Inserimenti registrati nel filtro dall'ultima ricostruzione
+
+    private long avoidedScans;          // Ricerche risolte dal filtro
+    private long scans;                 // Ricerche che hanno scorso la lista
+    private long falsePositives;        // Ricerche che hanno scorso la lista senza trovare l'elemento
+
+    /**
+     * Costruisce una lista vuota con il tasso di falsi positivi predefinito.
+     */
+    public BloomListAdapter()
+    {
+        this(MIN_CAPACITY, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Costruisce una lista vuota con un filtro dimensionato per il numero di elementi previsto
+     * e il tasso di falsi positivi specificati.
+     *
+     * @param expectedSize il numero di elementi previsto
+     * @param falsePositiveRate il tasso di falsi positivi desiderato, strettamente tra 0 e 1
+     * @throws IllegalArgumentException se il numero di elementi è negativo o il tasso non è tra 0 e 1
+     */
+    public BloomListAdapter(int expectedSize, double falsePositiveRate)
+    {
+        super(expectedSize);
+        checkRate(falsePositiveRate);
+        this.falsePositiveRate = falsePositiveRate;
+        this.capacity = Math.max(MIN_CAPACITY, expectedSize);
+        this.filter = new BloomFilter(capacity, falsePositiveRate);
+    }
+
+    /**
+     * Restituisce il tasso di falsi positivi desiderato del filtro.
+     *
+     * @return il tasso di falsi positivi
+     */
+    public double getFalsePositiveRate()
+    {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Cambia il tasso di falsi positivi desiderato; il filtro viene ricostruito alla prossima ricerca.
+     *
+     * @param falsePositiveRate il nuovo tasso di falsi positivi, strettamente tra 0 e 1
+     * @throws IllegalArgumentException se il tasso non è strettamente tra 0 e 1
+     */
+    public void setFalsePositiveRate(double falsePositiveRate)
+    {
+        checkRate(falsePositiveRate);
+        this.falsePositiveRate = falsePositiveRate;
+        filter = null;
+    }
+
+    /**
+     * Restituisce il numero di ricerche risolte dal filtro senza scorrere la lista.
+     *
+     * @return il numero di scansioni evitate
+     */
+    public long getAvoidedScans()
+    {
+        return avoidedScans;
+    }
+
+    /**
+     * Restituisce il numero di ricerche che hanno dovuto scorrere la lista.
+     *
+     * @return il numero di scansioni eseguite
+     */
+    public long getScans()
+    {
+        return scans;
+    }
+
+    /**
+     * Restituisce il numero di ricerche che hanno scorso la lista senza trovare l'elemento,
+     * cioè i falsi positivi del filtro.
+     *
+     * @return il numero di falsi positivi
+     */
+    public long getFalsePositives()
+    {
+        return falsePositives;
+    }
+
+    /**
+     * Azzera i contatori delle ricerche.
+     */
+    public void resetCounters()
+    {
+        avoidedScans = 0;
+        scans = 0;
+        falsePositives = 0;
+    }
+
+    /**
+     * Aggiunge l'elemento in coda alla lista e lo registra nel filtro.
+     *
+     * @param o elemento da aggiungere
+     * @return true
+     */
+    public boolean add(Object o)
+    {
+        super.add(o);
+        register(o);
+        return true;
+    }
+
+    /**
+     * Inserisce l'elemento nella posizione specificata e lo registra nel filtro.
+     *
+     * @param index indice al quale l'elemento deve essere inserito
+     * @param element elemento da inserire
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt; size())
+     */
+    public void add(int index, Object element)
+    {
+        super.add(index, element);
+        register(element);
+    }
+
+    /**
+     * Sostituisce l'elemento nella posizione specificata e registra il nuovo elemento nel filtro.
+     * L'elemento sostituito resta nel filtro fino alla prossima ricostruzione.
+     *
+     * @param index indice dell'elemento da sostituire
+     * @param element elemento da memorizzare alla posizione specificata
+     * @return l'elemento precedentemente alla posizione specificata
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt;= size())
+     */
+    public Object set(int index, Object element)
+    {
+        Object old = super.set(index, element);
+        register(element);
+        return old;
+    }
+
+    /**
+     * Restituisce true se la lista contiene l'elemento specificato. Se il filtro esclude
+     * l'elemento la lista non viene scorsa.
+     *
+     * @param o elemento di cui verificare la presenza
+     * @return true se la lista contiene l'elemento specificato
+     */
+    public boolean contains(Object o)
+    {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * Restituisce l'indice della prima occorrenza dell'elemento specificato, o -1 se assente.
+     * Se il filtro esclude l'elemento la lista non viene scorsa.
+     *
+     * @param o elemento da cercare
+     * @return l'indice della prima occorrenza dell'elemento, o -1 se la lista non lo contiene
+     */
+    public int indexOf(Object o)
+    {
+        if (definitelyAbsent(o))
+        {
+            return -1;
+        }
+        return counted(super.indexOf(o));
+    }
+
+    /**
+     * Restituisce l'indice dell'ultima occorrenza dell'elemento specificato, o -1 se assente.
+     * Se il filtro esclude l'elemento la lista non viene scorsa.
+     *
+     * @param o elemento da cercare
+     * @return l'indice dell'ultima occorrenza dell'elemento, o -1 se la lista non lo contiene
+     */
+    public int lastIndexOf(Object o)
+    {
+        if (definitelyAbsent(o))
+        {
+            return -1;
+        }
+        return counted(super.lastIndexOf(o));
+    }
+
+    /**
+     * Rimuove la prima occorrenza dell'elemento specificato. Se il filtro esclude
+     * l'elemento la lista non viene scorsa.
+     *
+     * @param o elemento da rimuovere, se presente
+     * @return true se un elemento è stato rimosso
+     */
+    public boolean remove(Object o)
+    {
+        int i = indexOf(o);
+        if (i == -1)
+        {
+            return false;
+        }
+        remove(i);
+        return true;
+    }
+
+    // =============== SUPPORTO ALLE OPERAZIONI DIFFERITE ===============
+
+    /**
+     * Registra nel filtro gli elementi inseriti in blocco, anche tramite iteratori e sottoliste.
+     */
+    void addBlock(int index, Object[] block, int length)
+    {
+        super.addBlock(index, block, length);
+        for (int i = 0; i < length; i++)
+        {
+            register(block[i]);
+        }
+    }
+
+    // =============== METODI PRIVATI DI SUPPORTO ===============
+
+    private static void checkRate(double falsePositiveRate)
+    {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+        {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+    }
+
+    /**
+     * Registra l'elemento nel filtro, se il filtro non è già in attesa di ricostruzione.
+     */
+    private void register(Object o)
+    {
+        if (filter != null)
+        {
+            filter.put(o);
+            registered++;
+        }
+    }
+
+    /**
+     * Restituisce true se il filtro esclude l'elemento, ricostruendo prima il filtro se è
+     * saturo o troppo impreciso, e aggiorna i contatori.
+     */
+    private boolean definitelyAbsent(Object o)
+    {
+        settle();
+        int size = storage().size();
+        if (filter == null || registered > capacity || registered - size > size / 4)
+        {
+            rebuild(size);
+        }
+        if (!filter.mightContain(o))
+        {
+            avoidedScans++;
+            return true;
+        }
+        scans++;
+        return false;
+    }
+
+    private int counted(int index)
+    {
+        if (index == -1)
+        {
+            falsePositives++;
+        }
+        return index;
+    }
+
+    /**
+     * Ricostruisce il filtro con gli elementi attuali, con capacità doppia rispetto alla dimensione
+     * della lista per lasciare spazio agli inserimenti successivi.
+     */
+    private void rebuild(int size)
+    {
+        capacity = Math.max(MIN_CAPACITY, Math.max(capacity, size * 2));
+        filter = new BloomFilter(capacity, falsePositiveRate);
+        Vector vector = storage();
+        for (int i = 0; i < size; i++)
+        {
+            filter.put(vector.elementAt(i));
+        }
+        registered = size;
+    }
+}
@@ -0,0 +1,155 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.util.Vector;
+import myExceptions.IllegalStateException;
+
+/**
+ * Iteratore in avanti con rimozione differita per {@link ListAdapter} e per le sue sottoliste.
+ * <p>
+ * A differenza di {@link ListIterator}, la chiamata a {@link #remove()} non sposta subito
+ * la coda del {@code java.util.Vector}: l'elemento viene soltanto marcato come rimosso e
+ * gli elementi superstiti vengono ricopiati verso sinistra man mano che l'iterazione avanza.
+ * La coda residua viene compattata una sola volta, quando l'iterazione termina
+ * ({@code hasNext()} restituisce false) oppure al primo accesso alla lista da parte di
+ * un altro chiamante. Un ciclo di filtraggio con {@code next()}/{@code remove()} costa
+ * quindi O(n) invece di O(n^2).
+ * </p>
+ * <p>
+ * Durante l'iterazione il {@code Vector} contiene, nell'intervallo della vista:
+ * gli elementi definitivi in {@code [inizio, write)}, posizioni non più significative
+ * in {@code [write, read)} e gli elementi ancora da visitare in {@code [read, end)}.
+ * </p>
+ *
+ * @see ListAdapter#compactingIterator()
+ * @see PendingOperation
+ */
+public class CompactingIterator implements HIterator
+{
+    private ListAdapter view;       // Lista (o sottolista) su cui si itera
+    private Vector storage;         // Vector della lista radice
+    private int read;               // Posizione nel Vector del prossimo elemento da visitare
+    private int write;              // Posizione nel Vector in cui copiare il prossimo superstite
+    private int end;                // Fine (esclusa) della vista nel Vector, valida finché gap > 0
+    private int gap;                // Numero di rimozioni non ancora compattate (read - write)
+    private int firstRemoved;       // Posizione nel Vector della prima rimozione non ancora compattata
+    private boolean canRemove;      // true se remove() è consentita sull'ultimo elemento restituito
+
+    /** Compattazione registrata presso la lista, così che {@link #flush()} non sia pubblico. */
+    private final PendingOperation compaction = new PendingOperation()
+    {
+        public void flush()
+        {
+            CompactingIterator.this.flush();
+        }
+    };
+
+    /**
+     * Costruisce un iteratore con rimozione differita posizionato all'inizio della vista specificata.
+     *
+     * @param view la lista o sottolista da attraversare
+     */
+    CompactingIterator(ListAdapter view)
+    {
+        this.view = view;
+        this.storage = view.storage();
+        this.read = view.rootOffset();
+        this.write = read;
+        this.end = read;
+        this.gap = 0;
+        this.canRemove = false;
+    }
+
+    /**
+     * Restituisce true se l'iterazione ha altri elementi. Quando l'ultimo elemento
+     * è già stato visitato, le rimozioni ancora in sospeso vengono compattate.
+     *
+     * @return true se l'iteratore ha altri elementi
+     */
+    public boolean hasNext()
+    {
+        if (gap == 0)
+        {
+            return read < view.rootOffset() + view.size();
+        }
+        if (read < end)
+        {
+            return true;
+        }
+        view.settle();              // Iterazione terminata: compatta la coda una sola volta
+        return false;
+    }
+
+    /**
+     * Restituisce l'elemento successivo, copiandolo nella prima posizione libera
+     * se sono presenti rimozioni non ancora compattate.
+     *
+     * @return l'elemento successivo dell'iterazione
+     * @throws java.util.NoSuchElementException se l'iterazione non ha altri elementi
+     */
+    public Object next()
+    {
+        if (!hasNext())
+        {
+            throw new java.util.NoSuchElementException("Nessun elemento successivo disponibile.");
+        }
+        Object element = storage.elementAt(read);
+        if (gap > 0)
+        {
+            storage.setElementAt(element, write);
+        }
+        read++;
+        write++;
+        canRemove = true;
+        return element;
+    }
+
+    /**
+     * Marca come rimosso l'ultimo elemento restituito da {@link #next()}.
+     * Lo spostamento della coda viene rinviato alla compattazione finale.
+     *
+     * @throws IllegalStateException se next() non è stato chiamato, oppure remove()
+     *         è già stato chiamato dopo l'ultima chiamata a next()
+     */
+    public void remove()
+    {
+        if (!canRemove)
+        {
+            throw new IllegalStateException("next() non è stato chiamato o remove() è già stato chiamato dopo l'ultima chiamata a next().");
+        }
+        if (gap == 0)
+        {
+            end = view.rootOffset() + view.size();
+            firstRemoved = write - 1;
+            view.defer(compaction); // Qualsiasi altro accesso alla lista provocherà la compattazione
+        }
+        write--;
+        gap++;
+        canRemove = false;
+    }
+
+    /**
+     * Compatta il {@code Vector} spostando la coda non ancora visitata sulle posizioni
+     * liberate e aggiorna la dimensione della vista. Dopo la chiamata l'iteratore
+     * resta utilizzabile dalla stessa posizione logica.
+     */
+    void flush()
+    {
+        if (gap == 0)
+        {
+            return;
+        }
+        view.storageChanged(firstRemoved);
+        int size = storage.size();
+        for (int i = read; i < size; i++)
+        {
+            storage.setElementAt(storage.elementAt(i), i - gap);
+        }
+        storage.setSize(size - gap);    // Rilascia i riferimenti in coda
+        view.resize(-gap);
+        end -= gap;
+        read = write;
+        gap = 0;
+    }
+}
@@ -0,0 +1,497 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.util.Vector;
+
+/**
+ * Una {@link ListAdapter} che mantiene un albero di digest (albero di Merkle) su blocchi di
+ * dimensione fissa degli elementi, così che due liste grandi si possano confrontare, e le
+ * differenze localizzare, in tempo proporzionale al numero di blocchi modificati.
+ * <p>
+ * Gli elementi sono divisi per posizione in blocchi di {@code chunkSize} elementi. Il livello 0
+ * dell'albero contiene il digest a 64 bit di ogni blocco, calcolato dagli {@code hashCode} dei suoi
+ * elementi e dal loro numero; il nodo {@code k} del livello {@code l} combina i due nodi figli
+ * {@code 2k} e {@code 2k+1} del livello inferiore e copre i blocchi
+ * {@code [k*2^l, (k+1)*2^l)}. La radice riassume quindi l'intera lista.
+ * </p>
+ * <p>
+ * L'albero viene aggiornato pigramente, come l'indice di {@link IndexedListAdapter}: una
+ * sostituzione segna come modificato il solo blocco che la contiene, mentre inserimenti,
+ * rimozioni, ordinamenti e compattazioni spostano gli elementi successivi e segnano come
+ * modificati tutti i blocchi dalla prima posizione toccata in poi (per gli inserimenti e le
+ * rimozioni in coda è il solo ultimo blocco). Alla prima interrogazione vengono ricalcolati
+ * solo i blocchi segnati e i loro antenati.
+ * </p>
+ * <p>
+ * {@link #changedRanges(DigestListAdapter)} scende contemporaneamente nei due alberi ignorando i
+ * sottoalberi con lo stesso digest, e {@link #digestEquals(DigestListAdapter)} confronta le sole
+ * radici. Un digest diverso garantisce che i blocchi siano diversi; digest uguali indicano blocchi
+ * uguali con probabilità molto alta, ma non possono distinguere elementi diversi con lo stesso
+ * {@code hashCode}. {@link #equals(Object)} usa i digest solo per escludere l'uguaglianza e
+ * resta esatto. Come per gli altri valori derivati dagli elementi, un elemento il cui
+ * {@code hashCode} cambia mentre è nella lista non viene rilevato.
+ * </p>
+ *
+ * @see myAdapter.IndexedListAdapter
+ */
+public class DigestListAdapter extends ListAdapter
+{
+    /** Dimensione predefinita, in elementi, di un blocco. */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    /** Digest di un nodo senza elementi; {@code combine(EMPTY, EMPTY) == EMPTY}. */
+    private static final long EMPTY = 0L;
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final int chunkSize;                // Elementi per blocco
+    private long[][] levels = new long[0][];    // levels[l][k]: digest del nodo k del livello l
+    private int chunks;                         // Blocchi coperti dall'albero
+    private int stale = Integer.MAX_VALUE;      // Prima posizione da cui i blocchi vanno ricalcolati
+    private long[] dirty = new long[0];         // Bit dei blocchi modificati da set, prima di stale
+    private int dirtyCount;                     // Bit impostati in dirty
+
+    /**
+     * Costruisce una lista vuota con blocchi della dimensione predefinita.
+     */
+    public DigestListAdapter()
+    {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Costruisce una lista vuota con blocchi della dimensione specificata.
+     *
+     * @param chunkSize il numero di elementi di un blocco
+     * @throws IllegalArgumentException se la dimensione non è positiva
+     */
+    public DigestListAdapter(int chunkSize)
+    {
+        super();
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Restituisce il numero di elementi di un blocco.
+     *
+     * @return la dimensione dei blocchi
+     */
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * Restituisce il digest dell'intera lista, cioè la radice dell'albero, aggiornando prima
+     * i blocchi modificati. Il digest della lista vuota è 0.
+     *
+     * @return il digest della lista
+     */
+    public long digest()
+    {
+        refresh();
+        return levels.length == 0 ? EMPTY : levels[levels.length - 1][0];
+    }
+
+    /**
+     * Restituisce true se le due liste hanno la stessa dimensione e lo stesso digest.
+     * Il costo è proporzionale ai blocchi modificati dall'ultimo confronto. Un risultato false
+     * è certo; un risultato true indica liste uguali salvo elementi diversi con lo stesso
+     * {@code hashCode} o collisioni del digest a 64 bit.
+     *
+     * @param other la lista da confrontare
+     * @return true se le due liste hanno probabilmente lo stesso contenuto
+     * @throws NullPointerException se la lista specificata è null
+     * @throws IllegalArgumentException se le due liste usano blocchi di dimensione diversa
+     */
+    public boolean digestEquals(DigestListAdapter other)
+    {
+        checkChunkSize(other);
+        return size() == other.size() && digest() == other.digest();
+    }
+
+    /**
+     * Restituisce gli intervalli di posizioni in cui le due liste possono differire, in ordine e
+     * con gli intervalli adiacenti uniti. Ogni elemento della lista restituita è un {@code int[]}
+     * {@code {from, to}} che indica le posizioni {@code [from, to)}; gli intervalli sono allineati ai
+     * blocchi e non superano la dimensione della più lunga delle due liste. Le posizioni esterne
+     * agli intervalli hanno lo stesso contenuto nelle due liste (con la stessa garanzia di
+     * {@link #digestEquals(DigestListAdapter)}).
+     * <p>
+     * Vengono visitati solo i sottoalberi con digest diverso: il costo è proporzionale al numero
+     * di blocchi diversi per l'altezza dell'albero.
+     * </p>
+     *
+     * @param other la lista da confrontare
+     * @return la lista degli intervalli {@code {from, to}} che differiscono, vuota se le liste coincidono
+     * @throws NullPointerException se la lista specificata è null
+     * @throws IllegalArgumentException se le due liste usano blocchi di dimensione diversa
+     */
+    public HList changedRanges(DigestListAdapter other)
+    {
+        checkChunkSize(other);
+        refresh();
+        other.refresh();
+        ListAdapter ranges = new ListAdapter();
+        int height = Math.max(levels.length, other.levels.length);
+        if (height > 0)
+        {
+            int end = Math.max(storage().size(), other.storage().size());
+            diff(other, height - 1, 0, end, ranges);
+        }
+        return ranges;
+    }
+
+    /**
+     * Confronta questa lista con l'oggetto specificato. Se anche l'oggetto è una
+     * {@code DigestListAdapter} con blocchi della stessa dimensione, digest diversi escludono
+     * subito l'uguaglianza; altrimenti il confronto è quello di {@link ListAdapter#equals(Object)}.
+     *
+     * @param o oggetto da confrontare per l'uguaglianza con questa lista
+     * @return true se l'oggetto specificato è uguale a questa lista
+     */
+    public boolean equals(Object o)
+    {
+        if (o instanceof DigestListAdapter && o != this)
+        {
+            DigestListAdapter other = (DigestListAdapter) o;
+            if (other.chunkSize == chunkSize && !digestEquals(other))
+            {
+                return false;
+            }
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Aggiunge l'elemento in coda alla lista e segna come modificato l'ultimo blocco.
+     *
+     * @param o elemento da aggiungere
+     * @return true
+     */
+    public boolean add(Object o)
+    {
+        super.add(o);
+        invalidate(storage().size() - 1);
+        return true;
+    }
+
+    /**
+     * Inserisce l'elemento nella posizione specificata e segna come modificati i blocchi
+     * da quello della posizione in poi.
+     *
+     * @param index indice al quale l'elemento deve essere inserito
+     * @param element elemento da inserire
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt; size())
+     */
+    public void add(int index, Object element)
+    {
+        super.add(index, element);
+        invalidate(index);
+    }
+
+    /**
+     * Sostituisce l'elemento nella posizione specificata e segna come modificato il solo
+     * blocco che la contiene.
+     *
+     * @param index indice dell'elemento da sostituire
+     * @param element elemento da memorizzare alla posizione specificata
+     * @return l'elemento precedentemente alla posizione specificata
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt;= size())
+     */
+    public Object set(int index, Object element)
+    {
+        Object old = super.set(index, element);
+        markChunk(index / chunkSize);
+        return old;
+    }
+
+    /**
+     * Rimuove l'elemento nella posizione specificata e segna come modificati i blocchi
+     * da quello della posizione in poi.
+     *
+     * @param index l'indice dell'elemento da rimuovere
+     * @return l'elemento che è stato rimosso dalla lista
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt;= size())
+     */
+    public Object remove(int index)
+    {
+        Object removed = super.remove(index);
+        invalidate(index);
+        return removed;
+    }
+
+    /**
+     * Rimuove la prima occorrenza dell'elemento specificato.
+     *
+     * @param o elemento da rimuovere, se presente
+     * @return true se un elemento è stato rimosso
+     */
+    public boolean remove(Object o)
+    {
+        int i = indexOf(o);
+        if (i == -1)
+        {
+            return false;
+        }
+        remove(i);
+        return true;
+    }
+
+    /**
+     * Rimuove tutti gli elementi dalla lista.
+     */
+    public void clear()
+    {
+        super.clear();
+        invalidate(0);
+    }
+
+    // =============== SUPPORTO ALLE OPERAZIONI DIFFERITE ===============
+
+    /**
+     * Un blocco inserito sposta gli elementi successivi: i blocchi dalla posizione di
+     * inserimento in poi vanno ricalcolati.
+     */
+    void addBlock(int index, Object[] block, int length)
+    {
+        super.addBlock(index, block, length);
+        invalidate(index);
+    }
+
+    /**
+     * Le scritture dirette sul Vector (ordinamento, compattazione) segnano come modificati
+     * i blocchi dalla prima posizione toccata in poi.
+     */
+    void storageChanged(int position)
+    {
+        super.storageChanged(position);
+        invalidate(position);
+    }
+
+    // =============== METODI PRIVATI DI SUPPORTO ===============
+
+    private void checkChunkSize(DigestListAdapter other)
+    {
+        if (other.chunkSize != chunkSize)
+        {
+            throw new IllegalArgumentException("Chunk sizes differ: " + chunkSize + " and " + other.chunkSize);
+        }
+    }
+
+    /**
+     * Segna come da ricalcolare tutti i blocchi dalla posizione specificata in poi.
+     */
+    private void invalidate(int position)
+    {
+        if (position < stale)
+        {
+            stale = position;
+        }
+    }
+
+    /**
+     * Segna come da ricalcolare un singolo blocco, se non lo è già per effetto di {@link #stale}.
+     */
+    private void markChunk(int k)
+    {
+        if (k < stale / chunkSize)
+        {
+            long bit = 1L << (k & 63);
+            if ((dirty[k >>> 6] & bit) == 0)
+            {
+                dirty[k >>> 6] |= bit;
+                dirtyCount++;
+            }
+        }
+    }
+
+    /**
+     * Porta l'albero in pari con la lista: ricalcola i blocchi segnati e quelli da {@link #stale}
+     * in poi, poi i loro antenati livello per livello.
+     */
+    private void refresh()
+    {
+        settle();
+        Vector vector = storage();
+        int size = vector.size();
+        int newChunks = (int) (((long) size + chunkSize - 1) / chunkSize);
+        if (stale == Integer.MAX_VALUE && dirtyCount == 0 && newChunks == chunks)
+        {
+            return;
+        }
+        int from = Math.min(newChunks, stale / chunkSize);
+        boolean reshaped = newChunks != chunks;
+        reshape(newChunks);
+
+        // Blocchi da ricalcolare, in ordine crescente
+        int[] changed = new int[dirtyCount + (newChunks - from) + 1];
+        int count = 0;
+        for (int w = 0; dirtyCount > 0 && w < dirty.length; w++)
+        {
+            long word = dirty[w];
+            dirty[w] = 0;
+            for (int k = w << 6; word != 0; k++, word >>>= 1)
+            {
+                if ((word & 1) != 0 && k < from)      // I blocchi da from in poi vengono aggiunti sotto
+                {
+                    changed[count++] = k;
+                }
+            }
+        }
+        for (int k = from; k < newChunks; k++)
+        {
+            changed[count++] = k;
+        }
+        if (reshaped && newChunks > 0 && (count == 0 || changed[count - 1] != newChunks - 1))
+        {
+            changed[count++] = newChunks - 1;    // L'ultimo nodo di ogni livello ha perso o acquistato figli
+        }
+
+        long[] leaves = levels.length == 0 ? null : levels[0];
+        for (int i = 0; i < count; i++)
+        {
+            leaves[changed[i]] = leafDigest(vector, changed[i], size);
+        }
+        for (int l = 1; l < levels.length; l++)
+        {
+            long[] below = levels[l - 1];
+            int parents = 0;
+            for (int i = 0; i < count; i++)
+            {
+                int p = changed[i] >>> 1;
+                if (parents == 0 || changed[parents - 1] != p)
+                {
+                    changed[parents++] = p;
+                }
+            }
+            count = parents;
+            for (int i = 0; i < count; i++)
+            {
+                int p = changed[i];
+                long left = below[2 * p];
+                long right = 2 * p + 1 < below.length ? below[2 * p + 1] : EMPTY;
+                levels[l][p] = combine(left, right);
+            }
+        }
+        stale = Integer.MAX_VALUE;
+        dirtyCount = 0;
+    }
+
+    /**
+     * Adatta la forma dell'albero al numero di blocchi, conservando i digest dei nodi che
+     * restano; i nodi nuovi vengono calcolati da {@link #refresh()}.
+     */
+    private void reshape(int newChunks)
+    {
+        if (newChunks == chunks)
+        {
+            return;
+        }
+        int height = 0;
+        for (int n = newChunks; n > 0; n = n == 1 ? 0 : (n + 1) >>> 1)
+        {
+            height++;
+        }
+        long[][] reshaped = new long[height][];
+        int n = newChunks;
+        for (int l = 0; l < height; l++)
+        {
+            reshaped[l] = new long[n];
+            if (l < levels.length)
+            {
+                System.arraycopy(levels[l], 0, reshaped[l], 0, Math.min(n, levels[l].length));
+            }
+            n = (n + 1) >>> 1;
+        }
+        levels = reshaped;
+        int words = (newChunks + 63) >>> 6;
+        if (words > dirty.length)
+        {
+            long[] grown = new long[words];
+            System.arraycopy(dirty, 0, grown, 0, dirty.length);
+            dirty = grown;
+        }
+        chunks = newChunks;
+    }
+
+    /**
+     * Scende nei due alberi a partire dal nodo {@code k} del livello {@code l}, aggiungendo
+     * agli intervalli i blocchi con digest diverso.
+     */
+    private void diff(DigestListAdapter other, int l, int k, int end, ListAdapter ranges)
+    {
+        long first = (long) k << l;     // Primo blocco coperto dal nodo
+        boolean emptyHere = first >= chunks;
+        boolean emptyThere = first >= other.chunks;
+        if (emptyHere && emptyThere)
+        {
+            return;
+        }
+        if (l < levels.length && l < other.levels.length
+            && k < levels[l].length && k < other.levels[l].length
+            && levels[l][k] == other.levels[l][k])
+        {
+            return;
+        }
+        if (l > 0)
+        {
+            diff(other, l - 1, 2 * k, end, ranges);
+            diff(other, l - 1, 2 * k + 1, end, ranges);
+            return;
+        }
+        int from = k * chunkSize;
+        int to = (int) Math.min(end, (long) from + chunkSize);
+        int last = ranges.size() - 1;
+        if (last >= 0 && ((int[]) ranges.get(last))[1] == from)
+        {
+            ((int[]) ranges.get(last))[1] = to;     // Intervallo adiacente al precedente
+        }
+        else
+        {
+            ranges.add(new int[] { from, to });
+        }
+    }
+
+    /**
+     * Calcola il digest del blocco {@code k} dagli {@code hashCode} dei suoi elementi e dal loro numero.
+     */
+    private long leafDigest(Vector vector, int k, int size)
+    {
+        int from = k * chunkSize;
+        int to = (int) Math.min(size, (long) from + chunkSize);
+        long h = to - from;
+        for (int i = from; i < to; i++)
+        {
+            Object e = vector.elementAt(i);
+            h = mix(h + GOLDEN + (e == null ? 0 : e.hashCode()));
+        }
+        return h;
+    }
+
+    /**
+     * Combina i digest di due nodi figli; l'ordine dei figli conta.
+     */
+    private static long combine(long left, long right)
+    {
+        return mix(left * GOLDEN + right);
+    }
+
+    /**
+     * Rimescolamento finale di MurmurHash3 a 64 bit: biiettivo, con {@code mix(0) == 0}.
+     */
+    private static long mix(long h)
+    {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,497 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Codec binari compatti per gli elementi dei tipi più comuni, da usare con
+ * {@link ListAdapter#writeTo(DataOutput, HElementCodec)} e {@link ListAdapter#readFrom(DataInput, HElementCodec)}.
+ * <p>
+ * I codec dei singoli tipi ({@link #INTEGER}, {@link #STRING}, ...) scrivono solo il valore e
+ * non ammettono null; {@link #nullable(HElementCodec)} aggiunge un byte di presenza.
+ * {@link #TAGGED} ammette elementi null e di tipi diversi nella stessa lista, facendo precedere
+ * ogni valore da un byte che ne indica il tipo.
+ * </p>
+ * <p>
+ * Gli interi ({@code Integer}, {@code Long}) e le lunghezze sono scritti con una codifica a
+ * lunghezza variabile di 7 bit per byte, preceduta per i valori con segno dalla codifica
+ * "zig-zag": i valori piccoli in valore assoluto occupano un solo byte. Le stringhe sono
+ * scritte in UTF-8 precedute dalla lunghezza in byte, senza il limite di 65535 byte di
+ * {@code DataOutput.writeUTF}. Gli oggetti vengono creati con i costruttori dei wrapper perché
+ * CLDC 1.1 non dispone dei metodi {@code valueOf} dei tipi primitivi.
+ * </p>
+ *
+ * @see HElementCodec
+ */
+public final class ElementCodecs
+{
+    private static final int NULL = 0;
+    private static final int BOOLEAN_TYPE = 1;
+    private static final int BYTE_TYPE = 2;
+    private static final int SHORT_TYPE = 3;
+    private static final int CHARACTER_TYPE = 4;
+    private static final int INTEGER_TYPE = 5;
+    private static final int LONG_TYPE = 6;
+    private static final int FLOAT_TYPE = 7;
+    private static final int DOUBLE_TYPE = 8;
+    private static final int STRING_TYPE = 9;
+    private static final int BYTE_ARRAY_TYPE = 10;
+    private static final int TAGGED_TYPE = 11;
+    private static final int READ_CHUNK = 8192;         // Byte letti prima di fidarsi di una lunghezza più grande
+
+    /** Codec per {@code Boolean}: un byte. */
+    public static final HElementCodec BOOLEAN = new TypeCodec(BOOLEAN_TYPE);
+
+    /** Codec per {@code Byte}: un byte. */
+    public static final HElementCodec BYTE = new TypeCodec(BYTE_TYPE);
+
+    /** Codec per {@code Short}: due byte. */
+    public static final HElementCodec SHORT = new TypeCodec(SHORT_TYPE);
+
+    /** Codec per {@code Character}: due byte. */
+    public static final HElementCodec CHARACTER = new TypeCodec(CHARACTER_TYPE);
+
+    /** Codec per {@code Integer}: da 1 a 5 byte, meno per i valori piccoli in valore assoluto. */
+    public static final HElementCodec INTEGER = new TypeCodec(INTEGER_TYPE);
+
+    /** Codec per {@code Long}: da 1 a 10 byte, meno per i valori piccoli in valore assoluto. */
+    public static final HElementCodec LONG = new TypeCodec(LONG_TYPE);
+
+    /** Codec per {@code Float}: quattro byte. */
+    public static final HElementCodec FLOAT = new TypeCodec(FLOAT_TYPE);
+
+    /** Codec per {@code Double}: otto byte. */
+    public static final HElementCodec DOUBLE = new TypeCodec(DOUBLE_TYPE);
+
+    /** Codec per {@code String}: lunghezza in byte seguita dalla codifica UTF-8. */
+    public static final HElementCodec STRING = new TypeCodec(STRING_TYPE);
+
+    /** Codec per {@code byte[]}: lunghezza seguita dai byte. */
+    public static final HElementCodec BYTE_ARRAY = new TypeCodec(BYTE_ARRAY_TYPE);
+
+    /**
+     * Codec per elementi null o di uno qualsiasi dei tipi supportati dagli altri codec:
+     * un byte di tipo seguito dal valore.
+     */
+    public static final HElementCodec TAGGED = new TypeCodec(TAGGED_TYPE);
+
+    private ElementCodecs()
+    {
+        // Classe di sole costanti e metodi statici
+    }
+
+    /**
+     * Restituisce un codec che ammette null, facendo precedere ogni elemento da un byte
+     * di presenza e delegando gli elementi non null al codec specificato.
+     *
+     * @param codec il codec degli elementi non null
+     * @return il codec che ammette null
+     * @throws NullPointerException se il codec è null
+     */
+    public static HElementCodec nullable(HElementCodec codec)
+    {
+        if (codec == null)
+        {
+            throw new NullPointerException("Codec cannot be null");
+        }
+        return new NullableCodec(codec);
+    }
+
+    /**
+     * Salta l'elemento successivo scritto dal codec specificato, senza creare l'oggetto per i
+     * codec di questa classe: vengono letti solo i byte necessari a trovarne la fine (il tipo,
+     * la lunghezza a lunghezza variabile di stringhe e array). Per gli altri codec l'elemento
+     * viene letto e scartato.
+     *
+     * @throws IOException se i dati terminano prima della fine dell'elemento o non sono validi
+     */
+    static void skip(HElementCodec codec, DataInput in) throws IOException
+    {
+        if (codec instanceof TypeCodec)
+        {
+            ((TypeCodec) codec).skip(in);
+        }
+        else if (codec instanceof NullableCodec)
+        {
+            if (in.readBoolean())
+            {
+                skip(((NullableCodec) codec).codec, in);
+            }
+        }
+        else
+        {
+            codec.read(in);
+        }
+    }
+
+    /**
+     * Codec che ammette null restituito da {@link ElementCodecs#nullable(HElementCodec)}.
+     */
+    private static final class NullableCodec implements HElementCodec
+    {
+        private final HElementCodec codec;      // Codec degli elementi non null
+
+        NullableCodec(HElementCodec codec)
+        {
+            this.codec = codec;
+        }
+
+        public void write(DataOutput out, Object element) throws IOException
+        {
+            out.writeBoolean(element != null);
+            if (element != null)
+            {
+                codec.write(out, element);
+            }
+        }
+
+        public Object read(DataInput in) throws IOException
+        {
+            return in.readBoolean() ? codec.read(in) : null;
+        }
+    }
+
+    // =============== INTERI A LUNGHEZZA VARIABILE ===============
+
+    /**
+     * Scrive un intero senza segno in gruppi di 7 bit, dal meno significativo; il bit alto di
+     * ogni byte indica che segue un altro byte. È il formato del numero di elementi di
+     * {@link ListAdapter#writeTo(DataOutput, HElementCodec)}, per chi scrive lo stesso formato
+     * senza una {@code ListAdapter}, ad esempio da un iteratore.
+     *
+     * @param out la destinazione dei dati
+     * @param value l'intero da scrivere
+     * @throws IOException se la scrittura non riesce
+     */
+    public static void writeVarInt(DataOutput out, int value) throws IOException
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Legge un intero scritto da {@link #writeVarInt(DataOutput, int)}.
+     *
+     * @throws IOException se la codifica supera i 5 byte
+     */
+    static int readVarInt(DataInput in) throws IOException
+    {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length int");
+    }
+
+    /**
+     * Legge una lunghezza scritta da {@link #writeVarInt(DataOutput, int)}.
+     *
+     * @throws IOException se la lunghezza è negativa
+     */
+    static int readLength(DataInput in) throws IOException
+    {
+        int length = readVarInt(in);
+        if (length < 0)
+        {
+            throw new IOException("Negative length: " + length);
+        }
+        return length;
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length long");
+    }
+
+    /**
+     * Codec di un singolo tipo, oppure di tutti i tipi con un byte di tipo iniziale se
+     * {@code type} è {@link #TAGGED_TYPE}.
+     */
+    private static final class TypeCodec implements HElementCodec
+    {
+        private final int type;     // Uno dei valori *_TYPE
+
+        TypeCodec(int type)
+        {
+            this.type = type;
+        }
+
+        public void write(DataOutput out, Object element) throws IOException
+        {
+            if (type == TAGGED_TYPE)
+            {
+                int tag = typeOf(element);
+                out.writeByte(tag);
+                if (tag != NULL)
+                {
+                    writeValue(out, tag, element);
+                }
+            }
+            else
+            {
+                if (element == null)
+                {
+                    throw new NullPointerException("Element cannot be null");
+                }
+                writeValue(out, type, element);
+            }
+        }
+
+        public Object read(DataInput in) throws IOException
+        {
+            if (type == TAGGED_TYPE)
+            {
+                int tag = in.readUnsignedByte();
+                if (tag == NULL)
+                {
+                    return null;
+                }
+                if (tag > BYTE_ARRAY_TYPE)
+                {
+                    throw new IOException("Unknown element tag: " + tag);
+                }
+                return readValue(in, tag);
+            }
+            return readValue(in, type);
+        }
+
+        /**
+         * Salta un elemento leggendo solo il tipo e, per stringhe e array, la lunghezza.
+         */
+        void skip(DataInput in) throws IOException
+        {
+            int tag = type;
+            if (type == TAGGED_TYPE)
+            {
+                tag = in.readUnsignedByte();
+                if (tag == NULL)
+                {
+                    return;
+                }
+                if (tag > BYTE_ARRAY_TYPE)
+                {
+                    throw new IOException("Unknown element tag: " + tag);
+                }
+            }
+            int bytes;
+            switch (tag)
+            {
+                case BOOLEAN_TYPE:
+                case BYTE_TYPE:
+                    bytes = 1;
+                    break;
+                case SHORT_TYPE:
+                case CHARACTER_TYPE:
+                    bytes = 2;
+                    break;
+                case INTEGER_TYPE:
+                    readVarInt(in);
+                    return;
+                case LONG_TYPE:
+                    readVarLong(in);
+                    return;
+                case FLOAT_TYPE:
+                    bytes = 4;
+                    break;
+                case DOUBLE_TYPE:
+                    bytes = 8;
+                    break;
+                default:                    // Stringhe e array di byte
+                    bytes = readLength(in);
+                    break;
+            }
+            if (in.skipBytes(bytes) != bytes)
+            {
+                throw new EOFException("Truncated element");
+            }
+        }
+
+        private static int typeOf(Object element)
+        {
+            if (element == null)
+            {
+                return NULL;
+            }
+            if (element instanceof String)
+            {
+                return STRING_TYPE;
+            }
+            if (element instanceof Integer)
+            {
+                return INTEGER_TYPE;
+            }
+            if (element instanceof Long)
+            {
+                return LONG_TYPE;
+            }
+            if (element instanceof Boolean)
+            {
+                return BOOLEAN_TYPE;
+            }
+            if (element instanceof Byte)
+            {
+                return BYTE_TYPE;
+            }
+            if (element instanceof Short)
+            {
+                return SHORT_TYPE;
+            }
+            if (element instanceof Character)
+            {
+                return CHARACTER_TYPE;
+            }
+            if (element instanceof Float)
+            {
+                return FLOAT_TYPE;
+            }
+            if (element instanceof Double)
+            {
+                return DOUBLE_TYPE;
+            }
+            if (element instanceof byte[])
+            {
+                return BYTE_ARRAY_TYPE;
+            }
+            throw new IllegalArgumentException("Unsupported element type: " + element.getClass().getName());
+        }
+
+        private static void writeValue(DataOutput out, int type, Object element) throws IOException
+        {
+            try
+            {
+                switch (type)
+                {
+                    case BOOLEAN_TYPE:
+                        out.writeBoolean(((Boolean) element).booleanValue());
+                        break;
+                    case BYTE_TYPE:
+                        out.writeByte(((Byte) element).byteValue());
+                        break;
+                    case SHORT_TYPE:
+                        out.writeShort(((Short) element).shortValue());
+                        break;
+                    case CHARACTER_TYPE:
+                        out.writeChar(((Character) element).charValue());
+                        break;
+                    case INTEGER_TYPE:
+                        int i = ((Integer) element).intValue();
+                        writeVarInt(out, (i << 1) ^ (i >> 31));             // Zig-zag
+                        break;
+                    case LONG_TYPE:
+                        long l = ((Long) element).longValue();
+                        writeVarLong(out, (l << 1) ^ (l >> 63));            // Zig-zag
+                        break;
+                    case FLOAT_TYPE:
+                        out.writeFloat(((Float) element).floatValue());
+                        break;
+                    case DOUBLE_TYPE:
+                        out.writeDouble(((Double) element).doubleValue());
+                        break;
+                    case STRING_TYPE:
+                        byte[] utf8 = ((String) element).getBytes("UTF-8");
+                        writeVarInt(out, utf8.length);
+                        out.write(utf8);
+                        break;
+                    default:
+                        byte[] bytes = (byte[]) element;
+                        writeVarInt(out, bytes.length);
+                        out.write(bytes);
+                        break;
+                }
+            }
+            catch (ClassCastException e)
+            {
+                throw new IllegalArgumentException("Unsupported element type: " + element.getClass().getName());
+            }
+        }
+
+        @SuppressWarnings("removal")    // CLDC 1.1 non dispone dei metodi valueOf dei wrapper
+        private static Object readValue(DataInput in, int type) throws IOException
+        {
+            switch (type)
+            {
+                case BOOLEAN_TYPE:
+                    return in.readBoolean() ? Boolean.TRUE : Boolean.FALSE;
+                case BYTE_TYPE:
+                    return new Byte(in.readByte());
+                case SHORT_TYPE:
+                    return new Short(in.readShort());
+                case CHARACTER_TYPE:
+                    return new Character(in.readChar());
+                case INTEGER_TYPE:
+                    int i = readVarInt(in);
+                    return new Integer((i >>> 1) ^ -(i & 1));
+                case LONG_TYPE:
+                    long l = readVarLong(in);
+                    return new Long((l >>> 1) ^ -(l & 1));
+                case FLOAT_TYPE:
+                    return new Float(in.readFloat());
+                case DOUBLE_TYPE:
+                    return new Double(in.readDouble());
+                case STRING_TYPE:
+                    return new String(readBytes(in), "UTF-8");
+                default:
+                    return readBytes(in);
+            }
+        }
+
+        /**
+         * Legge i byte di una stringa o di un array preceduti dalla lunghezza. La lunghezza non
+         * è verificata: l'array parte da {@code READ_CHUNK} byte e raddoppia man mano che i byte
+         * vengono letti, così che una lunghezza danneggiata produca {@code EOFException} invece
+         * di allocare la memoria che indica.
+         */
+        private static byte[] readBytes(DataInput in) throws IOException
+        {
+            int length = readLength(in);
+            byte[] bytes = new byte[Math.min(length, READ_CHUNK)];
+            int read = 0;
+            while (true)
+            {
+                in.readFully(bytes, read, bytes.length - read);
+                read = bytes.length;
+                if (read == length)
+                {
+                    return bytes;
+                }
+                byte[] grown = new byte[(int) Math.min(length, 2L * read)];
+                System.arraycopy(bytes, 0, grown, 0, read);
+                bytes = grown;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Rappresenta un'operazione che combina due elementi in un risultato dello stesso tipo.
+ * <p>
+ * Replica il ruolo di {@code java.util.function.BinaryOperator} (non disponibile in CLDC 1.1)
+ * ed è usata per le riduzioni sugli elementi di una lista.
+ * </p>
+ *
+ * @see HConsumer
+ */
+public interface HBinaryOperator 
+{
+    /**
+     * Applica l'operazione ai due argomenti specificati.
+     *
+     * @param left il primo argomento
+     * @param right il secondo argomento
+     * @return il risultato della combinazione
+     */
+    Object apply(Object left, Object right);
+}
@@ -0,0 +1,29 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Una funzione di confronto che impone un ordinamento totale su una collezione di oggetti.
+ * <p>
+ * Replica {@code java.util.Comparator} di J2SE 1.4.2, non disponibile in CLDC 1.1.
+ * Poiché CLDC 1.1 non dispone nemmeno di {@code java.lang.Comparable}, l'ordinamento
+ * degli elementi di una {@link HList} richiede sempre un {@code HComparator} esplicito.
+ * </p>
+ *
+ * @see HList#sort(HComparator)
+ */
+public interface HComparator 
+{
+    /**
+     * Confronta i due argomenti per determinarne l'ordine. Restituisce un intero negativo,
+     * zero o un intero positivo se il primo argomento è rispettivamente minore, uguale
+     * o maggiore del secondo.
+     *
+     * @param o1 il primo oggetto da confrontare
+     * @param o2 il secondo oggetto da confrontare
+     * @return un intero negativo, zero o un intero positivo se il primo argomento è
+     *         minore, uguale o maggiore del secondo
+     * @throws ClassCastException se i tipi degli argomenti impediscono il confronto
+     */
+    int compare(Object o1, Object o2);
+}
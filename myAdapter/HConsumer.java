@@ -0,0 +1,22 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Rappresenta un'operazione che accetta un singolo elemento e non restituisce risultati.
+ * <p>
+ * Replica il ruolo di {@code java.util.function.Consumer} (non disponibile in CLDC 1.1)
+ * ed è usata come azione da applicare agli elementi visitati da un {@link HSpliterator}.
+ * </p>
+ *
+ * @see HSpliterator
+ */
+public interface HConsumer 
+{
+    /**
+     * Esegue l'operazione sull'elemento specificato.
+     *
+     * @param o l'elemento su cui eseguire l'operazione (può essere null)
+     */
+    void accept(Object o);
+}
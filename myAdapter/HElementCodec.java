@@ -0,0 +1,42 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Codifica e decodifica in formato binario gli elementi di una lista.
+ * <p>
+ * Usato da {@link ListAdapter#writeTo(DataOutput, HElementCodec)} e
+ * {@link ListAdapter#readFrom(DataInput, HElementCodec)}: la lista scrive la propria dimensione,
+ * mentre il codec scrive e legge i singoli elementi. {@code java.io.DataInput} e
+ * {@code java.io.DataOutput} sono disponibili in CLDC 1.1. I codec per i tipi più comuni
+ * sono in {@link ElementCodecs}.
+ * </p>
+ *
+ * @see ElementCodecs
+ */
+public interface HElementCodec
+{
+    /**
+     * Scrive l'elemento specificato.
+     *
+     * @param out la destinazione dei dati
+     * @param element l'elemento da scrivere
+     * @throws IOException se la scrittura non riesce
+     * @throws IllegalArgumentException se il codec non supporta il tipo dell'elemento
+     * @throws NullPointerException se l'elemento è null e il codec non ammette null
+     */
+    void write(DataOutput out, Object element) throws IOException;
+
+    /**
+     * Legge un elemento scritto da {@link #write(DataOutput, Object)}.
+     *
+     * @param in la sorgente dei dati
+     * @return l'elemento letto
+     * @throws IOException se la lettura non riesce o i dati non sono validi
+     */
+    Object read(DataInput in) throws IOException;
+}
@@ -0,0 +1,22 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Rappresenta una funzione che associa un oggetto a un indice intero.
+ * <p>
+ * Replica il ruolo di {@code java.util.function.IntFunction} (non disponibile in CLDC 1.1).
+ * </p>
+ *
+ * @see LazyListAdapter
+ */
+public interface HIntFunction 
+{
+    /**
+     * Restituisce l'oggetto associato all'indice specificato.
+     *
+     * @param index l'indice
+     * @return l'oggetto associato all'indice (può essere null)
+     */
+    Object apply(int index);
+}
@@ -202,4 +202,16 @@ public interface HList extends HCollection
      *         (fromIndex &lt; 0 || toIndex &gt; size || fromIndex &gt; toIndex)
      */
     HList subList(int fromIndex, int toIndex);
+
+    /**
+     * Ordina questa lista secondo l'ordine indotto dal comparatore specificato (operazione opzionale).
+     * L'ordinamento è stabile: elementi uguali secondo il comparatore mantengono il loro ordine relativo.
+     * Per una vista ottenuta con {@link #subList(int, int)} viene ordinato solo l'intervallo della vista.
+     *
+     * @param c il comparatore che determina l'ordine degli elementi
+     * @throws myExceptions.UnsupportedOperationException se l'operazione sort non è supportata da questa lista
+     * @throws ClassCastException se la lista contiene elementi non confrontabili tramite il comparatore
+     * @throws NullPointerException se il comparatore specificato è null
+     */
+    void sort(HComparator c);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Rappresenta una condizione booleana su un singolo elemento.
+ * <p>
+ * Replica il ruolo di {@code java.util.function.Predicate} (non disponibile in CLDC 1.1).
+ * </p>
+ *
+ * @see HConsumer
+ */
+public interface HPredicate 
+{
+    /**
+     * Valuta la condizione sull'elemento specificato.
+     *
+     * @param o l'elemento da valutare (può essere null)
+     * @return true se l'elemento soddisfa la condizione, false altrimenti
+     */
+    boolean test(Object o);
+}
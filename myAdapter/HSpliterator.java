@@ -0,0 +1,84 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Un oggetto per attraversare e partizionare gli elementi di una sorgente, sul modello di
+ * {@code java.util.Spliterator} (introdotto in J2SE 8 e non disponibile in CLDC 1.1).
+ * <p>
+ * Un {@code HSpliterator} può visitare gli elementi uno alla volta con {@link #tryAdvance(HConsumer)}
+ * o in blocco con {@link #forEachRemaining(HConsumer)}, e può cedere una parte dei suoi elementi
+ * a un nuovo {@code HSpliterator} con {@link #trySplit()}, in modo che intervalli disgiunti
+ * della sorgente possano essere elaborati da esecutori indipendenti.
+ * </p>
+ * <p>
+ * Le costanti delle caratteristiche hanno gli stessi valori di quelle di {@code java.util.Spliterator}.
+ * </p>
+ *
+ * @see HConsumer
+ * @see ListAdapter#spliterator()
+ */
+public interface HSpliterator 
+{
+    /**
+     * Caratteristica che indica che gli elementi hanno un ordine definito (quello della lista).
+     */
+    int ORDERED = 0x00000010;
+
+    /**
+     * Caratteristica che indica che {@link #estimateSize()}, prima di qualsiasi attraversamento
+     * o partizionamento, restituisce il numero esatto di elementi.
+     */
+    int SIZED = 0x00000040;
+
+    /**
+     * Caratteristica che indica che tutti gli {@code HSpliterator} ottenuti da {@link #trySplit()}
+     * sono a loro volta {@link #SIZED} e {@code SUBSIZED}.
+     */
+    int SUBSIZED = 0x00004000;
+
+    /**
+     * Se esiste un elemento rimanente, esegue l'azione specificata su di esso e restituisce true;
+     * altrimenti restituisce false.
+     *
+     * @param action l'azione da eseguire
+     * @return false se non ci sono elementi rimanenti, true altrimenti
+     * @throws NullPointerException se l'azione specificata è null
+     */
+    boolean tryAdvance(HConsumer action);
+
+    /**
+     * Esegue l'azione specificata su ogni elemento rimanente, nell'ordine della sorgente,
+     * finché tutti gli elementi non sono stati elaborati.
+     *
+     * @param action l'azione da eseguire
+     * @throws NullPointerException se l'azione specificata è null
+     */
+    void forEachRemaining(HConsumer action);
+
+    /**
+     * Se questo {@code HSpliterator} può essere partizionato, restituisce un nuovo
+     * {@code HSpliterator} che copre il prefisso dei suoi elementi, che non saranno più
+     * coperti da questo. Altrimenti restituisce null.
+     *
+     * @return un {@code HSpliterator} che copre una parte degli elementi, o null se non è possibile partizionare
+     */
+    HSpliterator trySplit();
+
+    /**
+     * Restituisce una stima del numero di elementi che sarebbero visitati da
+     * {@link #forEachRemaining(HConsumer)}. Se questo {@code HSpliterator} è {@link #SIZED}
+     * la stima è esatta.
+     *
+     * @return il numero (stimato) di elementi rimanenti
+     */
+    long estimateSize();
+
+    /**
+     * Restituisce l'insieme delle caratteristiche di questo {@code HSpliterator},
+     * come combinazione in OR delle costanti {@link #ORDERED}, {@link #SIZED} e {@link #SUBSIZED}.
+     *
+     * @return le caratteristiche di questo {@code HSpliterator}
+     */
+    int characteristics();
+}
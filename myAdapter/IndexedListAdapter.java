@@ -0,0 +1,584 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.util.Hashtable;
+import java.util.Vector;
+
+/**
+ * Una {@link ListAdapter} che mantiene un indice hash dagli elementi alle posizioni in cui compaiono,
+ * così che {@link #contains(Object)}, {@link #indexOf(Object)} e {@link #lastIndexOf(Object)} non
+ * debbano scorrere la lista.
+ * <p>
+ * L'indice è un {@code java.util.Hashtable} (disponibile in CLDC 1.1) che associa a ogni elemento
+ * distinto l'elenco ordinato delle sue occorrenze. Le posizioni non vengono memorizzate come interi,
+ * che un inserimento in mezzo alla lista costringerebbe ad aggiornare per tutti gli elementi
+ * successivi: ogni occorrenza è un nodo di un albero bilanciato (un treap implicito) che contiene le
+ * occorrenze nell'ordine della lista e conosce la dimensione di ogni sottoalbero. La posizione di
+ * un'occorrenza è il numero di nodi che la precedono, calcolato risalendo l'albero in O(log n), e
+ * inserimenti, rimozioni e sostituzioni in qualsiasi punto aggiornano l'albero e l'indice in
+ * O(log n) senza spostare alcuna posizione memorizzata. Inserimenti in testa e ricerche possono
+ * quindi alternarsi senza mai reindicizzare la lista.
+ * </p>
+ * <p>
+ * Le scritture dirette sul {@code Vector} (ordinamento, compattazione degli iteratori) possono
+ * spostare qualsiasi elemento successivo alla prima posizione modificata: l'indice scarta i nodi da
+ * quella posizione in poi, e il suffisso non indicizzato viene reindicizzato pigramente, una sola
+ * volta, alla prima ricerca che ne ha bisogno. {@link #indexOf(Object)} risponde senza reindicizzare
+ * quando l'elemento compare nel prefisso indicizzato.
+ * </p>
+ * <p>
+ * Gli elementi vengono confrontati con {@code equals} e {@code hashCode}, come in
+ * {@link ListAdapter#indexOf(Object)}: un elemento il cui {@code hashCode} cambia mentre è nella
+ * lista non viene più trovato. Gli elementi null sono ammessi. L'indice occupa un nodo per elemento
+ * più una voce per ogni elemento distinto.
+ * </p>
+ *
+ * @see myAdapter.ListAdapter
+ */
+public class IndexedListAdapter extends ListAdapter
+{
+    /** Chiave usata nell'indice al posto di null, che {@code Hashtable} non ammette. */
+    private static final Object NULL_KEY = new Object();
+
+    private final Hashtable index = new Hashtable();    // Elemento -> occorrenze (Positions)
+    private Node root;                                  // Occorrenze del prefisso indicizzato, nell'ordine della lista
+    private Node splitRight;                            // Parte destra restituita da split
+    private int seed = 0x2545F491;                      // Stato del generatore delle priorità
+
+    /**
+     * Costruisce una lista indicizzata vuota.
+     */
+    public IndexedListAdapter()
+    {
+        super();
+    }
+
+    /**
+     * Costruisce una lista indicizzata vuota con la capacità iniziale specificata.
+     *
+     * @param initialCapacity la capacità iniziale della lista
+     * @throws IllegalArgumentException se la capacità iniziale specificata è negativa
+     */
+    public IndexedListAdapter(int initialCapacity)
+    {
+        super(initialCapacity);
+    }
+
+    /**
+     * Restituisce il numero di elementi iniziali della lista coperti dall'indice. Gli elementi
+     * successivi vengono indicizzati alla prima ricerca che ne ha bisogno.
+     *
+     * @return la lunghezza del prefisso indicizzato
+     */
+    public int indexedSize()
+    {
+        return size(root);
+    }
+
+    /**
+     * Aggiunge l'elemento in coda alla lista. Se l'indice copre tutta la lista, la nuova
+     * occorrenza viene registrata in O(log n).
+     *
+     * @param o elemento da aggiungere
+     * @return true
+     */
+    public boolean add(Object o)
+    {
+        settle();
+        if (size(root) == storage().size())
+        {
+            append(o);
+        }
+        return super.add(o);
+    }
+
+    /**
+     * Inserisce l'elemento nella posizione specificata. Se la posizione cade nel prefisso
+     * indicizzato, l'occorrenza viene inserita nell'albero in O(log n) e le posizioni degli
+     * elementi successivi si spostano senza essere toccate.
+     *
+     * @param index indice al quale l'elemento deve essere inserito
+     * @param element elemento da inserire
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt; size())
+     */
+    public void add(int index, Object element)
+    {
+        settle();
+        if (index == storage().size())
+        {
+            add(element);
+            return;
+        }
+        super.add(index, element);      // Verifica l'indice prima di toccare l'albero
+        if (index <= size(root))
+        {
+            insert(index, element);
+        }
+    }
+
+    /**
+     * Sostituisce l'elemento nella posizione specificata, spostando nell'indice solo l'occorrenza
+     * sostituita.
+     *
+     * @param index indice dell'elemento da sostituire
+     * @param element elemento da memorizzare alla posizione specificata
+     * @return l'elemento precedentemente alla posizione specificata
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt;= size())
+     */
+    public Object set(int index, Object element)
+    {
+        Object old = super.set(index, element);
+        if (index < size(root))
+        {
+            Node node = nodeAt(index);
+            unregister(node);
+            node.key = keyOf(element);
+            positionsOf(element, true).insert(node);
+        }
+        return old;
+    }
+
+    /**
+     * Rimuove l'elemento nella posizione specificata. Se la posizione cade nel prefisso
+     * indicizzato, l'occorrenza viene rimossa dall'albero e dall'indice in O(log n).
+     *
+     * @param index l'indice dell'elemento da rimuovere
+     * @return l'elemento che è stato rimosso dalla lista
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt;= size())
+     */
+    public Object remove(int index)
+    {
+        Object removed = super.remove(index);
+        if (index < size(root))
+        {
+            unregister(nodeAt(index));
+            Node left = split(root, index);
+            Node right = splitRight;
+            split(right, 1);                // Scarta il nodo rimosso
+            root = merge(left, splitRight);
+        }
+        return removed;
+    }
+
+    /**
+     * Rimuove la prima occorrenza dell'elemento specificato, trovandola tramite l'indice.
+     *
+     * @param o elemento da rimuovere, se presente
+     * @return true se un elemento è stato rimosso
+     */
+    public boolean remove(Object o)
+    {
+        int i = indexOf(o);
+        if (i == -1)
+        {
+            return false;
+        }
+        remove(i);
+        return true;
+    }
+
+    /**
+     * Rimuove tutti gli elementi dalla lista e svuota l'indice.
+     */
+    public void clear()
+    {
+        super.clear();
+        index.clear();
+        root = null;
+    }
+
+    /**
+     * Restituisce true se la lista contiene l'elemento specificato, cercandolo nell'indice.
+     *
+     * @param o elemento di cui verificare la presenza
+     * @return true se la lista contiene l'elemento specificato
+     */
+    public boolean contains(Object o)
+    {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * Restituisce l'indice della prima occorrenza dell'elemento specificato, o -1 se assente.
+     * Se l'elemento compare nel prefisso indicizzato la sua prima occorrenza viene restituita
+     * subito; altrimenti il suffisso non indicizzato viene prima reindicizzato.
+     *
+     * @param o elemento da cercare
+     * @return l'indice della prima occorrenza dell'elemento, o -1 se la lista non lo contiene
+     */
+    public int indexOf(Object o)
+    {
+        settle();
+        Positions positions = positionsOf(o, false);
+        if (positions == null)
+        {
+            reindex();
+            positions = positionsOf(o, false);
+        }
+        return positions == null ? -1 : rank(positions.data[0]);
+    }
+
+    /**
+     * Restituisce l'indice dell'ultima occorrenza dell'elemento specificato, o -1 se assente,
+     * reindicizzando prima l'eventuale suffisso non indicizzato.
+     *
+     * @param o elemento da cercare
+     * @return l'indice dell'ultima occorrenza dell'elemento, o -1 se la lista non lo contiene
+     */
+    public int lastIndexOf(Object o)
+    {
+        settle();
+        reindex();
+        Positions positions = positionsOf(o, false);
+        return positions == null ? -1 : rank(positions.data[positions.size - 1]);
+    }
+
+    // =============== SUPPORTO ALLE OPERAZIONI DIFFERITE ===============
+
+    /**
+     * Un blocco inserito nel prefisso indicizzato viene inserito nell'albero elemento per elemento.
+     */
+    void addBlock(int index, Object[] block, int length)
+    {
+        super.addBlock(index, block, length);
+        if (index <= size(root))
+        {
+            for (int i = 0; i < length; i++)
+            {
+                insert(index + i, block[i]);
+            }
+        }
+    }
+
+    /**
+     * Le scritture dirette sul Vector (ordinamento, compattazione) scartano le occorrenze
+     * indicizzate dalla posizione modificata in poi.
+     */
+    void storageChanged(int position)
+    {
+        super.storageChanged(position);
+        truncate(position);
+    }
+
+    // =============== METODI PRIVATI DI SUPPORTO ===============
+
+    /**
+     * Registra in coda al prefisso indicizzato un'occorrenza dell'elemento.
+     */
+    private void append(Object element)
+    {
+        Node node = new Node(keyOf(element), nextPriority());
+        root = merge(root, node);
+        positionsOf(element, true).add(node);
+    }
+
+    /**
+     * Registra un'occorrenza dell'elemento nella posizione specificata del prefisso indicizzato.
+     */
+    private void insert(int position, Object element)
+    {
+        Node node = new Node(keyOf(element), nextPriority());
+        Node left = split(root, position);
+        root = merge(merge(left, node), splitRight);
+        positionsOf(element, true).insert(node);
+    }
+
+    /**
+     * Scarta le occorrenze indicizzate dalla posizione specificata in poi. Nell'elenco di ogni
+     * elemento le occorrenze scartate sono le ultime, perché seguono tutte quelle che restano.
+     */
+    private void truncate(int position)
+    {
+        if (position >= size(root))
+        {
+            return;
+        }
+        root = split(root, position);
+        Vector pending = new Vector();
+        pending.addElement(splitRight);
+        while (!pending.isEmpty())
+        {
+            Node node = (Node) pending.elementAt(pending.size() - 1);
+            pending.removeElementAt(pending.size() - 1);
+            Positions positions = (Positions) index.get(node.key);
+            positions.data[--positions.size] = null;
+            if (positions.size == 0)
+            {
+                index.remove(node.key);
+            }
+            if (node.left != null)
+            {
+                pending.addElement(node.left);
+            }
+            if (node.right != null)
+            {
+                pending.addElement(node.right);
+            }
+        }
+    }
+
+    /**
+     * Indicizza il suffisso della lista che segue il prefisso indicizzato.
+     */
+    private void reindex()
+    {
+        Vector vector = storage();
+        int size = vector.size();
+        for (int i = size(root); i < size; i++)
+        {
+            append(vector.elementAt(i));
+        }
+    }
+
+    /**
+     * Toglie l'occorrenza dall'elenco del suo elemento, eliminando l'elenco se resta vuoto.
+     */
+    private void unregister(Node node)
+    {
+        Positions positions = (Positions) index.get(node.key);
+        positions.remove(node);
+        if (positions.size == 0)
+        {
+            index.remove(node.key);
+        }
+    }
+
+    private static Object keyOf(Object o)
+    {
+        return o == null ? NULL_KEY : o;
+    }
+
+    /**
+     * Restituisce le occorrenze registrate per l'elemento, creandone l'elenco se richiesto.
+     *
+     * @return le occorrenze dell'elemento, oppure null se assenti e {@code create} è false
+     */
+    private Positions positionsOf(Object o, boolean create)
+    {
+        Object key = keyOf(o);
+        Positions positions = (Positions) index.get(key);
+        if (positions == null && create)
+        {
+            positions = new Positions();
+            index.put(key, positions);
+        }
+        return positions;
+    }
+
+    // =============== TREAP IMPLICITO ===============
+
+    /**
+     * Priorità casuale di un nuovo nodo (xorshift a 32 bit), che mantiene l'albero bilanciato
+     * con alta probabilità.
+     */
+    private int nextPriority()
+    {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private static int size(Node node)
+    {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Restituisce la posizione nella lista dell'occorrenza specificata: i nodi del suo sottoalbero
+     * sinistro più, per ogni antenato di cui si trova a destra, l'antenato e il suo sottoalbero sinistro.
+     */
+    private static int rank(Node node)
+    {
+        int rank = size(node.left);
+        while (node.parent != null)
+        {
+            if (node == node.parent.right)
+            {
+                rank += size(node.parent.left) + 1;
+            }
+            node = node.parent;
+        }
+        return rank;
+    }
+
+    /**
+     * Restituisce l'occorrenza indicizzata nella posizione specificata.
+     */
+    private Node nodeAt(int position)
+    {
+        Node node = root;
+        while (true)
+        {
+            int left = size(node.left);
+            if (position < left)
+            {
+                node = node.left;
+            }
+            else if (position == left)
+            {
+                return node;
+            }
+            else
+            {
+                position -= left + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Divide l'albero nelle prime {@code count} occorrenze, restituite, e nelle successive,
+     * lasciate in {@link #splitRight}. Entrambe le radici restano senza padre.
+     */
+    private Node split(Node node, int count)
+    {
+        if (node == null)
+        {
+            splitRight = null;
+            return null;
+        }
+        if (count <= size(node.left))
+        {
+            Node left = split(node.left, count);
+            node.left = splitRight;
+            if (splitRight != null)
+            {
+                splitRight.parent = node;
+            }
+            node.update();
+            node.parent = null;
+            splitRight = node;
+            if (left != null)
+            {
+                left.parent = null;
+            }
+            return left;
+        }
+        Node right = node.right;
+        Node left = split(right, count - size(node.left) - 1);
+        node.right = left;
+        if (left != null)
+        {
+            left.parent = node;
+        }
+        node.update();
+        node.parent = null;
+        if (splitRight != null)
+        {
+            splitRight.parent = null;
+        }
+        return node;
+    }
+
+    /**
+     * Unisce due alberi in cui tutte le occorrenze del primo precedono quelle del secondo.
+     */
+    private static Node merge(Node a, Node b)
+    {
+        if (a == null)
+        {
+            return b;
+        }
+        if (b == null)
+        {
+            return a;
+        }
+        if (a.priority > b.priority)
+        {
+            a.right = merge(a.right, b);
+            a.right.parent = a;
+            a.update();
+            return a;
+        }
+        b.left = merge(a, b.left);
+        b.left.parent = b;
+        b.update();
+        return b;
+    }
+
+    /**
+     * Occorrenza di un elemento nel prefisso indicizzato: nodo del treap implicito ordinato
+     * come la lista.
+     */
+    private static class Node
+    {
+        Object key;         // Chiave dell'elemento nell'indice
+        final int priority; // Priorità casuale: nessun figlio ha priorità maggiore del padre
+        Node left;
+        Node right;
+        Node parent;
+        int size = 1;       // Nodi del sottoalbero, compreso questo
+
+        Node(Object key, int priority)
+        {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        void update()
+        {
+            size = 1 + IndexedListAdapter.size(left) + IndexedListAdapter.size(right);
+        }
+    }
+
+    /**
+     * Elenco delle occorrenze di un elemento, in ordine di posizione. Non è mai vuoto
+     * finché è registrato nell'indice.
+     */
+    private static class Positions
+    {
+        Node[] data = new Node[2];  // Occorrenze, in ordine di posizione
+        int size;                   // Numero di occorrenze valide in data
+
+        /** Aggiunge un'occorrenza che segue tutte quelle presenti. */
+        void add(Node node)
+        {
+            if (size == data.length)
+            {
+                Node[] grown = new Node[size * 2];
+                System.arraycopy(data, 0, grown, 0, size);
+                data = grown;
+            }
+            data[size++] = node;
+        }
+
+        /** Inserisce un'occorrenza già presente nell'albero mantenendo l'ordine. */
+        void insert(Node node)
+        {
+            int i = search(rank(node));
+            add(node);
+            System.arraycopy(data, i, data, i + 1, size - 1 - i);
+            data[i] = node;
+        }
+
+        /** Rimuove un'occorrenza presente. */
+        void remove(Node node)
+        {
+            int i = search(rank(node));
+            System.arraycopy(data, i + 1, data, i, size - i - 1);
+            data[--size] = null;
+        }
+
+        /** Restituisce la prima posizione in data di un'occorrenza che non precede la posizione specificata. */
+        private int search(int position)
+        {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (rank(data[mid]) < position)
+                {
+                    lo = mid + 1;
+                }
+                else
+                {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
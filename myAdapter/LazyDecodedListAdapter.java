@@ -0,0 +1,282 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import myExceptions.IllegalStateException;
+import myExceptions.UnsupportedOperationException;
+
+/**
+ * Lista in sola lettura, finché non viene modificata, sui byte scritti da
+ * {@link ListAdapter#writeTo(java.io.DataOutput, HElementCodec)}, che decodifica ogni elemento
+ * solo alla prima lettura.
+ * <p>
+ * Il costruttore scorre i dati una volta per costruire l'indice delle posizioni di inizio degli
+ * elementi, senza creare gli oggetti per i codec di {@link ElementCodecs}: vengono letti solo il
+ * tipo e la lunghezza di stringhe e array. Con gli altri codec ogni elemento viene decodificato
+ * e scartato, perché non c'è altro modo di trovarne la fine. Il primo {@code get(i)} decodifica
+ * l'elemento dalla sua posizione e lo conserva, così le letture successive restituiscono lo
+ * stesso oggetto. Il caricamento costa quindi in proporzione ai byte letti invece che agli
+ * oggetti creati, e una lista di cui si legge solo una parte non crea mai gli altri elementi.
+ * Un numero di elementi superiore ai byte disponibili viene rifiutato prima di allocare l'indice.
+ * </p>
+ * <p>
+ * La prima modifica decodifica tutti gli elementi ancora da leggere e li copia in una
+ * {@link ListAdapter}, liberando i byte e l'indice (vedi {@link AbstractLazyList}). I byte non
+ * vengono copiati: l'array passato al costruttore non deve essere modificato finché la lista li usa.
+ * </p>
+ */
+public class LazyDecodedListAdapter extends AbstractLazyList
+{
+    private static final Object UNDECODED = new Object();  // Segnaposto degli elementi non ancora decodificati
+
+    private int[] offsets;          // Inizio di ogni elemento nell'array, seguito dalla fine dell'ultimo
+    private Object[] decoded;       // Elementi già decodificati, UNDECODED per gli altri
+    private HElementCodec codec;    // Codec usato per scrivere gli elementi
+    private int decodedCount;       // Numero di elementi decodificati
+    private ByteInput input;        // Lettura posizionabile dei byte della lista
+
+    /**
+     * Costruisce la lista sui byte specificati, che devono contenere esattamente una lista
+     * scritta da {@link ListAdapter#writeTo(java.io.DataOutput, HElementCodec)}.
+     *
+     * @param data i byte della lista
+     * @param codec il codec degli elementi, lo stesso usato per scriverli
+     * @throws IOException se i dati sono troncati, non validi o seguiti da altri byte
+     * @throws NullPointerException se i byte o il codec sono null
+     */
+    public LazyDecodedListAdapter(byte[] data, HElementCodec codec) throws IOException
+    {
+        this(data, 0, data == null ? 0 : data.length, codec);
+    }
+
+    /**
+     * Costruisce la lista sui byte dell'intervallo specificato, che devono contenere esattamente
+     * una lista scritta da {@link ListAdapter#writeTo(java.io.DataOutput, HElementCodec)}.
+     *
+     * @param data l'array che contiene i byte della lista
+     * @param offset posizione del primo byte della lista
+     * @param length numero di byte della lista
+     * @param codec il codec degli elementi, lo stesso usato per scriverli
+     * @throws IOException se i dati sono troncati, non validi o seguiti da altri byte, o se il
+     *         numero di elementi supera i byte disponibili (ogni elemento occupa almeno un byte)
+     * @throws NullPointerException se i byte o il codec sono null
+     * @throws IndexOutOfBoundsException se l'intervallo non è contenuto nell'array
+     */
+    public LazyDecodedListAdapter(byte[] data, int offset, int length, HElementCodec codec) throws IOException
+    {
+        if (data == null || codec == null)
+        {
+            throw new NullPointerException("Data and codec cannot be null");
+        }
+        if (offset < 0 || length < 0 || offset > data.length - length)
+        {
+            throw new IndexOutOfBoundsException("Invalid range: " + offset + ", " + length);
+        }
+        this.codec = codec;
+        input = new ByteInput(data, offset, length);
+
+        int size = ElementCodecs.readLength(input);
+        if (size > offset + length - input.position())
+        {
+            throw new IOException("Element count exceeds the available data: " + size);
+        }
+        offsets = new int[size + 1];
+        for (int i = 0; i < size; i++)
+        {
+            offsets[i] = input.position();
+            ElementCodecs.skip(codec, input);
+        }
+        offsets[size] = input.position();
+        if (offsets[size] != offset + length)
+        {
+            throw new IOException("Unexpected data after the last element");
+        }
+        decoded = new Object[size];
+        for (int i = 0; i < size; i++)
+        {
+            decoded[i] = UNDECODED;
+        }
+    }
+
+    /**
+     * Restituisce il numero di elementi decodificati finora. Dopo la prima modifica il valore
+     * non cambia più, perché gli elementi vengono letti dalla {@link ListAdapter}.
+     *
+     * @return il numero di elementi decodificati
+     */
+    public int decodedCount()
+    {
+        return decodedCount;
+    }
+
+    int lazySize()
+    {
+        return decoded.length;
+    }
+
+    Object lazyGet(int index)
+    {
+        Object element = decoded[index];
+        if (element == UNDECODED)
+        {
+            input.seek(offsets[index]);
+            try
+            {
+                element = codec.read(input);
+            }
+            catch (IOException e)
+            {
+                throw new IllegalStateException("Cannot decode element " + index + ": " + e.getMessage());
+            }
+            if (input.position() != offsets[index + 1])
+            {
+                throw new IllegalStateException("Cannot decode element " + index + ": unexpected length");
+            }
+            decoded[index] = element;
+            decodedCount++;
+        }
+        return element;
+    }
+
+    void release()
+    {
+        offsets = null;
+        decoded = null;
+        input = null;
+    }
+
+    /**
+     * {@code DataInput} che legge direttamente da un intervallo di un array e può essere
+     * riposizionato. A differenza di {@code DataInputStream} su un {@code ByteArrayInputStream},
+     * la lettura di un valore non richiede chiamate sincronizzate per ogni byte: la costruzione
+     * dell'indice legge ogni elemento e ne beneficia direttamente.
+     */
+    private static final class ByteInput implements DataInput
+    {
+        private final byte[] data;      // Array da cui leggere
+        private final int limit;        // Fine dell'intervallo leggibile
+        private int pos;                // Posizione del prossimo byte da leggere
+
+        ByteInput(byte[] data, int offset, int length)
+        {
+            this.data = data;
+            this.pos = offset;
+            this.limit = offset + length;
+        }
+
+        int position()
+        {
+            return pos;
+        }
+
+        void seek(int position)
+        {
+            pos = position;
+        }
+
+        public void readFully(byte[] b) throws IOException
+        {
+            readFully(b, 0, b.length);
+        }
+
+        public void readFully(byte[] b, int off, int len) throws IOException
+        {
+            require(len);
+            System.arraycopy(data, pos, b, off, len);
+            pos += len;
+        }
+
+        public int skipBytes(int n)
+        {
+            int skipped = n < limit - pos ? n : limit - pos;
+            if (skipped < 0)
+            {
+                skipped = 0;
+            }
+            pos += skipped;
+            return skipped;
+        }
+
+        public boolean readBoolean() throws IOException
+        {
+            return readByte() != 0;
+        }
+
+        public byte readByte() throws IOException
+        {
+            require(1);
+            return data[pos++];
+        }
+
+        public int readUnsignedByte() throws IOException
+        {
+            return readByte() & 0xFF;
+        }
+
+        public short readShort() throws IOException
+        {
+            require(2);
+            short value = (short) (((data[pos] & 0xFF) << 8) | (data[pos + 1] & 0xFF));
+            pos += 2;
+            return value;
+        }
+
+        public int readUnsignedShort() throws IOException
+        {
+            return readShort() & 0xFFFF;
+        }
+
+        public char readChar() throws IOException
+        {
+            return (char) readUnsignedShort();
+        }
+
+        public int readInt() throws IOException
+        {
+            require(4);
+            int value = ((data[pos] & 0xFF) << 24) | ((data[pos + 1] & 0xFF) << 16)
+                        | ((data[pos + 2] & 0xFF) << 8) | (data[pos + 3] & 0xFF);
+            pos += 4;
+            return value;
+        }
+
+        public long readLong() throws IOException
+        {
+            long high = readInt();
+            return (high << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        public float readFloat() throws IOException
+        {
+            return Float.intBitsToFloat(readInt());
+        }
+
+        public double readDouble() throws IOException
+        {
+            return Double.longBitsToDouble(readLong());
+        }
+
+        public String readLine()
+        {
+            throw new UnsupportedOperationException("readLine is not supported");
+        }
+
+        public String readUTF() throws IOException
+        {
+            return DataInputStream.readUTF(this);
+        }
+
+        private void require(int bytes) throws IOException
+        {
+            if (bytes > limit - pos)
+            {
+                throw new EOFException("Truncated element");
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Lista di dimensione fissa, finché non viene modificata, i cui elementi vengono calcolati da una
+ * funzione dell'indice solo quando vengono letti.
+ * <p>
+ * Pensata per liste di valori derivati (intervalli di interi, chiavi calcolate) di cui viene
+ * consumata solo una parte: la costruzione non crea alcun elemento e ogni {@code get(i)} chiama
+ * il generatore con l'indice {@code i}. Con la memorizzazione attiva il risultato viene
+ * conservato, così il generatore viene chiamato al più una volta per indice e le letture
+ * successive restituiscono lo stesso oggetto; gli elementi conservati occupano blocchi di
+ * 1024 posizioni, allocati solo per le zone della lista effettivamente lette. Senza
+ * memorizzazione la lista non occupa memoria oltre al generatore, ma ogni lettura ripete il
+ * calcolo. Il generatore deve restituire sempre lo stesso valore per lo stesso indice.
+ * </p>
+ * <p>
+ * La prima modifica genera gli elementi mancanti e li copia in una {@link ListAdapter}, a cui
+ * vengono poi delegate tutte le operazioni (vedi {@link AbstractLazyList}); {@code clear()} non
+ * genera alcun elemento.
+ * </p>
+ *
+ * @see HIntFunction
+ */
+public class LazyListAdapter extends AbstractLazyList
+{
+    private static final Object UNGENERATED = new Object();    // Segnaposto degli elementi non ancora generati
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK = 1 << CHUNK_BITS;           // Elementi conservati in ogni blocco
+
+    private int size;                   // Numero di elementi prima della copia in una ListAdapter
+    private HIntFunction generator;     // Funzione che calcola l'elemento di ogni indice
+    private final boolean memoize;      // Indica se gli elementi generati vengono conservati
+    private Object[][] generated;       // Blocchi di elementi conservati, ciascuno allocato alla prima lettura se memoize
+    private int generatedCount;         // Numero di chiamate al generatore
+
+    /**
+     * Costruisce una lista di {@code size} elementi calcolati dal generatore, conservando gli
+     * elementi generati.
+     *
+     * @param size il numero di elementi
+     * @param generator la funzione che calcola l'elemento di ogni indice
+     * @throws IllegalArgumentException se la dimensione è negativa
+     * @throws NullPointerException se il generatore è null
+     */
+    public LazyListAdapter(int size, HIntFunction generator)
+    {
+        this(size, generator, true);
+    }
+
+    /**
+     * Costruisce una lista di {@code size} elementi calcolati dal generatore.
+     *
+     * @param size il numero di elementi
+     * @param generator la funzione che calcola l'elemento di ogni indice
+     * @param memoize true per conservare gli elementi generati, false per calcolarli a ogni lettura
+     * @throws IllegalArgumentException se la dimensione è negativa
+     * @throws NullPointerException se il generatore è null
+     */
+    public LazyListAdapter(int size, HIntFunction generator, boolean memoize)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException("Illegal size: " + size);
+        }
+        if (generator == null)
+        {
+            throw new NullPointerException("Generator cannot be null");
+        }
+        this.size = size;
+        this.generator = generator;
+        this.memoize = memoize;
+    }
+
+    /**
+     * Restituisce la lista degli interi da {@code from} incluso a {@code to} escluso, creati alla
+     * lettura senza memorizzazione.
+     *
+     * @param from il primo intero della lista
+     * @param to l'intero che segue l'ultimo della lista
+     * @return la lista degli interi dell'intervallo
+     * @throws IllegalArgumentException se {@code from > to} o l'intervallo contiene più di
+     *         {@code Integer.MAX_VALUE} interi
+     */
+    public static LazyListAdapter range(final int from, int to)
+    {
+        long length = (long) to - from;
+        if (length < 0 || length > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Illegal range: " + from + ", " + to);
+        }
+        return new LazyListAdapter((int) length, new HIntFunction()
+        {
+            @SuppressWarnings("removal")    // CLDC 1.1 non dispone di Integer.valueOf
+            public Object apply(int index)
+            {
+                return new Integer(from + index);
+            }
+        }, false);
+    }
+
+    /**
+     * Indica se gli elementi generati vengono conservati.
+     *
+     * @return true se il generatore viene chiamato al più una volta per indice
+     */
+    public boolean isMemoized()
+    {
+        return memoize;
+    }
+
+    /**
+     * Restituisce il numero di chiamate al generatore finora. Dopo la prima modifica il valore
+     * non cambia più, perché gli elementi vengono letti dalla {@link ListAdapter}.
+     *
+     * @return il numero di elementi generati
+     */
+    public int generatedCount()
+    {
+        return generatedCount;
+    }
+
+    int lazySize()
+    {
+        return size;
+    }
+
+    Object lazyGet(int index)
+    {
+        if (!memoize)
+        {
+            generatedCount++;
+            return generator.apply(index);
+        }
+        if (generated == null)
+        {
+            generated = new Object[((size - 1) >> CHUNK_BITS) + 1][];
+        }
+        Object[] chunk = generated[index >> CHUNK_BITS];
+        if (chunk == null)
+        {
+            chunk = new Object[Math.min(CHUNK, size - (index & ~(CHUNK - 1)))];
+            for (int i = 0; i < chunk.length; i++)
+            {
+                chunk[i] = UNGENERATED;
+            }
+            generated[index >> CHUNK_BITS] = chunk;
+        }
+        Object element = chunk[index & (CHUNK - 1)];
+        if (element == UNGENERATED)
+        {
+            element = generator.apply(index);
+            chunk[index & (CHUNK - 1)] = element;
+            generatedCount++;
+        }
+        return element;
+    }
+
+    void release()
+    {
+        size = 0;
+        generator = null;
+        generated = null;
+    }
+}
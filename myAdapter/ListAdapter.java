@@ -1,6 +1,9 @@
 package myAdapter;
 
 //===== IMPORTAZIONI =====
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Vector;
 /**
  * <b>Summary:</b>
@@ -50,6 +53,41 @@ public class ListAdapter implements HList
     */
     private Vector vector;
 
+    /**
+     * Operazione differita registrata su questa lista (ad esempio le rimozioni marcate da un
+     * {@link myAdapter.CompactingIterator}), oppure null se non c'è lavoro in sospeso.
+     * Viene completata da {@link #settle()} prima di ogni accesso al {@code Vector}.
+     */
+    private PendingOperation pending;
+
+    /**
+     * Codice hash di questa lista, aggiornato in modo incrementale dagli inserimenti in coda, dalle
+     * sostituzioni e dalle rimozioni dalla coda. È significativo solo se {@link #hashValid} è true;
+     * le altre modifiche lo invalidano e viene ricalcolato alla prossima chiamata di {@link #hashCode()}.
+     */
+    private int hash = 1;
+
+    /** true se {@link #hash} corrisponde agli elementi attuali della lista. */
+    private boolean hashValid = true;
+
+    /** Capacità minima iniziale del blocco letto da {@link #readFrom(DataInput, HElementCodec)}. */
+    private static final int READ_BLOCK = 1024;
+
+    /** Inverso moltiplicativo di 31 modulo 2^32: {@code 31 * INVERSE_OF_31 == 1} nell'aritmetica degli int. */
+    private static final int INVERSE_OF_31 = 0xBDEF7BDF;
+
+    /**
+     * Numero di elementi di una pagina per il tracciamento delle pagine modificate,
+     * 0 se il tracciamento è disattivato. Vedi {@link #trackDirtyPages(int)}.
+     */
+    private int pageSize;
+
+    /** Insieme di bit delle pagine modificate, 32 pagine per intero. */
+    private int[] dirtyPages;
+
+    /** Prima pagina da cui tutte le pagine sono modificate, {@code Integer.MAX_VALUE} se nessuna. */
+    private int dirtyFrom = Integer.MAX_VALUE;
+
     //===== COSTRUTTORI DISCENDENTI DA QUELLI DI VECTOR =====
 
     /**
@@ -88,6 +126,8 @@ public class ListAdapter implements HList
      */
     public void add(int index, Object element)                  
     {
+        settle();
+        boolean atEnd = index == vector.size();
         // Prova a inserire l'elemento nella posizione specificata
         try 
         {
@@ -97,6 +137,16 @@ public class ListAdapter implements HList
         {
             throw new IndexOutOfBoundsException("Index out of bounds: " + index);
         }
+        if (atEnd) 
+        {
+            hash = 31 * hash + elementHash(element);        // Inserimento in coda: aggiornamento in O(1)
+            markDirty(index);
+        }
+        else 
+        {
+            hashValid = false;                              // Sposterebbe il peso di tutti gli elementi successivi
+            markDirtyFrom(index);
+        }
     }
 
     /**
@@ -111,8 +161,11 @@ public class ListAdapter implements HList
      */
     public boolean add(Object o)                            
     {
+        settle();
         // Aggiunge l'elemento alla fine della lista
         vector.addElement(o);
+        hash = 31 * hash + elementHash(o);
+        markDirty(vector.size() - 1);
         return true;
     }
     
@@ -161,6 +214,7 @@ public class ListAdapter implements HList
      */
     public boolean addAll(int index, HCollection c) 
     {
+        settle();
         if (c == null) 
         {
             throw new NullPointerException("Collection cannot be null");
@@ -178,10 +232,7 @@ public class ListAdapter implements HList
             return false; // Se la collezione è vuota, non aggiunge nulla
         }
 
-        for (int i = 0; i < arrayObject.length; i++) 
-        {
-            this.add(index + i, arrayObject[i]);
-        }
+        this.addBlock(index, arrayObject, arrayObject.length);     // Un solo spostamento della coda
 
         return true;
     }
@@ -192,7 +243,11 @@ public class ListAdapter implements HList
      */
     public void clear() 
     {
+        settle();
         vector.removeAllElements();             // Rimuove tutti gli elementi dal Vector    
+        hash = 1;                               // Codice hash della lista vuota
+        hashValid = true;
+        markDirtyFrom(0);
     }
     
     /**
@@ -205,6 +260,7 @@ public class ListAdapter implements HList
      */
     public boolean contains(Object o) 
     {
+        settle();
         return vector.contains(o);              // Restituisce true se l'elemento è presente nel Vector
     }
     
@@ -243,6 +299,13 @@ public class ListAdapter implements HList
      * per Object.equals, i programmatori che implementano l'interfaccia Collection
      * "direttamente" devono fare attenzione se scelgono di sovrascrivere Object.equals.
      *
+     * <p>
+     * Se anche l'oggetto specificato è una {@code ListAdapter} (o una sua sottolista) il confronto
+     * legge direttamente i due {@code Vector}, senza passare da {@link #get(int)}: due viste dello
+     * stesso intervallo dello stesso Vector sono uguali senza esaminare gli elementi, e se entrambe
+     * le liste hanno un codice hash memorizzato e aggiornato due valori diversi escludono l'uguaglianza.
+     * </p>
+     *
      * @param o oggetto da confrontare per l'uguaglianza con questa collezione
      * @return true se l'oggetto specificato è uguale a questa collezione
      */
@@ -253,6 +316,11 @@ public class ListAdapter implements HList
             return true;
         }
         
+        if (o instanceof ListAdapter) 
+        {
+            return equalsAdapter((ListAdapter) o);
+        }
+
         if (!(o instanceof HList)) 
         {
             return false;
@@ -302,6 +370,7 @@ public class ListAdapter implements HList
      */
     public Object get(int index)                                    
     {
+        settle();
         // Controlla se l'indice è valido
         if (index < 0 || index >= vector.size()) 
         {
@@ -319,19 +388,33 @@ public class ListAdapter implements HList
      * i programmatori devono notare che qualsiasi classe che sovrascrive il metodo
      * Object.equals deve anche sovrascrivere il metodo Object.hashCode per soddisfare
      * il contratto generale del metodo Object.hashCode.
+     * <p>
+     * Il valore è quello polinomiale di {@code java.util.List}:
+     * {@code 31^n + e0*31^(n-1) + ... + e(n-1)} nell'aritmetica degli int. Viene mantenuto in
+     * modo incrementale: un inserimento in coda lo moltiplica per 31 e aggiunge l'hash del nuovo
+     * elemento, una sostituzione in posizione i aggiunge la differenza degli hash moltiplicata
+     * per {@code 31^(n-1-i)} (calcolata in O(log n), solo se il valore memorizzato è valido),
+     * una rimozione dalla coda sottrae l'hash dell'elemento e moltiplica per
+     * l'inverso di 31. Le altre modifiche (inserimenti e rimozioni in mezzo, ordinamento,
+     * compattazione) lo invalidano e la chiamata successiva lo ricalcola scorrendo la lista una
+     * sola volta. Chiamate ripetute senza modifiche costano quindi O(1).
+     * </p>
+     * <p>
+     * Come per le chiavi di una {@code Hashtable}, il valore memorizzato non tiene conto degli
+     * elementi il cui {@code hashCode} cambia mentre sono nella lista.
+     * </p>
      *
      * @return il valore del codice hash per questa collezione
      */
     public int hashCode() 
     {
-        int hashCode = 1;
-        HIterator i = this.iterator();
-        while (i.hasNext()) 
+        settle();
+        if (!hashValid) 
         {
-            Object obj = i.next();
-            hashCode = 31*hashCode + (obj==null ? 0 : obj.hashCode());
+            hash = rangeHash(vector, 0, vector.size());
+            hashValid = true;
         }
-        return hashCode; // Calcola l'hash code basato sugli elementi della lista
+        return hash;
     }
     
 
@@ -347,6 +430,7 @@ public class ListAdapter implements HList
      */
     public int indexOf(Object o)                      
     {
+        settle();
         return vector.indexOf(o); // Restituisce l'indice della prima occorrenza dell'elemento
     }
     
@@ -358,6 +442,7 @@ public class ListAdapter implements HList
      */
     public boolean isEmpty() 
     {
+        settle();
         return vector.isEmpty(); // Restituisce true se il Vector è vuoto
     }
     
@@ -374,6 +459,105 @@ public class ListAdapter implements HList
         return new ListIterator(this);
     }
 
+    /**
+     *
+     * Restituisce un iteratore in avanti sugli elementi di questa lista in cui le rimozioni
+     * vengono differite: {@code remove()} marca l'elemento e la lista viene compattata una
+     * sola volta al termine dell'iterazione, oppure al primo accesso successivo alla lista.
+     * Filtrare la lista durante l'iterazione costa quindi tempo lineare.
+     *
+     * @return un HIterator con rimozione differita sugli elementi di questa lista
+     * @see myAdapter.CompactingIterator
+     */
+    public HIterator compactingIterator() 
+    {
+        settle();
+        return new CompactingIterator(this);
+    }
+
+    /**
+     *
+     * Restituisce un {@link myAdapter.HSpliterator} sugli elementi di questa lista, che legge
+     * direttamente dal {@code Vector} sottostante e può essere partizionato in intervalli
+     * indipendenti con {@code trySplit()}. Lo spliterator riporta le caratteristiche
+     * {@code ORDERED}, {@code SIZED} e {@code SUBSIZED}.
+     *
+     * @return un HSpliterator sugli elementi di questa lista
+     * @see myAdapter.ListSpliterator
+     */
+    public HSpliterator spliterator() 
+    {
+        settle();
+        int origin = rootOffset();
+        return new ListSpliterator(storage(), origin, origin + size());
+    }
+
+    /**
+     *
+     * Ordina questa lista secondo l'ordine indotto dal comparatore specificato.
+     * L'ordinamento è stabile e avviene sul posto nel {@code Vector} sottostante, senza svuotare
+     * e ripopolare la lista: sfrutta le sequenze già ordinate (una lista già ordinata costa
+     * {@code n - 1} confronti) e usa un buffer di al più {@code size() / 2} riferimenti.
+     * Su una sottolista viene ordinato solo l'intervallo della sottolista.
+     *
+     * @param c il comparatore che determina l'ordine degli elementi
+     * @throws myExceptions.UnsupportedOperationException se questa è una sottolista di una lista ordinata,
+     *         come {@link myAdapter.SortedListAdapter}, il cui ordine non può essere cambiato
+     * @throws ClassCastException se la lista contiene elementi non confrontabili tramite il comparatore
+     * @throws NullPointerException se il comparatore specificato è null
+     * @see myAdapter.ListSorter
+     */
+    public void sort(HComparator c) 
+    {
+        settle();
+        if (!allowsReordering()) 
+        {
+            throw new myExceptions.UnsupportedOperationException("sort is not supported on a view of an ordered list");
+        }
+        int origin = rootOffset();
+        storageChanged(origin);
+        ListSorter.sort(storage(), origin, origin + size(), c);
+    }
+
+    /**
+     * Riordina gli elementi di questa lista tramite un array: gli elementi vengono copiati in un
+     * nuovo array, passato all'azione specificata, che deve solo permutarlo (ad esempio ordinarlo
+     * con un algoritmo parallelo), e l'array viene poi riscritto nel {@code Vector} con una sola
+     * scrittura in blocco, notificando una sola volta la modifica a codice hash, indici e digest.
+     * Il vincolo sull'ordine viene verificato prima della copia, come in {@link #sort(HComparator)}.
+     * Se l'azione lancia un'eccezione la lista resta invariata.
+     *
+     * @param reorder l'azione che riceve l'array degli elementi ({@code Object[]}) e lo permuta sul posto
+     * @throws myExceptions.UnsupportedOperationException se gli elementi di questa lista non possono
+     *         essere riordinati, come in una {@link myAdapter.SortedListAdapter} o in una sua sottolista
+     * @throws NullPointerException se l'azione è null
+     */
+    public void reorder(HConsumer reorder)
+    {
+        if (reorder == null)
+        {
+            throw new NullPointerException("Reorder action cannot be null");
+        }
+        settle();
+        if (!allowsReordering())
+        {
+            throw new myExceptions.UnsupportedOperationException("reorder is not supported on an ordered list or a view of it");
+        }
+        Vector storage = storage();
+        int origin = rootOffset();
+        Object[] elements = new Object[size()];
+        for (int i = 0; i < elements.length; i++)
+        {
+            elements[i] = storage.elementAt(origin + i);
+        }
+        reorder.accept(elements);
+        storageChanged(origin);
+        for (int i = 0; i < elements.length; i++)
+        {
+            storage.setElementAt(elements[i], origin + i);
+        }
+    }
+
     /**
      *
      * Restituisce l'indice dell'ultima occorrenza dell'elemento specificato in questa lista,
@@ -386,6 +570,7 @@ public class ListAdapter implements HList
      */
     public int lastIndexOf(Object o) 
     {
+        settle();
         return vector.lastIndexOf(o);                           // Restituisce l'indice dell'ultima occorrenza dell'elemento
     }
 
@@ -412,6 +597,7 @@ public class ListAdapter implements HList
      */
     public HListIterator listIterator(int index) 
     {
+        settle();
         if (index < 0 || index > vector.size()) 
         {
             throw new IndexOutOfBoundsException("Index out of bounds: " + index);
@@ -430,6 +616,7 @@ public class ListAdapter implements HList
      */
     public Object remove(int index) 
     {
+        settle();
         // Controlla se l'indice è valido
         if (index < 0 || index >= vector.size()) 
         {
@@ -439,6 +626,15 @@ public class ListAdapter implements HList
         // Rimuove l'elemento alla posizione specificata e lo restituisce
         Object removedElement = vector.elementAt(index);
         vector.removeElementAt(index);
+        if (index == vector.size()) 
+        {
+            hash = (hash - elementHash(removedElement)) * INVERSE_OF_31;     // Rimozione dalla coda: O(1)
+        }
+        else 
+        {
+            hashValid = false;
+        }
+        markDirtyFrom(index);
         return removedElement;
     }
     
@@ -454,8 +650,16 @@ public class ListAdapter implements HList
      */
     public boolean remove(Object o) 
     {
-        boolean removed = vector.removeElement(o);                  // Rimuove l'elemento specificato dalla collezione
-        return removed;                                             // Restituisce true se l'elemento è stato rimosso, false altrimenti
+        settle();
+        int index = vector.indexOf(o);                              // Come Vector.removeElement, ma serve la posizione
+        if (index < 0) 
+        {
+            return false;
+        }
+        vector.removeElementAt(index);
+        hashValid = false;
+        markDirtyFrom(index);
+        return true;
     }
     
     /**
@@ -476,13 +680,13 @@ public class ListAdapter implements HList
         }
 
         boolean modified = false;
-        Object[] arrayObject = c.toArray();
+        HIterator it = this.compactingIterator();     // Un'unica compattazione a fine scansione
 
-        for (int i = 0; i < arrayObject.length; i++) 
+        while (it.hasNext()) 
         {
-            // Continua a rimuovere finché l'elemento è presente
-            while (this.remove(arrayObject[i])) 
+            if (c.contains(it.next())) 
             {
+                it.remove();
                 modified = true;
             }
         }
@@ -508,15 +712,14 @@ public class ListAdapter implements HList
         }
 
         boolean modified = false;
+        HIterator it = this.compactingIterator();     // Un'unica compattazione a fine scansione
         
-        for (int i = vector.size() - 1; i >= 0; i--) 
+        while (it.hasNext()) 
         {
-            Object element = vector.elementAt(i);
-            
             // Se l'elemento NON è contenuto nella collezione c, lo rimuove
-            if (!c.contains(element)) 
+            if (!c.contains(it.next())) 
             {
-                this.remove(i);
+                it.remove();
                 modified = true;
             }
         }
@@ -536,6 +739,7 @@ public class ListAdapter implements HList
      */
     public Object set(int index, Object element) 
     {
+        settle();
         // Controlla se l'indice è valido
         if (index < 0 || index >= vector.size()) 
         {
@@ -544,6 +748,11 @@ public class ListAdapter implements HList
         // Sostituisce l'elemento alla posizione specificata e restituisce il vecchio elemento
         Object oldElement = this.get(index);
         vector.setElementAt(element, index);
+        if (hashValid) 
+        {
+            hash += (elementHash(element) - elementHash(oldElement)) * powerOf31(vector.size() - 1 - index);
+        }
+        markDirty(index);
         return oldElement;
     }
     
@@ -556,6 +765,7 @@ public class ListAdapter implements HList
      */
     public int size() 
     {
+        settle();
         // Il metodo vector.size() restituisce già un int, che ha un limite massimo di Integer.MAX_VALUE.
         // Poiché un Vector non può contenere più di Integer.MAX_VALUE elementi (a causa delle limitazioni degli array sottostanti),
         // semplicemente restituire il valore di vector.size() è corretto e soddisfa il contratto.
@@ -596,6 +806,7 @@ public class ListAdapter implements HList
      */
     public Object[] toArray()                           
     {
+        settle();
         Object[] array = new Object[vector.size()];
         for (int i = 0; i < vector.size(); i++) 
         {
@@ -618,6 +829,7 @@ public class ListAdapter implements HList
      */
     public Object[] toArray(Object[] a) 
     {
+        settle();
         if (a == null) 
         {
             throw new NullPointerException("Input array is null");
@@ -644,6 +856,436 @@ public class ListAdapter implements HList
         return result;
     }
 
+    /**
+     * Scrive gli elementi di questa lista in formato binario compatto: il numero di elementi,
+     * come intero a lunghezza variabile, seguito da ogni elemento scritto dal codec specificato.
+     * Gli elementi vengono letti direttamente dal {@code Vector}, senza iteratori.
+     *
+     * @param out la destinazione dei dati
+     * @param codec il codec degli elementi, ad esempio uno di {@link ElementCodecs}
+     * @throws IOException se la scrittura non riesce
+     * @throws NullPointerException se la destinazione o il codec sono null
+     * @throws IllegalArgumentException se il codec non supporta il tipo di un elemento
+     * @see #readFrom(DataInput, HElementCodec)
+     */
+    public void writeTo(DataOutput out, HElementCodec codec) throws IOException 
+    {
+        if (out == null || codec == null) 
+        {
+            throw new NullPointerException("Output and codec cannot be null");
+        }
+        settle();
+        Vector storage = storage();
+        int from = rootOffset();
+        int size = size();
+        ElementCodecs.writeVarInt(out, size);
+        for (int i = 0; i < size; i++) 
+        {
+            codec.write(out, storage.elementAt(from + i));
+        }
+    }
+
+    /**
+     * Legge una lista scritta da {@link #writeTo(DataOutput, HElementCodec)} e ne aggiunge gli
+     * elementi in coda a questa lista, con un unico inserimento in blocco invece della crescita
+     * progressiva di {@code add} ripetuti. Se la lettura non riesce la lista resta invariata.
+     * <p>
+     * Il numero di elementi letto dall'intestazione non viene usato per allocare il blocco
+     * finché i dati non lo confermano: il blocco parte dalla capacità libera della lista (al
+     * minimo {@value #READ_BLOCK} elementi) e raddoppia man mano che gli elementi vengono
+     * decodificati, così un'intestazione danneggiata produce una {@code IOException} invece di
+     * esaurire la memoria. Una lista creata con {@link #ListAdapter(int)} della dimensione attesa
+     * riceve gli elementi con una sola allocazione.
+     * </p>
+     *
+     * @param in la sorgente dei dati
+     * @param codec il codec degli elementi, lo stesso usato per scriverli
+     * @return il numero di elementi aggiunti
+     * @throws IOException se la lettura non riesce o i dati non sono validi
+     * @throws NullPointerException se la sorgente o il codec sono null
+     */
+    public int readFrom(DataInput in, HElementCodec codec) throws IOException 
+    {
+        if (in == null || codec == null) 
+        {
+            throw new NullPointerException("Input and codec cannot be null");
+        }
+        settle();
+        int length = ElementCodecs.readLength(in);
+        int free = vector.capacity() - vector.size();
+        Object[] block = new Object[Math.min(length, Math.max(READ_BLOCK, free))];
+        for (int i = 0; i < length; i++) 
+        {
+            if (i == block.length) 
+            {
+                Object[] grown = new Object[(int) Math.min(length, 2L * block.length)];
+                System.arraycopy(block, 0, grown, 0, i);
+                block = grown;
+            }
+            block[i] = codec.read(in);
+        }
+        if (length > 0) 
+        {
+            addBlock(size(), block, length);
+        }
+        return length;
+    }
+
+    /**
+     * Inserisce i primi {@code length} elementi dell'array specificato a partire dalla
+     * posizione specificata, spostando la coda della lista una sola volta.
+     * Il costo è O(size() + length) invece di O(size() * length) di inserimenti ripetuti.
+     *
+     * @param index indice al quale inserire il primo elemento del blocco
+     * @param block array contenente gli elementi da inserire
+     * @param length numero di elementi di {@code block} da inserire
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt; size())
+     */
+    void addBlock(int index, Object[] block, int length) 
+    {
+        settle();
+        int size = vector.size();
+        if (index < 0 || index > size) 
+        {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+
+        vector.setSize(size + length);                  // Una sola eventuale riallocazione
+        for (int i = size - 1; i >= index; i--) 
+        {
+            vector.setElementAt(vector.elementAt(i), i + length);
+        }
+        for (int i = 0; i < length; i++) 
+        {
+            vector.setElementAt(block[i], index + i);
+        }
+        if (index == size) 
+        {
+            for (int i = 0; i < length; i++)            // Blocco in coda: aggiornamento incrementale
+            {
+                hash = 31 * hash + elementHash(block[i]);
+            }
+        }
+        else 
+        {
+            hashValid = false;
+        }
+        markDirtyFrom(index);
+    }
+
+    // =============== PAGINE MODIFICATE ===============
+
+    /**
+     * Attiva il tracciamento delle pagine modificate, con pagine di {@code pageSize} elementi
+     * consecutivi (la pagina {@code p} contiene gli elementi da {@code p * pageSize} a
+     * {@code (p + 1) * pageSize - 1}), oppure lo disattiva se {@code pageSize} è 0.
+     * <p>
+     * Un livello di persistenza può così riscrivere solo le pagine cambiate invece dell'intera
+     * lista: ogni modifica segna la pagina dell'elemento modificato, mentre inserimenti e
+     * rimozioni in mezzo, ordinamenti e compattazioni, che spostano gli elementi successivi,
+     * segnano tutte le pagine dalla prima posizione modificata in poi. Queste ultime sono
+     * memorizzate come una sola soglia, quindi il costo per modifica è O(1) e la memoria è di un
+     * bit per pagina. Alla attivazione tutte le pagine sono considerate modificate, in modo che
+     * la prima lettura con {@link #fetchAndClearDirtyPages()} restituisca l'intera lista.
+     * </p>
+     *
+     * @param pageSize il numero di elementi di una pagina, oppure 0 per disattivare il tracciamento
+     * @throws IllegalArgumentException se {@code pageSize} è negativo
+     * @throws myExceptions.UnsupportedOperationException se questa è una sottolista
+     * @see #fetchAndClearDirtyPages()
+     */
+    public void trackDirtyPages(int pageSize) 
+    {
+        if (pageSize < 0) 
+        {
+            throw new IllegalArgumentException("Illegal page size: " + pageSize);
+        }
+        settle();
+        this.pageSize = pageSize;
+        dirtyPages = pageSize == 0 ? null : new int[0];
+        dirtyFrom = pageSize == 0 ? Integer.MAX_VALUE : 0;
+    }
+
+    /**
+     * Restituisce il numero di elementi di una pagina per il tracciamento delle pagine
+     * modificate, oppure 0 se il tracciamento non è attivo.
+     *
+     * @return il numero di elementi di una pagina, o 0
+     * @see #trackDirtyPages(int)
+     */
+    public int dirtyPageSize() 
+    {
+        return pageSize;
+    }
+
+    /**
+     * Restituisce gli indici, in ordine crescente, delle pagine modificate dall'ultima chiamata
+     * (o dall'attivazione del tracciamento) e le segna come non modificate, in un'unica
+     * operazione: nessuna modifica può avvenire tra la lettura e l'azzeramento.
+     * <p>
+     * Sono restituite solo le pagine che contengono almeno un elemento; se la lista si è
+     * accorciata, chi la persiste deve anche troncare i dati oltre {@link #size()}.
+     * L'ultima pagina può essere incompleta. Come le altre operazioni della lista, questo
+     * metodo non è sincronizzato: se la lista è condivisa tra thread, il chiamante deve leggere
+     * le pagine modificate e i loro elementi tenendo lo stesso lock usato per le modifiche.
+     * </p>
+     *
+     * @return gli indici delle pagine modificate, eventualmente un array vuoto
+     * @throws myExceptions.IllegalStateException se il tracciamento non è attivo
+     * @see #trackDirtyPages(int)
+     */
+    public int[] fetchAndClearDirtyPages() 
+    {
+        settle();
+        if (pageSize == 0) 
+        {
+            throw new myExceptions.IllegalStateException("Dirty page tracking is not enabled");
+        }
+        int pages = (vector.size() + pageSize - 1) / pageSize;
+        int count = 0;
+        for (int p = 0; p < pages; p++) 
+        {
+            if (isDirty(p)) 
+            {
+                count++;
+            }
+        }
+        int[] result = new int[count];
+        count = 0;
+        for (int p = 0; p < pages; p++) 
+        {
+            if (isDirty(p)) 
+            {
+                result[count++] = p;
+            }
+        }
+        dirtyPages = new int[0];
+        dirtyFrom = Integer.MAX_VALUE;
+        return result;
+    }
+
+    private boolean isDirty(int page) 
+    {
+        int word = page >>> 5;
+        return page >= dirtyFrom || (word < dirtyPages.length && (dirtyPages[word] & (1 << (page & 31))) != 0);
+    }
+
+    /**
+     * Segna come modificata la pagina dell'elemento specificato, se il tracciamento è attivo.
+     */
+    private void markDirty(int index) 
+    {
+        if (pageSize == 0) 
+        {
+            return;
+        }
+        int page = index / pageSize;
+        if (page >= dirtyFrom) 
+        {
+            return;
+        }
+        int word = page >>> 5;
+        if (word >= dirtyPages.length) 
+        {
+            int[] grown = new int[Math.max(word + 1, 2 * dirtyPages.length)];
+            System.arraycopy(dirtyPages, 0, grown, 0, dirtyPages.length);
+            dirtyPages = grown;
+        }
+        dirtyPages[word] |= 1 << (page & 31);
+    }
+
+    /**
+     * Segna come modificate tutte le pagine dalla pagina dell'elemento specificato in poi,
+     * se il tracciamento è attivo.
+     */
+    private void markDirtyFrom(int index) 
+    {
+        if (pageSize != 0) 
+        {
+            dirtyFrom = Math.min(dirtyFrom, index / pageSize);
+        }
+    }
+
+    // =============== SUPPORTO ALLE OPERAZIONI DIFFERITE ===============
+
+    /**
+     * Restituisce il {@code Vector} che memorizza gli elementi di questa lista.
+     * Per una sottolista è il {@code Vector} della lista radice.
+     *
+     * @return il Vector sottostante
+     */
+    Vector storage() 
+    {
+        return vector;
+    }
+
+    /**
+     * Restituisce la posizione, nel {@link #storage()}, del primo elemento di questa lista.
+     *
+     * @return l'offset di questa lista rispetto al Vector sottostante
+     */
+    int rootOffset() 
+    {
+        return 0;
+    }
+
+    /**
+     * Notifica una variazione di dimensione avvenuta direttamente sul {@link #storage()}.
+     * Per la lista radice la dimensione coincide con quella del Vector e non c'è nulla da aggiornare.
+     *
+     * @param delta la variazione (positiva o negativa) del numero di elementi
+     */
+    void resize(int delta) 
+    {
+        // La dimensione della lista radice è quella del Vector
+    }
+
+    /**
+     * Notifica che gli elementi del {@link #storage()} a partire dalla posizione specificata sono
+     * stati spostati o sostituiti scrivendo direttamente nel Vector, senza passare dai metodi
+     * pubblici. La lista radice invalida il codice hash memorizzato e, se il tracciamento è
+     * attivo, segna come modificate le pagine da quella posizione in poi; le sottoclassi che
+     * mantengono altre informazioni derivate dagli elementi devono chiamare anche questo metodo.
+     *
+     * @param position la prima posizione modificata, nelle coordinate del Vector
+     */
+    void storageChanged(int position) 
+    {
+        hashValid = false;
+        markDirtyFrom(position);
+    }
+
+    /**
+     * Indica se gli elementi di questa lista possono essere inseriti in blocco in modo differito
+     * o riordinati scrivendo direttamente nel {@link #storage()}. Una lista che mantiene un
+     * vincolo sull'ordine degli elementi restituisce false, e gli inserimenti passano dai suoi
+     * metodi pubblici, che verificano subito il vincolo.
+     *
+     * @return true se sono ammesse scritture dirette che non verificano l'ordine degli elementi
+     */
+    boolean allowsReordering() 
+    {
+        return true;
+    }
+
+    /**
+     * Registra un'operazione differita su questa lista, completando prima quella
+     * eventualmente già registrata da un altro chiamante.
+     *
+     * @param op l'operazione da completare al prossimo accesso alla lista
+     */
+    void defer(PendingOperation op) 
+    {
+        if (pending != op) 
+        {
+            settle();
+            pending = op;
+        }
+    }
+
+    /**
+     * Completa l'operazione differita in sospeso, se presente. Viene chiamato all'inizio
+     * di ogni metodo che legge o modifica il {@code Vector}.
+     */
+    void settle() 
+    {
+        if (pending != null) 
+        {
+            PendingOperation op = pending;
+            pending = null;             // Evita la ricorsione se op accede alla lista
+            op.flush();
+        }
+    }
+
+    // =============== METODI PRIVATI DI SUPPORTO ===============
+
+    /**
+     * Confronta questa lista con un'altra {@code ListAdapter} leggendo direttamente i due Vector.
+     */
+    private boolean equalsAdapter(ListAdapter other) 
+    {
+        settle();
+        other.settle();
+        int size = size();
+        if (size != other.size()) 
+        {
+            return false;
+        }
+        Vector mine = storage();
+        Vector theirs = other.storage();
+        int from = rootOffset();
+        int otherFrom = other.rootOffset();
+        if (mine == theirs && from == otherFrom) 
+        {
+            return true;                                // Stesso intervallo dello stesso Vector
+        }
+        if (hasCachedHash() && other.hasCachedHash() && hash != other.hash) 
+        {
+            return false;
+        }
+        for (int i = 0; i < size; i++) 
+        {
+            Object x = mine.elementAt(from + i);
+            Object y = theirs.elementAt(otherFrom + i);
+            if (x != y && (x == null || !x.equals(y))) 
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restituisce true se il codice hash memorizzato è aggiornato. Una sottolista non possiede
+     * il Vector che legge e non memorizza un proprio codice hash.
+     */
+    private boolean hasCachedHash() 
+    {
+        return hashValid && storage() == vector;
+    }
+
+    /**
+     * Restituisce il codice hash di un elemento, 0 per null.
+     */
+    private static int elementHash(Object o) 
+    {
+        return o == null ? 0 : o.hashCode();
+    }
+
+    /**
+     * Calcola il codice hash polinomiale degli elementi del Vector nell'intervallo
+     * {@code [from, to)}, senza allocare iteratori.
+     */
+    private static int rangeHash(Vector vector, int from, int to) 
+    {
+        int h = 1;
+        for (int i = from; i < to; i++) 
+        {
+            h = 31 * h + elementHash(vector.elementAt(i));
+        }
+        return h;
+    }
+
+    /**
+     * Restituisce {@code 31^exponent} modulo 2^32 per quadrati successivi, in O(log exponent)
+     * moltiplicazioni e senza stato condiviso tra le liste.
+     */
+    private static int powerOf31(int exponent) 
+    {
+        int result = 1;
+        int base = 31;
+        while (exponent > 0) 
+        {
+            if ((exponent & 1) != 0) 
+            {
+                result *= base;
+            }
+            base *= base;
+            exponent >>>= 1;
+        }
+        return result;
+    }
+
     /**
      * Implementazione della vista per una sottolista di un `ListAdapter`.
      * Questa classe è "backed" dalla lista `ListAdapter` padre, il che significa
@@ -685,6 +1327,85 @@ public class ListAdapter implements HList
             this.size = toIndex - fromIndex;
         }
 
+        // =============== SUPPORTO ALLE OPERAZIONI DIFFERITE ===============
+
+        /**
+         * Restituisce il {@code Vector} della lista padre, che memorizza gli elementi di questa sottolista.
+         * @return il Vector della lista padre.
+         */
+        Vector storage() 
+        {
+            return parent.storage();
+        }
+
+        /**
+         * Restituisce l'offset di questa sottolista rispetto al {@code Vector} della lista padre.
+         * @return l'offset della sottolista.
+         */
+        int rootOffset() 
+        {
+            return offset;
+        }
+
+        /**
+         * Aggiorna la dimensione di questa sottolista dopo una modifica eseguita direttamente sul {@code Vector}.
+         * @param delta la variazione del numero di elementi.
+         */
+        void resize(int delta) 
+        {
+            size += delta;
+        }
+
+        /**
+         * Inoltra alla lista padre, che possiede il {@code Vector}, la notifica di una scrittura diretta.
+         * @param position la prima posizione modificata, nelle coordinate del Vector.
+         */
+        void storageChanged(int position) 
+        {
+            parent.storageChanged(position);
+        }
+
+        /**
+         * Una sottolista ammette scritture dirette solo se le ammette la lista padre.
+         * @return il valore restituito dalla lista padre.
+         */
+        boolean allowsReordering() 
+        {
+            return parent.allowsReordering();
+        }
+
+        /**
+         * Registra l'operazione differita sulla lista padre, che possiede il {@code Vector}.
+         * @param op l'operazione da completare al prossimo accesso.
+         */
+        void defer(PendingOperation op) 
+        {
+            parent.defer(op);
+        }
+
+        /**
+         * Completa l'operazione differita in sospeso sulla lista padre, se presente.
+         */
+        void settle() 
+        {
+            parent.settle();
+        }
+
+        /**
+         * Inserisce un blocco di elementi in questa sottolista, delegando alla lista padre
+         * con l'applicazione dell'offset, e aggiorna la dimensione della sottolista.
+         * @param index l'indice in cui inserire il primo elemento del blocco.
+         * @param block l'array contenente gli elementi da inserire.
+         * @param length il numero di elementi di {@code block} da inserire.
+         * @throws IndexOutOfBoundsException se l'indice è fuori dai limiti per l'aggiunta.
+         */
+        void addBlock(int index, Object[] block, int length) 
+        {
+            checkRangeForAdd(index);
+            parent.addBlock(offset + index, block, length);
+            size += length;
+        }
+
         // =============== METODI PRIVATI DI SUPPORTO ===============
 
         /**
@@ -696,6 +1417,7 @@ public class ListAdapter implements HList
          */
         private void checkRange(int index) 
         {
+            settle();
             if (index < 0 || index >= size) 
             {
                 throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
@@ -711,6 +1433,7 @@ public class ListAdapter implements HList
          */
         private void checkRangeForAdd(int index) 
         {
+            settle();
             if (index < 0 || index > size) 
             {
                 throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
@@ -740,9 +1463,40 @@ public class ListAdapter implements HList
          */
         public int size() 
         {
+            settle();
             return size;
         }
 
+        /**
+         * Le pagine sono definite sulle posizioni della lista radice: il tracciamento va attivato su di essa.
+         * @throws myExceptions.UnsupportedOperationException sempre
+         */
+        public void trackDirtyPages(int pageSize) 
+        {
+            throw new myExceptions.UnsupportedOperationException("Dirty pages are tracked by the root list");
+        }
+
+        /**
+         * Le pagine sono definite sulle posizioni della lista radice: vanno lette da essa.
+         * @throws myExceptions.UnsupportedOperationException sempre
+         */
+        public int[] fetchAndClearDirtyPages() 
+        {
+            throw new myExceptions.UnsupportedOperationException("Dirty pages are tracked by the root list");
+        }
+
+        /**
+         *
+         * Restituisce il codice hash di questa sottolista, calcolato sugli elementi del suo intervallo.
+         * La sottolista non mantiene un valore memorizzato: le modifiche passano dalla lista padre.
+         * @return il codice hash di questa sottolista.
+         */
+        public int hashCode() 
+        {
+            settle();
+            return rangeHash(storage(), offset, offset + size);
+        }
+
         /**
          *
          * Sostituisce l'elemento nella posizione specificata in questa sottolista con l'elemento specificato.
@@ -803,6 +1557,7 @@ public class ListAdapter implements HList
          */
         public boolean add(Object o) 
         {
+            settle();
             parent.add(offset + size, o);
             size++;
             return true;
@@ -851,6 +1606,7 @@ public class ListAdapter implements HList
          * Gli elementi corrispondenti vengono rimossi anche dalla lista padre.
          */
         public void clear() {
+            settle();
             for (int i = size - 1; i >= 0; i--) 
             {
                 parent.remove(offset + i);
@@ -898,6 +1654,7 @@ public class ListAdapter implements HList
          */
         public int indexOf(Object o) 
         {
+            settle();
             for (int i = 0; i < size; i++) 
             {
                 if (o == null ? get(i) == null : o.equals(get(i)))
@@ -915,6 +1672,7 @@ public class ListAdapter implements HList
          */
         public boolean isEmpty() 
         {
+            settle();
             return size == 0;
         }
 
@@ -928,6 +1686,7 @@ public class ListAdapter implements HList
          */
         public int lastIndexOf(Object o) 
         {
+            settle();
             for (int i = size - 1; i >= 0; i--) 
             {
                 if (o == null ? get(i) == null : o.equals(get(i)))
@@ -998,7 +1757,7 @@ public class ListAdapter implements HList
         public boolean removeAll(HCollection c) 
         {
             boolean modified = false;
-            HIterator it = iterator();
+            HIterator it = compactingIterator();
             while (it.hasNext()) 
             {
                 if (c.contains(it.next())) 
@@ -1021,7 +1780,7 @@ public class ListAdapter implements HList
         public boolean retainAll(HCollection c) 
         {
             boolean modified = false;
-            HIterator it = iterator();
+            HIterator it = compactingIterator();
             while (it.hasNext()) {
                 if (!c.contains(it.next())) 
                 {
@@ -1046,6 +1805,7 @@ public class ListAdapter implements HList
          */
         public HList subList(int fromIndex, int toIndex) 
         {
+            settle();
             if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
             {
                 throw new IndexOutOfBoundsException();
@@ -1060,6 +1820,7 @@ public class ListAdapter implements HList
          */
         public Object[] toArray() 
         {
+            settle();
             Object[] result = new Object[size];
             for (int i = 0; i < size; i++)
             {
@@ -1086,6 +1847,7 @@ public class ListAdapter implements HList
          */
         public Object[] toArray(Object[] a) 
         {
+            settle();
             if (a.length < size)
                 a = new Object[size];
             
@@ -11,6 +11,12 @@ import myExceptions.IllegalStateException;
  *
  * Le operazioni {@code remove()}, {@code set(Object)} e {@code add(Object)}
  * modificano la lista sottostante e aggiornano lo stato dell'iteratore di conseguenza.
+ * <p>
+ * Chiamate consecutive ad {@code add(Object)} vengono accumulate in un buffer e inserite
+ * nella lista come un unico blocco, con un solo spostamento della coda, quando il cursore
+ * si muove, quando viene invocata un'altra operazione dell'iteratore oppure al primo
+ * accesso alla lista da parte di un altro chiamante.
+ * </p>
  *
  * @see HListIterator
  * @see ListAdapter
@@ -20,6 +26,17 @@ public class ListIterator implements HListIterator
     private ListAdapter list;       // Riferimento alla lista sottostante
     private int ptr;                // Indice del cursore corrente (posizione dell'elemento successivo)
     private int lastReturned;       // Indice dell'ultimo elemento restituito (-1 se nessuno)
+    private Object[] buffer;        // Elementi aggiunti con add() e non ancora inseriti nella lista
+    private int buffered;           // Numero di elementi validi in buffer (inseriti prima di ptr)
+
+    /** Inserimento registrato presso la lista, così che {@link #flush()} non sia pubblico. */
+    private final PendingOperation insertion = new PendingOperation()
+    {
+        public void flush()
+        {
+            ListIterator.this.flush();
+        }
+    };
     
     /**
      * Costruttore che crea un ListIteratorAdapter per la lista specificata.
@@ -62,6 +79,7 @@ public class ListIterator implements HListIterator
      */
     public boolean hasNext() 
     {
+        list.settle();
         return ptr < list.size();
     }
 
@@ -76,6 +94,7 @@ public class ListIterator implements HListIterator
      */
     public Object next() 
     {
+        list.settle();
         if (!hasNext()) 
         {
             throw new java.util.NoSuchElementException("Nessun elemento successivo disponibile.");
@@ -110,6 +129,7 @@ public class ListIterator implements HListIterator
      */
     public Object previous() 
     {
+        list.settle();
         if (!hasPrevious()) 
         {
             throw new java.util.NoSuchElementException("Nessun elemento precedente disponibile.");
@@ -125,6 +145,7 @@ public class ListIterator implements HListIterator
      */
     public int nextIndex() 
     {
+        list.settle();
         if (ptr >= list.size()) 
         {
             return list.size();         // Restituisce la dimensione della lista se alla fine
@@ -154,6 +175,7 @@ public class ListIterator implements HListIterator
      */
     public void remove() 
     {
+        list.settle();
         if (lastReturned == -1) 
         {
             throw new IllegalStateException("next() non è stato chiamato o remove() è già stato chiamato dopo l'ultima chiamata a next().");
@@ -178,6 +200,7 @@ public class ListIterator implements HListIterator
      */
     public void set(Object o) 
     {
+        list.settle();
         if (lastReturned == -1) 
         {
             throw new IllegalStateException("next() o previous() non sono stati chiamati, oppure remove() o add() sono stati chiamati dopo l'ultima chiamata a next() o previous().");
@@ -186,13 +209,61 @@ public class ListIterator implements HListIterator
     }
     
     /**
-     * Inserisce l'elemento specificato nella lista.
+     * Inserisce l'elemento specificato nella lista, alla posizione del cursore.
+     * L'inserimento effettivo viene accumulato con le eventuali {@code add} consecutive
+     * ed eseguito in blocco alla prossima operazione sull'iteratore o sulla lista.
+     * Su una lista ordinata l'inserimento è invece immediato, così che la lista possa rifiutarlo.
      * @param o l'elemento da inserire.
+     * @throws IndexOutOfBoundsException se il cursore è oltre la fine della lista.
+     * @throws IllegalArgumentException se la lista è ordinata e l'elemento ne violerebbe l'ordine.
      */
     public void add(Object o) 
     {
-        list.add(ptr, o);        // Aggiunge l'elemento alla posizione corrente del cursore
+        if (!list.allowsReordering()) 
+        {
+            list.add(ptr, o);           // La lista verifica subito che l'inserimento rispetti il suo ordine
+            lastReturned = -1;
+            ptr++;
+            return;
+        }
+        if (buffered == 0) 
+        {
+            if (ptr > list.size()) 
+            {
+                throw new IndexOutOfBoundsException("Index out of bounds: " + ptr);
+            }
+            list.defer(insertion);       // Il blocco verrà inserito al primo accesso alla lista
+        }
+        if (buffer == null || buffered == buffer.length) 
+        {
+            Object[] grown = new Object[buffer == null ? 8 : buffer.length * 2];
+            if (buffer != null) 
+            {
+                System.arraycopy(buffer, 0, grown, 0, buffered);
+            }
+            buffer = grown;
+        }
+        buffer[buffered++] = o;
         lastReturned = -1;          // Resetta l'ultimo elemento restituito
         ptr++;                   // Sposta il cursore avanti dopo l'inserimento
     }
+
+    /**
+     * Inserisce nella lista, come un unico blocco, gli elementi accumulati dalle
+     * chiamate consecutive ad {@link #add(Object)}.
+     */
+    void flush() 
+    {
+        if (buffered == 0) 
+        {
+            return;
+        }
+        int count = buffered;
+        buffered = 0;
+        list.addBlock(ptr - count, buffer, count);
+        for (int i = 0; i < count; i++) 
+        {
+            buffer[i] = null;       // Non trattiene riferimenti agli elementi inseriti
+        }
+    }
 }
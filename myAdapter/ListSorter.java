@@ -0,0 +1,423 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.util.Vector;
+
+/**
+ * Ordinamento stabile e sul posto di un intervallo {@code [lo, hi)} di un {@code Vector}, usato da
+ * {@link ListAdapter#sort(HComparator)}.
+ * <p>
+ * L'algoritmo segue lo schema di TimSort: l'intervallo viene scomposto in sequenze già ordinate
+ * ("run") crescenti o strettamente decrescenti (queste ultime vengono invertite sul posto); le run
+ * più corte di una lunghezza minima vengono estese con un insertion sort binario, e le run vengono
+ * poi fuse a coppie mantenendo gli invarianti di TimSort sulle lunghezze, così che ogni fusione
+ * avvenga tra run di dimensione simile. Prima di ogni fusione una ricerca binaria esclude gli
+ * elementi già nella posizione finale, e una lista già ordinata viene riconosciuta come una sola
+ * run e ordinata con {@code n - 1} confronti.
+ * </p>
+ * <p>
+ * Gli elementi vengono letti e scritti direttamente nel Vector con {@code elementAt} e
+ * {@code setElementAt}: la sola memoria aggiuntiva è il buffer della run più corta di ogni
+ * fusione, al più {@code n / 2} riferimenti. Se il comparatore lancia un'eccezione l'intervallo
+ * contiene comunque tutti gli elementi originali, in un ordine parziale. L'intero ordinamento
+ * avviene tenendo il lock del Vector, così che le singole chiamate sincronizzate non debbano
+ * riacquisirlo ogni volta.
+ * </p>
+ */
+final class ListSorter
+{
+    /** Lunghezza sotto la quale l'intervallo viene ordinato con il solo insertion sort binario. */
+    static final int MIN_MERGE = 32;
+
+    private final Vector storage;           // Vector che contiene l'intervallo da ordinare
+    private final HComparator comparator;   // Comparatore che determina l'ordine
+    private Object[] tmp;                   // Buffer per la run più corta di una fusione
+
+    private final int[] runBase = new int[49];  // Inizio delle run in attesa di fusione
+    private final int[] runLen = new int[49];   // Lunghezza delle run in attesa di fusione
+    private int stackSize;                      // Numero di run in attesa di fusione
+
+    private ListSorter(Vector storage, HComparator comparator)
+    {
+        this.storage = storage;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Ordina in modo stabile l'intervallo {@code [lo, hi)} del Vector specificato.
+     *
+     * @param storage il Vector che contiene l'intervallo
+     * @param lo indice del primo elemento da ordinare (incluso)
+     * @param hi indice dell'ultimo elemento da ordinare (escluso)
+     * @param c il comparatore che determina l'ordine
+     * @throws NullPointerException se il comparatore è null
+     * @throws ClassCastException se il comparatore non riesce a confrontare due elementi
+     */
+    static void sort(Vector storage, int lo, int hi, HComparator c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        if (hi - lo < 2)
+        {
+            return;
+        }
+        synchronized (storage)
+        {
+            new ListSorter(storage, c).sort(lo, hi);
+        }
+    }
+
+    private void sort(int lo, int hi)
+    {
+        int remaining = hi - lo;
+        if (remaining < MIN_MERGE)
+        {
+            int initRun = countRunAndMakeAscending(lo, hi);
+            binaryInsertionSort(lo, hi, lo + initRun);
+            return;
+        }
+
+        int minRun = minRunLength(remaining);
+        do
+        {
+            int len = countRunAndMakeAscending(lo, hi);
+            if (len < minRun)
+            {
+                int force = remaining <= minRun ? remaining : minRun;
+                binaryInsertionSort(lo, lo + force, lo + len);
+                len = force;
+            }
+            pushRun(lo, len);
+            mergeCollapse();
+            lo += len;
+            remaining -= len;
+        } while (remaining != 0);
+        mergeForceCollapse();
+    }
+
+    /**
+     * Restituisce la lunghezza minima delle run per un intervallo di {@code n} elementi, scelta
+     * in modo che {@code n / minRun} sia uguale o di poco inferiore a una potenza di 2.
+     */
+    private static int minRunLength(int n)
+    {
+        int r = 0;
+        while (n >= MIN_MERGE)
+        {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Restituisce la lunghezza della run che inizia in {@code lo}. Una run strettamente decrescente
+     * viene invertita sul posto; la discesa stretta garantisce che l'inversione sia stabile.
+     */
+    private int countRunAndMakeAscending(int lo, int hi)
+    {
+        int runHi = lo + 1;
+        if (runHi == hi)
+        {
+            return 1;
+        }
+        if (comparator.compare(storage.elementAt(runHi++), storage.elementAt(lo)) < 0)
+        {
+            while (runHi < hi && comparator.compare(storage.elementAt(runHi), storage.elementAt(runHi - 1)) < 0)
+            {
+                runHi++;
+            }
+            reverseRange(lo, runHi);
+        }
+        else
+        {
+            while (runHi < hi && comparator.compare(storage.elementAt(runHi), storage.elementAt(runHi - 1)) >= 0)
+            {
+                runHi++;
+            }
+        }
+        return runHi - lo;
+    }
+
+    private void reverseRange(int lo, int hi)
+    {
+        hi--;
+        while (lo < hi)
+        {
+            Object t = storage.elementAt(lo);
+            storage.setElementAt(storage.elementAt(hi), lo++);
+            storage.setElementAt(t, hi--);
+        }
+    }
+
+    /**
+     * Ordina {@code [lo, hi)} sapendo che {@code [lo, start)} è già ordinato, inserendo ogni
+     * elemento dopo gli elementi uguali già presenti per preservare la stabilità.
+     */
+    private void binaryInsertionSort(int lo, int hi, int start)
+    {
+        if (start == lo)
+        {
+            start++;
+        }
+        for (; start < hi; start++)
+        {
+            Object pivot = storage.elementAt(start);
+            int left = lo;
+            int right = start;
+            while (left < right)
+            {
+                int mid = (left + right) >>> 1;
+                if (comparator.compare(pivot, storage.elementAt(mid)) < 0)
+                {
+                    right = mid;
+                }
+                else
+                {
+                    left = mid + 1;
+                }
+            }
+            for (int i = start; i > left; i--)
+            {
+                storage.setElementAt(storage.elementAt(i - 1), i);
+            }
+            storage.setElementAt(pivot, left);
+        }
+    }
+
+    private void pushRun(int base, int len)
+    {
+        runBase[stackSize] = base;
+        runLen[stackSize] = len;
+        stackSize++;
+    }
+
+    /**
+     * Fonde le run in cima alla pila finché valgono gli invarianti di TimSort:
+     * {@code runLen[i - 2] > runLen[i - 1] + runLen[i]} e {@code runLen[i - 1] > runLen[i]}.
+     */
+    private void mergeCollapse()
+    {
+        while (stackSize > 1)
+        {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1])
+            {
+                if (runLen[n - 1] < runLen[n + 1])
+                {
+                    n--;
+                }
+            }
+            else if (runLen[n] > runLen[n + 1])
+            {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse()
+    {
+        while (stackSize > 1)
+        {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1])
+            {
+                n--;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * Fonde le run adiacenti in posizione {@code i} e {@code i + 1} della pila.
+     */
+    private void mergeAt(int i)
+    {
+        int base1 = runBase[i];
+        int len1 = runLen[i];
+        int base2 = runBase[i + 1];
+        int len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3)
+        {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // Gli elementi della prima run non maggiori del primo della seconda sono già al loro posto
+        int k = upperBound(storage.elementAt(base2), base1, base1 + len1);
+        len1 -= k - base1;
+        base1 = k;
+        if (len1 == 0)
+        {
+            return;
+        }
+
+        // Gli elementi della seconda run non minori dell'ultimo della prima sono già al loro posto
+        len2 = lowerBound(storage.elementAt(base1 + len1 - 1), base2, base2 + len2) - base2;
+        if (len2 == 0)
+        {
+            return;
+        }
+
+        if (len1 <= len2)
+        {
+            mergeLo(base1, len1, base2, len2);
+        }
+        else
+        {
+            mergeHi(base1, len1, base2, len2);
+        }
+    }
+
+    /** Restituisce il primo indice in {@code [lo, hi)} il cui elemento è maggiore di {@code key}. */
+    private int upperBound(Object key, int lo, int hi)
+    {
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(key, storage.elementAt(mid)) < 0)
+            {
+                hi = mid;
+            }
+            else
+            {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /** Restituisce il primo indice in {@code [lo, hi)} il cui elemento non è minore di {@code key}. */
+    private int lowerBound(Object key, int lo, int hi)
+    {
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(storage.elementAt(mid), key) < 0)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Fonde da sinistra verso destra copiando nel buffer la prima run, più corta della seconda.
+     * A parità di confronto prevale l'elemento della prima run.
+     */
+    private void mergeLo(int base1, int len1, int base2, int len2)
+    {
+        Object[] buf = ensureCapacity(len1);
+        for (int i = 0; i < len1; i++)
+        {
+            buf[i] = storage.elementAt(base1 + i);
+        }
+
+        int dest = base1;
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int end2 = base2 + len2;
+        try
+        {
+            while (cursor1 < len1 && cursor2 < end2)
+            {
+                Object right = storage.elementAt(cursor2);
+                if (comparator.compare(right, buf[cursor1]) < 0)
+                {
+                    storage.setElementAt(right, dest++);
+                    cursor2++;
+                }
+                else
+                {
+                    storage.setElementAt(buf[cursor1++], dest++);
+                }
+            }
+        }
+        finally
+        {
+            // Anche se il comparatore lancia un'eccezione nessun elemento va perso
+            while (cursor1 < len1)
+            {
+                storage.setElementAt(buf[cursor1++], dest++);
+            }
+            clear(buf, len1);
+        }
+    }
+
+    /**
+     * Fonde da destra verso sinistra copiando nel buffer la seconda run, più corta della prima.
+     * A parità di confronto prevale l'elemento della seconda run, che deve restare in fondo.
+     */
+    private void mergeHi(int base1, int len1, int base2, int len2)
+    {
+        Object[] buf = ensureCapacity(len2);
+        for (int i = 0; i < len2; i++)
+        {
+            buf[i] = storage.elementAt(base2 + i);
+        }
+
+        int dest = base2 + len2 - 1;
+        int cursor1 = base1 + len1 - 1;
+        int cursor2 = len2 - 1;
+        try
+        {
+            while (cursor1 >= base1 && cursor2 >= 0)
+            {
+                Object left = storage.elementAt(cursor1);
+                if (comparator.compare(buf[cursor2], left) < 0)
+                {
+                    storage.setElementAt(left, dest--);
+                    cursor1--;
+                }
+                else
+                {
+                    storage.setElementAt(buf[cursor2--], dest--);
+                }
+            }
+        }
+        finally
+        {
+            // Anche se il comparatore lancia un'eccezione nessun elemento va perso
+            while (cursor2 >= 0)
+            {
+                storage.setElementAt(buf[cursor2--], dest--);
+            }
+            clear(buf, len2);
+        }
+    }
+
+    private Object[] ensureCapacity(int minCapacity)
+    {
+        if (tmp == null || tmp.length < minCapacity)
+        {
+            int newSize = tmp == null ? 256 : tmp.length;
+            while (newSize < minCapacity)
+            {
+                newSize <<= 1;
+            }
+            tmp = new Object[newSize];
+        }
+        return tmp;
+    }
+
+    /** Rilascia i riferimenti copiati nel buffer, per non trattenere elementi rimossi in seguito. */
+    private static void clear(Object[] buf, int len)
+    {
+        for (int i = 0; i < len; i++)
+        {
+            buf[i] = null;
+        }
+    }
+}
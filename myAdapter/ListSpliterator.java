@@ -0,0 +1,146 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.util.Vector;
+
+/**
+ * Implementazione di {@link HSpliterator} per {@link ListAdapter} e per le sue sottoliste.
+ * <p>
+ * Attraversa direttamente un intervallo {@code [index, fence)} del {@code java.util.Vector}
+ * della lista radice, senza passare per i controlli sugli indici di {@code get(int)}.
+ * {@link #trySplit()} divide l'intervallo a metà, quindi ogni partizione è esatta
+ * ({@link HSpliterator#SIZED} e {@link HSpliterator#SUBSIZED}).
+ * </p>
+ * <p>
+ * L'intervallo viene fissato alla creazione: il comportamento non è specificato se la lista
+ * viene modificata strutturalmente durante l'attraversamento.
+ * </p>
+ *
+ * @see ListAdapter#spliterator()
+ */
+public class ListSpliterator implements HSpliterator
+{
+    /**
+     * Numero massimo di elementi letti dal Vector con una singola acquisizione del lock.
+     */
+    static final int BATCH = 1024;
+
+    private Vector storage;     // Vector della lista radice
+    private int index;          // Posizione nel Vector del prossimo elemento da visitare
+    private int fence;          // Fine (esclusa) dell'intervallo nel Vector
+
+    /**
+     * Costruisce uno spliterator sull'intervallo {@code [origin, fence)} del Vector specificato.
+     *
+     * @param storage il Vector da attraversare
+     * @param origin la posizione del primo elemento (inclusa)
+     * @param fence la posizione finale (esclusa)
+     */
+    ListSpliterator(Vector storage, int origin, int fence)
+    {
+        this.storage = storage;
+        this.index = origin;
+        this.fence = fence;
+    }
+
+    /**
+     * Esegue l'azione sul prossimo elemento, se presente.
+     *
+     * @param action l'azione da eseguire
+     * @return true se un elemento è stato visitato, false se l'intervallo è esaurito
+     * @throws NullPointerException se l'azione specificata è null
+     */
+    public boolean tryAdvance(HConsumer action)
+    {
+        if (action == null)
+        {
+            throw new NullPointerException("Action cannot be null");
+        }
+        if (index >= fence)
+        {
+            return false;
+        }
+        action.accept(storage.elementAt(index++));
+        return true;
+    }
+
+    /**
+     * Esegue l'azione su tutti gli elementi rimanenti dell'intervallo. Gli elementi vengono
+     * letti dal Vector a blocchi di {@link #BATCH} con una sola acquisizione del lock per blocco,
+     * e l'azione viene eseguita fuori dal lock, così che più spliterator sullo stesso Vector
+     * possano procedere in parallelo.
+     *
+     * @param action l'azione da eseguire
+     * @throws NullPointerException se l'azione specificata è null
+     */
+    public void forEachRemaining(HConsumer action)
+    {
+        if (action == null)
+        {
+            throw new NullPointerException("Action cannot be null");
+        }
+        int i = index;
+        int hi = fence;
+        index = hi;
+        if (i >= hi)
+        {
+            return;
+        }
+        Object[] batch = new Object[Math.min(BATCH, hi - i)];
+        while (i < hi)
+        {
+            int n = Math.min(batch.length, hi - i);
+            synchronized (storage)
+            {
+                for (int k = 0; k < n; k++)
+                {
+                    batch[k] = storage.elementAt(i + k);
+                }
+            }
+            for (int k = 0; k < n; k++)
+            {
+                action.accept(batch[k]);
+                batch[k] = null;
+            }
+            i += n;
+        }
+    }
+
+    /**
+     * Cede la prima metà dell'intervallo rimanente a un nuovo {@code ListSpliterator}.
+     *
+     * @return lo spliterator sulla prima metà, o null se rimane al più un elemento
+     */
+    public HSpliterator trySplit()
+    {
+        int lo = index;
+        int mid = (lo + fence) >>> 1;
+        if (lo >= mid)
+        {
+            return null;
+        }
+        index = mid;
+        return new ListSpliterator(storage, lo, mid);
+    }
+
+    /**
+     * Restituisce il numero esatto di elementi rimanenti.
+     *
+     * @return il numero di elementi rimanenti
+     */
+    public long estimateSize()
+    {
+        return fence - index;
+    }
+
+    /**
+     * Restituisce {@code ORDERED | SIZED | SUBSIZED}.
+     *
+     * @return le caratteristiche di questo spliterator
+     */
+    public int characteristics()
+    {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
@@ -0,0 +1,24 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+/**
+ * Operazione differita su una {@link ListAdapter}, registrata presso la lista radice
+ * e completata (flush) prima del primo accesso che ne osserverebbe lo stato intermedio.
+ * <p>
+ * Viene usata dagli iteratori che rinviano il lavoro strutturale sul {@code java.util.Vector}
+ * sottostante (ad esempio la compattazione dopo più rimozioni) per eseguirlo in un'unica passata.
+ * Una lista radice mantiene al più un'operazione differita alla volta.
+ * </p>
+ *
+ * @see ListAdapter
+ * @see CompactingIterator
+ */
+interface PendingOperation
+{
+    /**
+     * Applica alla lista sottostante tutto il lavoro rimasto in sospeso, lasciando
+     * il {@code Vector} in uno stato coerente con la vista logica della lista.
+     */
+    void flush();
+}
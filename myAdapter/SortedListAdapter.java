@@ -0,0 +1,407 @@
+//Alberto Bortoletto 2101761
+
+package myAdapter;
+
+import java.util.Vector;
+import myExceptions.UnsupportedOperationException;
+
+/**
+ * Una {@link ListAdapter} che mantiene i propri elementi ordinati secondo un {@link HComparator}.
+ * <p>
+ * {@link #add(Object)} inserisce l'elemento nella sua posizione, dopo gli elementi uguali già presenti,
+ * trovandola con una ricerca binaria. Anche {@link #indexOf(Object)}, {@link #lastIndexOf(Object)}
+ * e {@link #contains(Object)} usano la ricerca binaria: individuano in O(log n) gli elementi uguali
+ * all'elemento cercato secondo il comparatore, e tra questi cercano quello uguale secondo
+ * {@code equals}.
+ * </p>
+ * <p>
+ * Le operazioni posizionali, {@link #add(int, Object)}, {@link #set(int, Object)},
+ * {@link #addAll(int, HCollection)} e le stesse operazioni eseguite tramite iteratori e sottoliste,
+ * sono ammesse solo se lasciano la lista ordinata: in caso contrario lanciano
+ * {@code IllegalArgumentException} senza modificare la lista.
+ * {@link #sort(HComparator)} è ammesso solo con il comparatore della lista.
+ * </p>
+ * <p>
+ * Il comparatore deve essere coerente per tutta la vita della lista e, se la lista contiene
+ * elementi null, deve saperli confrontare.
+ * </p>
+ *
+ * @see myAdapter.ListAdapter
+ * @see myAdapter.HComparator
+ */
+public class SortedListAdapter extends ListAdapter
+{
+    private final HComparator comparator;   // Comparatore che determina l'ordine degli elementi
+
+    /**
+     * Costruisce una lista ordinata vuota.
+     *
+     * @param comparator il comparatore che determina l'ordine degli elementi
+     * @throws NullPointerException se il comparatore è null
+     */
+    public SortedListAdapter(HComparator comparator)
+    {
+        if (comparator == null)
+        {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        this.comparator = comparator;
+    }
+
+    /**
+     * Costruisce una lista ordinata contenente gli elementi della collezione specificata.
+     *
+     * @param comparator il comparatore che determina l'ordine degli elementi
+     * @param c la collezione i cui elementi devono essere inseriti nella lista
+     * @throws NullPointerException se il comparatore o la collezione sono null
+     */
+    public SortedListAdapter(HComparator comparator, HCollection c)
+    {
+        this(comparator);
+        addAll(c);
+    }
+
+    /**
+     * Restituisce il comparatore che determina l'ordine degli elementi di questa lista.
+     *
+     * @return il comparatore di questa lista
+     */
+    public HComparator comparator()
+    {
+        return comparator;
+    }
+
+    /**
+     * Inserisce l'elemento nella posizione che mantiene la lista ordinata, dopo gli elementi
+     * uguali già presenti. La posizione viene trovata con una ricerca binaria.
+     *
+     * @param o l'elemento da inserire
+     * @return true
+     * @throws ClassCastException se il comparatore non riesce a confrontare l'elemento
+     */
+    public boolean add(Object o)
+    {
+        settle();
+        super.add(upperBound(o), o);
+        return true;
+    }
+
+    /**
+     * Inserisce l'elemento nella posizione specificata, solo se la lista resta ordinata:
+     * l'elemento non deve essere minore del precedente né maggiore del successivo.
+     *
+     * @param index indice al quale l'elemento deve essere inserito
+     * @param element elemento da inserire
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt; size())
+     * @throws IllegalArgumentException se l'inserimento violerebbe l'ordine della lista
+     */
+    public void add(int index, Object element)
+    {
+        settle();
+        if (index < 0 || index > storage().size())
+        {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+        checkFits(index - 1, element, index);
+        super.add(index, element);
+    }
+
+    /**
+     * Aggiunge tutti gli elementi della collezione mantenendo la lista ordinata; a parità di
+     * confronto gli elementi aggiunti seguono quelli già presenti.
+     * Gli elementi vengono ordinati a parte con {@link ListAdapter#sort(HComparator)} e poi fusi
+     * con la lista a partire dalla posizione del più piccolo, in tempo O(n + k log k) invece
+     * dei k inserimenti singoli. Tutti i confronti avvengono prima di modificare la lista, che
+     * resta invariata se il comparatore lancia un'eccezione.
+     *
+     * @param c collezione contenente gli elementi da aggiungere
+     * @return true se la lista è cambiata come risultato della chiamata
+     * @throws NullPointerException se la collezione specificata è null
+     * @throws ClassCastException se il comparatore non riesce a confrontare gli elementi
+     */
+    public boolean addAll(HCollection c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        settle();
+        Object[] added = c.toArray();
+        if (added.length == 0)
+        {
+            return false;
+        }
+        ListAdapter block = new ListAdapter(added.length);
+        for (int i = 0; i < added.length; i++)
+        {
+            block.add(added[i]);
+        }
+        block.sort(comparator);
+
+        // Gli elementi minori o uguali al più piccolo degli aggiunti restano al loro posto
+        Vector vector = storage();
+        int size = vector.size();
+        int from = upperBound(block.get(0));
+        Object[] merged = new Object[size - from + added.length];
+        int i = from;
+        int j = 0;
+        int d = 0;
+        while (i < size && j < added.length)
+        {
+            Object next = block.get(j);
+            if (comparator.compare(next, vector.elementAt(i)) < 0)
+            {
+                merged[d++] = next;
+                j++;
+            }
+            else
+            {
+                merged[d++] = vector.elementAt(i++);
+            }
+        }
+        while (i < size)
+        {
+            merged[d++] = vector.elementAt(i++);
+        }
+        while (j < added.length)
+        {
+            merged[d++] = block.get(j++);
+        }
+
+        storageChanged(from);
+        vector.setSize(size + added.length);
+        for (int k = 0; k < merged.length; k++)
+        {
+            vector.setElementAt(merged[k], from + k);
+        }
+        return true;
+    }
+
+    /**
+     * Sostituisce l'elemento nella posizione specificata, solo se la lista resta ordinata:
+     * il nuovo elemento non deve essere minore del precedente né maggiore del successivo.
+     *
+     * @param index indice dell'elemento da sostituire
+     * @param element elemento da memorizzare alla posizione specificata
+     * @return l'elemento precedentemente alla posizione specificata
+     * @throws IndexOutOfBoundsException se l'indice è fuori intervallo (index &lt; 0 || index &gt;= size())
+     * @throws IllegalArgumentException se la sostituzione violerebbe l'ordine della lista
+     */
+    public Object set(int index, Object element)
+    {
+        settle();
+        if (index < 0 || index >= storage().size())
+        {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+        checkFits(index - 1, element, index + 1);
+        return super.set(index, element);
+    }
+
+    /**
+     * Restituisce l'indice della prima occorrenza dell'elemento specificato, o -1 se assente.
+     * La ricerca binaria individua il primo elemento uguale secondo il comparatore; da lì vengono
+     * esaminati, fino al primo {@code equals}, solo gli elementi uguali secondo il comparatore.
+     *
+     * @param o elemento da cercare
+     * @return l'indice della prima occorrenza dell'elemento, o -1 se la lista non lo contiene
+     * @throws ClassCastException se il comparatore non riesce a confrontare l'elemento
+     */
+    public int indexOf(Object o)
+    {
+        settle();
+        Vector vector = storage();
+        int size = vector.size();
+        for (int i = lowerBound(o); i < size; i++)
+        {
+            Object e = vector.elementAt(i);
+            if (comparator.compare(e, o) != 0)
+            {
+                break;
+            }
+            if (o == null ? e == null : o.equals(e))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Restituisce l'indice dell'ultima occorrenza dell'elemento specificato, o -1 se assente.
+     * La ricerca binaria individua l'ultimo elemento uguale secondo il comparatore; da lì vengono
+     * esaminati all'indietro solo gli elementi uguali secondo il comparatore.
+     *
+     * @param o elemento da cercare
+     * @return l'indice dell'ultima occorrenza dell'elemento, o -1 se la lista non lo contiene
+     * @throws ClassCastException se il comparatore non riesce a confrontare l'elemento
+     */
+    public int lastIndexOf(Object o)
+    {
+        settle();
+        Vector vector = storage();
+        for (int i = upperBound(o) - 1; i >= 0; i--)
+        {
+            Object e = vector.elementAt(i);
+            if (comparator.compare(e, o) != 0)
+            {
+                break;
+            }
+            if (o == null ? e == null : o.equals(e))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Restituisce true se la lista contiene l'elemento specificato, cercandolo con una ricerca binaria.
+     *
+     * @param o elemento di cui verificare la presenza
+     * @return true se la lista contiene l'elemento specificato
+     * @throws ClassCastException se il comparatore non riesce a confrontare l'elemento
+     */
+    public boolean contains(Object o)
+    {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * Rimuove la prima occorrenza dell'elemento specificato, trovandola con una ricerca binaria.
+     *
+     * @param o elemento da rimuovere, se presente
+     * @return true se un elemento è stato rimosso
+     * @throws ClassCastException se il comparatore non riesce a confrontare l'elemento
+     */
+    public boolean remove(Object o)
+    {
+        int i = indexOf(o);
+        if (i == -1)
+        {
+            return false;
+        }
+        remove(i);
+        return true;
+    }
+
+    /**
+     * Una lista ordinata è già ordinata secondo il proprio comparatore: con quel comparatore
+     * il metodo non fa nulla, mentre un comparatore diverso violerebbe l'ordine della lista.
+     *
+     * @param c il comparatore della lista
+     * @throws NullPointerException se il comparatore specificato è null
+     * @throws UnsupportedOperationException se il comparatore non è quello della lista
+     */
+    public void sort(HComparator c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        if (c != comparator)
+        {
+            throw new UnsupportedOperationException("A sorted list can only be sorted by its own comparator");
+        }
+    }
+
+    // =============== SUPPORTO ALLE OPERAZIONI DIFFERITE ===============
+
+    /**
+     * Gli inserimenti diretti nel Vector non verificherebbero l'ordine: iteratori e sottoliste
+     * devono passare dai metodi pubblici di questa lista.
+     *
+     * @return false
+     */
+    boolean allowsReordering()
+    {
+        return false;
+    }
+
+    /**
+     * Inserisce un blocco di elementi, usato da {@link #addAll(int, HCollection)} anche tramite
+     * le sottoliste, solo se il blocco è ordinato e si inserisce tra gli elementi adiacenti
+     * senza violare l'ordine della lista.
+     *
+     * @throws IllegalArgumentException se l'inserimento violerebbe l'ordine della lista
+     */
+    void addBlock(int index, Object[] block, int length)
+    {
+        for (int i = 1; i < length; i++)
+        {
+            if (comparator.compare(block[i - 1], block[i]) > 0)
+            {
+                throw new IllegalArgumentException("Elements are not in order at position " + i);
+            }
+        }
+        if (length > 0)
+        {
+            checkFits(index - 1, block[0], index);
+            checkFits(index - 1, block[length - 1], index);
+        }
+        super.addBlock(index, block, length);
+    }
+
+    // =============== METODI PRIVATI DI SUPPORTO ===============
+
+    /**
+     * Verifica che l'elemento possa stare tra l'elemento in posizione {@code before} e quello in
+     * posizione {@code after}; le posizioni fuori dalla lista non pongono vincoli.
+     *
+     * @throws IllegalArgumentException se l'elemento violerebbe l'ordine della lista
+     */
+    private void checkFits(int before, Object element, int after)
+    {
+        Vector vector = storage();
+        if (before >= 0 && comparator.compare(vector.elementAt(before), element) > 0)
+        {
+            throw new IllegalArgumentException("Element is smaller than the one at index " + before);
+        }
+        if (after < vector.size() && comparator.compare(element, vector.elementAt(after)) > 0)
+        {
+            throw new IllegalArgumentException("Element is greater than the one at index " + after);
+        }
+    }
+
+    /** Restituisce il primo indice il cui elemento non è minore di {@code key}. */
+    private int lowerBound(Object key)
+    {
+        Vector vector = storage();
+        int lo = 0;
+        int hi = vector.size();
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(vector.elementAt(mid), key) < 0)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Restituisce il primo indice il cui elemento è maggiore di {@code key}. */
+    private int upperBound(Object key)
+    {
+        Vector vector = storage();
+        int lo = 0;
+        int hi = vector.size();
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(key, vector.elementAt(mid)) < 0)
+            {
+                hi = mid;
+            }
+            else
+            {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,1266 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import myAdapter.HCollection;
+import myAdapter.HComparator;
+import myAdapter.HElementCodec;
+import myAdapter.HIterator;
+import myAdapter.HList;
+import myAdapter.HListIterator;
+import myAdapter.ListAdapter;
+
+/**
+ * {@link myAdapter.HList} persistente che sopravvive ai crash, basata su un journal delle modifiche
+ * (write-ahead log) e su snapshot periodici.
+ * <p>
+ * Gli elementi sono mantenuti in memoria in una {@link myAdapter.ListAdapter}. Ogni modifica
+ * (inserimento, sostituzione, rimozione, inserimenti e rimozioni di intervalli, svuotamento,
+ * ordinamento) viene aggiunta in coda al file di journal come un record di pochi byte, invece
+ * di riscrivere l'intera lista. Ogni record è preceduto dalla lunghezza e da un CRC32: alla
+ * riapertura la lista viene ricostruita caricando l'ultimo snapshot e rieseguendo i record
+ * successivi, e un record incompleto in coda all'ultimo journal (scritto durante un crash) viene
+ * scartato. Gli elementi vengono scritti con un {@link myAdapter.HElementCodec}.
+ * </p>
+ * <p>
+ * <b>Commit di gruppo.</b> I record vengono accumulati in un buffer e scritti su disco con un
+ * unico {@code force} per più modifiche. Con un ritardo di commit pari a zero ogni modifica
+ * ritorna solo quando è su disco, ma le modifiche concorrenti di più thread che attendono lo
+ * stesso commit condividono un'unica sincronizzazione. Con un ritardo positivo le modifiche
+ * ritornano subito e un thread in background le rende persistenti ogni {@code batchDelayMillis}
+ * millisecondi: un crash può perdere al più le modifiche di quell'intervallo.
+ * {@link #sync()} rende subito persistenti tutte le modifiche precedenti. Un errore di un commit
+ * in background non ferma i commit successivi: viene conservato e rilanciato dalla modifica
+ * successiva, da {@link #sync()} o da {@link #close()}.
+ * </p>
+ * <p>
+ * <b>Compattazione.</b> Quando il journal supera la soglia di compattazione, la lista apre un
+ * nuovo journal e scrive in background uno snapshot del contenuto a quell'istante; lo snapshot
+ * viene scritto in un file temporaneo e poi rinominato, e solo allora vengono eliminati i
+ * journal che riassume. Un crash in qualsiasi momento lascia quindi sempre uno snapshot e dei
+ * journal coerenti.
+ * </p>
+ * <p>
+ * La directory della lista contiene {@code snapshot.bin} e i file {@code journal-N.log}, e deve
+ * essere usata da una sola istanza alla volta. I metodi sono sincronizzati sulla lista; iteratori
+ * e sottoliste registrano le modifiche nel journal come i metodi della lista. Dopo
+ * {@link #close()} ogni operazione lancia {@link myExceptions.IllegalStateException}.
+ * </p>
+ *
+ * @see myAdapter.ElementCodecs
+ */
+public class DurableListAdapter implements HList, Closeable
+{
+    /**
+     * Dimensione predefinita, in byte, oltre la quale il journal viene compattato in uno snapshot.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 4L << 20;
+
+    private static final String SNAPSHOT = "snapshot.bin";
+    private static final String SNAPSHOT_TEMP = "snapshot.tmp";
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+    private static final int SNAPSHOT_MAGIC = 0x484C5331;       // "HLS1"
+    private static final int VERSION = 1;
+    private static final int RECORD_HEADER = 8;                 // Lunghezza e CRC32 di un record
+
+    private static final int OP_ADD = 1;
+    private static final int OP_SET = 2;
+    private static final int OP_REMOVE = 3;
+    private static final int OP_ADD_RANGE = 4;
+    private static final int OP_SET_RANGE = 5;
+    private static final int OP_REMOVE_RANGE = 6;
+    private static final int OP_CLEAR = 7;
+
+    private final Path directory;                           // Directory di snapshot e journal
+    private final HElementCodec codec;                      // Codec degli elementi
+    private final long batchDelayMillis;                    // Ritardo massimo di un commit, 0 se sincrono
+    private final long compactionThreshold;                 // Byte di journal oltre i quali compattare
+    private final ListAdapter state = new ListAdapter();    // Contenuto della lista
+    private final Object ioLock = new Object();             // Serializza scritture del journal e rotazioni
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    private final DataOutputStream payloadOut = new DataOutputStream(payload);
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final ExecutorService compactor;                // Scrive gli snapshot in background
+    private final ScheduledExecutorService flusher;         // Commit periodici, null se sincrono
+    private final HList view;                               // Vista per iteratori e sottoliste
+
+    private FileChannel journal;            // Journal corrente
+    private long generation;                // Numero del journal corrente
+    private long journalBytes;              // Byte scritti nel journal corrente
+    private long appendedSeq;               // Record aggiunti al buffer (protetto da this)
+    private long durableSeq;                // Record scritti su disco (protetto da ioLock)
+    private Future<?> compaction;           // Compattazione in corso o ultima eseguita (protetto da ioLock)
+    private volatile IOException compactionFailure;
+    private RuntimeException flushFailure;  // Errore di un commit in background non ancora segnalato (protetto da this)
+    private volatile boolean closing;
+    private boolean closed;                 // Protetto da this
+
+    /**
+     * Apre la lista memorizzata nella directory specificata, creandola vuota se non esiste, con
+     * commit sincroni e la soglia di compattazione predefinita.
+     *
+     * @param directory la directory della lista
+     * @param codec il codec degli elementi
+     * @throws IOException se la directory non può essere letta o i file sono danneggiati
+     * @throws NullPointerException se la directory o il codec sono null
+     */
+    public DurableListAdapter(Path directory, HElementCodec codec) throws IOException
+    {
+        this(directory, codec, 0, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Apre la lista memorizzata nella directory specificata, creandola vuota se non esiste.
+     *
+     * @param directory la directory della lista
+     * @param codec il codec degli elementi
+     * @param batchDelayMillis il ritardo massimo, in millisecondi, con cui una modifica viene resa
+     *        persistente; con 0 ogni modifica ritorna solo quando è su disco
+     * @param compactionThreshold la dimensione in byte oltre la quale il journal viene compattato
+     * @throws IOException se la directory non può essere letta o i file sono danneggiati
+     * @throws NullPointerException se la directory o il codec sono null
+     * @throws IllegalArgumentException se il ritardo è negativo o la soglia non è positiva
+     */
+    public DurableListAdapter(Path directory, HElementCodec codec, long batchDelayMillis, long compactionThreshold) throws IOException
+    {
+        if (directory == null)
+        {
+            throw new NullPointerException("Directory cannot be null");
+        }
+        if (codec == null)
+        {
+            throw new NullPointerException("Codec cannot be null");
+        }
+        if (batchDelayMillis < 0)
+        {
+            throw new IllegalArgumentException("Illegal batch delay: " + batchDelayMillis);
+        }
+        if (compactionThreshold <= 0)
+        {
+            throw new IllegalArgumentException("Illegal compaction threshold: " + compactionThreshold);
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.batchDelayMillis = batchDelayMillis;
+        this.compactionThreshold = compactionThreshold;
+        recover();
+        view = ListBridges.asHList(new Records());
+        compactor = Executors.newSingleThreadExecutor(DAEMON);
+        if (batchDelayMillis > 0)
+        {
+            flusher = Executors.newSingleThreadScheduledExecutor(DAEMON);
+            flusher.scheduleWithFixedDelay(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        sync();
+                    }
+                    catch (RuntimeException e)
+                    {
+                        // Un'eccezione annullerebbe tutte le esecuzioni successive del task
+                        synchronized (DurableListAdapter.this)
+                        {
+                            if (flushFailure == null && !closed)
+                            {
+                                flushFailure = e;
+                            }
+                        }
+                    }
+                }
+            }, batchDelayMillis, batchDelayMillis, TimeUnit.MILLISECONDS);
+        }
+        else
+        {
+            flusher = null;
+        }
+    }
+
+    private static final ThreadFactory DAEMON = new ThreadFactory()
+    {
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, "DurableListAdapter");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    // =============== PERSISTENZA ===============
+
+    /**
+     * Rende persistenti tutte le modifiche eseguite finora, con un'unica sincronizzazione del journal.
+     *
+     * @throws myExceptions.IllegalStateException se la lista è stata chiusa
+     * @throws UncheckedIOException se il journal non può essere scritto, anche da un commit
+     *         in background precedente
+     */
+    public void sync()
+    {
+        long seq;
+        synchronized (this)
+        {
+            ensureOpen();
+            rethrowFlushFailure();
+            seq = appendedSeq;
+        }
+        commitUpTo(seq);
+    }
+
+    /**
+     * Compatta subito il journal in uno snapshot e attende che lo snapshot sia scritto.
+     *
+     * @throws IOException se lo snapshot non può essere scritto
+     * @throws myExceptions.IllegalStateException se la lista è stata chiusa
+     */
+    public void compact() throws IOException
+    {
+        Future<?> done;
+        synchronized (ioLock)
+        {
+            await(compaction);
+            commit();
+            done = rotate();
+        }
+        await(done);
+    }
+
+    /**
+     * Rende persistenti le modifiche, attende la compattazione in corso e chiude il journal.
+     * Chiamare questo metodo su una lista già chiusa non ha effetto.
+     *
+     * @throws IOException se il journal non può essere scritto, anche da un commit in background
+     *         non ancora segnalato, o l'ultima compattazione non è riuscita
+     */
+    public void close() throws IOException
+    {
+        synchronized (this)
+        {
+            if (closed || closing)
+            {
+                return;
+            }
+            closing = true;
+        }
+        if (flusher != null)
+        {
+            flusher.shutdown();
+            awaitTermination(flusher);
+        }
+        synchronized (ioLock)
+        {
+            try
+            {
+                commit();
+            }
+            finally
+            {
+                compactor.shutdown();
+                awaitTermination(compactor);
+                synchronized (this)
+                {
+                    closed = true;
+                }
+                journal.close();
+            }
+        }
+        RuntimeException failure;
+        synchronized (this)
+        {
+            failure = flushFailure;
+            flushFailure = null;
+        }
+        if (failure instanceof UncheckedIOException)
+        {
+            throw ((UncheckedIOException) failure).getCause();
+        }
+        if (failure != null)
+        {
+            throw failure;
+        }
+        if (compactionFailure != null)
+        {
+            throw compactionFailure;
+        }
+    }
+
+    /**
+     * Attende la terminazione di un esecutore.
+     */
+    private static void awaitTermination(ExecutorService executor) throws InterruptedIOException
+    {
+        try
+        {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the list");
+        }
+    }
+
+    /**
+     * Attende la fine di una compattazione e ne rilancia l'eventuale errore.
+     */
+    private static void await(Future<?> task) throws IOException
+    {
+        if (task == null)
+        {
+            return;
+        }
+        try
+        {
+            task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compacting the list");
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private void ensureOpen()
+    {
+        if (closed)
+        {
+            throw new myExceptions.IllegalStateException("List has been closed");
+        }
+    }
+
+    /**
+     * Rilancia, una sola volta, l'errore di un commit in background. Va chiamato tenendo il
+     * lock della lista.
+     */
+    private void rethrowFlushFailure()
+    {
+        RuntimeException failure = flushFailure;
+        if (failure != null)
+        {
+            flushFailure = null;
+            throw failure;
+        }
+    }
+
+    // =============== JOURNAL ===============
+
+    /**
+     * Inizia la codifica di un record nel buffer {@code payload}, dopo aver rilanciato l'eventuale
+     * errore di un commit in background.
+     */
+    private void begin(int op)
+    {
+        ensureOpen();
+        rethrowFlushFailure();
+        payload.reset();
+        payload.write(op);
+    }
+
+    private void writeElement(Object element)
+    {
+        try
+        {
+            codec.write(payloadOut, element);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeInt(int value)
+    {
+        try
+        {
+            payloadOut.writeInt(value);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Aggiunge al buffer dei record il record codificato in {@code payload}, preceduto dalla
+     * lunghezza e dal CRC32, e ne restituisce il numero di sequenza. Va chiamato dopo aver
+     * applicato la modifica, in modo che le modifiche non valide non vengano registrate.
+     */
+    private long append()
+    {
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        writeIntTo(pending, bytes.length);
+        writeIntTo(pending, (int) crc.getValue());
+        pending.write(bytes, 0, bytes.length);
+        return ++appendedSeq;
+    }
+
+    private static void writeIntTo(ByteArrayOutputStream out, int value)
+    {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Attende che il record specificato sia su disco se i commit sono sincroni.
+     */
+    private void commitIfSynchronous(long seq)
+    {
+        if (batchDelayMillis == 0)
+        {
+            commitUpTo(seq);
+        }
+    }
+
+    /**
+     * Rende persistente il record specificato. I thread che attendono mentre un altro esegue un
+     * commit trovano di solito anche i propri record già scritti da quel commit, e ritornano
+     * senza sincronizzare di nuovo il journal.
+     */
+    private void commitUpTo(long seq)
+    {
+        synchronized (ioLock)
+        {
+            if (durableSeq >= seq)
+            {
+                return;
+            }
+            try
+            {
+                commit();
+                if (journalBytes >= compactionThreshold && !closing && (compaction == null || compaction.isDone()))
+                {
+                    rotate();
+                }
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Scrive e sincronizza su disco tutti i record nel buffer. Va chiamato tenendo {@code ioLock}.
+     */
+    private void commit() throws IOException
+    {
+        byte[] batch;
+        long target;
+        synchronized (this)
+        {
+            batch = pending.toByteArray();
+            pending.reset();
+            target = appendedSeq;
+        }
+        if (batch.length > 0)
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(batch);
+            while (buffer.hasRemaining())
+            {
+                journal.write(buffer);
+            }
+            journal.force(false);
+            journalBytes += batch.length;
+        }
+        durableSeq = target;
+    }
+
+    /**
+     * Apre un nuovo journal e avvia la scrittura in background di uno snapshot del contenuto
+     * attuale. Va chiamato tenendo {@code ioLock}.
+     */
+    private Future<?> rotate() throws IOException
+    {
+        final Object[] elements;
+        final long snapshotGeneration;
+        synchronized (this)
+        {
+            ensureOpen();
+            commit();                   // I record aggiunti dopo l'ultimo commit appartengono al vecchio journal
+            elements = state.toArray();
+            FileChannel next = openJournal(generation + 1);
+            journal.close();
+            journal = next;
+            generation++;
+            journalBytes = 0;
+            snapshotGeneration = generation;
+        }
+        compaction = compactor.submit(new java.util.concurrent.Callable<Object>()
+        {
+            public Object call() throws IOException
+            {
+                try
+                {
+                    writeSnapshot(elements, snapshotGeneration);
+                    compactionFailure = null;
+                }
+                catch (IOException e)
+                {
+                    compactionFailure = e;
+                    throw e;
+                }
+                return null;
+            }
+        });
+        return compaction;
+    }
+
+    private FileChannel openJournal(long number) throws IOException
+    {
+        return FileChannel.open(journalFile(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path journalFile(long number)
+    {
+        return directory.resolve(JOURNAL_PREFIX + number + JOURNAL_SUFFIX);
+    }
+
+    // =============== SNAPSHOT E RECUPERO ===============
+
+    /**
+     * Scrive lo snapshot in un file temporaneo, lo sostituisce a quello precedente ed elimina
+     * i journal che riassume.
+     */
+    private void writeSnapshot(Object[] elements, long snapshotGeneration) throws IOException
+    {
+        Path temp = directory.resolve(SNAPSHOT_TEMP);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)), crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshotGeneration);
+            out.writeInt(elements.length);
+            for (int i = 0; i < elements.length; i++)
+            {
+                codec.write(out, elements[i]);
+            }
+            out.flush();
+            ByteBuffer trailer = ByteBuffer.allocate(4);
+            trailer.putInt(0, (int) crc.getValue());
+            while (trailer.hasRemaining())
+            {
+                channel.write(trailer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        for (long number : journalNumbers())
+        {
+            if (number < snapshotGeneration)
+            {
+                Files.deleteIfExists(journalFile(number));
+            }
+        }
+    }
+
+    /**
+     * Rende persistente la ridenominazione dello snapshot, dove il sistema lo consente.
+     */
+    private void syncDirectory()
+    {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ))
+        {
+            channel.force(true);
+        }
+        catch (IOException e)
+        {
+            // Non tutti i sistemi permettono di sincronizzare una directory
+        }
+    }
+
+    /**
+     * Ricostruisce il contenuto dallo snapshot e dai journal successivi, e apre l'ultimo journal.
+     */
+    private void recover() throws IOException
+    {
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(SNAPSHOT_TEMP));
+        long snapshotGeneration = 0;
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (Files.exists(snapshot))
+        {
+            snapshotGeneration = loadSnapshot(snapshot);
+        }
+        generation = snapshotGeneration;
+        List<Long> numbers = journalNumbers();
+        for (int i = 0; i < numbers.size(); i++)
+        {
+            long number = numbers.get(i).longValue();
+            if (number < snapshotGeneration)
+            {
+                Files.delete(journalFile(number));      // Già riassunto dallo snapshot
+                continue;
+            }
+            boolean last = i == numbers.size() - 1;
+            long valid = replay(journalFile(number));
+            if (valid < Files.size(journalFile(number)))
+            {
+                if (!last)
+                {
+                    throw new IOException("Corrupted journal: " + journalFile(number));
+                }
+                try (FileChannel channel = FileChannel.open(journalFile(number), StandardOpenOption.WRITE))
+                {
+                    channel.truncate(valid);            // Scarta il record incompleto scritto durante un crash
+                    channel.force(true);
+                }
+            }
+            generation = number;
+        }
+        journal = openJournal(generation);
+        journalBytes = journal.size();
+    }
+
+    /**
+     * Restituisce i numeri dei journal presenti nella directory, in ordine crescente.
+     */
+    private List<Long> journalNumbers() throws IOException
+    {
+        List<Long> numbers = new ArrayList<Long>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, JOURNAL_PREFIX + "*" + JOURNAL_SUFFIX))
+        {
+            for (Path file : files)
+            {
+                String name = file.getFileName().toString();
+                try
+                {
+                    numbers.add(Long.valueOf(name.substring(JOURNAL_PREFIX.length(), name.length() - JOURNAL_SUFFIX.length())));
+                }
+                catch (NumberFormatException e)
+                {
+                    // Non è un journal della lista
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * Carica lo snapshot specificato e ne restituisce la generazione.
+     */
+    private long loadSnapshot(Path snapshot) throws IOException
+    {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(Files.newInputStream(snapshot)), crc)))
+        {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != VERSION)
+            {
+                throw new IOException("Not a list snapshot: " + snapshot);
+            }
+            long snapshotGeneration = in.readLong();
+            int count = in.readInt();
+            if (count < 0)
+            {
+                throw new IOException("Corrupted snapshot: " + snapshot);
+            }
+            // Il numero di elementi non è ancora verificato dal CRC: l'array parte dai byte del file
+            // e cresce solo con gli elementi letti
+            Object[] elements = new Object[(int) Math.min(count, Files.size(snapshot))];
+            for (int i = 0; i < count; i++)
+            {
+                if (i == elements.length)
+                {
+                    elements = Arrays.copyOf(elements, (int) Math.min(count, 2L * i + 1));
+                }
+                elements[i] = codec.read(in);
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected)
+            {
+                throw new IOException("Corrupted snapshot: " + snapshot);
+            }
+            state.addAll(ListBridges.asHList(Arrays.asList(elements)));
+            return snapshotGeneration;
+        }
+        catch (EOFException e)
+        {
+            throw new IOException("Truncated snapshot: " + snapshot, e);
+        }
+    }
+
+    /**
+     * Riesegue i record validi del journal specificato e restituisce la posizione in byte
+     * della fine dell'ultimo record valido.
+     */
+    private long replay(Path file) throws IOException
+    {
+        long length = Files.size(file);
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            while (length - position >= RECORD_HEADER)
+            {
+                int size = in.readInt();
+                int checksum = in.readInt();
+                if (size <= 0 || size > length - position - RECORD_HEADER)
+                {
+                    break;                              // Record incompleto
+                }
+                byte[] bytes = new byte[size];
+                in.readFully(bytes);
+                CRC32 crc = new CRC32();
+                crc.update(bytes, 0, size);
+                if ((int) crc.getValue() != checksum)
+                {
+                    break;                              // Record scritto solo in parte
+                }
+                try
+                {
+                    apply(new DataInputStream(new ByteArrayInputStream(bytes)));
+                }
+                catch (IndexOutOfBoundsException e)
+                {
+                    throw new IOException("Invalid journal record at " + position + ": " + file, e);
+                }
+                position += RECORD_HEADER + size;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Applica al contenuto un record letto dal journal.
+     */
+    private void apply(DataInputStream in) throws IOException
+    {
+        int op = in.readUnsignedByte();
+        switch (op)
+        {
+            case OP_ADD:
+                int index = in.readInt();
+                state.add(index, codec.read(in));
+                break;
+            case OP_SET:
+                int position = in.readInt();
+                state.set(position, codec.read(in));
+                break;
+            case OP_REMOVE:
+                state.remove(in.readInt());
+                break;
+            case OP_ADD_RANGE:
+                int at = in.readInt();
+                state.addAll(at, ListBridges.asHList(Arrays.asList(readElements(in))));
+                break;
+            case OP_SET_RANGE:
+                int from = in.readInt();
+                Object[] elements = readElements(in);
+                for (int i = 0; i < elements.length; i++)
+                {
+                    state.set(from + i, elements[i]);
+                }
+                break;
+            case OP_REMOVE_RANGE:
+                int start = in.readInt();
+                int end = in.readInt();
+                state.subList(start, end).clear();
+                break;
+            case OP_CLEAR:
+                state.clear();
+                break;
+            default:
+                throw new IOException("Unknown journal operation: " + op);
+        }
+    }
+
+    private Object[] readElements(DataInputStream in) throws IOException
+    {
+        int count = in.readInt();
+        if (count < 0)
+        {
+            throw new IOException("Negative element count: " + count);
+        }
+        Object[] elements = new Object[count];
+        for (int i = 0; i < count; i++)
+        {
+            elements[i] = codec.read(in);
+        }
+        return elements;
+    }
+
+    // =============== MODIFICHE ===============
+
+    // I metodi privati seguenti vanno chiamati tenendo il lock della lista: applicano la modifica,
+    // la aggiungono al buffer dei record e restituiscono il numero di sequenza del record. Il
+    // commit avviene dopo aver rilasciato il lock, così gli altri thread possono continuare a
+    // modificare la lista e i loro record entrano nello stesso commit.
+
+    private long insert(int index, Object element)
+    {
+        begin(OP_ADD);
+        writeInt(index);
+        writeElement(element);
+        state.add(index, element);
+        return append();
+    }
+
+    private long insertAll(int index, Object[] elements)
+    {
+        begin(OP_ADD_RANGE);
+        writeInt(index);
+        writeInt(elements.length);
+        for (int i = 0; i < elements.length; i++)
+        {
+            writeElement(elements[i]);
+        }
+        state.addAll(index, ListBridges.asHList(Arrays.asList(elements)));
+        return append();
+    }
+
+    private long delete(int index)
+    {
+        begin(OP_REMOVE);
+        writeInt(index);
+        state.remove(index);
+        return append();
+    }
+
+    private long deleteRange(int fromIndex, int toIndex)
+    {
+        begin(OP_REMOVE_RANGE);
+        writeInt(fromIndex);
+        writeInt(toIndex);
+        state.subList(fromIndex, toIndex).clear();
+        return append();
+    }
+
+    public boolean add(Object o)
+    {
+        long seq;
+        synchronized (this)
+        {
+            ensureOpen();
+            seq = insert(state.size(), o);
+        }
+        commitIfSynchronous(seq);
+        return true;
+    }
+
+    public void add(int index, Object element)
+    {
+        long seq;
+        synchronized (this)
+        {
+            seq = insert(index, element);
+        }
+        commitIfSynchronous(seq);
+    }
+
+    /**
+     * Aggiunge in coda gli elementi della collezione specificata registrando un unico record nel journal.
+     */
+    public boolean addAll(HCollection c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        Object[] elements = c.toArray();
+        if (elements.length == 0)
+        {
+            return false;
+        }
+        long seq;
+        synchronized (this)
+        {
+            ensureOpen();
+            seq = insertAll(state.size(), elements);
+        }
+        commitIfSynchronous(seq);
+        return true;
+    }
+
+    /**
+     * Inserisce gli elementi della collezione specificata registrando un unico record nel journal.
+     */
+    public boolean addAll(int index, HCollection c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        Object[] elements = c.toArray();
+        long seq;
+        synchronized (this)
+        {
+            ensureOpen();
+            if (index < 0 || index > state.size())
+            {
+                throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+            }
+            if (elements.length == 0)
+            {
+                return false;
+            }
+            seq = insertAll(index, elements);
+        }
+        commitIfSynchronous(seq);
+        return true;
+    }
+
+    public Object set(int index, Object element)
+    {
+        long seq;
+        Object old;
+        synchronized (this)
+        {
+            begin(OP_SET);
+            writeInt(index);
+            writeElement(element);
+            old = state.set(index, element);
+            seq = append();
+        }
+        commitIfSynchronous(seq);
+        return old;
+    }
+
+    public Object remove(int index)
+    {
+        long seq;
+        Object old;
+        synchronized (this)
+        {
+            ensureOpen();
+            old = state.get(index);
+            seq = delete(index);
+        }
+        commitIfSynchronous(seq);
+        return old;
+    }
+
+    public boolean remove(Object o)
+    {
+        long seq;
+        synchronized (this)
+        {
+            ensureOpen();
+            int index = state.indexOf(o);
+            if (index < 0)
+            {
+                return false;
+            }
+            seq = delete(index);
+        }
+        commitIfSynchronous(seq);
+        return true;
+    }
+
+    /**
+     * Rimuove gli elementi nell'intervallo specificato registrando un unico record nel journal.
+     */
+    private void removeRange(int fromIndex, int toIndex)
+    {
+        long seq;
+        synchronized (this)
+        {
+            seq = deleteRange(fromIndex, toIndex);
+        }
+        commitIfSynchronous(seq);
+    }
+
+    /**
+     * Rimuove gli elementi contenuti nella collezione specificata; ogni sequenza di elementi
+     * consecutivi rimossi viene registrata con un unico record.
+     */
+    public boolean removeAll(HCollection c)
+    {
+        return removeMatching(c, true);
+    }
+
+    /**
+     * Mantiene solo gli elementi contenuti nella collezione specificata; ogni sequenza di elementi
+     * consecutivi rimossi viene registrata con un unico record.
+     */
+    public boolean retainAll(HCollection c)
+    {
+        return removeMatching(c, false);
+    }
+
+    private boolean removeMatching(HCollection c, boolean present)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        long seq = 0;
+        synchronized (this)
+        {
+            ensureOpen();
+            int end = state.size();
+            while (end > 0)                     // Dalla coda, così gli indici delle sequenze precedenti non cambiano
+            {
+                while (end > 0 && c.contains(state.get(end - 1)) != present)
+                {
+                    end--;
+                }
+                int start = end;
+                while (start > 0 && c.contains(state.get(start - 1)) == present)
+                {
+                    start--;
+                }
+                if (start < end)
+                {
+                    seq = deleteRange(start, end);
+                }
+                end = start;
+            }
+        }
+        if (seq == 0)
+        {
+            return false;
+        }
+        commitIfSynchronous(seq);
+        return true;
+    }
+
+    public void clear()
+    {
+        long seq;
+        synchronized (this)
+        {
+            begin(OP_CLEAR);
+            state.clear();
+            seq = append();
+        }
+        commitIfSynchronous(seq);
+    }
+
+    /**
+     * Ordina la lista e registra il nuovo ordine con un unico record. Se il comparatore lancia
+     * un'eccezione la lista non viene modificata.
+     */
+    public void sort(HComparator c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        long seq;
+        synchronized (this)
+        {
+            ensureOpen();
+            ListAdapter sorted = new ListAdapter();
+            sorted.addAll(state);
+            sorted.sort(c);
+            begin(OP_SET_RANGE);
+            writeInt(0);
+            writeInt(sorted.size());
+            for (int i = 0; i < sorted.size(); i++)
+            {
+                writeElement(sorted.get(i));
+            }
+            for (int i = 0; i < sorted.size(); i++)
+            {
+                state.set(i, sorted.get(i));
+            }
+            seq = append();
+        }
+        commitIfSynchronous(seq);
+    }
+
+    // =============== LETTURE ===============
+
+    public synchronized int size()
+    {
+        ensureOpen();
+        return state.size();
+    }
+
+    public synchronized boolean isEmpty()
+    {
+        ensureOpen();
+        return state.isEmpty();
+    }
+
+    public synchronized boolean contains(Object o)
+    {
+        ensureOpen();
+        return state.contains(o);
+    }
+
+    public synchronized boolean containsAll(HCollection c)
+    {
+        ensureOpen();
+        return state.containsAll(c);
+    }
+
+    public synchronized Object get(int index)
+    {
+        ensureOpen();
+        return state.get(index);
+    }
+
+    public synchronized int indexOf(Object o)
+    {
+        ensureOpen();
+        return state.indexOf(o);
+    }
+
+    public synchronized int lastIndexOf(Object o)
+    {
+        ensureOpen();
+        return state.lastIndexOf(o);
+    }
+
+    public synchronized Object[] toArray()
+    {
+        ensureOpen();
+        return state.toArray();
+    }
+
+    public synchronized Object[] toArray(Object[] a)
+    {
+        ensureOpen();
+        return state.toArray(a);
+    }
+
+    /**
+     * Restituisce un iteratore i cui {@code remove()} vengono registrati nel journal.
+     */
+    public HIterator iterator()
+    {
+        return view.iterator();
+    }
+
+    /**
+     * Restituisce un iteratore di lista le cui modifiche vengono registrate nel journal.
+     */
+    public HListIterator listIterator()
+    {
+        return view.listIterator();
+    }
+
+    /**
+     * Restituisce un iteratore di lista, a partire dalla posizione specificata, le cui modifiche
+     * vengono registrate nel journal.
+     */
+    public HListIterator listIterator(int index)
+    {
+        return view.listIterator(index);
+    }
+
+    /**
+     * Restituisce una sottolista le cui modifiche vengono registrate nel journal; {@code clear()}
+     * registra un unico record.
+     */
+    public HList subList(int fromIndex, int toIndex)
+    {
+        return view.subList(fromIndex, toIndex);
+    }
+
+    /**
+     * Confronta questa lista con l'oggetto specificato secondo il contratto di {@link myAdapter.HList#equals(Object)}.
+     */
+    public synchronized boolean equals(Object o)
+    {
+        return o == this || state.equals(o);
+    }
+
+    public synchronized int hashCode()
+    {
+        return state.hashCode();
+    }
+
+    public synchronized String toString()
+    {
+        return state.toString();
+    }
+
+    /**
+     * Vista {@code java.util.List} della lista, da cui {@code AbstractList} ricava iteratori e
+     * sottoliste; ogni modifica passa dai metodi della lista, che la registrano nel journal.
+     */
+    private class Records extends AbstractList<Object> implements RandomAccess
+    {
+        public int size()
+        {
+            return DurableListAdapter.this.size();
+        }
+
+        public Object get(int index)
+        {
+            return DurableListAdapter.this.get(index);
+        }
+
+        public Object set(int index, Object element)
+        {
+            return DurableListAdapter.this.set(index, element);
+        }
+
+        public void add(int index, Object element)
+        {
+            DurableListAdapter.this.add(index, element);
+            modCount++;
+        }
+
+        public Object remove(int index)
+        {
+            Object old = DurableListAdapter.this.remove(index);
+            modCount++;
+            return old;
+        }
+
+        protected void removeRange(int fromIndex, int toIndex)
+        {
+            if (fromIndex < toIndex)
+            {
+                DurableListAdapter.this.removeRange(fromIndex, toIndex);
+            }
+            modCount++;
+        }
+    }
+}
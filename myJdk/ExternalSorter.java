@@ -0,0 +1,526 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import myAdapter.HComparator;
+import myAdapter.HElementCodec;
+import myAdapter.HIterator;
+import myAdapter.HList;
+
+/**
+ * Ordinamento esterno (merge sort su file) per liste che non entrano in memoria, come
+ * {@link PagedListAdapter}, {@link MappedListAdapter} o {@link SpillingListAdapter}.
+ * <p>
+ * La lista sorgente viene letta una sola volta con un iteratore, a blocchi di {@code runSize}
+ * elementi: ogni blocco viene ordinato in memoria e scritto con un {@link myAdapter.HElementCodec}
+ * in un file temporaneo (una <i>run</i> ordinata). Le run vengono poi fuse con un heap binario,
+ * leggendole in parallelo con un buffer ciascuna, e il risultato viene aggiunto in coda a una
+ * lista oppure scritto in un checkpoint leggibile con {@link ListCheckpoint#load}. Se le run sono
+ * più di {@code fanIn}, gruppi di {@code fanIn} run consecutive vengono prima fusi in run più
+ * lunghe, così che la memoria usata dalla fusione resti limitata. L'ordinamento è stabile: a
+ * parità di comparatore vale l'ordine nella sorgente. Se tutti gli elementi entrano in una sola
+ * run non viene scritto alcun file.
+ * </p>
+ * <p>
+ * In memoria restano al più {@code runSize} elementi durante la creazione delle run e
+ * {@code fanIn} buffer di lettura durante la fusione. Le run vengono scritte in una cartella
+ * temporanea, eliminata al termine dell'ordinamento anche in caso di errore. Un'istanza può
+ * eseguire più ordinamenti, uno alla volta.
+ * </p>
+ */
+public final class ExternalSorter
+{
+    /**
+     * Numero predefinito di run fuse in un passaggio.
+     */
+    public static final int DEFAULT_FAN_IN = 64;
+
+    private static final int BUFFER_SIZE = 1 << 16;     // Byte del buffer di ogni run
+
+    private final HElementCodec codec;                  // Codec degli elementi delle run
+    private final HComparator comparator;               // Ordine degli elementi
+    private final int runSize;                          // Elementi massimi di una run creata dalla sorgente
+    private final int fanIn;                            // Run massime fuse in un passaggio
+    private final Path directory;                       // Directory delle cartelle temporanee
+    private int runs;                                   // Run create dall'ultimo ordinamento
+    private int mergePasses;                            // Passaggi di fusione intermedi dell'ultimo ordinamento
+
+    /**
+     * Costruisce un ordinatore con run di {@code runSize} elementi, che fonde al più
+     * {@value #DEFAULT_FAN_IN} run per passaggio e scrive le run nella directory temporanea di sistema.
+     *
+     * @param codec il codec degli elementi
+     * @param comparator il comparatore che definisce l'ordine
+     * @param runSize il numero massimo di elementi ordinati in memoria
+     * @throws NullPointerException se il codec o il comparatore sono null
+     * @throws IllegalArgumentException se {@code runSize} è minore di 1
+     */
+    public ExternalSorter(HElementCodec codec, HComparator comparator, int runSize)
+    {
+        this(codec, comparator, runSize, DEFAULT_FAN_IN, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Costruisce un ordinatore.
+     *
+     * @param codec il codec degli elementi
+     * @param comparator il comparatore che definisce l'ordine
+     * @param runSize il numero massimo di elementi ordinati in memoria
+     * @param fanIn il numero massimo di run fuse in un passaggio
+     * @param directory la directory in cui creare la cartella temporanea delle run
+     * @throws NullPointerException se il codec, il comparatore o la directory sono null
+     * @throws IllegalArgumentException se {@code runSize} è minore di 1 o {@code fanIn} è minore di 2
+     */
+    public ExternalSorter(HElementCodec codec, HComparator comparator, int runSize, int fanIn, Path directory)
+    {
+        if (codec == null || comparator == null || directory == null)
+        {
+            throw new NullPointerException("Codec, comparator and directory cannot be null");
+        }
+        if (runSize < 1)
+        {
+            throw new IllegalArgumentException("Illegal run size: " + runSize);
+        }
+        if (fanIn < 2)
+        {
+            throw new IllegalArgumentException("Illegal fan-in: " + fanIn);
+        }
+        this.codec = codec;
+        this.comparator = comparator;
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.directory = directory;
+    }
+
+    /**
+     * Ordina gli elementi della sorgente e li aggiunge in coda alla destinazione. Se la
+     * destinazione è la sorgente stessa, il suo contenuto viene sostituito dagli elementi ordinati:
+     * le run vengono prima fuse per intero in un'ultima run su file, e la sorgente viene svuotata
+     * solo quando la fusione è riuscita, così che un errore durante la lettura o il confronto delle
+     * run la lasci invariata. Solo un errore nella rilettura di quest'ultima run o nell'aggiunta
+     * degli elementi può lasciare la sorgente incompleta.
+     *
+     * @param source la lista da ordinare
+     * @param target la lista a cui aggiungere gli elementi ordinati
+     * @throws IOException se le run non possono essere scritte o lette
+     * @throws NullPointerException se una delle liste è null
+     * @throws IllegalArgumentException se il codec non supporta il tipo di un elemento
+     * @throws ClassCastException se il comparatore non può confrontare due elementi
+     */
+    public void sort(HList source, HList target) throws IOException
+    {
+        if (source == null || target == null)
+        {
+            throw new NullPointerException("Source and target cannot be null");
+        }
+        Path work = Files.createTempDirectory(directory, "sort");
+        Merger merger = null;
+        try
+        {
+            merger = prepare(source, work);
+            if (target == source)
+            {
+                if (merger.memory == null)
+                {
+                    Run sorted = write(merger, work.resolve("sorted"));
+                    merger = new Merger(Collections.singletonList(sorted));
+                }
+                target.clear();
+            }
+            while (merger.hasNext())
+            {
+                target.add(merger.next());
+            }
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            if (merger != null)
+            {
+                merger.close();
+            }
+            delete(work);
+        }
+    }
+
+    /**
+     * Ordina gli elementi della sorgente e li scrive in un checkpoint nel file specificato,
+     * sostituendolo in modo atomico; la lista ordinata si carica con {@link ListCheckpoint#load}
+     * usando lo stesso codec. La sorgente non viene modificata.
+     *
+     * @param source la lista da ordinare
+     * @param file il file del checkpoint
+     * @throws IOException se le run o il checkpoint non possono essere scritti o letti
+     * @throws NullPointerException se la lista o il file sono null
+     * @throws IllegalArgumentException se il codec non supporta il tipo di un elemento
+     * @throws ClassCastException se il comparatore non può confrontare due elementi
+     */
+    public void sort(HList source, Path file) throws IOException
+    {
+        if (source == null || file == null)
+        {
+            throw new NullPointerException("Source and file cannot be null");
+        }
+        Path work = Files.createTempDirectory(directory, "sort");
+        Merger merger = null;
+        try
+        {
+            merger = prepare(source, work);
+            ListCheckpoint.save(merger, merger.size, file, codec);
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            if (merger != null)
+            {
+                merger.close();
+            }
+            delete(work);
+        }
+    }
+
+    /**
+     * Restituisce il numero di run create dall'ultimo ordinamento; 1 se gli elementi sono stati
+     * ordinati interamente in memoria.
+     *
+     * @return il numero di run dell'ultimo ordinamento
+     */
+    public int runs()
+    {
+        return runs;
+    }
+
+    /**
+     * Restituisce il numero di passaggi di fusione intermedi dell'ultimo ordinamento, necessari
+     * quando le run sono più di {@code fanIn}. La fusione finale non è conteggiata.
+     *
+     * @return il numero di passaggi intermedi dell'ultimo ordinamento
+     */
+    public int mergePasses()
+    {
+        return mergePasses;
+    }
+
+    // =============== CREAZIONE E FUSIONE DELLE RUN ===============
+
+    /**
+     * Run ordinata scritta in un file.
+     */
+    private static final class Run
+    {
+        final Path file;        // File della run
+        final int size;         // Numero di elementi
+
+        Run(Path file, int size)
+        {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Crea le run dalla sorgente, esegue i passaggi intermedi e restituisce la fusione finale.
+     */
+    private Merger prepare(HList source, Path work) throws IOException
+    {
+        runs = 0;
+        mergePasses = 0;
+        Comparator<Object> order = new Comparator<Object>()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return comparator.compare(o1, o2);
+            }
+        };
+        List<Run> pending = new ArrayList<Run>();
+        Object[] buffer = new Object[Math.min(runSize, Math.max(1, source.size()))];
+        HIterator it = source.iterator();
+        while (it.hasNext())
+        {
+            int n = 0;
+            while (n < buffer.length && it.hasNext())
+            {
+                buffer[n++] = it.next();
+            }
+            Arrays.sort(buffer, 0, n, order);                   // Stabile
+            runs++;
+            if (!it.hasNext() && pending.isEmpty())             // Una sola run: nessun file
+            {
+                return new Merger(n == buffer.length ? buffer : Arrays.copyOf(buffer, n));
+            }
+            Path file = work.resolve("run-" + runs);
+            try (DataOutputStream out = output(file))
+            {
+                for (int i = 0; i < n; i++)
+                {
+                    codec.write(out, buffer[i]);
+                }
+            }
+            pending.add(new Run(file, n));
+        }
+        buffer = null;
+        if (pending.isEmpty())
+        {
+            return new Merger(new Object[0]);
+        }
+        int generated = runs;
+        while (pending.size() > fanIn)
+        {
+            mergePasses++;
+            List<Run> merged = new ArrayList<Run>();
+            for (int from = 0; from < pending.size(); from += fanIn)
+            {
+                List<Run> group = pending.subList(from, Math.min(from + fanIn, pending.size()));
+                Run run = write(new Merger(group), work.resolve("run-" + (++generated)));
+                for (int r = 0; r < group.size(); r++)
+                {
+                    Files.delete(group.get(r).file);
+                }
+                merged.add(run);
+            }
+            pending = merged;
+        }
+        return new Merger(pending);
+    }
+
+    /**
+     * Scrive in una nuova run tutti gli elementi della fusione, chiudendola anche in caso di errore.
+     */
+    private Run write(Merger merger, Path file) throws IOException
+    {
+        try (DataOutputStream out = output(file))
+        {
+            while (merger.hasNext())
+            {
+                codec.write(out, merger.next());
+            }
+        }
+        finally
+        {
+            merger.close();
+        }
+        return new Run(file, merger.size);
+    }
+
+    private static DataOutputStream output(Path file) throws IOException
+    {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    /**
+     * Elimina la cartella temporanea e le run che contiene.
+     */
+    private static void delete(Path work) throws IOException
+    {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(work))
+        {
+            for (Path file : files)
+            {
+                Files.delete(file);
+            }
+        }
+        Files.delete(work);
+    }
+
+    /**
+     * Iteratore che fonde run ordinate con un heap binario delle run, ordinato per elemento
+     * corrente e, a parità, per posizione della run. Ogni run viene chiusa quando si esaurisce.
+     * Per una sola run in memoria restituisce semplicemente i suoi elementi.
+     */
+    private final class Merger implements HIterator
+    {
+        final int size;                 // Numero totale di elementi
+        private final Object[] memory;  // Elementi della run in memoria, null se si fondono file
+        private DataInputStream[] inputs;
+        private int[] remaining;        // Elementi non ancora letti di ogni run
+        private Object[] heads;         // Elemento corrente di ogni run
+        private int[] heap;             // Indici delle run non esaurite, ordinati come heap
+        private int heapSize;
+        private int returned;           // Elementi già restituiti
+
+        Merger(Object[] memory)
+        {
+            this.memory = memory;
+            this.size = memory.length;
+        }
+
+        Merger(List<Run> runs) throws IOException
+        {
+            memory = null;
+            int k = runs.size();
+            inputs = new DataInputStream[k];
+            remaining = new int[k];
+            heads = new Object[k];
+            heap = new int[k];
+            long total = 0;
+            try
+            {
+                for (int r = 0; r < k; r++)
+                {
+                    Run run = runs.get(r);
+                    total += run.size;
+                    inputs[r] = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file), BUFFER_SIZE));
+                    remaining[r] = run.size;
+                    if (advance(r))
+                    {
+                        heap[heapSize++] = r;
+                    }
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                close();
+                throw e;
+            }
+            if (total > Integer.MAX_VALUE)
+            {
+                close();
+                throw new IOException("Too many elements: " + total);
+            }
+            size = (int) total;
+            for (int i = heapSize / 2 - 1; i >= 0; i--)
+            {
+                siftDown(i);
+            }
+        }
+
+        public boolean hasNext()
+        {
+            return returned < size;
+        }
+
+        public Object next()
+        {
+            if (returned >= size)
+            {
+                throw new java.util.NoSuchElementException();
+            }
+            returned++;
+            if (memory != null)
+            {
+                Object element = memory[returned - 1];
+                memory[returned - 1] = null;
+                return element;
+            }
+            int r = heap[0];
+            Object element = heads[r];
+            try
+            {
+                if (!advance(r))
+                {
+                    heap[0] = heap[--heapSize];
+                }
+            }
+            catch (IOException e)
+            {
+                close();
+                throw new UncheckedIOException(e);
+            }
+            if (heapSize > 0)
+            {
+                siftDown(0);
+            }
+            return element;
+        }
+
+        public void remove()
+        {
+            throw new myExceptions.UnsupportedOperationException("remove is not supported");
+        }
+
+        /**
+         * Legge l'elemento successivo della run, chiudendola se è esaurita.
+         *
+         * @return false se la run è esaurita
+         */
+        private boolean advance(int r) throws IOException
+        {
+            if (remaining[r] == 0)
+            {
+                heads[r] = null;
+                inputs[r].close();
+                return false;
+            }
+            heads[r] = codec.read(inputs[r]);
+            remaining[r]--;
+            return true;
+        }
+
+        private boolean less(int a, int b)
+        {
+            int c = comparator.compare(heads[a], heads[b]);
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        private void siftDown(int i)
+        {
+            int r = heap[i];
+            while (true)
+            {
+                int child = 2 * i + 1;
+                if (child >= heapSize)
+                {
+                    break;
+                }
+                if (child + 1 < heapSize && less(heap[child + 1], heap[child]))
+                {
+                    child++;
+                }
+                if (!less(heap[child], r))
+                {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = r;
+        }
+
+        /**
+         * Chiude le run ancora aperte.
+         */
+        void close()
+        {
+            if (inputs == null)
+            {
+                return;
+            }
+            for (int r = 0; r < inputs.length; r++)
+            {
+                if (inputs[r] != null)
+                {
+                    try
+                    {
+                        inputs[r].close();
+                    }
+                    catch (IOException e)
+                    {
+                        // Errore già segnalato dalla lettura
+                    }
+                }
+            }
+        }
+    }
+}
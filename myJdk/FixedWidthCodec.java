@@ -0,0 +1,46 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codifica e decodifica gli elementi di una {@link MappedListAdapter} in record di larghezza fissa.
+ * <p>
+ * Ogni elemento occupa esattamente {@link #width()} byte, quindi la posizione del record
+ * {@code i} nel file si calcola senza leggere i precedenti. I metodi usano gli accessi assoluti
+ * di {@code ByteBuffer} e non modificano la posizione del buffer. I codec per i tipi più comuni
+ * sono in {@link FixedWidthCodecs}.
+ * </p>
+ *
+ * @see FixedWidthCodecs
+ */
+public interface FixedWidthCodec
+{
+    /**
+     * Restituisce la larghezza in byte di un record.
+     *
+     * @return la larghezza di un record, maggiore di zero
+     */
+    int width();
+
+    /**
+     * Scrive l'elemento specificato nei {@link #width()} byte a partire dalla posizione specificata.
+     *
+     * @param buffer il buffer di destinazione
+     * @param offset la posizione del primo byte del record
+     * @param element l'elemento da scrivere
+     * @throws IllegalArgumentException se il tipo dell'elemento non è supportato o non entra nel record
+     * @throws NullPointerException se l'elemento è null e il codec non ammette null
+     */
+    void encode(ByteBuffer buffer, int offset, Object element);
+
+    /**
+     * Legge l'elemento scritto da {@link #encode(ByteBuffer, int, Object)} nella posizione specificata.
+     *
+     * @param buffer il buffer di origine
+     * @param offset la posizione del primo byte del record
+     * @return l'elemento letto
+     */
+    Object decode(ByteBuffer buffer, int offset);
+}
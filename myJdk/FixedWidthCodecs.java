@@ -0,0 +1,156 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codec a larghezza fissa per i tipi più comuni, da usare con {@link MappedListAdapter}.
+ * <p>
+ * I codec numerici non ammettono null. {@link #string(int)} riserva due byte alla lunghezza
+ * in UTF-8 e ammette null, codificato con una lunghezza speciale.
+ * </p>
+ *
+ * @see FixedWidthCodec
+ */
+public final class FixedWidthCodecs
+{
+    private static final int NULL_LENGTH = 0xFFFF;  // Lunghezza che codifica una stringa null
+
+    /** Codec per {@code Integer}: quattro byte. */
+    public static final FixedWidthCodec INTEGER = new FixedWidthCodec()
+    {
+        public int width()
+        {
+            return 4;
+        }
+
+        public void encode(ByteBuffer buffer, int offset, Object element)
+        {
+            buffer.putInt(offset, ((Integer) checked(element, Integer.class)).intValue());
+        }
+
+        public Object decode(ByteBuffer buffer, int offset)
+        {
+            return Integer.valueOf(buffer.getInt(offset));
+        }
+    };
+
+    /** Codec per {@code Long}: otto byte. */
+    public static final FixedWidthCodec LONG = new FixedWidthCodec()
+    {
+        public int width()
+        {
+            return 8;
+        }
+
+        public void encode(ByteBuffer buffer, int offset, Object element)
+        {
+            buffer.putLong(offset, ((Long) checked(element, Long.class)).longValue());
+        }
+
+        public Object decode(ByteBuffer buffer, int offset)
+        {
+            return Long.valueOf(buffer.getLong(offset));
+        }
+    };
+
+    /** Codec per {@code Double}: otto byte. */
+    public static final FixedWidthCodec DOUBLE = new FixedWidthCodec()
+    {
+        public int width()
+        {
+            return 8;
+        }
+
+        public void encode(ByteBuffer buffer, int offset, Object element)
+        {
+            buffer.putDouble(offset, ((Double) checked(element, Double.class)).doubleValue());
+        }
+
+        public Object decode(ByteBuffer buffer, int offset)
+        {
+            return Double.valueOf(buffer.getDouble(offset));
+        }
+    };
+
+    private FixedWidthCodecs()
+    {
+        // Classe di sole costanti e metodi statici
+    }
+
+    /**
+     * Restituisce un codec per stringhe lunghe al più {@code maxBytes} byte in UTF-8.
+     * Ogni record occupa {@code maxBytes + 2} byte: la lunghezza seguita dai byte della stringa,
+     * completati da zeri.
+     *
+     * @param maxBytes il numero massimo di byte UTF-8 di una stringa
+     * @return il codec per stringhe
+     * @throws IllegalArgumentException se {@code maxBytes} è negativo o non minore di 65535
+     */
+    public static FixedWidthCodec string(final int maxBytes)
+    {
+        if (maxBytes < 0 || maxBytes >= NULL_LENGTH)
+        {
+            throw new IllegalArgumentException("Illegal maximum length: " + maxBytes);
+        }
+        return new FixedWidthCodec()
+        {
+            public int width()
+            {
+                return maxBytes + 2;
+            }
+
+            public void encode(ByteBuffer buffer, int offset, Object element)
+            {
+                if (element == null)
+                {
+                    buffer.putShort(offset, (short) NULL_LENGTH);
+                    return;
+                }
+                byte[] utf8 = ((String) checked(element, String.class)).getBytes(StandardCharsets.UTF_8);
+                if (utf8.length > maxBytes)
+                {
+                    throw new IllegalArgumentException("String too long: " + utf8.length + " bytes, maximum " + maxBytes);
+                }
+                buffer.putShort(offset, (short) utf8.length);
+                for (int i = 0; i < maxBytes; i++)
+                {
+                    buffer.put(offset + 2 + i, i < utf8.length ? utf8[i] : 0);
+                }
+            }
+
+            public Object decode(ByteBuffer buffer, int offset)
+            {
+                int length = buffer.getShort(offset) & 0xFFFF;
+                if (length == NULL_LENGTH)
+                {
+                    return null;
+                }
+                byte[] utf8 = new byte[length];
+                for (int i = 0; i < length; i++)
+                {
+                    utf8[i] = buffer.get(offset + 2 + i);
+                }
+                return new String(utf8, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Verifica che l'elemento non sia null e sia del tipo specificato.
+     */
+    private static Object checked(Object element, Class<?> type)
+    {
+        if (element == null)
+        {
+            throw new NullPointerException("Element cannot be null");
+        }
+        if (!type.isInstance(element))
+        {
+            throw new IllegalArgumentException("Unsupported element type: " + element.getClass().getName());
+        }
+        return element;
+    }
+}
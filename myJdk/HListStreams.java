@@ -0,0 +1,211 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import myAdapter.HConsumer;
+import myAdapter.HList;
+import myAdapter.HSpliterator;
+import myAdapter.ListAdapter;
+
+/**
+ * Ponte tra {@link myAdapter.HList} e la API {@code java.util.stream} di J2SE.
+ * <p>
+ * {@link #stream(HList)} e {@link #parallelStream(HList)} costruiscono uno {@link Stream} senza
+ * copiare gli elementi: per una {@link myAdapter.ListAdapter} (o una sua sottolista) lo stream è
+ * basato su {@link myAdapter.ListAdapter#spliterator()}, che legge direttamente dal Vector
+ * sottostante; per le altre {@code HList} si usa l'accesso posizionale {@code get(int)}.
+ * In entrambi i casi lo {@link Spliterator} riporta {@code ORDERED}, {@code SIZED} e {@code SUBSIZED},
+ * quindi gli stream paralleli si partizionano in parti uguali.
+ * </p>
+ * <p>
+ * La lista non deve essere modificata strutturalmente mentre lo stream viene consumato.
+ * </p>
+ *
+ * @see ParallelListOperations
+ */
+public class HListStreams
+{
+    /**
+     * Classe di sole utilità statiche: non istanziabile.
+     */
+    private HListStreams()
+    {
+    }
+
+    /**
+     * Restituisce uno stream sequenziale sugli elementi della lista, nell'ordine della lista.
+     *
+     * @param list la lista sorgente
+     * @return uno stream sequenziale sugli elementi della lista
+     * @throws NullPointerException se la lista è null
+     */
+    public static Stream<Object> stream(HList list)
+    {
+        return StreamSupport.stream(spliterator(list), false);
+    }
+
+    /**
+     * Restituisce uno stream parallelo sugli elementi della lista.
+     *
+     * @param list la lista sorgente
+     * @return uno stream parallelo sugli elementi della lista
+     * @throws NullPointerException se la lista è null
+     */
+    public static Stream<Object> parallelStream(HList list)
+    {
+        return StreamSupport.stream(spliterator(list), true);
+    }
+
+    /**
+     * Restituisce un {@link Spliterator} J2SE sugli elementi della lista, senza copiarli.
+     *
+     * @param list la lista sorgente
+     * @return uno spliterator {@code ORDERED}, {@code SIZED} e {@code SUBSIZED}
+     * @throws NullPointerException se la lista è null
+     */
+    public static Spliterator<Object> spliterator(HList list)
+    {
+        if (list == null)
+        {
+            throw new NullPointerException("List cannot be null");
+        }
+        if (list instanceof ListAdapter)
+        {
+            return new Bridge(((ListAdapter) list).spliterator());
+        }
+        return new IndexSpliterator(list, 0, list.size());
+    }
+
+    /**
+     * Adatta un {@link myAdapter.HSpliterator} all'interfaccia {@link Spliterator} di J2SE.
+     * Le costanti delle caratteristiche coincidono, quindi vengono riportate invariate.
+     */
+    static class Bridge implements Spliterator<Object>
+    {
+        private final HSpliterator source;      // Spliterator adattato
+
+        Bridge(HSpliterator source)
+        {
+            this.source = source;
+        }
+
+        public boolean tryAdvance(final Consumer<? super Object> action)
+        {
+            if (action == null)
+            {
+                throw new NullPointerException("Action cannot be null");
+            }
+            return source.tryAdvance(new HConsumer()
+            {
+                public void accept(Object o)
+                {
+                    action.accept(o);
+                }
+            });
+        }
+
+        public void forEachRemaining(final Consumer<? super Object> action)
+        {
+            if (action == null)
+            {
+                throw new NullPointerException("Action cannot be null");
+            }
+            source.forEachRemaining(new HConsumer()
+            {
+                public void accept(Object o)
+                {
+                    action.accept(o);
+                }
+            });
+        }
+
+        public Spliterator<Object> trySplit()
+        {
+            HSpliterator prefix = source.trySplit();
+            return prefix == null ? null : new Bridge(prefix);
+        }
+
+        public long estimateSize()
+        {
+            return source.estimateSize();
+        }
+
+        public int characteristics()
+        {
+            return source.characteristics();
+        }
+    }
+
+    /**
+     * Spliterator su un intervallo {@code [index, fence)} di una {@link HList} qualsiasi,
+     * basato sull'accesso posizionale {@code get(int)} e partizionato a metà.
+     */
+    private static class IndexSpliterator implements Spliterator<Object>
+    {
+        private final HList list;   // Lista sorgente
+        private int index;          // Indice del prossimo elemento da visitare
+        private final int fence;    // Fine (esclusa) dell'intervallo
+
+        IndexSpliterator(HList list, int origin, int fence)
+        {
+            this.list = list;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        public boolean tryAdvance(Consumer<? super Object> action)
+        {
+            if (action == null)
+            {
+                throw new NullPointerException("Action cannot be null");
+            }
+            if (index >= fence)
+            {
+                return false;
+            }
+            action.accept(list.get(index++));
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super Object> action)
+        {
+            if (action == null)
+            {
+                throw new NullPointerException("Action cannot be null");
+            }
+            int hi = fence;
+            for (int i = index; i < hi; i++)
+            {
+                action.accept(list.get(i));
+            }
+            index = hi;
+        }
+
+        public Spliterator<Object> trySplit()
+        {
+            int lo = index;
+            int mid = (lo + fence) >>> 1;
+            if (lo >= mid)
+            {
+                return null;
+            }
+            index = mid;
+            return new IndexSpliterator(list, lo, mid);
+        }
+
+        public long estimateSize()
+        {
+            return fence - index;
+        }
+
+        public int characteristics()
+        {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+}
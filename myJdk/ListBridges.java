@@ -0,0 +1,894 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+import myAdapter.HCollection;
+import myAdapter.HComparator;
+import myAdapter.HIterator;
+import myAdapter.HList;
+import myAdapter.HListIterator;
+
+/**
+ * Viste senza copia tra {@link myAdapter.HList} e {@link java.util.List}, sul modello dei metodi
+ * {@code java.util.Collections.unmodifiableList} e simili.
+ * <p>
+ * {@link #asList(HList)} presenta una {@code HList} come {@code java.util.List}, e
+ * {@link #asHList(List)} presenta una {@code java.util.List} come {@code HList}. Ogni chiamata
+ * viene delegata alla lista originale, comprese {@code subList}, {@code listIterator} e le
+ * operazioni di massa, che vengono inoltrate all'operazione di massa corrispondente dall'altro
+ * lato invece di essere scomposte elemento per elemento. Avvolgere due volte la stessa lista
+ * restituisce la lista originale.
+ * </p>
+ * <p>
+ * Le eccezioni di {@code myExceptions} vengono tradotte nelle corrispondenti eccezioni di
+ * {@code java.lang} verso il codice J2SE, e viceversa.
+ * </p>
+ *
+ * @see HListStreams
+ */
+public class ListBridges
+{
+    /**
+     * Classe di sole utilità statiche: non istanziabile.
+     */
+    private ListBridges()
+    {
+    }
+
+    /**
+     * Restituisce una vista {@code java.util.List} della {@code HList} specificata.
+     * Se la lista è a sua volta una vista creata da {@link #asHList(List)}, viene restituita la lista originale.
+     *
+     * @param list la lista da presentare come {@code java.util.List}
+     * @return una vista della lista che delega ogni operazione
+     * @throws NullPointerException se la lista è null
+     */
+    public static List<Object> asList(HList list)
+    {
+        if (list == null)
+        {
+            throw new NullPointerException("List cannot be null");
+        }
+        if (list instanceof JdkListView)
+        {
+            return ((JdkListView) list).list;
+        }
+        return new HListView(list);
+    }
+
+    /**
+     * Restituisce una vista {@code HList} della {@code java.util.List} specificata.
+     * Se la lista è a sua volta una vista creata da {@link #asList(HList)}, viene restituita la lista originale.
+     *
+     * @param list la lista da presentare come {@code HList}
+     * @return una vista della lista che delega ogni operazione
+     * @throws NullPointerException se la lista è null
+     */
+    @SuppressWarnings("unchecked")
+    public static HList asHList(List<?> list)
+    {
+        if (list == null)
+        {
+            throw new NullPointerException("List cannot be null");
+        }
+        if (list instanceof HListView)
+        {
+            return ((HListView) list).list;
+        }
+        return new JdkListView((List<Object>) list);
+    }
+
+    /**
+     * Restituisce una vista {@code HCollection} della {@code java.util.Collection} specificata.
+     * Le ricerche con {@code contains} mantengono il costo della collezione originale
+     * (ad esempio tempo costante per un {@code java.util.HashSet}).
+     *
+     * @param c la collezione da presentare come {@code HCollection}
+     * @return una vista della collezione che delega ogni operazione
+     * @throws NullPointerException se la collezione è null
+     */
+    @SuppressWarnings("unchecked")
+    public static HCollection asHCollection(Collection<?> c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Collection cannot be null");
+        }
+        if (c instanceof List)
+        {
+            return asHList((List<?>) c);
+        }
+        return new JdkCollectionView((Collection<Object>) c);
+    }
+
+    /**
+     * Restituisce una vista {@code java.util.Collection} della {@code HCollection} specificata,
+     * usata per inoltrare le operazioni di massa verso le collezioni J2SE.
+     *
+     * @param c la collezione da presentare come {@code java.util.Collection}
+     * @return la collezione originale, se {@code c} è una vista, altrimenti una lista con gli elementi di {@code c}
+     */
+    static Collection<Object> asCollection(HCollection c)
+    {
+        if (c instanceof JdkCollectionView)
+        {
+            return ((JdkCollectionView) c).collection;
+        }
+        if (c instanceof HList)
+        {
+            return asList((HList) c);
+        }
+        return Arrays.asList(c.toArray());
+    }
+
+    // =============== TRADUZIONE DELLE ECCEZIONI ===============
+
+    /**
+     * Esegue {@code remove()} su un iteratore J2SE traducendo le eccezioni in quelle di {@code myExceptions}.
+     *
+     * @param it l'iteratore su cui eseguire la rimozione
+     */
+    private static void removeFromJdk(Iterator<Object> it)
+    {
+        try
+        {
+            it.remove();
+        }
+        catch (java.lang.IllegalStateException e)
+        {
+            throw new myExceptions.IllegalStateException(e.getMessage());
+        }
+        catch (java.lang.UnsupportedOperationException e)
+        {
+            throw new myExceptions.UnsupportedOperationException(e.getMessage());
+        }
+    }
+
+    /**
+     * Traduce un'eccezione di {@code myExceptions} nella corrispondente eccezione di {@code java.lang}.
+     *
+     * @param e l'eccezione lanciata da una {@code HList}
+     * @return l'eccezione da lanciare verso il codice J2SE
+     */
+    private static RuntimeException toJdk(RuntimeException e)
+    {
+        if (e instanceof myExceptions.IllegalStateException)
+        {
+            return new java.lang.IllegalStateException(e.getMessage());
+        }
+        if (e instanceof myExceptions.UnsupportedOperationException)
+        {
+            return new java.lang.UnsupportedOperationException(e.getMessage());
+        }
+        return e;
+    }
+
+    /**
+     * Traduce un'eccezione di {@code java.lang} nella corrispondente eccezione di {@code myExceptions}.
+     *
+     * @param e l'eccezione lanciata da una collezione J2SE
+     * @return l'eccezione da lanciare verso il codice che usa {@code HList}
+     */
+    private static RuntimeException fromJdk(RuntimeException e)
+    {
+        if (e instanceof java.lang.IllegalStateException)
+        {
+            return new myExceptions.IllegalStateException(e.getMessage());
+        }
+        if (e instanceof java.lang.UnsupportedOperationException)
+        {
+            return new myExceptions.UnsupportedOperationException(e.getMessage());
+        }
+        return e;
+    }
+
+    // =============== HLIST VISTA COME JAVA.UTIL.LIST ===============
+
+    /**
+     * Vista {@code java.util.List} di una {@code HList}. Le operazioni posizionali, le ricerche
+     * e le operazioni di massa vengono delegate direttamente alla {@code HList}.
+     */
+    private static class HListView extends AbstractList<Object> implements RandomAccess
+    {
+        final HList list;       // Lista originale
+
+        HListView(HList list)
+        {
+            this.list = list;
+        }
+
+        public Object get(int index)
+        {
+            return list.get(index);
+        }
+
+        public int size()
+        {
+            return list.size();
+        }
+
+        public boolean isEmpty()
+        {
+            return list.isEmpty();
+        }
+
+        public Object set(int index, Object element)
+        {
+            try
+            {
+                return list.set(index, element);
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public boolean add(Object o)
+        {
+            try
+            {
+                return list.add(o);
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public void add(int index, Object element)
+        {
+            try
+            {
+                list.add(index, element);
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public Object remove(int index)
+        {
+            try
+            {
+                return list.remove(index);
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public boolean remove(Object o)
+        {
+            try
+            {
+                return list.remove(o);
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public void clear()
+        {
+            try
+            {
+                list.clear();
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public boolean contains(Object o)
+        {
+            return list.contains(o);
+        }
+
+        public int indexOf(Object o)
+        {
+            return list.indexOf(o);
+        }
+
+        public int lastIndexOf(Object o)
+        {
+            return list.lastIndexOf(o);
+        }
+
+        public boolean containsAll(Collection<?> c)
+        {
+            return list.containsAll(asHCollection(c));
+        }
+
+        public boolean addAll(Collection<?> c)
+        {
+            try
+            {
+                return list.addAll(asHCollection(c));
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public boolean addAll(int index, Collection<?> c)
+        {
+            try
+            {
+                return list.addAll(index, asHCollection(c));
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public boolean removeAll(Collection<?> c)
+        {
+            try
+            {
+                return list.removeAll(asHCollection(c));
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public boolean retainAll(Collection<?> c)
+        {
+            try
+            {
+                return list.retainAll(asHCollection(c));
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public Object[] toArray()
+        {
+            return list.toArray();
+        }
+
+        public List<Object> subList(int fromIndex, int toIndex)
+        {
+            return new HListView(list.subList(fromIndex, toIndex));
+        }
+
+        public Iterator<Object> iterator()
+        {
+            return new HListIteratorView(list.listIterator());
+        }
+
+        public ListIterator<Object> listIterator()
+        {
+            return new HListIteratorView(list.listIterator());
+        }
+
+        public ListIterator<Object> listIterator(int index)
+        {
+            return new HListIteratorView(list.listIterator(index));
+        }
+
+        public Spliterator<Object> spliterator()
+        {
+            return HListStreams.spliterator(list);
+        }
+
+        /**
+         * Ordina la lista originale sul posto con {@link myAdapter.HList#sort(HComparator)}.
+         * Un comparatore null indica l'ordinamento naturale degli elementi.
+         */
+        public void sort(final Comparator<? super Object> c)
+        {
+            try
+            {
+                list.sort(new HComparator()
+                {
+                    @SuppressWarnings("unchecked")
+                    public int compare(Object o1, Object o2)
+                    {
+                        return c == null ? ((Comparable<Object>) o1).compareTo(o2) : c.compare(o1, o2);
+                    }
+                });
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public int hashCode()
+        {
+            return list.hashCode();
+        }
+    }
+
+    /**
+     * Vista {@code java.util.ListIterator} di un {@code HListIterator}.
+     */
+    private static class HListIteratorView implements ListIterator<Object>
+    {
+        private final HListIterator it;     // Iteratore originale
+
+        HListIteratorView(HListIterator it)
+        {
+            this.it = it;
+        }
+
+        public boolean hasNext()
+        {
+            return it.hasNext();
+        }
+
+        public Object next()
+        {
+            return it.next();
+        }
+
+        public boolean hasPrevious()
+        {
+            return it.hasPrevious();
+        }
+
+        public Object previous()
+        {
+            return it.previous();
+        }
+
+        public int nextIndex()
+        {
+            return it.nextIndex();
+        }
+
+        public int previousIndex()
+        {
+            return it.previousIndex();
+        }
+
+        public void remove()
+        {
+            try
+            {
+                it.remove();
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public void set(Object o)
+        {
+            try
+            {
+                it.set(o);
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+
+        public void add(Object o)
+        {
+            try
+            {
+                it.add(o);
+            }
+            catch (RuntimeException e)
+            {
+                throw toJdk(e);
+            }
+        }
+    }
+
+    // =============== JAVA.UTIL.COLLECTION VISTA COME HCOLLECTION ===============
+
+    /**
+     * Vista {@code HCollection} di una {@code java.util.Collection}.
+     */
+    private static class JdkCollectionView implements HCollection
+    {
+        final Collection<Object> collection;    // Collezione originale
+
+        JdkCollectionView(Collection<Object> collection)
+        {
+            this.collection = collection;
+        }
+
+        public boolean add(Object o)
+        {
+            try
+            {
+                return collection.add(o);
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public boolean addAll(HCollection c)
+        {
+            if (c == null)
+            {
+                throw new NullPointerException("Collection cannot be null");
+            }
+            try
+            {
+                return collection.addAll(asCollection(c));
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public void clear()
+        {
+            try
+            {
+                collection.clear();
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public boolean contains(Object o)
+        {
+            return collection.contains(o);
+        }
+
+        public boolean containsAll(HCollection c)
+        {
+            if (c == null)
+            {
+                throw new NullPointerException("Collection cannot be null");
+            }
+            return collection.containsAll(asCollection(c));
+        }
+
+        public boolean isEmpty()
+        {
+            return collection.isEmpty();
+        }
+
+        public HIterator iterator()
+        {
+            final Iterator<Object> it = collection.iterator();
+            return new HIterator()
+            {
+                public boolean hasNext()
+                {
+                    return it.hasNext();
+                }
+
+                public Object next()
+                {
+                    return it.next();
+                }
+
+                public void remove()
+                {
+                    removeFromJdk(it);
+                }
+            };
+        }
+
+        public boolean remove(Object o)
+        {
+            try
+            {
+                return collection.remove(o);
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public boolean removeAll(HCollection c)
+        {
+            if (c == null)
+            {
+                throw new NullPointerException("Collection cannot be null");
+            }
+            try
+            {
+                return collection.removeAll(asCollection(c));
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public boolean retainAll(HCollection c)
+        {
+            if (c == null)
+            {
+                throw new NullPointerException("Collection cannot be null");
+            }
+            try
+            {
+                return collection.retainAll(asCollection(c));
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public int size()
+        {
+            return collection.size();
+        }
+
+        public Object[] toArray()
+        {
+            return collection.toArray();
+        }
+
+        public Object[] toArray(Object[] a)
+        {
+            if (a == null)
+            {
+                throw new NullPointerException("Input array is null");
+            }
+            return collection.toArray(a);
+        }
+
+        public boolean equals(Object o)
+        {
+            if (o instanceof JdkCollectionView)
+            {
+                return collection.equals(((JdkCollectionView) o).collection);
+            }
+            return collection.equals(o);
+        }
+
+        public int hashCode()
+        {
+            return collection.hashCode();
+        }
+    }
+
+    // =============== JAVA.UTIL.LIST VISTA COME HLIST ===============
+
+    /**
+     * Vista {@code HList} di una {@code java.util.List}.
+     */
+    private static class JdkListView extends JdkCollectionView implements HList
+    {
+        final List<Object> list;    // Lista originale
+
+        JdkListView(List<Object> list)
+        {
+            super(list);
+            this.list = list;
+        }
+
+        public void add(int index, Object element)
+        {
+            try
+            {
+                list.add(index, element);
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public boolean addAll(int index, HCollection c)
+        {
+            if (c == null)
+            {
+                throw new NullPointerException("Collection cannot be null");
+            }
+            try
+            {
+                return list.addAll(index, asCollection(c));
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public Object get(int index)
+        {
+            return list.get(index);
+        }
+
+        public int indexOf(Object o)
+        {
+            return list.indexOf(o);
+        }
+
+        public int lastIndexOf(Object o)
+        {
+            return list.lastIndexOf(o);
+        }
+
+        public HListIterator listIterator()
+        {
+            return new JdkListIteratorView(list.listIterator());
+        }
+
+        public HListIterator listIterator(int index)
+        {
+            return new JdkListIteratorView(list.listIterator(index));
+        }
+
+        public HIterator iterator()
+        {
+            return listIterator();
+        }
+
+        public Object remove(int index)
+        {
+            try
+            {
+                return list.remove(index);
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public Object set(int index, Object element)
+        {
+            try
+            {
+                return list.set(index, element);
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public HList subList(int fromIndex, int toIndex)
+        {
+            return new JdkListView(list.subList(fromIndex, toIndex));
+        }
+
+        public void sort(final HComparator c)
+        {
+            if (c == null)
+            {
+                throw new NullPointerException("Comparator cannot be null");
+            }
+            try
+            {
+                list.sort(new Comparator<Object>()
+                {
+                    public int compare(Object o1, Object o2)
+                    {
+                        return c.compare(o1, o2);
+                    }
+                });
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        /**
+         * Confronta questa lista con l'oggetto specificato secondo il contratto di {@link myAdapter.HList#equals(Object)}:
+         * l'oggetto deve essere una {@code HList} con gli stessi elementi nello stesso ordine.
+         */
+        public boolean equals(Object o)
+        {
+            if (o == this)
+            {
+                return true;
+            }
+            if (!(o instanceof HList))
+            {
+                return false;
+            }
+            return list.equals(asList((HList) o));
+        }
+
+        public int hashCode()
+        {
+            return list.hashCode();
+        }
+    }
+
+    /**
+     * Vista {@code HListIterator} di un {@code java.util.ListIterator}.
+     */
+    private static class JdkListIteratorView implements HListIterator
+    {
+        private final ListIterator<Object> it;  // Iteratore originale
+
+        JdkListIteratorView(ListIterator<Object> it)
+        {
+            this.it = it;
+        }
+
+        public boolean hasNext()
+        {
+            return it.hasNext();
+        }
+
+        public Object next()
+        {
+            return it.next();
+        }
+
+        public boolean hasPrevious()
+        {
+            return it.hasPrevious();
+        }
+
+        public Object previous()
+        {
+            return it.previous();
+        }
+
+        public int nextIndex()
+        {
+            return it.nextIndex();
+        }
+
+        public int previousIndex()
+        {
+            return it.previousIndex();
+        }
+
+        public void remove()
+        {
+            removeFromJdk(it);
+        }
+
+        public void set(Object o)
+        {
+            try
+            {
+                it.set(o);
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+
+        public void add(Object o)
+        {
+            try
+            {
+                it.add(o);
+            }
+            catch (RuntimeException e)
+            {
+                throw fromJdk(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,492 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import myAdapter.ElementCodecs;
+import myAdapter.HElementCodec;
+import myAdapter.HIterator;
+import myAdapter.LazyDecodedListAdapter;
+import myAdapter.ListAdapter;
+
+/**
+ * Checkpoint su file di una {@link myAdapter.ListAdapter}, pensati per ricaricare velocemente
+ * liste di grandi dimensioni all'avvio.
+ * <p>
+ * {@link #save(ListAdapter, Path, HElementCodec)} scrive la lista in un'unica passata sequenziale:
+ * un'intestazione di {@value #HEADER_SIZE} byte (identificativo del formato, versione, numero di
+ * elementi e CRC32 del corpo) seguita dal formato di
+ * {@link myAdapter.ListAdapter#writeTo(java.io.DataOutput, HElementCodec)}. Il checkpoint viene
+ * scritto in un file temporaneo, sincronizzato su disco e poi rinominato, quindi un crash durante
+ * il salvataggio lascia intatto il checkpoint precedente.
+ * </p>
+ * <p>
+ * {@link #load(Path, HElementCodec)} mappa il file in memoria e decodifica gli elementi
+ * direttamente dalla mappatura, in un'unica lettura; i file oltre i 2 GiB vengono letti con un
+ * flusso bufferizzato. Il numero di elementi nell'intestazione dimensiona la lista prima della
+ * lettura, così il {@code Vector} sottostante viene allocato una sola volta con la capacità esatta.
+ * {@link #loadLazy(Path, HElementCodec)} verifica il file allo stesso modo ma decodifica ogni
+ * elemento solo alla prima lettura. Un corpo danneggiato o troncato viene rifiutato con
+ * {@code IOException} grazie al CRC32. Il numero di elementi dell'intestazione non è coperto dal
+ * CRC32: la capacità allocata in anticipo non supera i byte del corpo e un numero che non
+ * corrisponde agli elementi letti viene rifiutato, sempre con {@code IOException}.
+ * </p>
+ *
+ * @see myAdapter.ElementCodecs
+ */
+public final class ListCheckpoint
+{
+    /**
+     * Dimensione in byte dell'intestazione di un checkpoint.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    private static final int MAGIC = 0x484C4B31;            // "HLK1"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;         // Byte dei buffer di scrittura e lettura
+
+    private ListCheckpoint()
+    {
+        // Classe di soli metodi statici
+    }
+
+    /**
+     * Scrive la lista specificata nel file specificato, sostituendo in modo atomico il checkpoint precedente.
+     *
+     * @param list la lista da salvare
+     * @param file il file del checkpoint
+     * @param codec il codec degli elementi
+     * @throws IOException se il file non può essere scritto
+     * @throws NullPointerException se uno degli argomenti è null
+     * @throws IllegalArgumentException se il codec non supporta il tipo di un elemento
+     */
+    public static void save(ListAdapter list, Path file, HElementCodec codec) throws IOException
+    {
+        if (list == null || file == null || codec == null)
+        {
+            throw new NullPointerException("List, file and codec cannot be null");
+        }
+        write(file, list.size(), list, null, codec);
+    }
+
+    /**
+     * Scrive nel file specificato un checkpoint con i primi {@code size} elementi restituiti
+     * dall'iteratore, senza raccoglierli in una lista; il risultato è identico al salvataggio di
+     * una lista con gli stessi elementi. Usato da {@link ExternalSorter} per scrivere il risultato
+     * della fusione.
+     *
+     * @throws IOException se il file non può essere scritto o l'iteratore termina prima di {@code size} elementi
+     */
+    static void save(HIterator elements, int size, Path file, HElementCodec codec) throws IOException
+    {
+        write(file, size, null, elements, codec);
+    }
+
+    /**
+     * Scrive il checkpoint in un file temporaneo e lo rinomina al posto di quello specificato.
+     * Il corpo viene scritto dalla lista, se non è null, altrimenti dall'iteratore.
+     */
+    private static void write(Path file, int size, ListAdapter list, HIterator elements, HElementCodec codec) throws IOException
+    {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            channel.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(Channels.newOutputStream(channel), crc), BUFFER_SIZE));
+            if (list != null)
+            {
+                list.writeTo(out, codec);
+            }
+            else
+            {
+                ElementCodecs.writeVarInt(out, size);
+                for (int i = 0; i < size; i++)
+                {
+                    if (!elements.hasNext())
+                    {
+                        throw new IOException("Expected " + size + " elements, found " + i);
+                    }
+                    codec.write(out, elements.next());
+                }
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(size).putInt((int) crc.getValue());
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining())
+            {
+                position += channel.write(header, position);
+            }
+            channel.force(true);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Carica la lista salvata nel file specificato.
+     *
+     * @param file il file del checkpoint
+     * @param codec il codec degli elementi, lo stesso usato per salvarli
+     * @return una nuova lista con gli elementi salvati
+     * @throws IOException se il file non può essere letto, non è un checkpoint o è danneggiato
+     * @throws NullPointerException se il file o il codec sono null
+     */
+    public static ListAdapter load(Path file, HElementCodec codec) throws IOException
+    {
+        if (file == null || codec == null)
+        {
+            throw new NullPointerException("File and codec cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE)
+            {
+                return read(Channels.newInputStream(channel), length - HEADER_SIZE, codec);
+            }
+            if (length < HEADER_SIZE)
+            {
+                throw new IOException("Not a list checkpoint: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            int size = readHeader(mapped);
+            int checksum = mapped.getInt(HEADER_SIZE - 4);
+            CRC32 crc = new CRC32();
+            crc.update(mapped);                             // Dalla fine dell'intestazione alla fine del file
+            if ((int) crc.getValue() != checksum)
+            {
+                throw new IOException("Corrupted list checkpoint: " + file);
+            }
+            mapped.position(HEADER_SIZE);
+            BufferInput in = new BufferInput(mapped, null);
+            ListAdapter list = decode(in, size, length - HEADER_SIZE, codec);
+            if (in.hasMore())
+            {
+                throw new IOException("Trailing data in list checkpoint: " + file);
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Carica la lista salvata nel file specificato senza decodificarne gli elementi: il file viene
+     * letto in memoria e verificato, e ogni elemento viene decodificato alla prima lettura
+     * (vedi {@link myAdapter.LazyDecodedListAdapter}). Il costo del caricamento è proporzionale
+     * ai byte del file invece che agli oggetti creati, utile quando all'avvio si legge solo una
+     * parte della lista. Il file non può superare i 2 GiB.
+     *
+     * @param file il file del checkpoint
+     * @param codec il codec degli elementi, lo stesso usato per salvarli
+     * @return una nuova lista che decodifica gli elementi salvati alla prima lettura
+     * @throws IOException se il file non può essere letto, non è un checkpoint, è danneggiato o supera i 2 GiB
+     * @throws NullPointerException se il file o il codec sono null
+     */
+    public static LazyDecodedListAdapter loadLazy(Path file, HElementCodec codec) throws IOException
+    {
+        if (file == null || codec == null)
+        {
+            throw new NullPointerException("File and codec cannot be null");
+        }
+        if (Files.size(file) > Integer.MAX_VALUE - 8)
+        {
+            throw new IOException("List checkpoint too large for lazy loading: " + file);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < HEADER_SIZE)
+        {
+            throw new IOException("Not a list checkpoint: " + file);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int size = readHeader(buffer);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        if ((int) crc.getValue() != buffer.getInt(HEADER_SIZE - 4))
+        {
+            throw new IOException("Corrupted list checkpoint: " + file);
+        }
+        LazyDecodedListAdapter list = new LazyDecodedListAdapter(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, codec);
+        if (list.size() != size)
+        {
+            throw new IOException("Corrupted list checkpoint, " + list.size() + " elements instead of " + size);
+        }
+        return list;
+    }
+
+    /**
+     * Carica la lista salvata in un checkpoint dal flusso specificato, che deve contenere
+     * esattamente un checkpoint. Il flusso non viene chiuso.
+     * <p>
+     * A differenza di {@link #load(Path, HElementCodec)}, il CRC32 può essere verificato solo dopo
+     * aver decodificato il corpo: la lista viene restituita solo se corrisponde. Durante la
+     * decodifica la lista cresce con gli elementi effettivamente letti, quindi un'intestazione
+     * danneggiata non provoca allocazioni proporzionali al numero di elementi dichiarato.
+     * </p>
+     *
+     * @param input il flusso del checkpoint
+     * @param codec il codec degli elementi, lo stesso usato per salvarli
+     * @return una nuova lista con gli elementi salvati
+     * @throws IOException se il flusso non può essere letto, non contiene un checkpoint o è danneggiato
+     * @throws NullPointerException se il flusso o il codec sono null
+     */
+    public static ListAdapter read(InputStream input, HElementCodec codec) throws IOException
+    {
+        if (input == null || codec == null)
+        {
+            throw new NullPointerException("Input and codec cannot be null");
+        }
+        return read(input, BUFFER_SIZE, codec);
+    }
+
+    /**
+     * Legge un checkpoint dal flusso specificato; {@code bodyLength} limita la capacità allocata in
+     * anticipo per gli elementi, che non può superare il numero di byte del corpo.
+     */
+    private static ListAdapter read(InputStream input, long bodyLength, HElementCodec codec) throws IOException
+    {
+        DataInputStream header = new DataInputStream(input);
+        byte[] bytes = new byte[HEADER_SIZE];
+        try
+        {
+            header.readFully(bytes);
+        }
+        catch (EOFException e)
+        {
+            throw new IOException("Not a list checkpoint", e);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int size = readHeader(buffer);
+        int checksum = buffer.getInt(HEADER_SIZE - 4);
+        CRC32 crc = new CRC32();
+        ByteBuffer chunk = ByteBuffer.allocate(BUFFER_SIZE);
+        chunk.limit(0);
+        BufferInput in = new BufferInput(chunk, new CheckedInputStream(input, crc));
+        ListAdapter list = decode(in, size, bodyLength, codec);
+        if (in.hasMore())
+        {
+            throw new IOException("Trailing data in list checkpoint");
+        }
+        if ((int) crc.getValue() != checksum)
+        {
+            throw new IOException("Corrupted list checkpoint");
+        }
+        return list;
+    }
+
+    /**
+     * Verifica l'intestazione e restituisce il numero di elementi; la posizione del buffer
+     * viene portata alla fine dell'intestazione.
+     */
+    private static int readHeader(ByteBuffer buffer) throws IOException
+    {
+        if (buffer.getInt(0) != MAGIC)
+        {
+            throw new IOException("Not a list checkpoint");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported list checkpoint version: " + version);
+        }
+        int size = buffer.getInt(8);
+        if (size < 0)
+        {
+            throw new IOException("Corrupted list checkpoint, illegal size: " + size);
+        }
+        buffer.position(HEADER_SIZE);
+        return size;
+    }
+
+    /**
+     * Legge il corpo del checkpoint in una lista dimensionata per il numero di elementi atteso.
+     * Il numero di elementi dell'intestazione non è coperto dal CRC32: la capacità allocata in
+     * anticipo è limitata da {@code bodyLength}, perché ogni elemento occupa almeno un byte con i
+     * codec di {@link myAdapter.ElementCodecs}, e un numero sbagliato viene rifiutato dopo la lettura
+     * invece di esaurire la memoria.
+     */
+    private static ListAdapter decode(DataInput in, int size, long bodyLength, HElementCodec codec) throws IOException
+    {
+        ListAdapter list = new ListAdapter((int) Math.min(size, bodyLength));
+        int read = list.readFrom(in, codec);
+        if (read != size)
+        {
+            throw new IOException("Corrupted list checkpoint, " + read + " elements instead of " + size);
+        }
+        return list;
+    }
+
+    /**
+     * {@code DataInput} che legge direttamente da un {@code ByteBuffer}, ad esempio una mappatura
+     * del file, senza copiare i dati in un flusso intermedio. Se è specificato un flusso, il buffer
+     * viene riempito da esso quando si esaurisce: a differenza di {@code DataInputStream} su un
+     * {@code BufferedInputStream}, la lettura di un valore non richiede una chiamata sincronizzata per byte.
+     */
+    private static final class BufferInput implements DataInput
+    {
+        private final ByteBuffer buffer;    // Buffer da cui leggere, dalla posizione corrente
+        private final InputStream source;   // Flusso da cui riempire il buffer, null se il buffer contiene tutto
+
+        BufferInput(ByteBuffer buffer, InputStream source)
+        {
+            this.buffer = buffer;
+            this.source = source;
+        }
+
+        /**
+         * Indica se rimangono dati da leggere.
+         */
+        boolean hasMore() throws IOException
+        {
+            return buffer.hasRemaining() || (source != null && fill());
+        }
+
+        public void readFully(byte[] b) throws IOException
+        {
+            readFully(b, 0, b.length);
+        }
+
+        public void readFully(byte[] b, int off, int len) throws IOException
+        {
+            while (len > 0)
+            {
+                int n = Math.min(len, buffer.capacity());
+                require(n);
+                buffer.get(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        public int skipBytes(int n) throws IOException
+        {
+            int skipped = 0;
+            while (skipped < n && hasMore())
+            {
+                int step = Math.min(n - skipped, buffer.remaining());
+                buffer.position(buffer.position() + step);
+                skipped += step;
+            }
+            return skipped;
+        }
+
+        public boolean readBoolean() throws IOException
+        {
+            return readByte() != 0;
+        }
+
+        public byte readByte() throws IOException
+        {
+            require(1);
+            return buffer.get();
+        }
+
+        public int readUnsignedByte() throws IOException
+        {
+            return readByte() & 0xFF;
+        }
+
+        public short readShort() throws IOException
+        {
+            require(2);
+            return buffer.getShort();
+        }
+
+        public int readUnsignedShort() throws IOException
+        {
+            return readShort() & 0xFFFF;
+        }
+
+        public char readChar() throws IOException
+        {
+            require(2);
+            return buffer.getChar();
+        }
+
+        public int readInt() throws IOException
+        {
+            require(4);
+            return buffer.getInt();
+        }
+
+        public long readLong() throws IOException
+        {
+            require(8);
+            return buffer.getLong();
+        }
+
+        public float readFloat() throws IOException
+        {
+            require(4);
+            return buffer.getFloat();
+        }
+
+        public double readDouble() throws IOException
+        {
+            require(8);
+            return buffer.getDouble();
+        }
+
+        public String readLine()
+        {
+            throw new java.lang.UnsupportedOperationException("readLine is not supported");
+        }
+
+        public String readUTF() throws IOException
+        {
+            return DataInputStream.readUTF(this);
+        }
+
+        private void require(int bytes) throws IOException
+        {
+            while (buffer.remaining() < bytes)
+            {
+                if (source == null || !fill())
+                {
+                    throw new EOFException("Truncated list checkpoint");
+                }
+            }
+        }
+
+        /**
+         * Sposta i byte non letti all'inizio del buffer e lo completa con i byte del flusso.
+         *
+         * @return false se il flusso è terminato
+         */
+        private boolean fill() throws IOException
+        {
+            buffer.compact();
+            int read = source.read(buffer.array(), buffer.position(), buffer.remaining());
+            if (read > 0)
+            {
+                buffer.position(buffer.position() + read);
+            }
+            buffer.flip();
+            return read > 0;
+        }
+    }
+}
@@ -0,0 +1,569 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import myAdapter.HCollection;
+import myAdapter.HComparator;
+import myAdapter.HIterator;
+import myAdapter.HList;
+import myAdapter.HListIterator;
+
+/**
+ * {@link myAdapter.HList} persistente su un file mappato in memoria, con record di larghezza fissa.
+ * <p>
+ * Il file inizia con un'intestazione di {@value #HEADER_SIZE} byte (identificativo del formato,
+ * versione, larghezza dei record e numero di elementi) seguita dai record, ciascuno di
+ * {@link FixedWidthCodec#width()} byte. Poiché ogni record ha la stessa larghezza, la posizione
+ * dell'elemento {@code i} si calcola direttamente: l'apertura legge solo l'intestazione e costa
+ * tempo costante qualunque sia la dimensione del file, e {@code get(i)} decodifica il record
+ * direttamente dalla mappatura, senza copiare il file in memoria.
+ * </p>
+ * <p>
+ * Il file viene mappato in segmenti di al più 1 GiB, mappati alla prima lettura. Gli inserimenti
+ * in coda estendono il file in modo geometrico, quindi il file può contenere spazio libero in coda
+ * oltre gli elementi; inserimenti e rimozioni in mezzo spostano i record successivi e costano
+ * tempo lineare. Ogni modifica aggiorna il numero di elementi nell'intestazione.
+ * Il sistema operativo scrive su disco le pagine modificate quando lo ritiene opportuno:
+ * {@link #force()} lo forza, e {@link #close()} lo esegue prima di chiudere il file.
+ * </p>
+ * <p>
+ * Tutte le operazioni di {@code HList} sono supportate, comprese sottoliste e iteratori, con il
+ * comportamento fail-fast di {@code java.util.AbstractList}. Questa classe non è sincronizzata,
+ * e un file deve essere aperto da una sola istanza alla volta. Dopo {@link #close()} ogni
+ * operazione lancia {@link myExceptions.IllegalStateException}.
+ * </p>
+ *
+ * @see FixedWidthCodecs
+ */
+public class MappedListAdapter implements HList, Closeable
+{
+    /**
+     * Dimensione in byte dell'intestazione del file.
+     */
+    public static final int HEADER_SIZE = 32;
+
+    static final int MAGIC = 0x484C4D31;                        // "HLM1", condiviso con PagedListAdapter
+    static final int VERSION = 1;
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int WIDTH_OFFSET = 8;
+    static final int SIZE_OFFSET = 16;
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;       // Byte massimi di un segmento mappato
+    private static final int MIN_CAPACITY = 256;                // Capacità minima dopo la prima estensione
+
+    private final FileChannel channel;          // Canale del file
+    private final FixedWidthCodec codec;        // Codec dei record
+    private final int width;                    // Larghezza in byte di un record
+    private final int recordsPerSegment;        // Record contenuti in un segmento
+    private final MappedByteBuffer header;      // Mappatura dell'intestazione
+    private final ByteBuffer scratch;           // Buffer di un record per la validazione degli inserimenti
+    private final Records records;              // Vista java.util.List dei record
+    private final HList view;                   // Vista HList dei record, a cui si delega
+    private MappedByteBuffer[] segments;        // Segmenti mappati, null se non ancora mappati
+    private long capacity;                      // Record contenuti nel file
+    private int size;                           // Numero di elementi
+    private boolean closed;                     // Vero dopo close()
+
+    /**
+     * Apre la lista memorizzata nel file specificato, creandolo vuoto se non esiste.
+     *
+     * @param file il file della lista
+     * @param codec il codec dei record
+     * @throws IOException se il file non può essere aperto, non è nel formato atteso
+     *         o è stato scritto con una larghezza dei record diversa
+     * @throws NullPointerException se il file o il codec sono null
+     */
+    public MappedListAdapter(Path file, FixedWidthCodec codec) throws IOException
+    {
+        this(file, codec, 0);
+    }
+
+    /**
+     * Apre la lista memorizzata nel file specificato, creandolo vuoto se non esiste, mappando
+     * il file in segmenti di {@code recordsPerSegment} record. Un valore minore di 1 seleziona
+     * il massimo numero di record che entra in 1 GiB.
+     *
+     * @param file il file della lista
+     * @param codec il codec dei record
+     * @param recordsPerSegment il numero di record di ogni segmento mappato
+     * @throws IOException se il file non può essere aperto, non è nel formato atteso
+     *         o è stato scritto con una larghezza dei record diversa
+     * @throws NullPointerException se il file o il codec sono null
+     * @throws IllegalArgumentException se la larghezza del codec non è positiva o un segmento supera 1 GiB
+     */
+    public MappedListAdapter(Path file, FixedWidthCodec codec, int recordsPerSegment) throws IOException
+    {
+        if (file == null)
+        {
+            throw new NullPointerException("File cannot be null");
+        }
+        if (codec == null)
+        {
+            throw new NullPointerException("Codec cannot be null");
+        }
+        width = codec.width();
+        if (width <= 0)
+        {
+            throw new IllegalArgumentException("Illegal record width: " + width);
+        }
+        if (recordsPerSegment < 1)
+        {
+            recordsPerSegment = Math.max(1, MAX_SEGMENT_BYTES / width);
+        }
+        if ((long) recordsPerSegment * width > MAX_SEGMENT_BYTES)
+        {
+            throw new IllegalArgumentException("Segment larger than 1 GiB: " + recordsPerSegment + " records");
+        }
+        this.codec = codec;
+        this.recordsPerSegment = recordsPerSegment;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try
+        {
+            boolean created = channel.size() == 0;
+            if (!created && channel.size() < HEADER_SIZE)
+            {
+                throw new IOException("Not a mapped list file: " + file);
+            }
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (created)
+            {
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(VERSION_OFFSET, VERSION);
+                header.putInt(WIDTH_OFFSET, width);
+                header.putLong(SIZE_OFFSET, 0);
+            }
+            else
+            {
+                readHeader(file);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+        capacity = (channel.size() - HEADER_SIZE) / width;
+        size = (int) header.getLong(SIZE_OFFSET);
+        if (size > capacity)
+        {
+            channel.close();
+            throw new IOException("Corrupted mapped list file, " + size + " elements in " + capacity + " records: " + file);
+        }
+        segments = new MappedByteBuffer[segmentCount(capacity)];
+        scratch = ByteBuffer.allocate(width);
+        records = new Records();
+        view = ListBridges.asHList(records);
+    }
+
+    /**
+     * Verifica l'intestazione di un file esistente.
+     */
+    private void readHeader(Path file) throws IOException
+    {
+        if (header.getInt(MAGIC_OFFSET) != MAGIC)
+        {
+            throw new IOException("Not a mapped list file: " + file);
+        }
+        int version = header.getInt(VERSION_OFFSET);
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported mapped list version " + version + ": " + file);
+        }
+        int stored = header.getInt(WIDTH_OFFSET);
+        if (stored != width)
+        {
+            throw new IOException("Record width mismatch, file has " + stored + " bytes, codec has " + width + ": " + file);
+        }
+        long storedSize = header.getLong(SIZE_OFFSET);
+        if (storedSize < 0 || storedSize > Integer.MAX_VALUE)
+        {
+            throw new IOException("Corrupted mapped list file, illegal size " + storedSize + ": " + file);
+        }
+    }
+
+    // =============== PERSISTENZA ===============
+
+    /**
+     * Forza la scrittura su disco dell'intestazione e di tutti i record mappati.
+     *
+     * @throws myExceptions.IllegalStateException se la lista è stata chiusa
+     */
+    public void force()
+    {
+        ensureOpen();
+        for (int s = 0; s < segments.length; s++)
+        {
+            if (segments[s] != null)
+            {
+                segments[s].force();
+            }
+        }
+        header.force();
+    }
+
+    /**
+     * Scrive su disco le modifiche e chiude il file. Chiamare questo metodo su una lista già
+     * chiusa non ha effetto.
+     *
+     * @throws IOException se il file non può essere chiuso
+     */
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        force();
+        closed = true;
+        segments = null;
+        channel.close();
+    }
+
+    /**
+     * Restituisce il codec dei record di questa lista.
+     *
+     * @return il codec dei record
+     */
+    public FixedWidthCodec codec()
+    {
+        return codec;
+    }
+
+    // =============== ACCESSO AI RECORD ===============
+
+    private void ensureOpen()
+    {
+        if (closed)
+        {
+            throw new myExceptions.IllegalStateException("List has been closed");
+        }
+    }
+
+    private int segmentCount(long records)
+    {
+        return (int) ((records + recordsPerSegment - 1) / recordsPerSegment);
+    }
+
+    /**
+     * Restituisce il segmento che contiene il record specificato, mappandolo se necessario.
+     */
+    private MappedByteBuffer segment(int index)
+    {
+        int s = index / recordsPerSegment;
+        MappedByteBuffer segment = segments[s];
+        if (segment == null)
+        {
+            long first = (long) s * recordsPerSegment;
+            long count = Math.min(recordsPerSegment, capacity - first);
+            try
+            {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + first * width, count * width);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            segments[s] = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * Restituisce la posizione del record specificato all'interno del suo segmento.
+     */
+    private int offset(int index)
+    {
+        return (index % recordsPerSegment) * width;
+    }
+
+    private Object read(int index)
+    {
+        return codec.decode(segment(index), offset(index));
+    }
+
+    private void write(int index, Object element)
+    {
+        codec.encode(segment(index), offset(index), element);
+    }
+
+    /**
+     * Estende il file in modo che contenga almeno {@code minCapacity} record.
+     * I segmenti mappati solo in parte vengono rimappati alla lettura successiva.
+     */
+    private void ensureCapacity(long minCapacity)
+    {
+        if (minCapacity <= capacity)
+        {
+            return;
+        }
+        long grown = Math.min(Integer.MAX_VALUE, Math.max(MIN_CAPACITY, capacity + (capacity >> 1)));
+        long newCapacity = Math.max(minCapacity, grown);
+        try
+        {
+            channel.write(ByteBuffer.allocate(1), HEADER_SIZE + newCapacity * width - 1);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        MappedByteBuffer[] grownSegments = new MappedByteBuffer[segmentCount(newCapacity)];
+        int complete = (int) (capacity / recordsPerSegment);
+        System.arraycopy(segments, 0, grownSegments, 0, Math.min(complete, segments.length));
+        segments = grownSegments;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Copia {@code count} record a partire da {@code from} in quelli a partire da {@code to};
+     * gli intervalli possono sovrapporsi.
+     */
+    private void move(int from, int to, int count)
+    {
+        byte[] record = new byte[width];
+        for (int k = 0; k < count; k++)
+        {
+            int i = to > from ? count - 1 - k : k;
+            MappedByteBuffer source = segment(from + i);
+            int sourceOffset = offset(from + i);
+            for (int b = 0; b < width; b++)
+            {
+                record[b] = source.get(sourceOffset + b);
+            }
+            MappedByteBuffer target = segment(to + i);
+            int targetOffset = offset(to + i);
+            for (int b = 0; b < width; b++)
+            {
+                target.put(targetOffset + b, record[b]);
+            }
+        }
+    }
+
+    private void setSize(int newSize)
+    {
+        size = newSize;
+        header.putLong(SIZE_OFFSET, newSize);
+    }
+
+    /**
+     * Vista {@code java.util.List} dei record. Fornisce a {@code AbstractList} le operazioni
+     * posizionali, da cui derivano iteratori, sottoliste e operazioni di massa.
+     */
+    private class Records extends AbstractList<Object> implements RandomAccess
+    {
+        public int size()
+        {
+            ensureOpen();
+            return size;
+        }
+
+        public Object get(int index)
+        {
+            ensureOpen();
+            checkIndex(index, size);
+            return read(index);
+        }
+
+        public Object set(int index, Object element)
+        {
+            ensureOpen();
+            checkIndex(index, size);
+            Object old = read(index);
+            write(index, element);
+            return old;
+        }
+
+        public void add(int index, Object element)
+        {
+            ensureOpen();
+            checkIndex(index, size + 1);
+            if (size == Integer.MAX_VALUE)
+            {
+                throw new myExceptions.IllegalStateException("List is full");
+            }
+            codec.encode(scratch, 0, element);          // Valida l'elemento prima di spostare i record
+            ensureCapacity((long) size + 1);
+            move(index, index + 1, size - index);
+            write(index, element);
+            setSize(size + 1);
+            modCount++;
+        }
+
+        public Object remove(int index)
+        {
+            ensureOpen();
+            checkIndex(index, size);
+            Object old = read(index);
+            move(index + 1, index, size - index - 1);
+            setSize(size - 1);
+            modCount++;
+            return old;
+        }
+
+        protected void removeRange(int fromIndex, int toIndex)
+        {
+            ensureOpen();
+            move(toIndex, fromIndex, size - toIndex);
+            setSize(size - (toIndex - fromIndex));
+            modCount++;
+        }
+
+        private void checkIndex(int index, int bound)
+        {
+            if (index < 0 || index >= bound)
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
+    }
+
+    // =============== METODI DI HLIST ===============
+
+    public int size()
+    {
+        return view.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return view.isEmpty();
+    }
+
+    public boolean contains(Object o)
+    {
+        return view.contains(o);
+    }
+
+    public HIterator iterator()
+    {
+        return view.iterator();
+    }
+
+    public Object[] toArray()
+    {
+        return view.toArray();
+    }
+
+    public Object[] toArray(Object[] a)
+    {
+        return view.toArray(a);
+    }
+
+    public boolean add(Object o)
+    {
+        return view.add(o);
+    }
+
+    public boolean remove(Object o)
+    {
+        return view.remove(o);
+    }
+
+    public boolean containsAll(HCollection c)
+    {
+        return view.containsAll(c);
+    }
+
+    public boolean addAll(HCollection c)
+    {
+        return view.addAll(c);
+    }
+
+    public boolean addAll(int index, HCollection c)
+    {
+        return view.addAll(index, c);
+    }
+
+    public boolean removeAll(HCollection c)
+    {
+        return view.removeAll(c);
+    }
+
+    public boolean retainAll(HCollection c)
+    {
+        return view.retainAll(c);
+    }
+
+    public void clear()
+    {
+        view.clear();
+    }
+
+    public Object get(int index)
+    {
+        return view.get(index);
+    }
+
+    public Object set(int index, Object element)
+    {
+        return view.set(index, element);
+    }
+
+    public void add(int index, Object element)
+    {
+        view.add(index, element);
+    }
+
+    public Object remove(int index)
+    {
+        return view.remove(index);
+    }
+
+    public int indexOf(Object o)
+    {
+        return view.indexOf(o);
+    }
+
+    public int lastIndexOf(Object o)
+    {
+        return view.lastIndexOf(o);
+    }
+
+    public HListIterator listIterator()
+    {
+        return view.listIterator();
+    }
+
+    public HListIterator listIterator(int index)
+    {
+        return view.listIterator(index);
+    }
+
+    public HList subList(int fromIndex, int toIndex)
+    {
+        return view.subList(fromIndex, toIndex);
+    }
+
+    public void sort(HComparator c)
+    {
+        view.sort(c);
+    }
+
+    /**
+     * Confronta questa lista con l'oggetto specificato secondo il contratto di {@link myAdapter.HList#equals(Object)}.
+     */
+    public boolean equals(Object o)
+    {
+        return o == this || view.equals(o);
+    }
+
+    public int hashCode()
+    {
+        return view.hashCode();
+    }
+
+    public String toString()
+    {
+        return records.toString();
+    }
+}
@@ -0,0 +1,790 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import myAdapter.HCollection;
+import myAdapter.HComparator;
+import myAdapter.HIterator;
+import myAdapter.HList;
+import myAdapter.HListIterator;
+
+/**
+ * {@link myAdapter.HList} persistente su file, con record di larghezza fissa letti a pagine
+ * tramite un {@code FileChannel} e una cache di pagine di dimensione limitata.
+ * <p>
+ * Il file ha lo stesso formato di {@link MappedListAdapter}: un'intestazione di
+ * {@value MappedListAdapter#HEADER_SIZE} byte seguita dai record, ciascuno di
+ * {@link FixedWidthCodec#width()} byte. I record sono raggruppati in pagine di
+ * {@code recordsPerPage} record; una pagina viene letta dal file al primo accesso e tenuta in una
+ * cache LRU di al più {@code cachePages} pagine. {@link #hits()} e {@link #misses()} contano gli
+ * accessi serviti dalla cache e quelli che hanno richiesto una lettura.
+ * </p>
+ * <p>
+ * Quando gli accessi sono sequenziali, come in un attraversamento con un iteratore o con
+ * {@code get(i)} per indici consecutivi, in avanti o all'indietro, la pagina successiva viene letta
+ * in anticipo da un thread in background, sovrapponendo la lettura all'elaborazione della pagina
+ * corrente. Le modifiche vengono scritte solo nelle pagine in cache, che vengono riscritte nel
+ * file quando escono dalla cache o alla chiamata di {@link #flush()}; anche il numero di elementi
+ * nell'intestazione viene aggiornato solo da {@code flush()}, quindi le modifiche successive
+ * all'ultimo {@code flush()} vanno perse se il processo termina senza {@link #close()}.
+ * </p>
+ * <p>
+ * Tutte le operazioni di {@code HList} sono supportate, comprese sottoliste e iteratori, con il
+ * comportamento fail-fast di {@code java.util.AbstractList}. Questa classe non è sincronizzata,
+ * e un file deve essere aperto da una sola istanza alla volta. Dopo {@link #close()} ogni
+ * operazione lancia {@link myExceptions.IllegalStateException}.
+ * </p>
+ *
+ * @see FixedWidthCodecs
+ */
+public class PagedListAdapter implements HList, Closeable
+{
+    /**
+     * Dimensione predefinita in byte di una pagina.
+     */
+    public static final int DEFAULT_PAGE_BYTES = 4096;
+
+    /**
+     * Numero predefinito di pagine nella cache.
+     */
+    public static final int DEFAULT_CACHE_PAGES = 64;
+
+    private static final int HEADER_SIZE = MappedListAdapter.HEADER_SIZE;
+
+    private final FileChannel channel;          // Canale del file
+    private final FixedWidthCodec codec;        // Codec dei record
+    private final int width;                    // Larghezza in byte di un record
+    private final int recordsPerPage;           // Record contenuti in una pagina
+    private final int pageBytes;                // Byte di una pagina
+    private final int cachePages;               // Pagine massime nella cache
+    private final LinkedHashMap<Integer, Page> cache = new LinkedHashMap<Integer, Page>(16, 0.75f, true);
+    private final ByteBuffer scratch;           // Buffer di un record per la validazione degli inserimenti
+    private final Records records;              // Vista java.util.List dei record
+    private final HList view;                   // Vista HList dei record, a cui si delega
+    private ExecutorService reader;             // Thread delle letture anticipate, creato al primo uso
+    private Future<ByteBuffer> prefetch;        // Lettura anticipata in corso, null se nessuna
+    private int prefetchPage = -1;              // Pagina della lettura anticipata in corso
+    private int lastIndex = -2;                 // Ultimo indice letto, per riconoscere gli accessi sequenziali
+    private long hits;                          // Accessi serviti dalla cache
+    private long misses;                        // Accessi che hanno letto la pagina dal file
+    private long prefetches;                    // Pagine lette in anticipo
+    private int size;                           // Numero di elementi
+    private boolean closed;                     // Vero dopo close()
+
+    /**
+     * Apre la lista memorizzata nel file specificato, creandolo vuoto se non esiste, con pagine
+     * di circa {@value #DEFAULT_PAGE_BYTES} byte e una cache di {@value #DEFAULT_CACHE_PAGES} pagine.
+     *
+     * @param file il file della lista
+     * @param codec il codec dei record
+     * @throws IOException se il file non può essere aperto, non è nel formato atteso
+     *         o è stato scritto con una larghezza dei record diversa
+     * @throws NullPointerException se il file o il codec sono null
+     */
+    public PagedListAdapter(Path file, FixedWidthCodec codec) throws IOException
+    {
+        this(file, codec, Math.max(1, DEFAULT_PAGE_BYTES / codec.width()), DEFAULT_CACHE_PAGES);
+    }
+
+    /**
+     * Apre la lista memorizzata nel file specificato, creandolo vuoto se non esiste.
+     *
+     * @param file il file della lista
+     * @param codec il codec dei record
+     * @param recordsPerPage il numero di record di una pagina
+     * @param cachePages il numero massimo di pagine nella cache
+     * @throws IOException se il file non può essere aperto, non è nel formato atteso
+     *         o è stato scritto con una larghezza dei record diversa
+     * @throws NullPointerException se il file o il codec sono null
+     * @throws IllegalArgumentException se la larghezza del codec non è positiva, se le pagine o la
+     *         cache sono vuote o se una pagina supera 1 GiB
+     */
+    public PagedListAdapter(Path file, FixedWidthCodec codec, int recordsPerPage, int cachePages) throws IOException
+    {
+        if (file == null)
+        {
+            throw new NullPointerException("File cannot be null");
+        }
+        if (codec == null)
+        {
+            throw new NullPointerException("Codec cannot be null");
+        }
+        width = codec.width();
+        if (width <= 0)
+        {
+            throw new IllegalArgumentException("Illegal record width: " + width);
+        }
+        if (recordsPerPage < 1 || (long) recordsPerPage * width > (1 << 30))
+        {
+            throw new IllegalArgumentException("Illegal page size: " + recordsPerPage + " records");
+        }
+        if (cachePages < 1)
+        {
+            throw new IllegalArgumentException("Illegal cache size: " + cachePages + " pages");
+        }
+        this.codec = codec;
+        this.recordsPerPage = recordsPerPage;
+        this.pageBytes = recordsPerPage * width;
+        this.cachePages = cachePages;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try
+        {
+            if (channel.size() == 0)
+            {
+                writeHeader();
+            }
+            else
+            {
+                size = readHeader(file);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+        scratch = ByteBuffer.allocate(width);
+        records = new Records();
+        view = ListBridges.asHList(records);
+    }
+
+    private static final ThreadFactory DAEMON = new ThreadFactory()
+    {
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, "PagedListAdapter");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    /**
+     * Verifica l'intestazione di un file esistente e restituisce il numero di elementi.
+     */
+    private int readHeader(Path file) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        if (header.position() < HEADER_SIZE || header.getInt(MappedListAdapter.MAGIC_OFFSET) != MappedListAdapter.MAGIC)
+        {
+            throw new IOException("Not a mapped list file: " + file);
+        }
+        int version = header.getInt(MappedListAdapter.VERSION_OFFSET);
+        if (version != MappedListAdapter.VERSION)
+        {
+            throw new IOException("Unsupported mapped list version " + version + ": " + file);
+        }
+        int stored = header.getInt(MappedListAdapter.WIDTH_OFFSET);
+        if (stored != width)
+        {
+            throw new IOException("Record width mismatch, file has " + stored + " bytes, codec has " + width + ": " + file);
+        }
+        long storedSize = header.getLong(MappedListAdapter.SIZE_OFFSET);
+        if (storedSize < 0 || storedSize > Integer.MAX_VALUE || HEADER_SIZE + storedSize * width > channel.size())
+        {
+            throw new IOException("Corrupted mapped list file, illegal size " + storedSize + ": " + file);
+        }
+        return (int) storedSize;
+    }
+
+    private void writeHeader() throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MappedListAdapter.MAGIC_OFFSET, MappedListAdapter.MAGIC);
+        header.putInt(MappedListAdapter.VERSION_OFFSET, MappedListAdapter.VERSION);
+        header.putInt(MappedListAdapter.WIDTH_OFFSET, width);
+        header.putLong(MappedListAdapter.SIZE_OFFSET, size);
+        writeFully(header, 0);
+    }
+
+    // =============== PERSISTENZA ===============
+
+    /**
+     * Riscrive nel file le pagine modificate e il numero di elementi, e li forza su disco.
+     * Le pagine restano nella cache.
+     *
+     * @throws myExceptions.IllegalStateException se la lista è stata chiusa
+     * @throws UncheckedIOException se il file non può essere scritto
+     */
+    public void flush()
+    {
+        ensureOpen();
+        try
+        {
+            for (Iterator<Page> it = cache.values().iterator(); it.hasNext();)
+            {
+                writeBack(it.next());
+            }
+            writeHeader();
+            channel.force(false);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Attende la lettura anticipata in corso, esegue {@link #flush()} e chiude il file.
+     * Chiamare questo metodo su una lista già chiusa non ha effetto.
+     *
+     * @throws IOException se il file non può essere scritto o chiuso
+     */
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        try
+        {
+            if (reader != null)
+            {
+                reader.shutdown();
+                try
+                {
+                    reader.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while closing the list");
+                }
+            }
+            flush();
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            closed = true;
+            prefetch = null;
+            cache.clear();
+            channel.close();
+        }
+    }
+
+    /**
+     * Restituisce il codec dei record di questa lista.
+     *
+     * @return il codec dei record
+     */
+    public FixedWidthCodec codec()
+    {
+        return codec;
+    }
+
+    // =============== STATISTICHE DELLA CACHE ===============
+
+    /**
+     * Restituisce il numero di accessi alle pagine serviti dalla cache, comprese le pagine già lette in anticipo.
+     *
+     * @return il numero di accessi serviti dalla cache
+     */
+    public long hits()
+    {
+        return hits;
+    }
+
+    /**
+     * Restituisce il numero di accessi alle pagine che hanno richiesto una lettura sincrona dal file.
+     *
+     * @return il numero di accessi non serviti dalla cache
+     */
+    public long misses()
+    {
+        return misses;
+    }
+
+    /**
+     * Restituisce il numero di pagine lette in anticipo durante gli accessi sequenziali.
+     *
+     * @return il numero di letture anticipate avviate
+     */
+    public long prefetches()
+    {
+        return prefetches;
+    }
+
+    /**
+     * Restituisce il numero di pagine attualmente nella cache.
+     *
+     * @return il numero di pagine nella cache
+     */
+    public int cachedPages()
+    {
+        return cache.size();
+    }
+
+    // =============== GESTIONE DELLE PAGINE ===============
+
+    /**
+     * Pagina di record in cache.
+     */
+    private static final class Page
+    {
+        final int number;           // Numero della pagina
+        final ByteBuffer data;      // Contenuto della pagina
+        boolean dirty;              // true se differisce dal file
+
+        Page(int number, ByteBuffer data)
+        {
+            this.number = number;
+            this.data = data;
+        }
+    }
+
+    private void ensureOpen()
+    {
+        if (closed)
+        {
+            throw new myExceptions.IllegalStateException("List has been closed");
+        }
+    }
+
+    /**
+     * Restituisce la pagina specificata, leggendola dal file o dalla lettura anticipata se non è
+     * nella cache e riscrivendo la pagina usata meno di recente se la cache è piena.
+     */
+    private Page page(int number)
+    {
+        Integer key = Integer.valueOf(number);
+        Page page = cache.get(key);
+        if (page != null)
+        {
+            hits++;
+            return page;
+        }
+        ByteBuffer data;
+        if (prefetch != null && prefetchPage == number)
+        {
+            data = await(prefetch);
+            prefetch = null;
+            hits++;
+        }
+        else
+        {
+            data = readPage(number);
+            misses++;
+        }
+        page = new Page(number, data);
+        cache.put(key, page);
+        if (cache.size() > cachePages)
+        {
+            Iterator<Page> eldest = cache.values().iterator();
+            Page evicted = eldest.next();
+            eldest.remove();
+            try
+            {
+                writeBack(evicted);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Avvia la lettura anticipata della pagina adiacente se l'accesso all'indice specificato
+     * prosegue una sequenza di accessi consecutivi.
+     */
+    private void readAhead(int index)
+    {
+        int step = index - lastIndex;
+        lastIndex = index;
+        if (step != 1 && step != -1)
+        {
+            return;
+        }
+        int next = index / recordsPerPage + step;
+        if (next < 0 || (long) next * recordsPerPage >= size || (prefetch != null && next == prefetchPage)
+            || cache.containsKey(Integer.valueOf(next)))
+        {
+            return;
+        }
+        if (prefetch != null)
+        {
+            prefetch.cancel(false);             // La sequenza ha cambiato direzione o è stata interrotta
+        }
+        if (reader == null)
+        {
+            reader = Executors.newSingleThreadExecutor(DAEMON);
+        }
+        final int number = next;
+        prefetchPage = number;
+        prefetch = reader.submit(new Callable<ByteBuffer>()
+        {
+            public ByteBuffer call()
+            {
+                return readPage(number);
+            }
+        });
+        prefetches++;
+    }
+
+    private ByteBuffer await(Future<ByteBuffer> task)
+    {
+        try
+        {
+            return task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while reading a page"));
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new UncheckedIOException(new IOException(cause));
+        }
+    }
+
+    /**
+     * Legge dal file la pagina specificata. I byte oltre la fine del file restano a zero.
+     * Può essere eseguito dal thread delle letture anticipate.
+     */
+    private ByteBuffer readPage(int number)
+    {
+        ByteBuffer data = ByteBuffer.allocate(pageBytes);
+        try
+        {
+            readFully(data, HEADER_SIZE + (long) number * pageBytes);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return data;
+    }
+
+    private void writeBack(Page page) throws IOException
+    {
+        if (page.dirty)
+        {
+            ByteBuffer data = page.data.duplicate();
+            data.clear();
+            writeFully(data, HEADER_SIZE + (long) page.number * pageBytes);
+            page.dirty = false;
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0)
+            {
+                return;
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Restituisce la posizione del record specificato all'interno della sua pagina.
+     */
+    private int offset(int index)
+    {
+        return (index % recordsPerPage) * width;
+    }
+
+    private Object read(int index)
+    {
+        return codec.decode(page(index / recordsPerPage).data, offset(index));
+    }
+
+    private void write(int index, Object element)
+    {
+        Page page = page(index / recordsPerPage);
+        codec.encode(page.data, offset(index), element);
+        page.dirty = true;
+    }
+
+    /**
+     * Copia {@code count} record a partire da {@code from} in quelli a partire da {@code to};
+     * gli intervalli possono sovrapporsi. I record vengono copiati a blocchi contenuti in una sola
+     * pagina sorgente e una sola pagina destinazione.
+     */
+    private void move(int from, int to, int count)
+    {
+        if (to > from)
+        {
+            for (int left = count; left > 0;)           // Dalla fine, per non sovrascrivere la sorgente
+            {
+                int n = Math.min(left, Math.min((from + left - 1) % recordsPerPage, (to + left - 1) % recordsPerPage) + 1);
+                copy(from + left - n, to + left - n, n);
+                left -= n;
+            }
+        }
+        else
+        {
+            for (int done = 0; done < count;)
+            {
+                int n = Math.min(count - done, recordsPerPage - Math.max((from + done) % recordsPerPage, (to + done) % recordsPerPage));
+                copy(from + done, to + done, n);
+                done += n;
+            }
+        }
+    }
+
+    /**
+     * Copia {@code n} record contenuti in una sola pagina sorgente e una sola pagina destinazione.
+     */
+    private void copy(int from, int to, int n)
+    {
+        Page source = page(from / recordsPerPage);
+        Page target = page(to / recordsPerPage);        // Può rimuovere la sorgente dalla cache, che resta leggibile
+        System.arraycopy(source.data.array(), offset(from), target.data.array(), offset(to), n * width);
+        target.dirty = true;
+    }
+
+    /**
+     * Vista {@code java.util.List} dei record. Fornisce a {@code AbstractList} le operazioni
+     * posizionali, da cui derivano iteratori, sottoliste e operazioni di massa.
+     */
+    private class Records extends AbstractList<Object> implements RandomAccess
+    {
+        public int size()
+        {
+            ensureOpen();
+            return size;
+        }
+
+        public Object get(int index)
+        {
+            ensureOpen();
+            checkIndex(index, size);
+            Object element = read(index);
+            readAhead(index);
+            return element;
+        }
+
+        public Object set(int index, Object element)
+        {
+            ensureOpen();
+            checkIndex(index, size);
+            Object old = read(index);
+            write(index, element);
+            return old;
+        }
+
+        public void add(int index, Object element)
+        {
+            ensureOpen();
+            checkIndex(index, size + 1);
+            if (size == Integer.MAX_VALUE)
+            {
+                throw new myExceptions.IllegalStateException("List is full");
+            }
+            codec.encode(scratch, 0, element);          // Valida l'elemento prima di spostare i record
+            move(index, index + 1, size - index);
+            write(index, element);
+            size++;
+            modCount++;
+        }
+
+        public Object remove(int index)
+        {
+            ensureOpen();
+            checkIndex(index, size);
+            Object old = read(index);
+            move(index + 1, index, size - index - 1);
+            size--;
+            modCount++;
+            return old;
+        }
+
+        protected void removeRange(int fromIndex, int toIndex)
+        {
+            ensureOpen();
+            move(toIndex, fromIndex, size - toIndex);
+            size -= toIndex - fromIndex;
+            modCount++;
+        }
+
+        private void checkIndex(int index, int bound)
+        {
+            if (index < 0 || index >= bound)
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
+    }
+
+    // =============== METODI DI HLIST ===============
+
+    public int size()
+    {
+        return view.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return view.isEmpty();
+    }
+
+    public boolean contains(Object o)
+    {
+        return view.contains(o);
+    }
+
+    public HIterator iterator()
+    {
+        return view.iterator();
+    }
+
+    public Object[] toArray()
+    {
+        return view.toArray();
+    }
+
+    public Object[] toArray(Object[] a)
+    {
+        return view.toArray(a);
+    }
+
+    public boolean add(Object o)
+    {
+        return view.add(o);
+    }
+
+    public boolean remove(Object o)
+    {
+        return view.remove(o);
+    }
+
+    public boolean containsAll(HCollection c)
+    {
+        return view.containsAll(c);
+    }
+
+    public boolean addAll(HCollection c)
+    {
+        return view.addAll(c);
+    }
+
+    public boolean addAll(int index, HCollection c)
+    {
+        return view.addAll(index, c);
+    }
+
+    public boolean removeAll(HCollection c)
+    {
+        return view.removeAll(c);
+    }
+
+    public boolean retainAll(HCollection c)
+    {
+        return view.retainAll(c);
+    }
+
+    public void clear()
+    {
+        view.clear();
+    }
+
+    public Object get(int index)
+    {
+        return view.get(index);
+    }
+
+    public Object set(int index, Object element)
+    {
+        return view.set(index, element);
+    }
+
+    public void add(int index, Object element)
+    {
+        view.add(index, element);
+    }
+
+    public Object remove(int index)
+    {
+        return view.remove(index);
+    }
+
+    public int indexOf(Object o)
+    {
+        return view.indexOf(o);
+    }
+
+    public int lastIndexOf(Object o)
+    {
+        return view.lastIndexOf(o);
+    }
+
+    public HListIterator listIterator()
+    {
+        return view.listIterator();
+    }
+
+    public HListIterator listIterator(int index)
+    {
+        return view.listIterator(index);
+    }
+
+    public HList subList(int fromIndex, int toIndex)
+    {
+        return view.subList(fromIndex, toIndex);
+    }
+
+    public void sort(HComparator c)
+    {
+        view.sort(c);
+    }
+
+    /**
+     * Confronta questa lista con l'oggetto specificato secondo il contratto di {@link myAdapter.HList#equals(Object)}.
+     */
+    public boolean equals(Object o)
+    {
+        return o == this || view.equals(o);
+    }
+
+    public int hashCode()
+    {
+        return view.hashCode();
+    }
+
+    public String toString()
+    {
+        return records.toString();
+    }
+}
@@ -0,0 +1,595 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import myAdapter.HBinaryOperator;
+import myAdapter.HComparator;
+import myAdapter.HConsumer;
+import myAdapter.HPredicate;
+import myAdapter.HSpliterator;
+import myAdapter.ListAdapter;
+import myAdapter.SortedListAdapter;
+
+/**
+ * Operazioni di massa parallele su {@link myAdapter.ListAdapter}, eseguite in un {@link ForkJoinPool}.
+ * <p>
+ * La lista viene partizionata ricorsivamente con {@link myAdapter.HSpliterator#trySplit()} finché
+ * ogni partizione non contiene al più {@code threshold} elementi; le partizioni vengono poi elaborate
+ * sequenzialmente dai thread del pool e i risultati combinati nell'ordine della lista.
+ * Poiché lo spliterator della lista è {@code SUBSIZED}, ogni partizione conosce l'indice del suo
+ * primo elemento, e {@link #parallelIndexOf(ListAdapter, Object)} restituisce sempre l'indice più basso.
+ * </p>
+ * <p>
+ * {@link #parallelSort(ListAdapter, HComparator)} ordina blocchi di al più {@code threshold} elementi
+ * in parallelo e li fonde attraverso un buffer; sotto la soglia ricade su
+ * {@link myAdapter.ListAdapter#sort(HComparator)}.
+ * </p>
+ * <p>
+ * {@link #parallelHashCode(ListAdapter)} calcola il codice hash polinomiale della lista combinando
+ * quelli delle partizioni: il risultato coincide bit per bit con {@link myAdapter.ListAdapter#hashCode()}.
+ * </p>
+ * <p>
+ * Questa classe appartiene al package {@code myJdk}, che raccoglie le estensioni disponibili solo
+ * su J2SE: il package {@code myAdapter} resta compatibile con CLDC 1.1, dove
+ * {@code java.util.concurrent} non esiste.
+ * </p>
+ * <p>
+ * La lista non deve essere modificata durante l'esecuzione di un'operazione.
+ * </p>
+ *
+ * @see myAdapter.ListAdapter#spliterator()
+ */
+public class ParallelListOperations
+{
+    /**
+     * Dimensione predefinita, in elementi, sotto la quale una partizione viene elaborata sequenzialmente.
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    private final ForkJoinPool pool;    // Pool in cui vengono eseguite le operazioni
+    private final int threshold;        // Dimensione massima di una partizione sequenziale
+
+    /**
+     * Costruisce un esecutore di operazioni parallele sul pool comune con la soglia predefinita.
+     */
+    public ParallelListOperations()
+    {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Costruisce un esecutore di operazioni parallele sul pool e con la soglia specificati.
+     *
+     * @param pool il pool in cui eseguire le operazioni
+     * @param threshold il numero massimo di elementi elaborati sequenzialmente da un singolo task
+     * @throws NullPointerException se il pool specificato è null
+     * @throws IllegalArgumentException se la soglia è minore di 1
+     */
+    public ParallelListOperations(ForkJoinPool pool, int threshold)
+    {
+        if (pool == null)
+        {
+            throw new NullPointerException("Pool cannot be null");
+        }
+        if (threshold < 1)
+        {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Restituisce la soglia sotto la quale una partizione viene elaborata sequenzialmente.
+     *
+     * @return la soglia di questo esecutore
+     */
+    public int getThreshold()
+    {
+        return threshold;
+    }
+
+    /**
+     * Esegue l'azione specificata su ogni elemento della lista, in parallelo.
+     * L'ordine di esecuzione non è definito e l'azione deve poter essere eseguita da più thread.
+     *
+     * @param list la lista da attraversare
+     * @param action l'azione da eseguire su ogni elemento
+     * @throws NullPointerException se la lista o l'azione sono null
+     */
+    public void parallelForEach(ListAdapter list, final HConsumer action)
+    {
+        if (action == null)
+        {
+            throw new NullPointerException("Action cannot be null");
+        }
+        pool.invoke(new ChunkTask(list.spliterator(), 0, new ChunkOperation()
+        {
+            Object leaf(Object[] chunk, int base)
+            {
+                for (int i = 0; i < chunk.length; i++)
+                {
+                    action.accept(chunk[i]);
+                }
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Restituisce l'indice della prima occorrenza dell'elemento specificato, o -1 se assente.
+     * Il risultato coincide con quello di {@link myAdapter.ListAdapter#indexOf(Object)}: le
+     * partizioni che iniziano dopo una corrispondenza già trovata non vengono esaminate.
+     *
+     * @param list la lista in cui cercare
+     * @param o l'elemento da cercare (può essere null)
+     * @return l'indice più basso dell'elemento, o -1 se la lista non lo contiene
+     * @throws NullPointerException se la lista è null
+     */
+    public int parallelIndexOf(ListAdapter list, final Object o)
+    {
+        final AtomicInteger found = new AtomicInteger(Integer.MAX_VALUE);
+        pool.invoke(new ChunkTask(list.spliterator(), 0, new ChunkOperation()
+        {
+            boolean skip(int base)
+            {
+                return base >= found.get();    // Esiste già una corrispondenza più a sinistra
+            }
+
+            Object leaf(Object[] chunk, int base)
+            {
+                for (int i = 0; i < chunk.length && base + i < found.get(); i++)
+                {
+                    if (o == null ? chunk[i] == null : o.equals(chunk[i]))
+                    {
+                        int index = base + i;
+                        int current = found.get();
+                        while (index < current && !found.compareAndSet(current, index))
+                        {
+                            current = found.get();
+                        }
+                        break;
+                    }
+                }
+                return null;
+            }
+        }));
+        int index = found.get();
+        return index == Integer.MAX_VALUE ? -1 : index;
+    }
+
+    /**
+     * Restituisce true se la lista contiene l'elemento specificato, cercandolo in parallelo.
+     *
+     * @param list la lista in cui cercare
+     * @param o l'elemento da cercare (può essere null)
+     * @return true se la lista contiene l'elemento
+     * @throws NullPointerException se la lista è null
+     */
+    public boolean parallelContains(ListAdapter list, Object o)
+    {
+        return parallelIndexOf(list, o) != -1;
+    }
+
+    /**
+     * Conta, in parallelo, gli elementi della lista che soddisfano la condizione specificata.
+     *
+     * @param list la lista da esaminare
+     * @param predicate la condizione da valutare; deve poter essere valutata da più thread
+     * @return il numero di elementi che soddisfano la condizione
+     * @throws NullPointerException se la lista o la condizione sono null
+     */
+    public int parallelCount(ListAdapter list, final HPredicate predicate)
+    {
+        if (predicate == null)
+        {
+            throw new NullPointerException("Predicate cannot be null");
+        }
+        Object count = pool.invoke(new ChunkTask(list.spliterator(), 0, new ChunkOperation()
+        {
+            Object leaf(Object[] chunk, int base)
+            {
+                int n = 0;
+                for (int i = 0; i < chunk.length; i++)
+                {
+                    if (predicate.test(chunk[i]))
+                    {
+                        n++;
+                    }
+                }
+                return Integer.valueOf(n);
+            }
+
+            Object combine(Object left, Object right)
+            {
+                return Integer.valueOf(((Integer) left).intValue() + ((Integer) right).intValue());
+            }
+        }));
+        return ((Integer) count).intValue();
+    }
+
+    /**
+     * Riduce, in parallelo, gli elementi della lista con l'operazione specificata.
+     * L'operazione deve essere associativa e {@code identity} deve esserne l'elemento neutro:
+     * ogni partizione parte da {@code identity} e i risultati parziali vengono combinati
+     * nell'ordine della lista, quindi l'operazione non deve essere commutativa.
+     *
+     * @param list la lista da ridurre
+     * @param identity l'elemento neutro dell'operazione, restituito per una lista vuota
+     * @param op l'operazione associativa di combinazione
+     * @return il risultato della riduzione
+     * @throws NullPointerException se la lista o l'operazione sono null
+     */
+    public Object parallelReduce(ListAdapter list, final Object identity, final HBinaryOperator op)
+    {
+        if (op == null)
+        {
+            throw new NullPointerException("Operator cannot be null");
+        }
+        return pool.invoke(new ChunkTask(list.spliterator(), 0, new ChunkOperation()
+        {
+            Object leaf(Object[] chunk, int base)
+            {
+                Object result = identity;
+                for (int i = 0; i < chunk.length; i++)
+                {
+                    result = op.apply(result, chunk[i]);
+                }
+                return result;
+            }
+
+            Object combine(Object left, Object right)
+            {
+                return op.apply(left, right);
+            }
+        }));
+    }
+
+    /**
+     * Calcola in parallelo il codice hash della lista, identico a quello di
+     * {@link myAdapter.ListAdapter#hashCode()}.
+     * <p>
+     * Il codice hash di una lista di n elementi è {@code 31^n + H}, con
+     * {@code H = e0*31^(n-1) + ... + e(n-1)} nell'aritmetica degli int. Ogni partizione calcola la
+     * coppia {@code (H, 31^len)} dei propri elementi; due partizioni adiacenti si combinano in
+     * {@code (H(sx) * 31^len(dx) + H(dx), 31^len(sx) * 31^len(dx))}, e il risultato finale è la somma
+     * dei due termini. Poiché somme e prodotti modulo 2^32 sono associativi, il valore non dipende
+     * da come la lista viene partizionata.
+     * </p>
+     * <p>
+     * {@code ListAdapter} mantiene il codice hash in modo incrementale e lo restituisce in tempo
+     * costante finché non viene invalidato: questo metodo serve per le liste molto grandi il cui
+     * valore va ricalcolato (ad esempio dopo un ordinamento) e per le sottoliste, che non lo memorizzano.
+     * </p>
+     *
+     * @param list la lista di cui calcolare il codice hash (anche una sottolista)
+     * @return il codice hash della lista
+     * @throws NullPointerException se la lista è null
+     */
+    public int parallelHashCode(ListAdapter list)
+    {
+        int[] result = (int[]) pool.invoke(new ChunkTask(list.spliterator(), 0, new ChunkOperation()
+        {
+            Object leaf(Object[] chunk, int base)
+            {
+                int h = 0;
+                int power = 1;
+                for (int i = 0; i < chunk.length; i++)
+                {
+                    h = 31 * h + (chunk[i] == null ? 0 : chunk[i].hashCode());
+                    power *= 31;
+                }
+                return new int[] { h, power };
+            }
+
+            Object combine(Object left, Object right)
+            {
+                int[] l = (int[]) left;
+                int[] r = (int[]) right;
+                return new int[] { l[0] * r[1] + r[0], l[1] * r[1] };
+            }
+        }));
+        return result[1] + result[0];
+    }
+
+    /**
+     * Ordina la lista in modo stabile secondo il comparatore specificato, in parallelo.
+     * <p>
+     * Una lista con al più {@code threshold} elementi viene ordinata sequenzialmente e sul posto con
+     * {@link myAdapter.ListAdapter#sort(HComparator)}. Altrimenti gli elementi vengono copiati in un
+     * array, che viene diviso in blocchi di al più {@code threshold} elementi ordinati in parallelo;
+     * i blocchi vengono poi fusi a coppie attraverso un buffer della stessa dimensione, dividendo a
+     * loro volta le fusioni più grandi della soglia in fusioni indipendenti. Il risultato viene infine
+     * riscritto nella lista in blocco con {@link myAdapter.ListAdapter#reorder(HConsumer)}: oltre alla
+     * lista servono quindi {@code 2 * size()} riferimenti. Se il comparatore lancia un'eccezione la
+     * lista resta invariata. Una {@link myAdapter.SortedListAdapter} è già ordinata e delega sempre al
+     * proprio {@code sort}; una sua sottolista viene rifiutata prima di copiare gli elementi.
+     * </p>
+     *
+     * @param list la lista da ordinare (anche una sottolista)
+     * @param c il comparatore che determina l'ordine; deve poter essere usato da più thread
+     * @throws NullPointerException se la lista o il comparatore sono null
+     * @throws ClassCastException se la lista contiene elementi non confrontabili tramite il comparatore
+     * @throws myExceptions.UnsupportedOperationException se la lista è una sottolista di una lista ordinata
+     */
+    public void parallelSort(ListAdapter list, final HComparator c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        if (list.size() <= threshold || list instanceof SortedListAdapter)
+        {
+            list.sort(c);
+            return;
+        }
+        final Comparator<Object> order = new Comparator<Object>()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return c.compare(o1, o2);
+            }
+        };
+        list.reorder(new HConsumer()
+        {
+            public void accept(Object elements)
+            {
+                Object[] a = (Object[]) elements;
+                pool.invoke(new SortTask(a, new Object[a.length], 0, a.length, false, order));
+            }
+        });
+    }
+
+    /**
+     * Operazione eseguita da un {@link ChunkTask}: definisce come elaborare una partizione
+     * e come combinare i risultati di due partizioni adiacenti.
+     */
+    private abstract static class ChunkOperation
+    {
+        /**
+         * Elabora sequenzialmente una partizione, ricevuta come array dei suoi elementi.
+         *
+         * @param chunk gli elementi della partizione, nell'ordine della lista
+         * @param base l'indice nella lista del primo elemento della partizione
+         * @return il risultato parziale della partizione
+         */
+        abstract Object leaf(Object[] chunk, int base);
+
+        /**
+         * Combina i risultati parziali di due partizioni adiacenti.
+         *
+         * @param left il risultato della partizione di sinistra
+         * @param right il risultato della partizione di destra
+         * @return il risultato combinato
+         */
+        Object combine(Object left, Object right)
+        {
+            return null;
+        }
+
+        /**
+         * Indica se una partizione può essere ignorata perché non può influire sul risultato.
+         *
+         * @param base l'indice nella lista del primo elemento della partizione
+         * @return true se la partizione può essere ignorata
+         */
+        boolean skip(int base)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Task che partiziona uno spliterator fino alla soglia e applica l'operazione
+     * a ogni partizione, combinando i risultati da sinistra a destra.
+     */
+    private class ChunkTask extends RecursiveTask<Object>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final HSpliterator spliterator;     // Partizione da elaborare
+        private final int base;                     // Indice nella lista del primo elemento della partizione
+        private final ChunkOperation op;            // Operazione da eseguire
+
+        ChunkTask(HSpliterator spliterator, int base, ChunkOperation op)
+        {
+            this.spliterator = spliterator;
+            this.base = base;
+            this.op = op;
+        }
+
+        protected Object compute()
+        {
+            if (op.skip(base))
+            {
+                return null;
+            }
+            HSpliterator prefix;
+            if (spliterator.estimateSize() > threshold && (prefix = spliterator.trySplit()) != null)
+            {
+                ChunkTask left = new ChunkTask(prefix, base, op);
+                ChunkTask right = new ChunkTask(spliterator, base + (int) prefix.estimateSize(), op);
+                left.fork();
+                Object rightResult = right.compute();
+                Object leftResult = left.join();
+                return op.combine(leftResult, rightResult);
+            }
+            final Object[] chunk = new Object[(int) spliterator.estimateSize()];
+            spliterator.forEachRemaining(new HConsumer()
+            {
+                private int i = 0;
+
+                public void accept(Object o)
+                {
+                    chunk[i++] = o;
+                }
+            });
+            return op.leaf(chunk, base);
+        }
+    }
+
+    /**
+     * Task che ordina l'intervallo {@code [lo, hi)} e ne lascia il risultato in {@code a} oppure,
+     * se {@code intoBuffer} è true, in {@code buf}. Le due metà vengono ordinate nell'array opposto
+     * a quello di destinazione e poi fuse nella destinazione, così che nessun livello debba
+     * ricopiare il risultato della fusione.
+     */
+    private class SortTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] a;                       // Array con gli elementi da ordinare
+        private final Object[] buf;                     // Buffer delle fusioni
+        private final int lo;                           // Inizio (incluso) dell'intervallo
+        private final int hi;                           // Fine (esclusa) dell'intervallo
+        private final boolean intoBuffer;               // true se il risultato va lasciato in buf
+        private final Comparator<Object> comparator;    // Comparatore che determina l'ordine
+
+        SortTask(Object[] a, Object[] buf, int lo, int hi, boolean intoBuffer, Comparator<Object> comparator)
+        {
+            this.a = a;
+            this.buf = buf;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoBuffer = intoBuffer;
+            this.comparator = comparator;
+        }
+
+        protected void compute()
+        {
+            if (hi - lo <= threshold)
+            {
+                Arrays.sort(a, lo, hi, comparator);
+                if (intoBuffer)
+                {
+                    System.arraycopy(a, lo, buf, lo, hi - lo);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(a, buf, lo, mid, !intoBuffer, comparator),
+                      new SortTask(a, buf, mid, hi, !intoBuffer, comparator));
+            Object[] src = intoBuffer ? a : buf;
+            Object[] dst = intoBuffer ? buf : a;
+            new MergeTask(src, lo, mid, mid, hi, dst, lo, comparator).compute();
+        }
+    }
+
+    /**
+     * Task che fonde in modo stabile le sequenze ordinate {@code src[lo1, hi1)} e {@code src[lo2, hi2)}
+     * in {@code dst} a partire da {@code dest}. Una fusione più grande della soglia viene divisa
+     * attorno all'elemento centrale della sequenza più lunga, cercato con una ricerca binaria
+     * nell'altra, in due fusioni indipendenti eseguite in parallelo.
+     */
+    private class MergeTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] src;                     // Array che contiene le due sequenze
+        private final int lo1;                          // Inizio (incluso) della prima sequenza
+        private final int hi1;                          // Fine (esclusa) della prima sequenza
+        private final int lo2;                          // Inizio (incluso) della seconda sequenza
+        private final int hi2;                          // Fine (esclusa) della seconda sequenza
+        private final Object[] dst;                     // Array di destinazione
+        private final int dest;                         // Posizione in dst del primo elemento fuso
+        private final Comparator<Object> comparator;    // Comparatore che determina l'ordine
+
+        MergeTask(Object[] src, int lo1, int hi1, int lo2, int hi2, Object[] dst, int dest, Comparator<Object> comparator)
+        {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.dest = dest;
+            this.comparator = comparator;
+        }
+
+        protected void compute()
+        {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= Math.max(threshold, 2))
+            {
+                merge();
+                return;
+            }
+            MergeTask left;
+            MergeTask right;
+            if (n1 >= n2)
+            {
+                // Gli elementi della seconda sequenza uguali al pivot vanno dopo di esso
+                int mid1 = (lo1 + hi1) >>> 1;
+                int k = lowerBound(src[mid1], lo2, hi2);
+                left = new MergeTask(src, lo1, mid1, lo2, k, dst, dest, comparator);
+                right = new MergeTask(src, mid1, hi1, k, hi2, dst, dest + (mid1 - lo1) + (k - lo2), comparator);
+            }
+            else
+            {
+                // Gli elementi della prima sequenza uguali al pivot vanno prima di esso
+                int mid2 = (lo2 + hi2) >>> 1;
+                int k = upperBound(src[mid2], lo1, hi1);
+                left = new MergeTask(src, lo1, k, lo2, mid2, dst, dest, comparator);
+                right = new MergeTask(src, k, hi1, mid2, hi2, dst, dest + (k - lo1) + (mid2 - lo2), comparator);
+            }
+            invokeAll(left, right);
+        }
+
+        private void merge()
+        {
+            int i = lo1;
+            int j = lo2;
+            int d = dest;
+            while (i < hi1 && j < hi2)
+            {
+                dst[d++] = comparator.compare(src[j], src[i]) < 0 ? src[j++] : src[i++];
+            }
+            System.arraycopy(src, i, dst, d, hi1 - i);
+            System.arraycopy(src, j, dst, d + hi1 - i, hi2 - j);
+        }
+
+        /** Restituisce il primo indice in {@code [lo, hi)} il cui elemento non è minore di {@code key}. */
+        private int lowerBound(Object key, int lo, int hi)
+        {
+            while (lo < hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (comparator.compare(src[mid], key) < 0)
+                {
+                    lo = mid + 1;
+                }
+                else
+                {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /** Restituisce il primo indice in {@code [lo, hi)} il cui elemento è maggiore di {@code key}. */
+        private int upperBound(Object key, int lo, int hi)
+        {
+            while (lo < hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (comparator.compare(key, src[mid]) < 0)
+                {
+                    hi = mid;
+                }
+                else
+                {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+    }
+}
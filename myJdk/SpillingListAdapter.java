@@ -0,0 +1,698 @@
+//Alberto Bortoletto 2101761
+
+package myJdk;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.RandomAccess;
+
+import myAdapter.HCollection;
+import myAdapter.HComparator;
+import myAdapter.HElementCodec;
+import myAdapter.HIterator;
+import myAdapter.HList;
+import myAdapter.HListIterator;
+
+/**
+ * {@link myAdapter.HList} che tiene in memoria al più un numero prefissato di elementi e scrive
+ * gli altri in un file temporaneo, per costruire liste più grandi dello heap disponibile.
+ * <p>
+ * Gli elementi sono divisi in segmenti di al più {@code segmentSize} elementi consecutivi. Solo
+ * i segmenti usati più di recente restano in memoria, entro il budget indicato alla costruzione;
+ * quando un segmento va caricato e il budget è esaurito, il segmento usato meno di recente viene
+ * codificato con un {@link myAdapter.HElementCodec} e scritto nel file, se modificato dall'ultima
+ * scrittura, e poi rilasciato. {@code get(i)} e gli iteratori ricaricano in modo trasparente il
+ * segmento che contiene l'elemento richiesto: una scansione sequenziale legge ogni segmento una
+ * sola volta. Un segmento riscritto riusa il proprio spazio nel file se la nuova codifica vi entra.
+ * </p>
+ * <p>
+ * Gli inserimenti in coda riempiono l'ultimo segmento; un inserimento in un segmento pieno lo
+ * divide in due. Gli elementi vengono codificati una prima volta all'inserimento, in modo che un
+ * elemento non supportato dal codec venga rifiutato subito e non al momento della scrittura.
+ * Tutte le operazioni di {@code HList} sono supportate, comprese sottoliste e iteratori.
+ * {@link #sort(HComparator)} ordina la lista con un {@link ExternalSorter}, che crea run ordinate
+ * di al più {@code memoryBudget} elementi in file temporanei nella stessa directory e le fonde,
+ * senza caricare la lista in memoria. {@code toArray} e l'ordinamento di una sottolista copiano
+ * invece in memoria tutti gli elementi coinvolti: sulle liste più grandi dello heap vanno evitati.
+ * Questa classe non è sincronizzata. {@link #close()} elimina il file temporaneo; dopo la chiusura ogni
+ * operazione lancia {@link myExceptions.IllegalStateException}.
+ * </p>
+ *
+ * @see myAdapter.ElementCodecs
+ */
+public class SpillingListAdapter implements HList, Closeable
+{
+    /**
+     * Numero predefinito di elementi di un segmento.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 4096;
+
+    private final HElementCodec codec;                  // Codec degli elementi scritti nel file
+    private final int segmentSize;                      // Elementi massimi di un segmento
+    private final int maxResident;                      // Segmenti massimi in memoria
+    private final Path directory;                       // Directory del file temporaneo
+    private final ArrayList<Segment> segments = new ArrayList<Segment>();
+    private final LinkedHashMap<Segment, Boolean> resident = new LinkedHashMap<Segment, Boolean>(16, 0.75f, true);
+    private final DataOutputStream validator;           // Codifica di prova degli elementi inseriti
+    private final Records records;                      // Vista java.util.List degli elementi
+    private final HList view;                           // Vista HList degli elementi, a cui si delega
+    private int[] starts = new int[1];                  // starts[s]: indice del primo elemento del segmento s
+    private boolean startsValid = true;                 // false se starts va ricalcolato
+    private int size;                                   // Numero di elementi
+    private FileChannel file;                           // File temporaneo, null se ancora nessuna scrittura
+    private long fileEnd;                               // Fine dello spazio usato nel file
+    private boolean closed;                             // Vero dopo close()
+
+    /**
+     * Costruisce una lista vuota che tiene in memoria al più {@code memoryBudget} elementi,
+     * con segmenti della dimensione predefinita e il file temporaneo nella directory temporanea di sistema.
+     *
+     * @param codec il codec degli elementi
+     * @param memoryBudget il numero massimo di elementi in memoria
+     * @throws NullPointerException se il codec è null
+     * @throws IllegalArgumentException se il budget è minore di {@link #DEFAULT_SEGMENT_SIZE}
+     */
+    public SpillingListAdapter(HElementCodec codec, int memoryBudget)
+    {
+        this(codec, memoryBudget, DEFAULT_SEGMENT_SIZE, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Costruisce una lista vuota che tiene in memoria al più {@code memoryBudget} elementi.
+     *
+     * @param codec il codec degli elementi
+     * @param memoryBudget il numero massimo di elementi in memoria
+     * @param segmentSize il numero massimo di elementi di un segmento
+     * @param directory la directory in cui creare il file temporaneo
+     * @throws NullPointerException se il codec o la directory sono null
+     * @throws IllegalArgumentException se la dimensione dei segmenti è minore di 1 o il budget è minore di un segmento
+     */
+    public SpillingListAdapter(HElementCodec codec, int memoryBudget, int segmentSize, Path directory)
+    {
+        if (codec == null || directory == null)
+        {
+            throw new NullPointerException("Codec and directory cannot be null");
+        }
+        if (segmentSize < 1)
+        {
+            throw new IllegalArgumentException("Illegal segment size: " + segmentSize);
+        }
+        if (memoryBudget < segmentSize)
+        {
+            throw new IllegalArgumentException("Memory budget smaller than one segment: " + memoryBudget);
+        }
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.maxResident = memoryBudget / segmentSize;
+        this.directory = directory;
+        validator = new DataOutputStream(new OutputStream()
+        {
+            public void write(int b)
+            {
+                // I byte della codifica di prova vengono scartati
+            }
+
+            public void write(byte[] b, int off, int len)
+            {
+                // I byte della codifica di prova vengono scartati
+            }
+        });
+        records = new Records();
+        view = ListBridges.asHList(records);
+    }
+
+    // =============== GESTIONE DEI SEGMENTI ===============
+
+    /**
+     * Gruppo di elementi consecutivi, in memoria o scritto nel file.
+     */
+    private static final class Segment
+    {
+        Object[] elements;      // Elementi, null se il segmento non è in memoria
+        int count;              // Numero di elementi
+        long offset = -1;       // Posizione nel file, -1 se mai scritto
+        int capacity;           // Byte riservati nel file
+        boolean dirty = true;   // true se gli elementi in memoria differiscono da quelli nel file
+    }
+
+    /**
+     * Restituisce il numero di elementi attualmente in memoria.
+     *
+     * @return il numero di elementi dei segmenti in memoria
+     * @throws myExceptions.IllegalStateException se la lista è stata chiusa
+     */
+    public int residentElements()
+    {
+        ensureOpen();
+        int total = 0;
+        for (Iterator<Segment> it = resident.keySet().iterator(); it.hasNext();)
+        {
+            total += it.next().count;
+        }
+        return total;
+    }
+
+    /**
+     * Restituisce la dimensione in byte del file temporaneo.
+     *
+     * @return i byte occupati nel file, 0 se nessun segmento è stato ancora scritto
+     * @throws myExceptions.IllegalStateException se la lista è stata chiusa
+     */
+    public long spilledBytes()
+    {
+        ensureOpen();
+        return fileEnd;
+    }
+
+    /**
+     * Elimina il file temporaneo e rilascia gli elementi in memoria. Chiamare questo metodo su una
+     * lista già chiusa non ha effetto.
+     *
+     * @throws IOException se il file non può essere chiuso
+     */
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        segments.clear();
+        resident.clear();
+        size = 0;
+        if (file != null)
+        {
+            file.close();                   // Il file viene eliminato alla chiusura
+        }
+    }
+
+    private void ensureOpen()
+    {
+        if (closed)
+        {
+            throw new myExceptions.IllegalStateException("List has been closed");
+        }
+    }
+
+    /**
+     * Restituisce l'indice del segmento che contiene l'elemento specificato.
+     */
+    private int locate(int index)
+    {
+        ensureStarts();
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high)                  // Ultimo segmento con starts[s] <= index
+        {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= index)
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Ricalcola gli indici iniziali dei segmenti dopo l'aggiunta o la rimozione di un segmento interno.
+     */
+    private void ensureStarts()
+    {
+        if (!startsValid)
+        {
+            starts = new int[segments.size() + 1];
+            for (int s = 0; s < segments.size(); s++)
+            {
+                starts[s + 1] = starts[s] + segments.get(s).count;
+            }
+            startsValid = true;
+        }
+    }
+
+    /**
+     * Aggiunge un segmento vuoto in coda e ne restituisce l'indice.
+     */
+    private int appendSegment()
+    {
+        Segment tail = new Segment();
+        tail.elements = new Object[segmentSize];
+        segments.add(tail);
+        if (startsValid)
+        {
+            int[] grown = new int[segments.size() + 1];
+            System.arraycopy(starts, 0, grown, 0, starts.length);
+            grown[segments.size()] = size;
+            starts = grown;
+        }
+        return segments.size() - 1;
+    }
+
+    /**
+     * Divide il segmento specificato, pieno, spostando la sua metà superiore in un nuovo segmento.
+     */
+    private void split(int s)
+    {
+        Segment lower = segments.get(s);
+        Segment upper = new Segment();
+        int half = lower.count / 2;
+        upper.elements = new Object[segmentSize];
+        upper.count = lower.count - half;
+        System.arraycopy(lower.elements, half, upper.elements, 0, upper.count);
+        for (int i = half; i < lower.count; i++)
+        {
+            lower.elements[i] = null;
+        }
+        lower.count = half;
+        lower.dirty = true;
+        segments.add(s + 1, upper);
+        startsValid = false;
+        load(s + 1);                        // Il nuovo segmento rientra nel budget
+    }
+
+    /**
+     * Porta in memoria il segmento specificato, scrivendo nel file i segmenti usati meno di
+     * recente se il budget è esaurito.
+     */
+    private Segment load(int s)
+    {
+        Segment segment = segments.get(s);
+        if (segment.elements == null)
+        {
+            segment.elements = read(segment);
+            segment.dirty = false;
+        }
+        resident.put(segment, Boolean.TRUE);        // Diventa il segmento usato più di recente
+        while (resident.size() > maxResident)
+        {
+            spill(resident.keySet().iterator().next());
+        }
+        return segment;
+    }
+
+    /**
+     * Scrive il segmento nel file, se modificato, e lo rilascia dalla memoria.
+     */
+    private void spill(Segment segment)
+    {
+        if (segment.dirty)
+        {
+            write(segment);
+            segment.dirty = false;
+        }
+        segment.elements = null;
+        resident.remove(segment);
+    }
+
+    private void write(Segment segment)
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (int i = 0; i < segment.count; i++)
+            {
+                codec.write(out, segment.elements[i]);
+            }
+            if (file == null)
+            {
+                file = FileChannel.open(Files.createTempFile(directory, "spill", ".tmp"), StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            int length = bytes.size();
+            if (segment.offset < 0 || length > segment.capacity)   // Non entra nello spazio precedente: in coda al file
+            {
+                segment.offset = fileEnd;
+                segment.capacity = length;
+                fileEnd += length;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            long position = segment.offset;
+            while (buffer.hasRemaining())
+            {
+                position += file.write(buffer, position);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Object[] read(Segment segment)
+    {
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(segment.capacity);
+            long position = segment.offset;
+            while (buffer.hasRemaining())
+            {
+                int n = file.read(buffer, position);
+                if (n < 0)
+                {
+                    throw new IOException("Spill file truncated");
+                }
+                position += n;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+            Object[] elements = new Object[segmentSize];
+            for (int i = 0; i < segment.count; i++)
+            {
+                elements[i] = codec.read(in);
+            }
+            return elements;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Verifica che il codec sappia scrivere l'elemento specificato.
+     */
+    private void validate(Object element)
+    {
+        try
+        {
+            codec.write(validator, element);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vista {@code java.util.List} degli elementi. Fornisce a {@code AbstractList} le operazioni
+     * posizionali, da cui derivano iteratori, sottoliste e operazioni di massa.
+     */
+    private class Records extends AbstractList<Object> implements RandomAccess
+    {
+        public int size()
+        {
+            ensureOpen();
+            return size;
+        }
+
+        public Object get(int index)
+        {
+            checkIndex(index, size);
+            int s = locate(index);
+            return load(s).elements[index - starts[s]];
+        }
+
+        public Object set(int index, Object element)
+        {
+            checkIndex(index, size);
+            validate(element);
+            int s = locate(index);
+            Segment segment = load(s);
+            Object old = segment.elements[index - starts[s]];
+            segment.elements[index - starts[s]] = element;
+            segment.dirty = true;
+            return old;
+        }
+
+        public void add(int index, Object element)
+        {
+            checkIndex(index, size + 1);
+            validate(element);
+            int s;
+            if (segments.isEmpty() || (index == size && segments.get(segments.size() - 1).count == segmentSize))
+            {
+                s = appendSegment();
+            }
+            else
+            {
+                s = index == size ? segments.size() - 1 : locate(index);
+            }
+            ensureStarts();
+            Segment segment = load(s);
+            int position = index - starts[s];
+            if (segment.count == segmentSize)   // Inserimento in un segmento interno pieno
+            {
+                split(s);
+                ensureStarts();
+                if (position > segment.count)
+                {
+                    position -= segment.count;
+                    s++;
+                }
+                segment = load(s);
+            }
+            System.arraycopy(segment.elements, position, segment.elements, position + 1, segment.count - position);
+            segment.elements[position] = element;
+            segment.count++;
+            segment.dirty = true;
+            size++;
+            for (int t = s + 1; t < starts.length; t++)
+            {
+                starts[t]++;
+            }
+            modCount++;
+        }
+
+        public Object remove(int index)
+        {
+            checkIndex(index, size);
+            int s = locate(index);
+            Segment segment = load(s);
+            int position = index - starts[s];
+            Object old = segment.elements[position];
+            System.arraycopy(segment.elements, position + 1, segment.elements, position, segment.count - position - 1);
+            segment.count--;
+            segment.elements[segment.count] = null;
+            segment.dirty = true;
+            size--;
+            if (segment.count == 0)
+            {
+                segments.remove(s);
+                resident.remove(segment);
+                startsValid = false;
+            }
+            else
+            {
+                for (int t = s + 1; t < starts.length; t++)
+                {
+                    starts[t]--;
+                }
+            }
+            modCount++;
+            return old;
+        }
+
+        public void clear()
+        {
+            ensureOpen();
+            segments.clear();
+            resident.clear();
+            starts = new int[1];
+            startsValid = true;
+            size = 0;
+            fileEnd = 0;
+            if (file != null)
+            {
+                try
+                {
+                    file.truncate(0);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            modCount++;
+        }
+
+        private void checkIndex(int index, int bound)
+        {
+            ensureOpen();
+            if (index < 0 || index >= bound)
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
+    }
+
+    // =============== METODI DI HLIST ===============
+
+    public int size()
+    {
+        return view.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return view.isEmpty();
+    }
+
+    public boolean contains(Object o)
+    {
+        return view.contains(o);
+    }
+
+    public HIterator iterator()
+    {
+        return view.iterator();
+    }
+
+    public Object[] toArray()
+    {
+        return view.toArray();
+    }
+
+    public Object[] toArray(Object[] a)
+    {
+        return view.toArray(a);
+    }
+
+    public boolean add(Object o)
+    {
+        return view.add(o);
+    }
+
+    public boolean remove(Object o)
+    {
+        return view.remove(o);
+    }
+
+    public boolean containsAll(HCollection c)
+    {
+        return view.containsAll(c);
+    }
+
+    public boolean addAll(HCollection c)
+    {
+        return view.addAll(c);
+    }
+
+    public boolean addAll(int index, HCollection c)
+    {
+        return view.addAll(index, c);
+    }
+
+    public boolean removeAll(HCollection c)
+    {
+        return view.removeAll(c);
+    }
+
+    public boolean retainAll(HCollection c)
+    {
+        return view.retainAll(c);
+    }
+
+    public void clear()
+    {
+        view.clear();
+    }
+
+    public Object get(int index)
+    {
+        return view.get(index);
+    }
+
+    public Object set(int index, Object element)
+    {
+        return view.set(index, element);
+    }
+
+    public void add(int index, Object element)
+    {
+        view.add(index, element);
+    }
+
+    public Object remove(int index)
+    {
+        return view.remove(index);
+    }
+
+    public int indexOf(Object o)
+    {
+        return view.indexOf(o);
+    }
+
+    public int lastIndexOf(Object o)
+    {
+        return view.lastIndexOf(o);
+    }
+
+    public HListIterator listIterator()
+    {
+        return view.listIterator();
+    }
+
+    public HListIterator listIterator(int index)
+    {
+        return view.listIterator(index);
+    }
+
+    public HList subList(int fromIndex, int toIndex)
+    {
+        return view.subList(fromIndex, toIndex);
+    }
+
+    /**
+     * Ordina la lista con un ordinamento esterno stabile: oltre ai segmenti in memoria, vengono
+     * tenuti in memoria al più {@code memoryBudget} elementi della run in corso di creazione.
+     *
+     * @param c il comparatore che determina l'ordine degli elementi
+     * @throws NullPointerException se il comparatore è null
+     * @throws ClassCastException se la lista contiene elementi non confrontabili tramite il comparatore
+     * @throws UncheckedIOException se i file temporanei non possono essere scritti o letti
+     * @throws myExceptions.IllegalStateException se la lista è stata chiusa
+     */
+    public void sort(HComparator c)
+    {
+        if (c == null)
+        {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        ensureOpen();
+        try
+        {
+            new ExternalSorter(codec, c, maxResident * segmentSize, ExternalSorter.DEFAULT_FAN_IN, directory).sort(this, this);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Confronta questa lista con l'oggetto specificato secondo il contratto di {@link myAdapter.HList#equals(Object)}.
+     */
+    public boolean equals(Object o)
+    {
+        return o == this || view.equals(o);
+    }
+
+    public int hashCode()
+    {
+        return view.hashCode();
+    }
+
+    public String toString()
+    {
+        return records.toString();
+    }
+}
@@ -27,6 +27,28 @@ import org.junit.runners.Suite;
  * <li>{@link myTest.TestListIteratorPopulated}: Test per {@link myAdapter.ListIterator} su una lista popolata.</li>
  * <li>{@link myTest.TestListIteratorEmpty}: Test per {@link myAdapter.ListIterator} su una lista vuota.</li>
  * <li>{@link myTest.TestSubListAdapter}: Test per la classe interna {@code myAdapter.ListAdapter.SubList}.</li>
+ * <li>{@link myTest.TestCompactingIterator}: Test per {@link myAdapter.CompactingIterator} su lista e sottolista.</li>
+ * <li>{@link myTest.TestListSpliterator}: Test per {@link myAdapter.ListSpliterator} su lista e sottolista.</li>
+ * <li>{@link myTest.TestParallelListOperations}: Test per {@link myJdk.ParallelListOperations} (solo J2SE).</li>
+ * <li>{@link myTest.TestHListStreams}: Test per {@link myJdk.HListStreams} (solo J2SE).</li>
+ * <li>{@link myTest.TestListBridges}: Test per {@link myJdk.ListBridges} (solo J2SE).</li>
+ * <li>{@link myTest.TestListSort}: Test per l'ordinamento stabile e sul posto di ListAdapter e SubList.</li>
+ * <li>{@link myTest.TestSortedListAdapter}: Test per la lista ordinata SortedListAdapter.</li>
+ * <li>{@link myTest.TestIndexedListAdapter}: Test per la lista con indice hash IndexedListAdapter.</li>
+ * <li>{@link myTest.TestBloomListAdapter}: Test per la lista con filtro di Bloom BloomListAdapter.</li>
+ * <li>{@link myTest.TestListHashCode}: Test per il codice hash incrementale di ListAdapter.</li>
+ * <li>{@link myTest.TestListEquals}: Test per il confronto diretto tra ListAdapter.</li>
+ * <li>{@link myTest.TestDigestListAdapter}: Test per la lista con albero di digest DigestListAdapter.</li>
+ * <li>{@link myTest.TestListSerialization}: Test per la serializzazione binaria di ListAdapter.</li>
+ * <li>{@link myTest.TestMappedListAdapter}: Test di MappedListAdapter, lista persistente su file mappato in memoria.</li>
+ * <li>{@link myTest.TestDurableListAdapter}: Test di DurableListAdapter, lista persistente con journal e snapshot.</li>
+ * <li>{@link myTest.TestListCheckpoint}: Test di ListCheckpoint, salvataggio e caricamento rapido di una lista.</li>
+ * <li>{@link myTest.TestDirtyPages}: Test del tracciamento delle pagine modificate di ListAdapter.</li>
+ * <li>{@link myTest.TestSpillingListAdapter}: test della lista che scrive su file i segmenti oltre il budget di memoria</li>
+ * <li>{@link myTest.TestPagedListAdapter}: test della lista su file letta a pagine con cache LRU e lettura anticipata</li>
+ * <li>{@link myTest.TestExternalSorter}: test dell'ordinamento esterno con run su file e fusione a più vie</li>
+ * <li>{@link myTest.TestLazyDecodedListAdapter}: Test per la lista a decodifica pigra LazyDecodedListAdapter.</li>
+ * <li>{@link myTest.TestLazyListAdapter}: Test per la lista generata pigramente LazyListAdapter.</li>
  * </ul>
  * <p>
  * Non contiene logica di test propria, ma funge da contenitore per l'organizzazione e l'esecuzione collettiva
@@ -38,9 +60,31 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
     TestListAdapterEmpty.class,     //46 Tests
     TestListAdapterPopulated.class,   //90 Tests
-    TestListIteratorPopulated.class,    //28 Tests
+    TestListIteratorPopulated.class,    //32 Tests
     TestListIteratorEmpty.class,          //15 Tests
     TestSubListAdapter.class,               //60 Tests
+    TestCompactingIterator.class,             //8 Tests
+    TestListSpliterator.class,                  //7 Tests
+    TestParallelListOperations.class,             //13 Tests
+    TestHListStreams.class,                         //5 Tests
+    TestListBridges.class,                            //7 Tests
+    TestListSort.class,                                 //7 Tests
+    TestSortedListAdapter.class,                          //8 Tests
+    TestIndexedListAdapter.class,                           //7 Tests
+    TestBloomListAdapter.class,                               //6 Tests
+    TestListHashCode.class,                                     //5 Tests
+    TestListEquals.class,                                         //5 Tests
+    TestDigestListAdapter.class,                                    //6 Tests
+    TestListSerialization.class,                                      //5 Tests
+    TestMappedListAdapter.class,                                        //5 Tests
+    TestDurableListAdapter.class,                                         //6 Tests
+    TestListCheckpoint.class,                                               //5 Tests
+    TestDirtyPages.class,                                                     //4 Tests
+    TestSpillingListAdapter.class,                                              //6 Tests
+    TestPagedListAdapter.class,                                                   //5 Tests
+    TestExternalSorter.class,                                                       //5 Tests
+    TestLazyDecodedListAdapter.class,                                                 //5 Tests
+    TestLazyListAdapter.class,                                                          //5 Tests
 })
 public class AllTestsSuite 
 {
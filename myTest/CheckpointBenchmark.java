@@ -0,0 +1,157 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import myAdapter.ElementCodecs;
+import myAdapter.ListAdapter;
+import myJdk.ListCheckpoint;
+
+/**
+ * Benchmark da linea di comando per il caricamento all'avvio con {@link myJdk.ListCheckpoint}.
+ * Non fa parte della {@link AllTestsSuite}.
+ * <p>
+ * Confronta il tempo necessario per ricostruire una lista di interi da un'esportazione testuale,
+ * un valore per riga come in un'esportazione da database letta con {@code add} ripetuti, con
+ * quello del caricamento di un checkpoint tramite mappatura ({@code load}) e tramite flusso
+ * bufferizzato ({@code read}). Ogni misura è la migliore di alcune ripetizioni, precedute da un
+ * riscaldamento. I file vengono scritti in una cartella temporanea ed eliminati al termine.
+ * </p>
+ * <p>
+ * Esempio (10 milioni di elementi, richiede circa 3 GB di heap):
+ * {@code java -Xmx3g -cp "bin:JUnit/junit-4.13.2.jar:JUnit/hamcrest-core-1.3.jar" myTest.CheckpointBenchmark 10000000}
+ * </p>
+ */
+public class CheckpointBenchmark
+{
+    private static final int REPETITIONS = 3;
+
+    /**
+     * Costruttore predefinito per la classe {@code CheckpointBenchmark}.
+     * Questa classe è un'utility e non richiede un'inizializzazione di stato complessa.
+     */
+    public CheckpointBenchmark()
+    {
+        // Il costruttore predefinito non richiede implementazione specifica.
+    }
+
+    /**
+     * Punto di ingresso del benchmark.
+     *
+     * @param args Array di stringhe contenente gli argomenti della linea di comando:
+     * il numero di elementi (predefinito 10000000).
+     * @throws IOException se i file temporanei non possono essere scritti o letti
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+
+        ListAdapter list = new ListAdapter(size);
+        Random random = new Random(2101761);
+        for (int i = 0; i < size; i++)
+        {
+            list.add(Integer.valueOf(random.nextInt(1000000)));
+        }
+
+        Path directory = Files.createTempDirectory("checkpoint-benchmark");
+        Path export = directory.resolve("export.txt");
+        Path checkpoint = directory.resolve("list.ckpt");
+        try
+        {
+            try (BufferedWriter out = Files.newBufferedWriter(export, StandardCharsets.US_ASCII))
+            {
+                for (int i = 0; i < size; i++)
+                {
+                    out.write(list.get(i).toString());
+                    out.newLine();
+                }
+            }
+            long save = Long.MAX_VALUE;
+            for (int r = 0; r <= REPETITIONS; r++)
+            {
+                long start = System.nanoTime();
+                ListCheckpoint.save(list, checkpoint, ElementCodecs.INTEGER);
+                save = Math.min(save, System.nanoTime() - start);
+            }
+
+            System.out.println("=== BENCHMARK CARICAMENTO ALL'AVVIO ===");
+            System.out.println("Elementi: " + size + ", esportazione: " + Files.size(export) / 1024 + " KB, checkpoint: "
+                               + Files.size(checkpoint) / 1024 + " KB");
+            System.out.println("salvataggio del checkpoint: " + millis(save) + " ms");
+
+            long rebuild = Long.MAX_VALUE;
+            long mapped = Long.MAX_VALUE;
+            long streamed = Long.MAX_VALUE;
+            for (int r = 0; r <= REPETITIONS; r++)
+            {
+                long start = System.nanoTime();
+                ListAdapter fromExport = rebuild(export);
+                long rebuildTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                ListAdapter fromMapping = ListCheckpoint.load(checkpoint, ElementCodecs.INTEGER);
+                long mappedTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                ListAdapter fromStream;
+                try (InputStream in = Files.newInputStream(checkpoint))
+                {
+                    fromStream = ListCheckpoint.read(in, ElementCodecs.INTEGER);
+                }
+                long streamedTime = System.nanoTime() - start;
+
+                if (!list.equals(fromExport) || !list.equals(fromMapping) || !list.equals(fromStream))
+                {
+                    throw new IllegalStateException("Loaded list differs from the original");
+                }
+                if (r > 0)      // La prima ripetizione fa da riscaldamento
+                {
+                    rebuild = Math.min(rebuild, rebuildTime);
+                    mapped = Math.min(mapped, mappedTime);
+                    streamed = Math.min(streamed, streamedTime);
+                }
+            }
+            System.out.println("ricostruzione dall'esportazione (add ripetuti): " + millis(rebuild) + " ms");
+            System.out.println("checkpoint mappato (load): " + millis(mapped) + " ms, accelerazione x"
+                               + Math.round(100.0 * rebuild / mapped) / 100.0);
+            System.out.println("checkpoint da flusso (read): " + millis(streamed) + " ms, accelerazione x"
+                               + Math.round(100.0 * rebuild / streamed) / 100.0);
+        }
+        finally
+        {
+            Files.deleteIfExists(export);
+            Files.deleteIfExists(checkpoint);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Ricostruisce la lista dall'esportazione testuale, come all'avvio senza checkpoint.
+     */
+    private static ListAdapter rebuild(Path export) throws IOException
+    {
+        ListAdapter list = new ListAdapter();
+        try (BufferedReader in = Files.newBufferedReader(export, StandardCharsets.US_ASCII))
+        {
+            String line;
+            while ((line = in.readLine()) != null)
+            {
+                list.add(Integer.valueOf(Integer.parseInt(line)));
+            }
+        }
+        return list;
+    }
+
+    private static long millis(long nanos)
+    {
+        return nanos / 1000000L;
+    }
+}
@@ -0,0 +1,130 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import myAdapter.ElementCodecs;
+import myAdapter.HComparator;
+import myAdapter.HIterator;
+import myJdk.ExternalSorter;
+import myJdk.FixedWidthCodecs;
+import myJdk.PagedListAdapter;
+
+/**
+ * Benchmark da linea di comando per l'ordinamento esterno con {@link myJdk.ExternalSorter}.
+ * Non fa parte della {@link AllTestsSuite}.
+ * <p>
+ * Scrive in una {@link myJdk.PagedListAdapter} su file gli interi casuali della sorgente, poi la
+ * ordina in una seconda {@code PagedListAdapter} e in un checkpoint, misurando per ciascuna
+ * destinazione il tempo totale e la velocità in milioni di elementi al secondo. Il risultato su
+ * lista viene verificato rileggendolo in sequenza. Le run, i file delle liste e il checkpoint
+ * vengono scritti in una cartella temporanea ed eliminati al termine.
+ * </p>
+ * <p>
+ * Esempio (100 milioni di elementi con run di 1 milione, circa 1,6 GB di file temporanei):
+ * {@code java -Xmx1g -cp "bin:JUnit/junit-4.13.2.jar:JUnit/hamcrest-core-1.3.jar" myTest.ExternalSortBenchmark 100000000 1000000}
+ * </p>
+ */
+public class ExternalSortBenchmark
+{
+    /**
+     * Costruttore predefinito per la classe {@code ExternalSortBenchmark}.
+     * Questa classe è un'utility e non richiede un'inizializzazione di stato complessa.
+     */
+    public ExternalSortBenchmark()
+    {
+        // Il costruttore predefinito non richiede implementazione specifica.
+    }
+
+    /**
+     * Punto di ingresso del benchmark.
+     *
+     * @param args Array di stringhe contenente gli argomenti della linea di comando:
+     * il numero di elementi (predefinito 100000000) e la dimensione delle run (predefinita 1000000).
+     * @throws IOException se i file temporanei non possono essere scritti o letti
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100000000;
+        int runSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+        Path directory = Files.createTempDirectory("sort-benchmark");
+        Path sourceFile = directory.resolve("source.bin");
+        Path targetFile = directory.resolve("sorted.bin");
+        Path checkpoint = directory.resolve("sorted.ckpt");
+        HComparator order = new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o1).compareTo((Integer) o2);
+            }
+        };
+        ExternalSorter sorter = new ExternalSorter(ElementCodecs.INTEGER, order, runSize, ExternalSorter.DEFAULT_FAN_IN, directory);
+        try
+        {
+            long start = System.nanoTime();
+            try (PagedListAdapter source = new PagedListAdapter(sourceFile, FixedWidthCodecs.INTEGER))
+            {
+                Random random = new Random(2101761);
+                for (int i = 0; i < size; i++)
+                {
+                    source.add(Integer.valueOf(random.nextInt()));
+                }
+            }
+            long generate = System.nanoTime() - start;
+
+            System.out.println("=== BENCHMARK ORDINAMENTO ESTERNO ===");
+            System.out.println("Elementi: " + size + ", run: " + runSize + ", fan-in: " + ExternalSorter.DEFAULT_FAN_IN);
+            System.out.println("scrittura della sorgente: " + millis(generate) + " ms");
+
+            try (PagedListAdapter source = new PagedListAdapter(sourceFile, FixedWidthCodecs.INTEGER);
+                 PagedListAdapter target = new PagedListAdapter(targetFile, FixedWidthCodecs.INTEGER))
+            {
+                start = System.nanoTime();
+                sorter.sort(source, target);
+                target.flush();
+                long toList = System.nanoTime() - start;
+                report("PagedListAdapter -> PagedListAdapter", size, toList, sorter);
+
+                HIterator it = target.iterator();
+                int previous = Integer.MIN_VALUE;
+                while (it.hasNext())
+                {
+                    int value = ((Integer) it.next()).intValue();
+                    if (value < previous)
+                    {
+                        throw new IllegalStateException("Result is not sorted");
+                    }
+                    previous = value;
+                }
+
+                start = System.nanoTime();
+                sorter.sort(source, checkpoint);
+                long toCheckpoint = System.nanoTime() - start;
+                report("PagedListAdapter -> checkpoint", size, toCheckpoint, sorter);
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(sourceFile);
+            Files.deleteIfExists(targetFile);
+            Files.deleteIfExists(checkpoint);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void report(String label, int size, long nanos, ExternalSorter sorter)
+    {
+        System.out.println(label + ": " + millis(nanos) + " ms, " + Math.round(size * 100000.0 / nanos) / 100.0
+                           + " M elementi/s (" + sorter.runs() + " run, " + sorter.mergePasses() + " passaggi intermedi)");
+    }
+
+    private static long millis(long nanos)
+    {
+        return nanos / 1000000L;
+    }
+}
@@ -0,0 +1,122 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import myAdapter.HComparator;
+import myAdapter.ListAdapter;
+import myJdk.ParallelListOperations;
+
+/**
+ * Benchmark da linea di comando per {@link myJdk.ParallelListOperations#parallelSort(ListAdapter, HComparator)}.
+ * Non fa parte della {@link AllTestsSuite}.
+ * <p>
+ * Misura il tempo dell'ordinamento sequenziale {@link myAdapter.ListAdapter#sort(HComparator)} e quello
+ * dell'ordinamento parallelo con pool di 1, 4, 16 e 64 thread sugli stessi dati casuali, e stampa
+ * l'accelerazione rispetto all'ordinamento sequenziale. Ogni misura è la migliore di alcune ripetizioni,
+ * precedute da un riscaldamento. Con più thread dei core disponibili l'accelerazione si ferma al numero di core.
+ * </p>
+ * <p>
+ * Esempio (20 milioni di elementi, richiede alcuni GB di heap):
+ * {@code java -Xmx8g -cp "bin:JUnit/junit-4.13.2.jar:JUnit/hamcrest-core-1.3.jar" myTest.ParallelSortBenchmark 20000000}
+ * </p>
+ */
+public class ParallelSortBenchmark
+{
+    private static final int[] PARALLELISM = { 1, 4, 16, 64 };
+    private static final int REPETITIONS = 3;
+
+    /**
+     * Costruttore predefinito per la classe {@code ParallelSortBenchmark}.
+     * Questa classe è un'utility e non richiede un'inizializzazione di stato complessa.
+     */
+    public ParallelSortBenchmark()
+    {
+        // Il costruttore predefinito non richiede implementazione specifica.
+    }
+
+    /**
+     * Punto di ingresso del benchmark.
+     *
+     * @param args Array di stringhe contenente gli argomenti della linea di comando:
+     * il numero di elementi (predefinito 2000000) e, facoltativamente, la soglia sequenziale
+     * (predefinita {@link myJdk.ParallelListOperations#DEFAULT_THRESHOLD}).
+     */
+    public static void main(String[] args)
+    {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : ParallelListOperations.DEFAULT_THRESHOLD;
+
+        Integer[] data = new Integer[size];
+        Random random = new Random(2101761);
+        for (int i = 0; i < size; i++)
+        {
+            data[i] = Integer.valueOf(random.nextInt());
+        }
+        HComparator byValue = new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                int a = ((Integer) o1).intValue();
+                int b = ((Integer) o2).intValue();
+                return a < b ? -1 : (a == b ? 0 : 1);
+            }
+        };
+
+        System.out.println("=== BENCHMARK ORDINAMENTO PARALLELO ===");
+        System.out.println("Elementi: " + size + ", soglia: " + threshold
+                           + ", core disponibili: " + Runtime.getRuntime().availableProcessors());
+
+        long sequential = Long.MAX_VALUE;
+        for (int r = 0; r <= REPETITIONS; r++)
+        {
+            ListAdapter list = fill(data);
+            long start = System.nanoTime();
+            list.sort(byValue);
+            long elapsed = System.nanoTime() - start;
+            if (r > 0)      // La prima ripetizione fa da riscaldamento
+            {
+                sequential = Math.min(sequential, elapsed);
+            }
+        }
+        System.out.println("sequenziale (ListAdapter.sort): " + millis(sequential) + " ms");
+
+        for (int p = 0; p < PARALLELISM.length; p++)
+        {
+            ForkJoinPool pool = new ForkJoinPool(PARALLELISM[p]);
+            ParallelListOperations ops = new ParallelListOperations(pool, threshold);
+            long best = Long.MAX_VALUE;
+            for (int r = 0; r <= REPETITIONS; r++)
+            {
+                ListAdapter list = fill(data);
+                long start = System.nanoTime();
+                ops.parallelSort(list, byValue);
+                long elapsed = System.nanoTime() - start;
+                if (r > 0)
+                {
+                    best = Math.min(best, elapsed);
+                }
+            }
+            pool.shutdown();
+            System.out.println(PARALLELISM[p] + " thread: " + millis(best) + " ms, accelerazione x"
+                               + Math.round(100.0 * sequential / best) / 100.0);
+        }
+    }
+
+    private static ListAdapter fill(Integer[] data)
+    {
+        ListAdapter list = new ListAdapter();
+        for (int i = 0; i < data.length; i++)
+        {
+            list.add(data[i]);
+        }
+        return list;
+    }
+
+    private static long millis(long nanos)
+    {
+        return nanos / 1000000L;
+    }
+}
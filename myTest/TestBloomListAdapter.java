@@ -0,0 +1,243 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.BloomListAdapter}, la lista che risolve con un filtro
+ * di Bloom le ricerche di elementi sicuramente assenti.
+ * Vengono verificati l'assenza di falsi negativi, i contatori delle scansioni evitate, il tasso di falsi
+ * positivi osservato e la ricostruzione del filtro dopo rimozioni e crescita della lista.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che il filtro non cambi mai i risultati delle ricerche
+ * rispetto a una {@link myAdapter.ListAdapter}, e che le ricerche negative vengano effettivamente risolte
+ * senza scorrere la lista.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestBloomListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestBloomListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestBloomListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private BloomListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una BloomListAdapter dimensionata per 1000 elementi con tasso di falsi positivi 1%,
+     * contenente gli interi pari da 0 a 1998.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new BloomListAdapter(1000, 0.01);
+        for (int i = 0; i < 1000; i++)
+        {
+            list.add(Integer.valueOf(2 * i));
+        }
+    }
+
+    /**
+     * Test di {@link myAdapter.BloomListAdapter#contains(Object)} su elementi presenti.
+     * <p>
+     * Summary: Verifica che nessun elemento presente venga dato per assente.
+     * <p>
+     * Test Case Design: Un filtro di Bloom non produce falsi negativi: ogni ricerca di un elemento presente
+     * deve scorrere la lista e trovarlo.
+     * <p>
+     * Test Description: Si cercano tutti gli elementi presenti con {@code contains}, {@code indexOf} e {@code lastIndexOf}.
+     * <p>
+     * Preconditions: La lista contiene gli interi pari da 0 a 1998.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Tutti gli elementi vengono trovati nella posizione corretta e nessuna scansione viene evitata.
+     */
+    @Test
+    public void testNoFalseNegatives()
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            Integer value = Integer.valueOf(2 * i);
+            assertTrue(list.contains(value));
+            assertEquals(i, list.indexOf(value));
+            assertEquals(i, list.lastIndexOf(value));
+        }
+        assertEquals(0, list.getAvoidedScans());
+        assertEquals(3000, list.getScans());
+        assertEquals(0, list.getFalsePositives());
+    }
+
+    /**
+     * Test dei contatori e del tasso di falsi positivi osservato.
+     * <p>
+     * Summary: Verifica che le ricerche negative vengano quasi sempre risolte dal filtro.
+     * <p>
+     * Test Case Design: Con tasso 1% su 1000 ricerche di elementi assenti ci si attendono circa 10 falsi positivi;
+     * si ammette un margine ampio per non dipendere dalla distribuzione degli hash.
+     * <p>
+     * Test Description: Si cercano i 1000 interi dispari da 1 a 1999, tutti assenti.
+     * <p>
+     * Preconditions: La lista contiene gli interi pari da 0 a 1998.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Nessun elemento viene trovato, almeno 970 scansioni vengono evitate e le scansioni eseguite
+     * coincidono con i falsi positivi.
+     */
+    @Test
+    public void testNegativeLookupsAvoidScans()
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            assertFalse(list.contains(Integer.valueOf(2 * i + 1)));
+        }
+        assertEquals(1000, list.getAvoidedScans() + list.getScans());
+        assertTrue("scansioni evitate: " + list.getAvoidedScans(), list.getAvoidedScans() >= 970);
+        assertEquals(list.getScans(), list.getFalsePositives());
+
+        list.resetCounters();
+        assertEquals(0, list.getAvoidedScans());
+        assertEquals(0, list.getScans());
+    }
+
+    /**
+     * Test della ricostruzione del filtro dopo le rimozioni.
+     * <p>
+     * Summary: Verifica che gli elementi rimossi tornino a essere esclusi dal filtro.
+     * <p>
+     * Test Case Design: Le rimozioni non tolgono elementi dal filtro; quando gli elementi rimossi superano un quarto
+     * della lista il filtro viene ricostruito alla ricerca successiva.
+     * <p>
+     * Test Description: 1) Si rimuove la prima metà della lista con una sottolista.
+     *                   2) Si cercano gli elementi rimossi.
+     * <p>
+     * Preconditions: La lista contiene gli interi pari da 0 a 1998.
+     * <p>
+     * Postconditions: La lista contiene gli interi pari da 1000 a 1998.
+     * <p>
+     * Expected Result: Nessun elemento rimosso viene trovato e quasi tutte le ricerche sono risolte dal filtro.
+     */
+    @Test
+    public void testRebuildAfterRemovals()
+    {
+        list.subList(0, 500).clear();
+        list.resetCounters();
+        for (int i = 0; i < 500; i++)
+        {
+            assertFalse(list.contains(Integer.valueOf(2 * i)));
+        }
+        assertTrue("scansioni evitate: " + list.getAvoidedScans(), list.getAvoidedScans() >= 480);
+        assertEquals(0, list.indexOf(Integer.valueOf(1000)));
+    }
+
+    /**
+     * Test della crescita oltre la capacità prevista.
+     * <p>
+     * Summary: Verifica che il filtro venga ridimensionato quando la lista supera la capacità prevista.
+     * <p>
+     * Test Case Design: Un filtro saturo darebbe quasi sempre "forse presente"; la ricostruzione con capacità
+     * doppia deve mantenere il tasso vicino a quello richiesto.
+     * <p>
+     * Test Description: 1) Si aggiungono altri 9000 interi pari, anche tramite {@code addAll} e {@code HListIterator}.
+     *                   2) Si cercano 1000 interi dispari.
+     * <p>
+     * Preconditions: La lista contiene gli interi pari da 0 a 1998.
+     * <p>
+     * Postconditions: La lista contiene gli interi pari da 0 a 19998.
+     * <p>
+     * Expected Result: Tutti gli elementi aggiunti vengono trovati e almeno 950 ricerche negative sono risolte dal filtro.
+     */
+    @Test
+    public void testGrowthBeyondCapacity()
+    {
+        ListAdapter more = new ListAdapter();
+        for (int i = 1000; i < 5000; i++)
+        {
+            more.add(Integer.valueOf(2 * i));
+        }
+        list.addAll(more);
+        HListIterator it = list.listIterator(list.size());
+        for (int i = 5000; i < 10000; i++)
+        {
+            it.add(Integer.valueOf(2 * i));
+        }
+        assertTrue(list.contains(Integer.valueOf(19998)));
+        assertTrue(list.contains(Integer.valueOf(9000)));
+
+        list.resetCounters();
+        for (int i = 0; i < 1000; i++)
+        {
+            assertFalse(list.contains(Integer.valueOf(4 * i + 1)));
+        }
+        assertTrue("scansioni evitate: " + list.getAvoidedScans(), list.getAvoidedScans() >= 950);
+    }
+
+    /**
+     * Test di {@link myAdapter.BloomListAdapter#set(int, Object)} e {@link myAdapter.BloomListAdapter#remove(Object)}.
+     * <p>
+     * Summary: Verifica che gli elementi inseriti con {@code set} vengano trovati e che {@code remove(Object)}
+     * rispetti il filtro.
+     * <p>
+     * Test Case Design: Il nuovo elemento deve essere registrato nel filtro; la rimozione di un elemento assente
+     * non deve scorrere la lista.
+     * <p>
+     * Test Description: 1) Si sostituisce l'elemento in posizione 10 con -1.
+     *                   2) Si rimuove -1 e poi un elemento mai inserito.
+     * <p>
+     * Preconditions: La lista contiene gli interi pari da 0 a 1998.
+     * <p>
+     * Postconditions: La lista contiene 999 elementi.
+     * <p>
+     * Expected Result: -1 viene trovato e rimosso; la rimozione dell'elemento assente restituisce false.
+     */
+    @Test
+    public void testSetAndRemoveObject()
+    {
+        list.set(10, Integer.valueOf(-1));
+        assertEquals(10, list.indexOf(Integer.valueOf(-1)));
+        assertTrue(list.remove(Integer.valueOf(-1)));
+        assertFalse(list.contains(Integer.valueOf(-1)));
+        assertFalse(list.remove(Integer.valueOf(-3)));
+        assertEquals(999, list.size());
+        list.add(null);
+        assertEquals(999, list.indexOf(null));
+    }
+
+    /**
+     * Test della validazione del tasso di falsi positivi.
+     * <p>
+     * Summary: Verifica che un tasso non compreso strettamente tra 0 e 1 venga rifiutato.
+     * <p>
+     * Test Case Design: Un tasso 0 richiederebbe un filtro infinito, un tasso 1 lo renderebbe inutile.
+     * <p>
+     * Test Description: Si imposta il tasso a 1.
+     * <p>
+     * Preconditions: La lista contiene gli interi pari da 0 a 1998.
+     * <p>
+     * Postconditions: Il tasso rimane 0.01.
+     * <p>
+     * Expected Result: Viene lanciata {@code IllegalArgumentException}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFalsePositiveRate()
+    {
+        list.setFalsePositiveRate(1.0);
+    }
+}
@@ -0,0 +1,322 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+import myExceptions.IllegalStateException;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.CompactingIterator}, l'iteratore con rimozione differita
+ * restituito da {@link myAdapter.ListAdapter#compactingIterator()} sia per la lista che per le sue sottoliste.
+ * Vengono verificati il filtraggio durante l'iterazione, la compattazione al termine dell'iterazione,
+ * la compattazione anticipata al primo accesso esterno e la gestione delle eccezioni.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che il rinvio della compattazione sia invisibile all'utente:
+ * qualsiasi accesso alla lista (o alla sottolista) deve osservare lo stesso contenuto che si otterrebbe
+ * rimuovendo gli elementi uno alla volta con {@link myAdapter.ListIterator}.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestCompactingIterator
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestCompactingIterator}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestCompactingIterator()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter contenente gli interi da 0 a 9.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        for (int i = 0; i < 10; i++)
+        {
+            list.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.ListAdapter#compactingIterator()}.
+     * <p>
+     * Summary: Verifica che un ciclo di filtraggio rimuova tutti e soli gli elementi marcati.
+     * <p>
+     * Test Case Design: Il caso d'uso principale dell'iteratore è il filtraggio durante l'iterazione;
+     * al termine del ciclo la lista deve essere già compattata.
+     * <p>
+     * Test Description: 1) Si itera la lista rimuovendo gli elementi pari.
+     *                   2) Si verifica dimensione e contenuto della lista.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La lista contiene solo gli interi dispari.
+     * <p>
+     * Expected Result: La lista deve essere [1, 3, 5, 7, 9].
+     */
+    @Test
+    public void testFilterEvenElements()
+    {
+        HIterator it = list.compactingIterator();
+        while (it.hasNext())
+        {
+            if (((Integer) it.next()).intValue() % 2 == 0)
+            {
+                it.remove();
+            }
+        }
+        assertEquals(5, list.size());
+        for (int i = 0; i < 5; i++)
+        {
+            assertEquals(Integer.valueOf(2 * i + 1), list.get(i));
+        }
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.CompactingIterator#remove()} su tutti gli elementi.
+     * <p>
+     * Summary: Verifica che rimuovere ogni elemento svuoti la lista.
+     * <p>
+     * Test Case Design: Caso limite in cui nessun elemento sopravvive e la coda da compattare è vuota.
+     * <p>
+     * Test Description: Si rimuove ogni elemento restituito da {@code next()}.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La lista è vuota.
+     * <p>
+     * Expected Result: {@code isEmpty()} deve restituire true.
+     */
+    @Test
+    public void testRemoveAllElements()
+    {
+        HIterator it = list.compactingIterator();
+        while (it.hasNext())
+        {
+            it.next();
+            it.remove();
+        }
+        assertTrue(list.isEmpty());
+        assertEquals(0, list.size());
+    }
+
+    /**
+     * Test della compattazione anticipata.
+     * <p>
+     * Summary: Verifica che un accesso alla lista a iterazione non terminata osservi le rimozioni già eseguite.
+     * <p>
+     * Test Case Design: La compattazione deve avvenire al primo accesso esterno, senza invalidare l'iteratore,
+     * che deve poter proseguire dallo stesso punto.
+     * <p>
+     * Test Description: 1) Si rimuovono i primi due elementi.
+     *                   2) Si interroga la lista con {@code size()} e {@code get(0)}.
+     *                   3) Si prosegue l'iterazione rimuovendo un altro elemento.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La lista contiene [2, 4, 5, 6, 7, 8, 9].
+     * <p>
+     * Expected Result: Dopo le prime due rimozioni la dimensione deve essere 8 e il primo elemento 2;
+     * al termine la dimensione deve essere 7.
+     */
+    @Test
+    public void testEarlyAccessCompacts()
+    {
+        HIterator it = list.compactingIterator();
+        it.next();
+        it.remove();
+        it.next();
+        it.remove();
+        assertEquals(8, list.size());
+        assertEquals(Integer.valueOf(2), list.get(0));
+
+        assertEquals(Integer.valueOf(2), it.next());
+        assertEquals(Integer.valueOf(3), it.next());
+        it.remove();
+        while (it.hasNext())
+        {
+            it.next();
+        }
+        assertEquals(7, list.size());
+        assertEquals(Integer.valueOf(2), list.get(0));
+        assertEquals(Integer.valueOf(4), list.get(1));
+        assertEquals(Integer.valueOf(9), list.get(6));
+    }
+
+    /**
+     * Test dell'interruzione anticipata dell'iterazione.
+     * <p>
+     * Summary: Verifica che uscire dal ciclo prima della fine non lasci elementi rimossi nella lista.
+     * <p>
+     * Test Case Design: Se l'iterazione non raggiunge la fine, la compattazione deve avvenire al primo
+     * accesso successivo, inclusa la creazione di un nuovo iteratore.
+     * <p>
+     * Test Description: 1) Si rimuovono gli elementi 1 e 3, poi si abbandona l'iteratore.
+     *                   2) Si legge la lista con {@code toArray()}.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La lista contiene 8 elementi.
+     * <p>
+     * Expected Result: {@code toArray()} deve restituire [0, 2, 4, 5, 6, 7, 8, 9].
+     */
+    @Test
+    public void testAbandonedIteration()
+    {
+        HIterator it = list.compactingIterator();
+        it.next();
+        it.next();
+        it.remove();
+        it.next();
+        it.next();
+        it.remove();
+
+        Object[] expected = { Integer.valueOf(0), Integer.valueOf(2), Integer.valueOf(4), Integer.valueOf(5),
+                              Integer.valueOf(6), Integer.valueOf(7), Integer.valueOf(8), Integer.valueOf(9) };
+        assertArrayEquals(expected, list.toArray());
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.CompactingIterator#remove()} senza next.
+     * <p>
+     * Summary: Verifica che {@code remove()} lanci {@code IllegalStateException} se {@code next()} non è stato chiamato.
+     * <p>
+     * Test Case Design: L'iteratore deve rispettare il contratto di {@link myAdapter.HIterator#remove()}.
+     * <p>
+     * Test Description: Si chiama {@code remove()} su un iteratore appena creato.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Viene lanciata {@code IllegalStateException}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRemoveWithoutNext()
+    {
+        list.compactingIterator().remove();
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.CompactingIterator#remove()} chiamato due volte.
+     * <p>
+     * Summary: Verifica che una seconda {@code remove()} consecutiva lanci {@code IllegalStateException}.
+     * <p>
+     * Test Case Design: La rimozione differita non deve permettere di marcare due volte lo stesso elemento.
+     * <p>
+     * Test Description: Si chiama {@code next()}, poi {@code remove()} due volte.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: Il primo elemento risulta rimosso.
+     * <p>
+     * Expected Result: La seconda {@code remove()} lancia {@code IllegalStateException} e la lista ha 9 elementi.
+     */
+    @Test
+    public void testDoubleRemove()
+    {
+        HIterator it = list.compactingIterator();
+        it.next();
+        it.remove();
+        try
+        {
+            it.remove();
+            fail("Attesa IllegalStateException");
+        }
+        catch (IllegalStateException e)
+        {
+            // Comportamento atteso
+        }
+        assertEquals(9, list.size());
+        assertEquals(Integer.valueOf(1), list.get(0));
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#compactingIterator()} su una sottolista.
+     * <p>
+     * Summary: Verifica che la compattazione su una sottolista aggiorni sia la sottolista sia la lista padre.
+     * <p>
+     * Test Case Design: La sottolista condivide il {@code Vector} della lista padre; la compattazione deve spostare
+     * anche gli elementi della lista padre successivi alla sottolista.
+     * <p>
+     * Test Description: 1) Si crea la sottolista [2, 8).
+     *                   2) Si rimuovono gli elementi multipli di 3 tramite l'iteratore della sottolista.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La sottolista contiene [2, 4, 5, 7], la lista padre [0, 1, 2, 4, 5, 7, 8, 9].
+     * <p>
+     * Expected Result: Dimensioni e contenuti di sottolista e lista padre coerenti con le rimozioni.
+     */
+    @Test
+    public void testSubListCompaction()
+    {
+        ListAdapter sub = (ListAdapter) list.subList(2, 8);
+        HIterator it = sub.compactingIterator();
+        while (it.hasNext())
+        {
+            if (((Integer) it.next()).intValue() % 3 == 0)
+            {
+                it.remove();
+            }
+        }
+        Object[] expectedSub = { Integer.valueOf(2), Integer.valueOf(4), Integer.valueOf(5), Integer.valueOf(7) };
+        assertArrayEquals(expectedSub, sub.toArray());
+        Object[] expectedParent = { Integer.valueOf(0), Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(4),
+                                    Integer.valueOf(5), Integer.valueOf(7), Integer.valueOf(8), Integer.valueOf(9) };
+        assertArrayEquals(expectedParent, list.toArray());
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#removeAll(HCollection)} e {@link myAdapter.ListAdapter#retainAll(HCollection)}.
+     * <p>
+     * Summary: Verifica che le operazioni di massa, basate sull'iteratore con rimozione differita, rimuovano tutte le occorrenze.
+     * <p>
+     * Test Case Design: {@code removeAll} e {@code retainAll} attraversano la lista una sola volta; i duplicati devono
+     * essere gestiti come in precedenza.
+     * <p>
+     * Test Description: 1) Si aggiungono duplicati e si chiama {@code removeAll}.
+     *                   2) Si chiama {@code retainAll} sul risultato.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9 seguiti da 0 e 1.
+     * <p>
+     * Postconditions: La lista contiene [4, 5].
+     * <p>
+     * Expected Result: {@code removeAll} e {@code retainAll} restituiscono true e la lista finale è [4, 5].
+     */
+    @Test
+    public void testBulkRemovalUsesSinglePass()
+    {
+        list.add(Integer.valueOf(0));
+        list.add(Integer.valueOf(1));
+        ListAdapter toRemove = new ListAdapter();
+        toRemove.add(Integer.valueOf(0));
+        toRemove.add(Integer.valueOf(1));
+        assertTrue(list.removeAll(toRemove));
+        assertEquals(8, list.size());
+        assertFalse(list.contains(Integer.valueOf(0)));
+        assertFalse(list.contains(Integer.valueOf(1)));
+
+        ListAdapter toRetain = new ListAdapter();
+        toRetain.add(Integer.valueOf(4));
+        toRetain.add(Integer.valueOf(5));
+        assertTrue(list.retainAll(toRetain));
+        Object[] expected = { Integer.valueOf(4), Integer.valueOf(5) };
+        assertArrayEquals(expected, list.toArray());
+    }
+}
@@ -0,0 +1,361 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.DigestListAdapter}, la lista che mantiene un albero di digest
+ * su blocchi di elementi per confrontare due liste e individuare gli intervalli modificati.
+ * Vengono verificati il digest dopo ogni tipo di modifica, gli intervalli restituiti da {@code changedRanges}
+ * e il confronto con {@code digestEquals} ed {@code equals}.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che l'albero aggiornato pigramente coincida sempre con quello
+ * calcolato da zero sugli stessi elementi, e che gli intervalli segnalati siano esattamente i blocchi diversi.
+ * Si usano blocchi piccoli (4 elementi) perché anche liste brevi abbiano un albero di più livelli.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestDigestListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestDigestListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestDigestListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private DigestListAdapter list;
+    private DigestListAdapter snapshot;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza due DigestListAdapter con blocchi di 4 elementi, entrambe contenenti gli interi da 0 a 39.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new DigestListAdapter(4);
+        snapshot = new DigestListAdapter(4);
+        for (int i = 0; i < 40; i++)
+        {
+            list.add(Integer.valueOf(i));
+            snapshot.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Restituisce una nuova lista con blocchi di 4 elementi costruita da zero con gli elementi specificati.
+     */
+    private static DigestListAdapter rebuilt(HList source)
+    {
+        DigestListAdapter fresh = new DigestListAdapter(4);
+        Object[] values = source.toArray();
+        for (int i = 0; i < values.length; i++)
+        {
+            fresh.add(values[i]);
+        }
+        return fresh;
+    }
+
+    /**
+     * Restituisce gli intervalli come array {@code {from0, to0, from1, to1, ...}} per confrontarli facilmente.
+     */
+    private static int[] flatten(HList ranges)
+    {
+        int[] flat = new int[2 * ranges.size()];
+        for (int i = 0; i < ranges.size(); i++)
+        {
+            int[] range = (int[]) ranges.get(i);
+            flat[2 * i] = range[0];
+            flat[2 * i + 1] = range[1];
+        }
+        return flat;
+    }
+
+    /**
+     * Test di {@link myAdapter.DigestListAdapter#digestEquals(DigestListAdapter)}.
+     * <p>
+     * Summary: Verifica che liste con lo stesso contenuto abbiano lo stesso digest indipendentemente da come sono state costruite.
+     * <p>
+     * Test Case Design: Il digest deve dipendere solo dagli elementi e dalle loro posizioni, non dalla sequenza di operazioni.
+     * <p>
+     * Test Description: 1) Si costruisce una terza lista inserendo gli elementi in testa in ordine inverso.
+     *                   2) Si sostituisce un elemento e poi lo si ripristina.
+     * <p>
+     * Preconditions: Due liste con gli interi da 0 a 39.
+     * <p>
+     * Postconditions: Le liste hanno lo stesso contenuto.
+     * <p>
+     * Expected Result: I digest coincidono, tranne mentre l'elemento è sostituito.
+     */
+    @Test
+    public void testDigestIndependentOfConstruction()
+    {
+        DigestListAdapter reversed = new DigestListAdapter(4);
+        for (int i = 39; i >= 0; i--)
+        {
+            reversed.add(0, Integer.valueOf(i));
+        }
+        assertTrue(list.digestEquals(reversed));
+        assertTrue(list.digestEquals(snapshot));
+        assertEquals(snapshot.digest(), reversed.digest());
+
+        list.set(17, "x");
+        assertFalse(list.digestEquals(snapshot));
+        assertFalse(list.equals(snapshot));
+        list.set(17, Integer.valueOf(17));
+        assertTrue(list.digestEquals(snapshot));
+        assertTrue(list.equals(snapshot));
+        assertEquals(0L, new DigestListAdapter(4).digest());
+    }
+
+    /**
+     * Test di {@link myAdapter.DigestListAdapter#changedRanges(DigestListAdapter)} dopo sostituzioni.
+     * <p>
+     * Summary: Verifica che vengano segnalati esattamente i blocchi contenenti le sostituzioni, uniti se adiacenti.
+     * <p>
+     * Test Case Design: Le sostituzioni segnano un solo blocco; due blocchi adiacenti devono diventare un solo intervallo.
+     * <p>
+     * Test Description: Si sostituiscono gli elementi in posizione 1, 9, 13 e 39.
+     * <p>
+     * Preconditions: Due liste con gli interi da 0 a 39.
+     * <p>
+     * Postconditions: La prima lista contiene le quattro sostituzioni.
+     * <p>
+     * Expected Result: Gli intervalli sono [0, 4), [8, 16) e [36, 40), in entrambe le direzioni del confronto.
+     */
+    @Test
+    public void testChangedRangesAfterSet()
+    {
+        assertEquals(0, list.changedRanges(snapshot).size());
+        list.set(1, "a");
+        list.set(9, "b");
+        list.set(13, "c");
+        list.set(39, "d");
+        int[] expected = { 0, 4, 8, 16, 36, 40 };
+        assertArrayEquals(expected, flatten(list.changedRanges(snapshot)));
+        assertArrayEquals(expected, flatten(snapshot.changedRanges(list)));
+    }
+
+    /**
+     * Test di {@link myAdapter.DigestListAdapter#changedRanges(DigestListAdapter)} dopo modifiche strutturali.
+     * <p>
+     * Summary: Verifica gli intervalli dopo un inserimento in mezzo, con liste di lunghezza diversa e con una lista vuota.
+     * <p>
+     * Test Case Design: Un inserimento sposta tutti gli elementi successivi; la coda della lista più lunga è sempre diversa.
+     * <p>
+     * Test Description: 1) Si inserisce un elemento in posizione 21.
+     *                   2) Si aggiungono elementi in coda alla copia e la si confronta con la lista originale.
+     *                   3) Si confronta con una lista vuota.
+     * <p>
+     * Preconditions: Due liste con gli interi da 0 a 39.
+     * <p>
+     * Postconditions: Le liste hanno lunghezze diverse.
+     * <p>
+     * Expected Result: Gli intervalli partono dal blocco modificato e arrivano alla fine della lista più lunga.
+     */
+    @Test
+    public void testChangedRangesAfterStructuralChanges()
+    {
+        list.add(21, "i");
+        assertArrayEquals(new int[] { 20, 41 }, flatten(list.changedRanges(snapshot)));
+
+        DigestListAdapter longer = rebuilt(snapshot);
+        for (int i = 40; i < 50; i++)
+        {
+            longer.add(Integer.valueOf(i));
+        }
+        assertArrayEquals(new int[] { 40, 50 }, flatten(longer.changedRanges(snapshot)));
+        assertArrayEquals(new int[] { 40, 50 }, flatten(snapshot.changedRanges(longer)));
+
+        DigestListAdapter empty = new DigestListAdapter(4);
+        assertArrayEquals(new int[] { 0, 40 }, flatten(snapshot.changedRanges(empty)));
+        assertEquals(0, empty.changedRanges(new DigestListAdapter(4)).size());
+    }
+
+    /**
+     * Test dell'aggiornamento pigro dopo modifiche che passano dal Vector.
+     * <p>
+     * Summary: Verifica il digest dopo ordinamento, {@code removeAll}, inserimenti con iteratore, sottoliste e svuotamento.
+     * <p>
+     * Test Case Design: Queste operazioni scrivono direttamente nel Vector o passano da operazioni differite; l'albero
+     * deve essere avvisato dalle notifiche interne.
+     * <p>
+     * Test Description: Dopo ogni operazione si confronta il digest con quello di una lista ricostruita da zero.
+     * <p>
+     * Preconditions: Lista con gli interi da 0 a 39.
+     * <p>
+     * Postconditions: La lista è vuota.
+     * <p>
+     * Expected Result: I digest coincidono dopo ogni operazione.
+     */
+    @Test
+    public void testDigestAfterIndirectModifications()
+    {
+        list.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o2).intValue() - ((Integer) o1).intValue();
+            }
+        });
+        assertEquals(rebuilt(list).digest(), list.digest());
+
+        ListAdapter odd = new ListAdapter();
+        for (int i = 1; i < 40; i += 2)
+        {
+            odd.add(Integer.valueOf(i));
+        }
+        list.removeAll(odd);
+        assertEquals(rebuilt(list).digest(), list.digest());
+
+        HListIterator it = list.listIterator(3);
+        it.add("p");
+        it.add("q");
+        assertEquals(rebuilt(list).digest(), list.digest());
+
+        list.subList(5, 12).clear();
+        assertEquals(rebuilt(list).digest(), list.digest());
+        assertTrue(list.remove("q"));
+        assertEquals(rebuilt(list).digest(), list.digest());
+
+        list.clear();
+        assertEquals(0L, list.digest());
+        list.add("z");
+        assertEquals(rebuilt(list).digest(), list.digest());
+    }
+
+    /**
+     * Test di una sequenza casuale di operazioni.
+     * <p>
+     * Summary: Verifica che il digest e gli intervalli coincidano con quelli calcolati da zero dopo molte operazioni miste.
+     * <p>
+     * Test Case Design: Si alternano inserimenti e rimozioni in coda e in mezzo e sostituzioni, interrogando l'albero
+     * a intervalli irregolari, così che l'aggiornamento pigro riparta da stati diversi (albero che cresce e si riduce).
+     * <p>
+     * Test Description: Si eseguono 3000 operazioni casuali confrontando ogni 7 operazioni il digest con quello della
+     * lista ricostruita, e alla fine gli intervalli rispetto alla lista iniziale.
+     * <p>
+     * Preconditions: Lista con gli interi da 0 a 39.
+     * <p>
+     * Postconditions: La lista è stata modificata.
+     * <p>
+     * Expected Result: Tutti i digest coincidono e ogni posizione fuori dagli intervalli ha lo stesso elemento nelle due liste.
+     */
+    @Test
+    public void testRandomOperationsMatchRebuild()
+    {
+        Random random = new Random(40);
+        for (int step = 0; step < 3000; step++)
+        {
+            int size = list.size();
+            Integer value = Integer.valueOf(random.nextInt(100));
+            switch (random.nextInt(6))
+            {
+                case 0:
+                    list.add(value);
+                    break;
+                case 1:
+                    list.add(random.nextInt(size + 1), value);
+                    break;
+                case 2:
+                case 3:
+                    if (size > 0)
+                    {
+                        list.set(random.nextInt(size), value);
+                    }
+                    break;
+                case 4:
+                    if (size > 0)
+                    {
+                        list.remove(size - 1);
+                    }
+                    break;
+                default:
+                    if (size > 0)
+                    {
+                        list.remove(random.nextInt(size));
+                    }
+                    break;
+            }
+            if (step % 7 == 0)
+            {
+                assertEquals("step " + step, rebuilt(list).digest(), list.digest());
+            }
+        }
+        assertEquals(rebuilt(list).digest(), list.digest());
+
+        HList ranges = list.changedRanges(snapshot);
+        for (int i = 0; i < Math.min(list.size(), snapshot.size()); i++)
+        {
+            boolean inside = false;
+            for (int r = 0; r < ranges.size(); r++)
+            {
+                int[] range = (int[]) ranges.get(r);
+                inside |= range[0] <= i && i < range[1];
+            }
+            if (!inside)
+            {
+                assertEquals(snapshot.get(i), list.get(i));
+            }
+        }
+    }
+
+    /**
+     * Test della validazione della dimensione dei blocchi.
+     * <p>
+     * Summary: Verifica che liste con blocchi di dimensione diversa non vengano confrontate tramite digest.
+     * <p>
+     * Test Case Design: I digest di blocchi di dimensione diversa non sono confrontabili; {@code equals} deve invece
+     * continuare a funzionare confrontando gli elementi.
+     * <p>
+     * Test Description: 1) Si confronta la lista con una lista con blocchi di 8 elementi e lo stesso contenuto.
+     *                   2) Si crea una lista con blocchi di dimensione 0.
+     * <p>
+     * Preconditions: Lista con gli interi da 0 a 39.
+     * <p>
+     * Postconditions: Le liste rimangono invariate.
+     * <p>
+     * Expected Result: {@code equals} restituisce true, {@code changedRanges} e il costruttore lanciano
+     * {@code IllegalArgumentException}.
+     */
+    @Test
+    public void testChunkSizeValidation()
+    {
+        DigestListAdapter wide = new DigestListAdapter(8);
+        wide.addAll(list);
+        assertTrue(list.equals(wide));
+        try
+        {
+            list.changedRanges(wide);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new DigestListAdapter(0);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+    }
+}
@@ -0,0 +1,323 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per il tracciamento delle pagine modificate di {@link myAdapter.ListAdapter}:
+ * {@link myAdapter.ListAdapter#trackDirtyPages(int)} e {@link myAdapter.ListAdapter#fetchAndClearDirtyPages()}.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che un livello di persistenza che riscrive solo le pagine
+ * restituite mantenga una copia identica alla lista, qualunque sia la modifica (anche tramite sottoliste,
+ * iteratori, ordinamenti e compattazioni, e nelle sottoclassi), e che una modifica locale segni solo la sua pagina.
+ * La persistenza è simulata da una {@code java.util.List} aggiornata pagina per pagina.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestDirtyPages
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestDirtyPages}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestDirtyPages()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter contenente gli interi da 0 a 99.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        for (int i = 0; i < 100; i++)
+        {
+            list.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Test delle modifiche locali.
+     * <p>
+     * Summary: Verifica che l'attivazione segni tutte le pagine e che sostituzioni e inserimenti in coda
+     * segnino solo la pagina dell'elemento.
+     * <p>
+     * Test Case Design: Una modifica a un elemento di una lista grande deve richiedere la scrittura di una sola pagina.
+     * <p>
+     * Test Description: 1) Si attiva il tracciamento con pagine di 10 elementi e si leggono le pagine due volte.
+     *                   2) Si sostituiscono gli elementi 5 e 47 e si aggiunge un elemento in coda.
+     *                   3) Si rimuove l'ultimo elemento.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 99.
+     * <p>
+     * Postconditions: Nessuna pagina modificata.
+     * <p>
+     * Expected Result: Tutte le pagine, poi nessuna, poi le pagine 0, 4 e 10, poi la pagina 10 ormai vuota non compare.
+     */
+    @Test
+    public void testLocalChanges()
+    {
+        list.trackDirtyPages(10);
+        assertEquals(10, list.dirtyPageSize());
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, list.fetchAndClearDirtyPages());
+        assertEquals(0, list.fetchAndClearDirtyPages().length);
+
+        list.set(47, "x");
+        list.set(5, "y");
+        list.add("z");
+        assertArrayEquals(new int[] { 0, 4, 10 }, list.fetchAndClearDirtyPages());
+
+        list.remove(100);
+        assertEquals(0, list.fetchAndClearDirtyPages().length);
+    }
+
+    /**
+     * Test delle modifiche che spostano gli elementi.
+     * <p>
+     * Summary: Verifica che inserimenti e rimozioni in mezzo, tramite la lista, una sottolista o un iteratore,
+     * segnino le pagine dalla prima posizione modificata in poi.
+     * <p>
+     * Test Case Design: Gli elementi successivi cambiano posizione, quindi tutte le pagine successive cambiano contenuto.
+     * <p>
+     * Test Description: 1) Si inserisce un elemento in posizione 35.
+     *                   2) Si rimuove tramite la sottolista [60, 80) il suo primo elemento.
+     *                   3) Si aggiungono due elementi tramite un iteratore in posizione 95.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 99, tracciamento con pagine di 10 elementi.
+     * <p>
+     * Postconditions: La lista contiene 102 elementi.
+     * <p>
+     * Expected Result: Le pagine da 3 a 9, poi da 6 a 9, poi da 9 a 10.
+     */
+    @Test
+    public void testShiftingChanges()
+    {
+        list.trackDirtyPages(10);
+        list.fetchAndClearDirtyPages();
+        list.add(35, "a");
+        assertArrayEquals(new int[] { 3, 4, 5, 6, 7, 8, 9, 10 }, list.fetchAndClearDirtyPages());
+        list.subList(60, 80).remove(0);
+        assertArrayEquals(new int[] { 6, 7, 8, 9 }, list.fetchAndClearDirtyPages());
+        HListIterator it = list.listIterator(95);
+        it.add("b");
+        it.add("c");
+        assertEquals(102, list.size());
+        assertArrayEquals(new int[] { 9, 10 }, list.fetchAndClearDirtyPages());
+    }
+
+    /**
+     * Test della persistenza incrementale con modifiche casuali.
+     * <p>
+     * Summary: Verifica che una copia aggiornata solo con le pagine restituite resti sempre uguale alla lista,
+     * per una ListAdapter e per le sottoclassi che scrivono direttamente nel Vector.
+     * <p>
+     * Test Case Design: Ordinamenti, compattazioni di {@code removeAll} e fusioni di {@link myAdapter.SortedListAdapter}
+     * spostano gli elementi senza passare dai metodi pubblici e devono comunque segnare le pagine.
+     * <p>
+     * Test Description: Si eseguono 2000 modifiche casuali su ciascuna lista, aggiornando la copia ogni poche modifiche.
+     * <p>
+     * Preconditions: Liste vuote con tracciamento a pagine di 7 elementi.
+     * <p>
+     * Postconditions: Le copie sono uguali alle liste.
+     * <p>
+     * Expected Result: Dopo ogni aggiornamento la copia contiene gli stessi elementi della lista.
+     */
+    @Test
+    public void testIncrementalPersistence()
+    {
+        ListAdapter[] lists = { new ListAdapter(), new IndexedListAdapter(), new SortedListAdapter(new IntegerComparator()) };
+        for (int k = 0; k < lists.length; k++)
+        {
+            ListAdapter l = lists[k];
+            boolean sorted = l instanceof SortedListAdapter;
+            l.trackDirtyPages(7);
+            List<Object> copy = new ArrayList<Object>();
+            Random random = new Random(42 + k);
+            for (int step = 0; step < 2000; step++)
+            {
+                int size = l.size();
+                int index = size == 0 ? 0 : random.nextInt(size);
+                Integer value = Integer.valueOf(random.nextInt(50));
+                switch (random.nextInt(8))
+                {
+                    case 0:
+                    case 1:
+                        l.add(value);
+                        break;
+                    case 2:
+                        if (!sorted)
+                        {
+                            l.add(index, value);
+                        }
+                        break;
+                    case 3:
+                        if (size > 0)
+                        {
+                            l.remove(index);
+                        }
+                        break;
+                    case 4:
+                        if (size > 0 && !sorted)
+                        {
+                            l.set(index, value);
+                        }
+                        break;
+                    case 5:
+                        l.remove(value);
+                        break;
+                    case 6:
+                        ListAdapter values = new ListAdapter();
+                        values.add(value);
+                        values.add(Integer.valueOf(random.nextInt(50)));
+                        if (random.nextBoolean())
+                        {
+                            l.removeAll(values);
+                        }
+                        else
+                        {
+                            l.addAll(values);
+                        }
+                        break;
+                    default:
+                        if (!sorted)
+                        {
+                            l.sort(new IntegerComparator());
+                        }
+                        else if (size > 4)
+                        {
+                            l.subList(1, 4).clear();
+                        }
+                        break;
+                }
+                if (step % 5 == 0)
+                {
+                    persist(l, copy);
+                    assertArrayEquals("step " + step, l.toArray(), copy.toArray());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test delle condizioni di errore e della disattivazione.
+     * <p>
+     * Summary: Verifica le eccezioni per tracciamento non attivo, sottoliste e dimensione di pagina negativa,
+     * e che {@code trackDirtyPages(0)} disattivi il tracciamento.
+     * <p>
+     * Test Case Design: Le pagine sono definite sulle posizioni della lista radice.
+     * <p>
+     * Test Description: 1) Si leggono le pagine senza tracciamento.
+     *                   2) Si attiva il tracciamento su una sottolista e con dimensione -1.
+     *                   3) Si attiva e si disattiva il tracciamento.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 99.
+     * <p>
+     * Postconditions: Tracciamento non attivo.
+     * <p>
+     * Expected Result: {@code IllegalStateException}, {@code UnsupportedOperationException} e
+     * {@code IllegalArgumentException}; dopo la disattivazione {@code dirtyPageSize()} è 0.
+     */
+    @Test
+    public void testErrorsAndDisable()
+    {
+        try
+        {
+            list.fetchAndClearDirtyPages();
+            fail("IllegalStateException attesa");
+        }
+        catch (myExceptions.IllegalStateException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            ((ListAdapter) list.subList(0, 10)).trackDirtyPages(4);
+            fail("UnsupportedOperationException attesa");
+        }
+        catch (myExceptions.UnsupportedOperationException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            list.trackDirtyPages(-1);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        list.trackDirtyPages(16);
+        list.trackDirtyPages(0);
+        assertEquals(0, list.dirtyPageSize());
+        list.set(0, "x");
+        try
+        {
+            list.fetchAndClearDirtyPages();
+            fail("IllegalStateException attesa");
+        }
+        catch (myExceptions.IllegalStateException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Aggiorna la copia riscrivendo solo le pagine modificate e troncandola alla dimensione della lista.
+     */
+    private static void persist(ListAdapter l, List<Object> copy)
+    {
+        int[] pages = l.fetchAndClearDirtyPages();
+        int pageSize = l.dirtyPageSize();
+        for (int p = 0; p < pages.length; p++)
+        {
+            int end = Math.min(l.size(), (pages[p] + 1) * pageSize);
+            for (int i = pages[p] * pageSize; i < end; i++)
+            {
+                if (i < copy.size())
+                {
+                    copy.set(i, l.get(i));
+                }
+                else
+                {
+                    assertEquals("pagina non contigua", copy.size(), i);
+                    copy.add(l.get(i));
+                }
+            }
+        }
+        while (copy.size() > l.size())
+        {
+            copy.remove(copy.size() - 1);
+        }
+    }
+
+    /**
+     * Comparatore di interi per ordinamenti e liste ordinate.
+     */
+    private static class IntegerComparator implements HComparator
+    {
+        public int compare(Object o1, Object o2)
+        {
+            return ((Integer) o1).compareTo((Integer) o2);
+        }
+    }
+}
@@ -0,0 +1,471 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import myAdapter.*;
+import myJdk.DurableListAdapter;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.DurableListAdapter}, la {@code HList} persistente basata su un
+ * journal delle modifiche con commit di gruppo e compattazione in snapshot.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che ogni tipo di modifica venga ritrovato dopo la riapertura,
+ * anche senza una chiusura ordinata (come dopo un crash) e con un record incompleto in coda al journal, e che
+ * la compattazione non perda modifiche. Ogni lista viene confrontata con una {@link myAdapter.ListAdapter}
+ * modificata allo stesso modo. Ogni test lavora in una cartella temporanea.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestDurableListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestDurableListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestDurableListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    /**
+     * Cartella temporanea che contiene i file dei test, eliminata al termine di ogni test.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private DurableListAdapter list;
+    private ListAdapter expected;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Apre in una nuova directory una lista con commit sincroni contenente [0, 1, 2, 3, 4],
+     * e una ListAdapter di riferimento con gli stessi elementi.
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        directory = folder.getRoot().toPath().resolve("list");
+        list = new DurableListAdapter(directory, ElementCodecs.TAGGED);
+        expected = new ListAdapter();
+        for (int i = 0; i < 5; i++)
+        {
+            list.add(Integer.valueOf(i));
+            expected.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Chiude la lista dopo ogni test case.
+     */
+    @After
+    public void tearDown() throws IOException
+    {
+        list.close();
+    }
+
+    /**
+     * Test della riapertura dopo modifiche di ogni tipo.
+     * <p>
+     * Summary: Verifica che inserimenti, sostituzioni, rimozioni, operazioni su intervalli, modifiche tramite
+     * iteratori e sottoliste e ordinamento vengano ritrovati riaprendo la lista.
+     * <p>
+     * Test Case Design: Ogni modifica viene registrata nel journal con il proprio tipo di record; la riapertura
+     * li riesegue nell'ordine.
+     * <p>
+     * Test Description: Si eseguono le stesse modifiche sulla lista e sulla lista di riferimento, si chiude
+     * e si riapre la lista.
+     * <p>
+     * Preconditions: Lista contenente [0, 1, 2, 3, 4].
+     * <p>
+     * Postconditions: La lista riaperta è uguale alla lista di riferimento.
+     * <p>
+     * Expected Result: La lista riaperta contiene gli stessi elementi della lista di riferimento.
+     */
+    @Test
+    public void testReopenReplaysEveryOperation() throws IOException
+    {
+        HList[] lists = { list, expected };
+        for (int k = 0; k < lists.length; k++)
+        {
+            HList l = lists[k];
+            l.add(0, "head");
+            l.set(3, null);
+            l.remove(1);
+            l.remove("head");
+            l.addAll(2, asHList("x", "y", "z"));
+            l.subList(0, 2).clear();
+            HIterator it = l.iterator();
+            it.next();
+            it.remove();
+            l.removeAll(asHList(Integer.valueOf(4)));
+            l.addAll(asHList("b", "a"));
+            l.retainAll(asHList("x", "y", "z", "a", "b", Integer.valueOf(3)));
+            l.sort(new HComparator()
+            {
+                public int compare(Object o1, Object o2)
+                {
+                    return o1.toString().compareTo(o2.toString());
+                }
+            });
+        }
+        assertTrue(list.equals(expected));
+        list.close();
+
+        list = new DurableListAdapter(directory, ElementCodecs.TAGGED);
+        assertArrayEquals(expected.toArray(), list.toArray());
+        list.clear();
+        list.close();
+        list = new DurableListAdapter(directory, ElementCodecs.TAGGED);
+        assertTrue(list.isEmpty());
+    }
+
+    /**
+     * Test del recupero dopo un crash.
+     * <p>
+     * Summary: Verifica che le modifiche siano ritrovate senza chiudere la lista, e che un record incompleto
+     * in coda al journal venga scartato.
+     * <p>
+     * Test Case Design: Con i commit sincroni ogni modifica è su disco quando il metodo ritorna; un crash
+     * durante la scrittura di un record lascia in coda al journal byte con un CRC errato.
+     * <p>
+     * Test Description: 1) Si apre una seconda lista sulla stessa directory senza chiudere la prima.
+     *                   2) Si aggiungono in coda al journal alcuni byte privi di senso e si riapre.
+     *                   3) Si aggiunge un elemento e si riapre di nuovo.
+     * <p>
+     * Preconditions: Lista contenente [0, 1, 2, 3, 4].
+     * <p>
+     * Postconditions: La lista contiene [0, 1, 2, 3, 4, 5].
+     * <p>
+     * Expected Result: Ogni riapertura ritrova gli elementi scritti; i byte incompleti vengono ignorati e
+     * rimossi, così l'elemento aggiunto dopo viene ritrovato.
+     */
+    @Test
+    public void testRecoveryAfterCrash() throws IOException
+    {
+        DurableListAdapter recovered = new DurableListAdapter(directory, ElementCodecs.TAGGED);
+        assertTrue(recovered.equals(expected));
+        recovered.close();
+
+        File[] journals = journals();
+        assertEquals(1, journals.length);
+        try (FileChannel channel = FileChannel.open(journals[0].toPath(), StandardOpenOption.APPEND))
+        {
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 9, 1, 2, 3, 4, 5 }));
+        }
+        recovered = new DurableListAdapter(directory, ElementCodecs.TAGGED);
+        assertTrue(recovered.equals(expected));
+        recovered.add(Integer.valueOf(5));
+        recovered.close();
+
+        recovered = new DurableListAdapter(directory, ElementCodecs.TAGGED);
+        expected.add(Integer.valueOf(5));
+        assertTrue(recovered.equals(expected));
+        recovered.close();
+    }
+
+    /**
+     * Test della compattazione.
+     * <p>
+     * Summary: Verifica che, superata la soglia, il journal venga compattato in uno snapshot e che i journal
+     * riassunti vengano eliminati senza perdere modifiche.
+     * <p>
+     * Test Case Design: Con una soglia di 256 byte la compattazione avviene molte volte in background mentre
+     * la lista viene modificata; {@link myJdk.DurableListAdapter#compact()} la esegue subito.
+     * <p>
+     * Test Description: 1) Si apre la lista con soglia 256 e si aggiungono 500 interi, sostituendone alcuni.
+     *                   2) Si chiude e si riapre.
+     *                   3) Si esegue {@code compact()}.
+     * <p>
+     * Preconditions: Directory con la lista [0, 1, 2, 3, 4].
+     * <p>
+     * Postconditions: La directory contiene lo snapshot e un solo journal vuoto.
+     * <p>
+     * Expected Result: La lista riaperta è uguale a quella di riferimento; dopo {@code compact()} rimane un solo journal.
+     */
+    @Test
+    public void testCompaction() throws IOException
+    {
+        list.close();
+        list = new DurableListAdapter(directory, ElementCodecs.TAGGED, 0, 256);
+        for (int i = 5; i < 500; i++)
+        {
+            list.add(Integer.valueOf(i));
+            expected.add(Integer.valueOf(i));
+            if (i % 7 == 0)
+            {
+                list.set(i / 2, "s" + i);
+                expected.set(i / 2, "s" + i);
+            }
+        }
+        list.close();
+        assertTrue(directory.resolve("snapshot.bin").toFile().exists());
+
+        list = new DurableListAdapter(directory, ElementCodecs.TAGGED, 0, 256);
+        assertTrue(list.equals(expected));
+        list.compact();
+        File[] journals = journals();
+        assertEquals(1, journals.length);
+        assertEquals(0, journals[0].length());
+        list.close();
+        list = new DurableListAdapter(directory, ElementCodecs.TAGGED);
+        assertTrue(list.equals(expected));
+    }
+
+    /**
+     * Test dei commit di gruppo con più thread.
+     * <p>
+     * Summary: Verifica che le modifiche concorrenti di più thread, che condividono i commit, vengano tutte
+     * ritrovate e che con un ritardo positivo {@code sync()} renda persistenti le modifiche.
+     * <p>
+     * Test Case Design: Un thread che trova i propri record già scritti dal commit di un altro thread ritorna
+     * senza sincronizzare di nuovo il journal; nessun record deve andare perso o essere duplicato.
+     * <p>
+     * Test Description: 1) Quattro thread aggiungono 200 interi ciascuno con commit sincroni.
+     *                   2) Si riapre la lista con un ritardo di 50 ms, si aggiunge un elemento e si chiama {@code sync()}.
+     *                   3) Si apre una seconda lista sulla stessa directory.
+     * <p>
+     * Preconditions: Lista contenente [0, 1, 2, 3, 4].
+     * <p>
+     * Postconditions: La lista contiene 806 elementi.
+     * <p>
+     * Expected Result: La somma degli elementi corrisponde a quella attesa e la seconda lista vede l'elemento aggiunto.
+     */
+    @Test
+    public void testGroupCommit() throws Exception
+    {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int base = 1000 * (t + 1);
+            threads[t] = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    for (int i = 0; i < 200; i++)
+                    {
+                        list.add(Integer.valueOf(base + i));
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t].join();
+        }
+        list.close();
+
+        list = new DurableListAdapter(directory, ElementCodecs.TAGGED, 50, DurableListAdapter.DEFAULT_COMPACTION_THRESHOLD);
+        assertEquals(805, list.size());
+        long sum = 0;
+        for (int i = 0; i < list.size(); i++)
+        {
+            sum += ((Integer) list.get(i)).intValue();
+        }
+        assertEquals(10 + 4 * 19900 + 200 * 10000, sum);
+        list.add("last");
+        list.sync();
+        DurableListAdapter reader = new DurableListAdapter(directory, ElementCodecs.TAGGED);
+        assertEquals(806, reader.size());
+        assertEquals("last", reader.get(805));
+        reader.close();
+    }
+
+    /**
+     * Test di un errore durante un commit in background.
+     * <p>
+     * Summary: Verifica che l'errore di un commit periodico venga rilanciato dalla modifica successiva e che
+     * i commit periodici continuino dopo l'errore.
+     * <p>
+     * Test Case Design: Un'eccezione lanciata dal task periodico annullerebbe tutte le sue esecuzioni successive,
+     * lasciando le modifiche in memoria senza segnalare nulla; l'errore deve invece essere conservato e segnalato.
+     * <p>
+     * Test Description: 1) Si apre una lista con un ritardo di 10 ms e una soglia di compattazione di un byte,
+     *                      si elimina la sua directory e si aggiunge un elemento, così che il commit in background
+     *                      non riesca ad aprire il nuovo journal.
+     *                   2) Si aggiunge un altro elemento finché non viene lanciata l'eccezione.
+     *                   3) Si ricrea la directory e si aggiungono elementi finché non compare un nuovo journal.
+     * <p>
+     * Preconditions: Nessuna.
+     * <p>
+     * Postconditions: La lista è chiusa.
+     * <p>
+     * Expected Result: {@code UncheckedIOException} alla modifica successiva all'errore e un nuovo journal scritto
+     * dal commit periodico dopo aver ricreato la directory.
+     */
+    @Test
+    public void testBackgroundCommitFailure() throws Exception
+    {
+        list.close();
+        directory = directory.resolveSibling("batched");
+        list = new DurableListAdapter(directory, ElementCodecs.TAGGED, 10, 1);
+        deleteDirectory();
+        list.add("lost");
+        boolean thrown = false;
+        for (int attempt = 0; attempt < 500 && !thrown; attempt++)
+        {
+            Thread.sleep(10);
+            try
+            {
+                list.add(Integer.valueOf(attempt));
+            }
+            catch (UncheckedIOException e)
+            {
+                thrown = true;
+            }
+        }
+        assertTrue(thrown);
+
+        Files.createDirectories(directory);
+        for (int attempt = 0; attempt < 500 && journals().length == 0; attempt++)
+        {
+            try
+            {
+                list.add("after");
+            }
+            catch (UncheckedIOException e)
+            {
+                // Errore di un commit eseguito prima di ricreare la directory
+            }
+            Thread.sleep(10);
+        }
+        assertTrue(journals().length > 0);
+        list.close();
+    }
+
+    /**
+     * Test degli elementi non validi, della lista chiusa e dello snapshot danneggiato.
+     * <p>
+     * Summary: Verifica che un elemento che il codec non sa scrivere venga rifiutato senza modificare né la lista
+     * né il journal, che una lista chiusa non sia utilizzabile e che uno snapshot danneggiato, anche nel numero di
+     * elementi, venga rifiutato.
+     * <p>
+     * Test Case Design: Il record viene codificato prima di modificare la lista; lo snapshot è protetto da un CRC32.
+     * <p>
+     * Test Description: 1) Si aggiunge un {@code Object}, non supportato dal codec, e si riapre.
+     *                   2) Si chiude la lista e si chiama {@code get(0)}.
+     *                   3) Si compatta, si altera un byte dello snapshot e si riapre.
+     *                   4) Si scrive un numero di elementi enorme nell'intestazione dello snapshot e si riapre.
+     * <p>
+     * Preconditions: Lista contenente [0, 1, 2, 3, 4].
+     * <p>
+     * Postconditions: Lo snapshot è danneggiato.
+     * <p>
+     * Expected Result: {@code IllegalArgumentException}, {@code IllegalStateException} e {@code IOException} negli
+     * ultimi due casi, senza esaurire la memoria.
+     */
+    @Test
+    public void testInvalidInput() throws IOException
+    {
+        try
+        {
+            list.add(new Object());
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        assertEquals(5, list.size());
+        list.compact();
+        list.close();
+        try
+        {
+            list.get(0);
+            fail("IllegalStateException attesa");
+        }
+        catch (myExceptions.IllegalStateException e)
+        {
+            // Atteso
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("snapshot.bin"), StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.wrap(new byte[] { 99 }), 20);
+        }
+        try
+        {
+            new DurableListAdapter(directory, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("snapshot.bin"), StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0 }), 16);
+        }
+        try
+        {
+            new DurableListAdapter(directory, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Elimina la directory della lista con tutti i suoi file.
+     */
+    private void deleteDirectory()
+    {
+        File[] files = directory.toFile().listFiles();
+        for (int i = 0; i < files.length; i++)
+        {
+            assertTrue(files[i].delete());
+        }
+        assertTrue(directory.toFile().delete());
+    }
+
+    /**
+     * Restituisce i file di journal della lista.
+     */
+    private File[] journals()
+    {
+        return directory.toFile().listFiles(new FilenameFilter()
+        {
+            public boolean accept(File dir, String name)
+            {
+                return name.endsWith(".log");
+            }
+        });
+    }
+
+    /**
+     * Restituisce una HList con gli elementi specificati.
+     */
+    private static HList asHList(Object... elements)
+    {
+        ListAdapter l = new ListAdapter();
+        for (int i = 0; i < elements.length; i++)
+        {
+            l.add(elements[i]);
+        }
+        return l;
+    }
+}
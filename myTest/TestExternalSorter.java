@@ -0,0 +1,383 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import myAdapter.*;
+import myJdk.ExternalSorter;
+import myJdk.FixedWidthCodecs;
+import myJdk.ListCheckpoint;
+import myJdk.PagedListAdapter;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.ExternalSorter}, l'ordinamento esterno che crea run ordinate
+ * su file temporanei e le fonde in una lista o in un checkpoint.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che il risultato coincida con un ordinamento stabile in memoria
+ * qualunque sia il numero di run e di passaggi di fusione, che la destinazione possa essere una lista su file,
+ * la sorgente stessa o un checkpoint, e che i file temporanei vengano eliminati anche in caso di errore.
+ * Le run vengono scritte in una cartella temporanea controllata da ogni test.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestExternalSorter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestExternalSorter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestExternalSorter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    /**
+     * Cartella temporanea che contiene i file dei test, eliminata al termine di ogni test.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path work;
+    private ListAdapter source;
+    private List<Object> expected;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Crea la cartella delle run e una lista di 5000 interi casuali tra 0 e 999, con la sua copia ordinata.
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        work = folder.newFolder("runs").toPath();
+        source = new ListAdapter();
+        expected = new ArrayList<Object>();
+        Random random = new Random(2101761);
+        for (int i = 0; i < 5000; i++)
+        {
+            Integer value = Integer.valueOf(random.nextInt(1000));
+            source.add(value);
+            expected.add(value);
+        }
+        Collections.sort(expected, new Comparator<Object>()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o1).compareTo((Integer) o2);
+            }
+        });
+    }
+
+    /**
+     * Test dell'ordinamento in memoria e sul posto.
+     * <p>
+     * Summary: Verifica che una sorgente che entra in una sola run venga ordinata senza file e che, con la
+     * sorgente come destinazione, il suo contenuto venga sostituito.
+     * <p>
+     * Test Case Design: Il caso comune di liste piccole non deve pagare la scrittura su file.
+     * <p>
+     * Test Description: 1) Si ordina la lista con run di 10000 elementi in una nuova lista.
+     *                   2) Si ordina la lista su sé stessa.
+     * <p>
+     * Preconditions: Lista di 5000 interi casuali.
+     * <p>
+     * Postconditions: La lista è ordinata.
+     * <p>
+     * Expected Result: Una sola run, nessun passaggio intermedio e liste ordinate.
+     */
+    @Test
+    public void testSingleRunAndInPlace() throws IOException
+    {
+        ExternalSorter sorter = new ExternalSorter(ElementCodecs.INTEGER, new IntegerComparator(), 10000, 4, work);
+        ListAdapter target = new ListAdapter();
+        sorter.sort(source, target);
+        assertEquals(1, sorter.runs());
+        assertEquals(0, sorter.mergePasses());
+        assertArrayEquals(expected.toArray(), target.toArray());
+
+        sorter.sort(source, source);
+        assertArrayEquals(expected.toArray(), source.toArray());
+        assertEquals(0, work.toFile().list().length);
+    }
+
+    /**
+     * Test della fusione in più passaggi e della stabilità.
+     * <p>
+     * Summary: Verifica che con molte run e un fan-in ridotto il risultato sia uguale a un ordinamento stabile
+     * in memoria e che il numero di run e di passaggi intermedi sia quello atteso.
+     * <p>
+     * Test Case Design: Gli elementi uguali secondo il comparatore devono mantenere l'ordine della sorgente
+     * attraverso le run e tutti i passaggi di fusione.
+     * <p>
+     * Test Description: Si ordinano stringhe "chiave:posizione" confrontando solo la chiave, con run di 50
+     * elementi e fan-in 64 e poi 4.
+     * <p>
+     * Preconditions: Lista di 5000 stringhe con 37 chiavi distinte.
+     * <p>
+     * Postconditions: Nessun file nella cartella delle run.
+     * <p>
+     * Expected Result: 100 run; 1 passaggio con fan-in 64 e 3 con fan-in 4 (100, 25, 7, 2 run); risultato stabile.
+     */
+    @Test
+    public void testMultiPassMergeIsStable() throws IOException
+    {
+        ListAdapter strings = new ListAdapter();
+        List<Object> reference = new ArrayList<Object>();
+        for (int i = 0; i < 5000; i++)
+        {
+            String value = (i * 7919 % 37) + ":" + i;
+            strings.add(value);
+            reference.add(value);
+        }
+        final KeyComparator byKey = new KeyComparator();
+        Collections.sort(reference, new Comparator<Object>()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return byKey.compare(o1, o2);
+            }
+        });
+
+        int[] fanIns = { 64, 4 };
+        int[] passes = { 1, 3 };
+        for (int k = 0; k < fanIns.length; k++)
+        {
+            ExternalSorter sorter = new ExternalSorter(ElementCodecs.STRING, byKey, 50, fanIns[k], work);
+            ListAdapter target = new ListAdapter();
+            sorter.sort(strings, target);
+            assertEquals(100, sorter.runs());
+            assertEquals(passes[k], sorter.mergePasses());
+            assertArrayEquals(reference.toArray(), target.toArray());
+            assertEquals(0, work.toFile().list().length);
+        }
+    }
+
+    /**
+     * Test dell'ordinamento da file a file.
+     * <p>
+     * Summary: Verifica l'ordinamento di una {@link myJdk.PagedListAdapter} in un'altra e in un checkpoint.
+     * <p>
+     * Test Case Design: Le liste su file vengono lette una sola volta in modo sequenziale e scritte solo in coda.
+     * <p>
+     * Test Description: 1) Si copia la lista in una PagedListAdapter e la si ordina, con run di 300 elementi,
+     *                      in una seconda PagedListAdapter.
+     *                   2) Si ordina la stessa lista in un checkpoint e lo si carica.
+     * <p>
+     * Preconditions: Lista di 5000 interi casuali.
+     * <p>
+     * Postconditions: I file contengono la lista ordinata.
+     * <p>
+     * Expected Result: 17 run e la lista ordinata in entrambe le destinazioni.
+     */
+    @Test
+    public void testFileToFile() throws IOException
+    {
+        ExternalSorter sorter = new ExternalSorter(ElementCodecs.INTEGER, new IntegerComparator(), 300, 64, work);
+        Path checkpoint = folder.getRoot().toPath().resolve("sorted.ckpt");
+        try (PagedListAdapter paged = new PagedListAdapter(folder.getRoot().toPath().resolve("source.bin"), FixedWidthCodecs.INTEGER);
+             PagedListAdapter sorted = new PagedListAdapter(folder.getRoot().toPath().resolve("sorted.bin"), FixedWidthCodecs.INTEGER))
+        {
+            paged.addAll(source);
+            sorter.sort(paged, sorted);
+            assertEquals(17, sorter.runs());
+            assertArrayEquals(expected.toArray(), sorted.toArray());
+
+            sorter.sort(paged, checkpoint);
+            assertArrayEquals(source.toArray(), paged.toArray());
+        }
+        assertArrayEquals(expected.toArray(), ListCheckpoint.load(checkpoint, ElementCodecs.INTEGER).toArray());
+    }
+
+    /**
+     * Test della lista vuota.
+     * <p>
+     * Summary: Verifica che l'ordinamento di una lista vuota produca una destinazione vuota e un checkpoint vuoto.
+     * <p>
+     * Test Case Design: Caso limite senza run.
+     * <p>
+     * Test Description: Si ordina una lista vuota in una lista e in un checkpoint.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: Nessun file nella cartella delle run.
+     * <p>
+     * Expected Result: Destinazione vuota e checkpoint che si carica come lista vuota.
+     */
+    @Test
+    public void testEmptySource() throws IOException
+    {
+        ExternalSorter sorter = new ExternalSorter(ElementCodecs.INTEGER, new IntegerComparator(), 10, 4, work);
+        ListAdapter target = new ListAdapter();
+        sorter.sort(new ListAdapter(), target);
+        assertTrue(target.isEmpty());
+        assertEquals(0, sorter.runs());
+        Path checkpoint = folder.getRoot().toPath().resolve("empty.ckpt");
+        sorter.sort(new ListAdapter(), checkpoint);
+        assertTrue(ListCheckpoint.load(checkpoint, ElementCodecs.INTEGER).isEmpty());
+        assertEquals(0, work.toFile().list().length);
+    }
+
+    /**
+     * Test degli errori.
+     * <p>
+     * Summary: Verifica che un elemento non supportato dal codec interrompa l'ordinamento senza modificare la
+     * destinazione né lasciare file temporanei, che un errore di lettura delle run durante un ordinamento sul
+     * posto lasci la sorgente invariata e che i parametri non validi vengano rifiutati.
+     * <p>
+     * Test Case Design: Un ordinamento fallito non deve lasciare run orfane su disco, né svuotare la sorgente
+     * prima che la fusione sia riuscita.
+     * <p>
+     * Test Description: 1) Si ordina la lista su sé stessa con run di 100 elementi e un codec che non riesce a
+     *                      leggere dopo 1000 elementi.
+     *                   2) Si aggiunge una stringa in fondo alla lista e la si ordina con il codec degli interi
+     *                      e run di 100 elementi.
+     *                   3) Si costruiscono ordinatori con run di 0 elementi e fan-in 1.
+     * <p>
+     * Preconditions: Lista di 5000 interi casuali.
+     * <p>
+     * Postconditions: Nessun file nella cartella delle run.
+     * <p>
+     * Expected Result: {@code IOException} e sorgente invariata, {@code IllegalArgumentException}, destinazione
+     * vuota e cartella delle run vuota.
+     */
+    @Test
+    public void testErrors() throws IOException
+    {
+        Object[] unsorted = source.toArray();
+        ExternalSorter failing = new ExternalSorter(new FailingCodec(1000), new IntegerComparator(), 100, 64, work);
+        try
+        {
+            failing.sort(source, source);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        assertArrayEquals(unsorted, source.toArray());
+        assertEquals(0, work.toFile().list().length);
+
+        source.add("x");
+        ExternalSorter sorter = new ExternalSorter(ElementCodecs.INTEGER, new MixedComparator(), 100, 4, work);
+        ListAdapter target = new ListAdapter();
+        try
+        {
+            sorter.sort(source, target);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        assertTrue(target.isEmpty());
+        assertEquals(0, work.toFile().list().length);
+        try
+        {
+            new ExternalSorter(ElementCodecs.INTEGER, new IntegerComparator(), 0, 4, work);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new ExternalSorter(ElementCodecs.INTEGER, new IntegerComparator(), 10, 1, work);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Codec degli interi che non riesce a leggere dopo un numero fissato di elementi.
+     */
+    private static class FailingCodec implements HElementCodec
+    {
+        private int reads;      // Letture ancora consentite
+
+        FailingCodec(int reads)
+        {
+            this.reads = reads;
+        }
+
+        public void write(DataOutput out, Object element) throws IOException
+        {
+            ElementCodecs.INTEGER.write(out, element);
+        }
+
+        public Object read(DataInput in) throws IOException
+        {
+            if (reads-- == 0)
+            {
+                throw new IOException("Read failed");
+            }
+            return ElementCodecs.INTEGER.read(in);
+        }
+    }
+
+    /**
+     * Comparatore di interi.
+     */
+    private static class IntegerComparator implements HComparator
+    {
+        public int compare(Object o1, Object o2)
+        {
+            return ((Integer) o1).compareTo((Integer) o2);
+        }
+    }
+
+    /**
+     * Comparatore che confronta le stringhe "chiave:posizione" solo per chiave numerica.
+     */
+    private static class KeyComparator implements HComparator
+    {
+        public int compare(Object o1, Object o2)
+        {
+            return key((String) o1) - key((String) o2);
+        }
+
+        private static int key(String s)
+        {
+            return Integer.parseInt(s.substring(0, s.indexOf(':')));
+        }
+    }
+
+    /**
+     * Comparatore che ordina gli interi prima di ogni altro oggetto, per liste con elementi di tipo misto.
+     */
+    private static class MixedComparator implements HComparator
+    {
+        public int compare(Object o1, Object o2)
+        {
+            boolean i1 = o1 instanceof Integer;
+            boolean i2 = o2 instanceof Integer;
+            if (i1 && i2)
+            {
+                return ((Integer) o1).compareTo((Integer) o2);
+            }
+            return i1 == i2 ? 0 : (i1 ? -1 : 1);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+import myJdk.HListStreams;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.HListStreams}, il ponte tra {@link myAdapter.HList}
+ * e la API {@code java.util.stream}.
+ * Vengono verificati gli stream sequenziali e paralleli su lista e sottolista e le caratteristiche
+ * dello spliterator sottostante.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che gli stream vedano esattamente gli elementi della lista,
+ * nell'ordine corretto, anche quando vengono partizionati per l'esecuzione parallela.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestHListStreams
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestHListStreams}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestHListStreams()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter contenente gli interi da 0 a 9999.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        for (int i = 0; i < 10000; i++)
+        {
+            list.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Test del metodo {@link myJdk.HListStreams#stream(HList)}.
+     * <p>
+     * Summary: Verifica che lo stream sequenziale visiti gli elementi nell'ordine della lista.
+     * <p>
+     * Test Case Design: Lo stream deve essere equivalente a un attraversamento con iteratore.
+     * <p>
+     * Test Description: Si raccolgono i primi 5 elementi in una stringa.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: La stringa vale "0,1,2,3,4" e il conteggio totale 10000.
+     */
+    @Test
+    public void testSequentialStream()
+    {
+        String prefix = HListStreams.stream(list).limit(5).map(String::valueOf).collect(Collectors.joining(","));
+        assertEquals("0,1,2,3,4", prefix);
+        assertEquals(10000, HListStreams.stream(list).count());
+    }
+
+    /**
+     * Test del metodo {@link myJdk.HListStreams#parallelStream(HList)}.
+     * <p>
+     * Summary: Verifica che lo stream parallelo produca gli stessi risultati di quello sequenziale.
+     * <p>
+     * Test Case Design: Le partizioni devono essere disgiunte, complete e rispettare l'ordine per le operazioni ordinate.
+     * <p>
+     * Test Description: 1) Si sommano gli elementi con uno stream parallelo.
+     *                   2) Si cerca il primo elemento maggiore di 5000 con {@code findFirst()}.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: La somma vale 49995000 e il primo elemento trovato è 5001.
+     */
+    @Test
+    public void testParallelStream()
+    {
+        long sum = HListStreams.parallelStream(list).mapToLong(o -> ((Integer) o).longValue()).sum();
+        assertEquals(49995000L, sum);
+        Object first = HListStreams.parallelStream(list).filter(o -> ((Integer) o).intValue() > 5000).findFirst().get();
+        assertEquals(Integer.valueOf(5001), first);
+    }
+
+    /**
+     * Test del metodo {@link myJdk.HListStreams#spliterator(HList)}.
+     * <p>
+     * Summary: Verifica che lo spliterator riporti {@code ORDERED}, {@code SIZED} e {@code SUBSIZED} e si divida a metà.
+     * <p>
+     * Test Case Design: Le caratteristiche permettono agli stream paralleli di partizionare la lista in parti uguali.
+     * <p>
+     * Test Description: Si verificano caratteristiche e dimensioni dopo un {@code trySplit()}.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Le caratteristiche sono presenti e le due parti hanno 5000 elementi ciascuna.
+     */
+    @Test
+    public void testSpliteratorCharacteristics()
+    {
+        Spliterator<Object> sp = HListStreams.spliterator(list);
+        assertTrue(sp.hasCharacteristics(Spliterator.ORDERED));
+        assertTrue(sp.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(sp.hasCharacteristics(Spliterator.SUBSIZED));
+        assertEquals(10000, sp.getExactSizeIfKnown());
+        Spliterator<Object> prefix = sp.trySplit();
+        assertEquals(5000, prefix.estimateSize());
+        assertEquals(5000, sp.estimateSize());
+    }
+
+    /**
+     * Test di {@link myJdk.HListStreams#stream(HList)} su una sottolista.
+     * <p>
+     * Summary: Verifica che lo stream di una sottolista copra solo il suo intervallo.
+     * <p>
+     * Test Case Design: La sottolista condivide il Vector della lista padre; lo stream deve applicare l'offset.
+     * <p>
+     * Test Description: Si crea la sottolista [100, 110) e se ne raccolgono gli elementi con uno stream parallelo.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Lo stream restituisce gli elementi da 100 a 109 in ordine.
+     */
+    @Test
+    public void testSubListStream()
+    {
+        HList sub = list.subList(100, 110);
+        Object[] collected = HListStreams.parallelStream(sub).toArray();
+        assertArrayEquals(sub.toArray(), collected);
+        assertEquals(Integer.valueOf(100), collected[0]);
+    }
+
+    /**
+     * Test di {@link myJdk.HListStreams#stream(HList)} con lista null.
+     * <p>
+     * Summary: Verifica che una lista null provochi {@code NullPointerException}.
+     * <p>
+     * Test Case Design: Il ponte deve rifiutare sorgenti null al momento della creazione dello stream.
+     * <p>
+     * Test Description: Si chiama {@code stream(null)}.
+     * <p>
+     * Preconditions: Nessuna.
+     * <p>
+     * Postconditions: Nessuna.
+     * <p>
+     * Expected Result: Viene lanciata {@code NullPointerException}.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNullList()
+    {
+        HListStreams.stream(null);
+    }
+}
@@ -0,0 +1,374 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.IndexedListAdapter}, la lista con indice hash
+ * dagli elementi alle loro posizioni.
+ * Vengono verificati contains, indexOf e lastIndexOf dopo inserimenti in coda e in mezzo, sostituzioni,
+ * rimozioni e modifiche eseguite direttamente sul Vector da ordinamento, iteratori e sottoliste.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che l'indice, aggiornato in modo incrementale anche dopo le
+ * modifiche in mezzo alla lista e reindicizzato pigramente solo dopo le scritture dirette sul Vector, restituisca sempre gli stessi risultati di una
+ * {@link myAdapter.ListAdapter} che scorre gli elementi.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestIndexedListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestIndexedListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestIndexedListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private IndexedListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una IndexedListAdapter contenente ["a", "b", null, "a", "c"].
+     */
+    @Before
+    public void setUp()
+    {
+        list = new IndexedListAdapter();
+        list.add("a");
+        list.add("b");
+        list.add(null);
+        list.add("a");
+        list.add("c");
+    }
+
+    /**
+     * Test di {@link myAdapter.IndexedListAdapter#indexOf(Object)} e {@link myAdapter.IndexedListAdapter#lastIndexOf(Object)}
+     * dopo inserimenti in coda.
+     * <p>
+     * Summary: Verifica le ricerche su elementi duplicati, null e assenti.
+     * <p>
+     * Test Case Design: Gli inserimenti in coda aggiornano l'indice direttamente; null viene indicizzato con una chiave sostitutiva.
+     * <p>
+     * Test Description: Si cercano "a", null, "c" e "z".
+     * <p>
+     * Preconditions: La lista contiene ["a", "b", null, "a", "c"].
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: indexOf("a") = 0, lastIndexOf("a") = 3, indexOf(null) = 2, "z" assente.
+     */
+    @Test
+    public void testLookupAfterAppend()
+    {
+        assertEquals(0, list.indexOf("a"));
+        assertEquals(3, list.lastIndexOf("a"));
+        assertEquals(2, list.indexOf(null));
+        assertEquals(2, list.lastIndexOf(null));
+        assertEquals(4, list.indexOf("c"));
+        assertFalse(list.contains("z"));
+        assertEquals(-1, list.lastIndexOf("z"));
+    }
+
+    /**
+     * Test delle ricerche dopo inserimenti e rimozioni in mezzo alla lista.
+     * <p>
+     * Summary: Verifica che le posizioni spostate vengano aggiornate.
+     * <p>
+     * Test Case Design: Gli inserimenti e le rimozioni in mezzo spostano gli elementi successivi; l'indice
+     * deve reindicizzare il suffisso prima di rispondere.
+     * <p>
+     * Test Description: 1) Si inserisce "x" in posizione 1 e si cercano "a" e "c".
+     *                   2) Si rimuove l'elemento in posizione 0 e si cercano "a" e "x".
+     * <p>
+     * Preconditions: La lista contiene ["a", "b", null, "a", "c"].
+     * <p>
+     * Postconditions: La lista contiene ["x", "b", null, "a", "c"].
+     * <p>
+     * Expected Result: Gli indici riflettono gli spostamenti dopo ogni modifica.
+     */
+    @Test
+    public void testLookupAfterMiddleInsertAndRemove()
+    {
+        list.add(1, "x");
+        assertEquals(0, list.indexOf("a"));
+        assertEquals(4, list.lastIndexOf("a"));
+        assertEquals(5, list.indexOf("c"));
+        assertEquals(1, list.indexOf("x"));
+
+        list.remove(0);
+        assertEquals(3, list.indexOf("a"));
+        assertEquals(0, list.indexOf("x"));
+        assertEquals(4, list.indexOf("c"));
+    }
+
+    /**
+     * Test delle ricerche dopo {@link myAdapter.IndexedListAdapter#set(int, Object)} e {@link myAdapter.IndexedListAdapter#remove(Object)}.
+     * <p>
+     * Summary: Verifica che sostituzioni e rimozioni per valore aggiornino l'indice.
+     * <p>
+     * Test Case Design: La sostituzione aggiorna solo le posizioni dei due elementi coinvolti; l'elemento
+     * sostituito non deve più essere trovato in quella posizione.
+     * <p>
+     * Test Description: 1) Si sostituisce il primo "a" con "c".
+     *                   2) Si rimuove "c" per valore e poi l'ultimo elemento.
+     * <p>
+     * Preconditions: La lista contiene ["a", "b", null, "a", "c"].
+     * <p>
+     * Postconditions: La lista contiene ["b", null, "a"].
+     * <p>
+     * Expected Result: Dopo ogni modifica gli indici coincidono con il contenuto della lista.
+     */
+    @Test
+    public void testLookupAfterSetAndRemove()
+    {
+        assertEquals("a", list.set(0, "c"));
+        assertEquals(3, list.indexOf("a"));
+        assertEquals(0, list.indexOf("c"));
+        assertEquals(4, list.lastIndexOf("c"));
+
+        assertTrue(list.remove("c"));
+        assertEquals(3, list.indexOf("c"));
+        list.remove(3);
+        assertFalse(list.contains("c"));
+        assertEquals(2, list.indexOf("a"));
+        assertFalse(list.remove("z"));
+        Object[] expected = { "b", null, "a" };
+        assertArrayEquals(expected, list.toArray());
+    }
+
+    /**
+     * Test delle ricerche dopo modifiche eseguite direttamente sul Vector.
+     * <p>
+     * Summary: Verifica che ordinamento, rimozioni con {@code removeAll}, inserimenti con iteratore e
+     * modifiche tramite sottolista vengano rilevati dall'indice.
+     * <p>
+     * Test Case Design: Queste operazioni non passano dai metodi pubblici della lista: l'indice deve essere
+     * avvisato dalle notifiche interne di modifica.
+     * <p>
+     * Test Description: 1) Si ordina la lista.
+     *                   2) Si rimuovono gli elementi "a" con {@code removeAll}.
+     *                   3) Si inseriscono due elementi con un {@code HListIterator}.
+     *                   4) Si svuota una sottolista.
+     * <p>
+     * Preconditions: Lista contenente le stringhe "e4", "e3", "e2", "e1", "e0", "a".
+     * <p>
+     * Postconditions: La lista contiene ["e0", "e4"].
+     * <p>
+     * Expected Result: Dopo ogni passo gli indici coincidono con quelli di una ricerca lineare.
+     */
+    @Test
+    public void testLookupAfterDirectStorageWrites()
+    {
+        list.clear();
+        for (int i = 4; i >= 0; i--)
+        {
+            list.add("e" + i);
+        }
+        list.add("a");
+        assertEquals(0, list.indexOf("e4"));
+
+        list.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((String) o1).compareTo((String) o2);
+            }
+        });
+        assertEquals(0, list.indexOf("a"));
+        assertEquals(5, list.indexOf("e4"));
+
+        ListAdapter toRemove = new ListAdapter();
+        toRemove.add("a");
+        assertTrue(list.removeAll(toRemove));
+        assertEquals(0, list.indexOf("e0"));
+        assertEquals(-1, list.indexOf("a"));
+
+        HListIterator it = list.listIterator(1);
+        it.add("n1");
+        it.add("n2");
+        assertEquals(2, list.indexOf("n2"));
+        assertEquals(3, list.indexOf("e1"));
+
+        list.subList(1, 6).clear();
+        assertEquals(1, list.indexOf("e4"));
+        assertFalse(list.contains("n1"));
+        assertEquals(2, list.size());
+    }
+
+    /**
+     * Test di una sequenza casuale di operazioni.
+     * <p>
+     * Summary: Verifica che l'indice coincida con una ricerca lineare dopo molte operazioni miste.
+     * <p>
+     * Test Case Design: Si alternano inserimenti in coda e in mezzo, sostituzioni, rimozioni in coda e in mezzo
+     * e ricerche, confrontando ogni risultato con una {@link myAdapter.ListAdapter} che riceve le stesse operazioni.
+     * <p>
+     * Test Description: Si eseguono 5000 operazioni casuali su valori tra 0 e 49.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: Le due liste hanno lo stesso contenuto.
+     * <p>
+     * Expected Result: Tutte le ricerche coincidono e le liste finali sono uguali.
+     */
+    @Test
+    public void testRandomOperationsMatchListAdapter()
+    {
+        list.clear();
+        ListAdapter reference = new ListAdapter();
+        Random random = new Random(5);
+        for (int step = 0; step < 5000; step++)
+        {
+            Integer value = Integer.valueOf(random.nextInt(50));
+            int size = reference.size();
+            switch (random.nextInt(7))
+            {
+                case 0:
+                case 1:
+                    list.add(value);
+                    reference.add(value);
+                    break;
+                case 2:
+                    int at = random.nextInt(size + 1);
+                    list.add(at, value);
+                    reference.add(at, value);
+                    break;
+                case 3:
+                    if (size > 0)
+                    {
+                        int pos = random.nextInt(size);
+                        assertEquals(reference.set(pos, value), list.set(pos, value));
+                    }
+                    break;
+                case 4:
+                    if (size > 0)
+                    {
+                        int pos = random.nextBoolean() ? size - 1 : random.nextInt(size);
+                        assertEquals(reference.remove(pos), list.remove(pos));
+                    }
+                    break;
+                case 5:
+                    assertEquals(reference.remove(value), list.remove(value));
+                    break;
+                default:
+                    assertEquals(reference.indexOf(value), list.indexOf(value));
+                    assertEquals(reference.lastIndexOf(value), list.lastIndexOf(value));
+                    break;
+            }
+        }
+        assertTrue(list.equals(reference));
+        for (int v = 0; v < 50; v++)
+        {
+            Integer value = Integer.valueOf(v);
+            assertEquals(reference.indexOf(value), list.indexOf(value));
+            assertEquals(reference.lastIndexOf(value), list.lastIndexOf(value));
+        }
+    }
+
+    /**
+     * Test di {@link myAdapter.IndexedListAdapter#clear()}.
+     * <p>
+     * Summary: Verifica che dopo lo svuotamento l'indice non restituisca elementi rimossi.
+     * <p>
+     * Test Case Design: Lo svuotamento deve azzerare anche l'indice, che poi riparte dagli inserimenti in coda.
+     * <p>
+     * Test Description: 1) Si svuota la lista.
+     *                   2) Si aggiunge "b" e si cercano "a" e "b".
+     * <p>
+     * Preconditions: La lista contiene ["a", "b", null, "a", "c"].
+     * <p>
+     * Postconditions: La lista contiene ["b"].
+     * <p>
+     * Expected Result: "a" è assente e "b" si trova in posizione 0.
+     */
+    @Test
+    public void testClearResetsIndex()
+    {
+        list.clear();
+        assertFalse(list.contains("a"));
+        list.add("b");
+        assertFalse(list.contains("a"));
+        assertEquals(0, list.indexOf("b"));
+        assertEquals(0, list.lastIndexOf("b"));
+    }
+
+    /**
+     * Test di {@link myAdapter.IndexedListAdapter#add(int, Object)} in testa alternato a
+     * {@link myAdapter.IndexedListAdapter#indexOf(Object)}, {@link myAdapter.IndexedListAdapter#lastIndexOf(Object)}
+     * e {@link myAdapter.IndexedListAdapter#contains(Object)}.
+     * <p>
+     * Summary: Verifica che gli inserimenti e le rimozioni in testa e in mezzo spostino le posizioni
+     * indicizzate senza scartare l'indice.
+     * <p>
+     * Test Case Design: Le posizioni sono ricavate dall'albero delle occorrenze, quindi un inserimento in
+     * testa deve spostare tutte le posizioni successive senza reindicizzare: dopo ogni modifica l'indice
+     * deve coprire ancora l'intera lista e le ricerche devono coincidere con quelle di una ListAdapter.
+     * <p>
+     * Test Description: 1) Si alternano 2000 inserimenti in testa, con valori ripetuti, a ricerche del
+     *                      valore inserito e di un valore casuale.
+     *                   2) Ogni 7 inserimenti si rimuove un elemento in mezzo, ogni 11 se ne sostituisce uno.
+     *                   3) Dopo ogni modifica si confronta {@code indexedSize()} con {@code size()}.
+     * <p>
+     * Preconditions: La lista contiene ["a", "b", null, "a", "c"].
+     * <p>
+     * Postconditions: La lista e la lista di riferimento contengono gli stessi elementi.
+     * <p>
+     * Expected Result: L'indice copre sempre tutta la lista e ogni ricerca coincide con la ListAdapter.
+     */
+    @Test
+    public void testHeadInsertsAlternatingWithLookups()
+    {
+        ListAdapter reference = new ListAdapter();
+        reference.add("a");
+        reference.add("b");
+        reference.add(null);
+        reference.add("a");
+        reference.add("c");
+        assertEquals(list.size(), list.indexedSize());
+        Random random = new Random(35);
+        for (int i = 0; i < 2000; i++)
+        {
+            Integer value = Integer.valueOf(random.nextInt(50));
+            list.add(0, value);
+            reference.add(0, value);
+            assertEquals(list.size(), list.indexedSize());
+            assertEquals(0, list.indexOf(value));
+            assertEquals(reference.lastIndexOf(value), list.lastIndexOf(value));
+            Object probe = random.nextInt(10) == 0 ? "a" : (Object) Integer.valueOf(random.nextInt(60));
+            assertEquals(reference.indexOf(probe), list.indexOf(probe));
+            assertEquals(reference.lastIndexOf(probe), list.lastIndexOf(probe));
+            assertEquals(reference.contains(probe), list.contains(probe));
+            if (i % 7 == 0)
+            {
+                int at = random.nextInt(list.size());
+                assertEquals(reference.remove(at), list.remove(at));
+                assertEquals(list.size(), list.indexedSize());
+            }
+            if (i % 11 == 0)
+            {
+                int at = random.nextInt(list.size());
+                Integer replacement = Integer.valueOf(random.nextInt(50));
+                assertEquals(reference.set(at, replacement), list.set(at, replacement));
+                assertEquals(list.size(), list.indexedSize());
+                assertEquals(reference.indexOf(replacement), list.indexOf(replacement));
+            }
+        }
+        assertEquals(reference, list);
+        assertEquals(reference.indexOf(null), list.indexOf(null));
+        assertEquals(reference.lastIndexOf("a"), list.lastIndexOf("a"));
+    }
+}
@@ -0,0 +1,378 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.LazyDecodedListAdapter}, la lista sui byte scritti da
+ * {@link myAdapter.ListAdapter#writeTo(java.io.DataOutput, HElementCodec)} che decodifica ogni elemento solo
+ * alla prima lettura.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che la lista si comporti come la {@link myAdapter.ListAdapter}
+ * da cui sono stati scritti i byte, che decodifichi solo gli elementi effettivamente letti e una sola volta
+ * ciascuno, che la prima modifica copi gli elementi in una {@code ListAdapter} e che dati troncati o seguiti
+ * da altri byte vengano rifiutati già alla costruzione.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestLazyDecodedListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestLazyDecodedListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestLazyDecodedListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+    private byte[] bytes;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter di 1000 elementi (interi, stringhe e null) e i byte scritti con il codec TAGGED.
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        list = new ListAdapter();
+        for (int i = 0; i < 1000; i++)
+        {
+            list.add(i % 7 == 0 ? null : (i % 2 == 0 ? (Object) ("e" + i) : Integer.valueOf(i - 500)));
+        }
+        bytes = encode(list, ElementCodecs.TAGGED);
+    }
+
+    /**
+     * Test della decodifica alla prima lettura.
+     * <p>
+     * Summary: Verifica che la costruzione non decodifichi alcun elemento e che ogni elemento venga decodificato
+     * una sola volta, alla prima lettura.
+     * <p>
+     * Test Case Design: Il costo del caricamento deve dipendere dai byte letti e non dagli oggetti creati; le
+     * letture successive devono restituire lo stesso oggetto senza decodificarlo di nuovo.
+     * <p>
+     * Test Description: 1) Si costruisce la lista e se ne controlla la dimensione.
+     *                   2) Si leggono due elementi due volte ciascuno.
+     *                   3) Si leggono indici fuori dai limiti.
+     * <p>
+     * Preconditions: Byte di una lista di 1000 elementi.
+     * <p>
+     * Postconditions: La lista non è stata copiata in una ListAdapter.
+     * <p>
+     * Expected Result: 0 elementi decodificati dopo la costruzione, 2 dopo le letture, stesso oggetto restituito
+     * e {@code IndexOutOfBoundsException} per gli indici non validi.
+     */
+    @Test
+    public void testDecodesOnFirstAccess() throws IOException
+    {
+        LazyDecodedListAdapter lazy = new LazyDecodedListAdapter(bytes, ElementCodecs.TAGGED);
+        assertEquals(1000, lazy.size());
+        assertFalse(lazy.isEmpty());
+        assertEquals(0, lazy.decodedCount());
+
+        Object first = lazy.get(998);
+        assertEquals("e998", first);
+        assertEquals(Integer.valueOf(-1), lazy.get(499));
+        assertSame(first, lazy.get(998));
+        assertEquals(2, lazy.decodedCount());
+        assertFalse(lazy.isMaterialized());
+
+        try
+        {
+            lazy.get(1000);
+            fail("IndexOutOfBoundsException attesa");
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            lazy.get(-1);
+            fail("IndexOutOfBoundsException attesa");
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Test delle operazioni di lettura.
+     * <p>
+     * Summary: Verifica ricerche, iteratori, {@code toArray}, {@code equals} e {@code hashCode} rispetto alla
+     * lista originale.
+     * <p>
+     * Test Case Design: Le operazioni di lettura devono funzionare senza copiare la lista e decodificare solo
+     * gli elementi che esaminano.
+     * <p>
+     * Test Description: 1) Si cerca un elemento vicino all'inizio con {@code indexOf}.
+     *                   2) Si scorre la lista con un iteratore in avanti e all'indietro.
+     *                   3) Si confrontano array, uguaglianza e hash con la lista originale.
+     * <p>
+     * Preconditions: Byte di una lista di 1000 elementi.
+     * <p>
+     * Postconditions: Tutti gli elementi sono stati decodificati, la lista non è stata copiata.
+     * <p>
+     * Expected Result: Risultati uguali a quelli della lista originale.
+     */
+    @Test
+    public void testReadOperations() throws IOException
+    {
+        LazyDecodedListAdapter lazy = new LazyDecodedListAdapter(bytes, ElementCodecs.TAGGED);
+        assertEquals(2, lazy.indexOf("e2"));
+        assertEquals(3, lazy.decodedCount());
+        assertEquals(0, lazy.indexOf(null));
+        assertEquals(994, lazy.lastIndexOf(null));
+        assertTrue(lazy.contains(Integer.valueOf(499)));
+        assertFalse(lazy.contains("e1"));
+
+        HListIterator it = lazy.listIterator(1000);
+        int index = 1000;
+        while (it.hasPrevious())
+        {
+            assertEquals(list.get(--index), it.previous());
+        }
+        assertEquals(0, index);
+        it = lazy.listIterator();
+        while (it.hasNext())
+        {
+            assertEquals(list.get(it.nextIndex()), it.next());
+        }
+
+        assertArrayEquals(list.toArray(), lazy.toArray());
+        Object[] larger = new Object[1002];
+        larger[1000] = "x";
+        assertSame(larger, lazy.toArray(larger));
+        assertNull(larger[1000]);
+        assertTrue(lazy.equals(list));
+        assertTrue(list.equals(lazy));
+        assertEquals(list.hashCode(), lazy.hashCode());
+        assertTrue(lazy.containsAll(list));
+        assertEquals(1000, lazy.decodedCount());
+        assertFalse(lazy.isMaterialized());
+    }
+
+    /**
+     * Test della copia alla prima modifica.
+     * <p>
+     * Summary: Verifica che la prima modifica copi gli elementi in una ListAdapter condivisa con la lista, e che
+     * {@code clear()} svuoti la lista senza decodificare gli elementi.
+     * <p>
+     * Test Case Design: Dopo la copia la lista deve comportarsi esattamente come una ListAdapter, anche tramite
+     * un iteratore, mantenendo gli oggetti già decodificati.
+     * <p>
+     * Test Description: 1) Si legge un elemento, poi si rimuove il primo tramite un iteratore.
+     *                   2) Si modifica la ListAdapter restituita da {@code toListAdapter()}.
+     *                   3) Si svuota una seconda lista mai letta.
+     * <p>
+     * Preconditions: Byte di una lista di 1000 elementi.
+     * <p>
+     * Postconditions: La prima lista contiene 999 elementi più quello aggiunto, la seconda è vuota.
+     * <p>
+     * Expected Result: Modifiche visibili in entrambe le viste, oggetto decodificato conservato e nessuna
+     * decodifica nella lista svuotata.
+     */
+    @Test
+    public void testMutationMaterializes() throws IOException
+    {
+        LazyDecodedListAdapter lazy = new LazyDecodedListAdapter(bytes, ElementCodecs.TAGGED);
+        Object kept = lazy.get(10);
+        HIterator it = lazy.iterator();
+        it.next();
+        it.remove();
+        assertTrue(lazy.isMaterialized());
+        assertEquals(999, lazy.size());
+        assertSame(kept, lazy.get(9));
+        list.remove(0);
+        assertTrue(list.equals(lazy));
+
+        ListAdapter delegate = lazy.toListAdapter();
+        delegate.add("new");
+        assertEquals("new", lazy.get(999));
+        lazy.set(0, "first");
+        assertEquals("first", delegate.get(0));
+        assertEquals(Integer.valueOf(-497), lazy.subList(2, 4).get(0));
+
+        LazyDecodedListAdapter untouched = new LazyDecodedListAdapter(bytes, ElementCodecs.TAGGED);
+        untouched.clear();
+        assertTrue(untouched.isEmpty());
+        assertEquals(0, untouched.decodedCount());
+        assertTrue(untouched.add("a"));
+        assertEquals(1, untouched.size());
+    }
+
+    /**
+     * Test dei codec.
+     * <p>
+     * Summary: Verifica la lista con i codec di un solo tipo, con {@code nullable} e con un codec definito
+     * dall'utente, e su un intervallo di un array più grande.
+     * <p>
+     * Test Case Design: L'indice degli elementi viene costruito saltando i valori senza crearli per i codec di
+     * {@link myAdapter.ElementCodecs}, leggendoli e scartandoli per gli altri: in entrambi i casi le posizioni
+     * devono essere corrette.
+     * <p>
+     * Test Description: Si scrivono liste di Long, Double, stringhe, interi nullable e interi con un codec a
+     * 4 byte definito nel test, e per ciascuna si confronta la lista pigra con l'originale; l'ultima viene
+     * letta da un array con byte in più prima e dopo la lista.
+     * <p>
+     * Preconditions: Nessuna.
+     * <p>
+     * Postconditions: Nessuna.
+     * <p>
+     * Expected Result: Liste uguali alle originali.
+     */
+    @Test
+    public void testCodecs() throws IOException
+    {
+        ListAdapter longs = new ListAdapter();
+        ListAdapter doubles = new ListAdapter();
+        ListAdapter strings = new ListAdapter();
+        ListAdapter nullable = new ListAdapter();
+        for (int i = 0; i < 300; i++)
+        {
+            longs.add(Long.valueOf((long) i * i * i * i * (i % 2 == 0 ? 1 : -1)));
+            doubles.add(Double.valueOf(i / 3.0));
+            strings.add(i % 5 == 0 ? "" : "stringa " + i + " è 中");
+            nullable.add(i % 4 == 0 ? null : Integer.valueOf(i * 1000));
+        }
+        assertRoundTrip(longs, ElementCodecs.LONG);
+        assertRoundTrip(doubles, ElementCodecs.DOUBLE);
+        assertRoundTrip(strings, ElementCodecs.STRING);
+        assertRoundTrip(nullable, ElementCodecs.nullable(ElementCodecs.INTEGER));
+
+        HElementCodec fixed = new HElementCodec()
+        {
+            public void write(DataOutput out, Object element) throws IOException
+            {
+                out.writeInt(((Integer) element).intValue());
+            }
+
+            public Object read(DataInput in) throws IOException
+            {
+                return Integer.valueOf(in.readInt());
+            }
+        };
+        ListAdapter ints = new ListAdapter();
+        for (int i = 0; i < 300; i++)
+        {
+            ints.add(Integer.valueOf(i * 31));
+        }
+        byte[] encoded = encode(ints, fixed);
+        byte[] padded = new byte[encoded.length + 10];
+        System.arraycopy(encoded, 0, padded, 5, encoded.length);
+        LazyDecodedListAdapter lazy = new LazyDecodedListAdapter(padded, 5, encoded.length, fixed);
+        assertEquals(Integer.valueOf(31 * 299), lazy.get(299));
+        assertTrue(ints.equals(lazy));
+    }
+
+    /**
+     * Test dei dati non validi.
+     * <p>
+     * Summary: Verifica che dati troncati, seguiti da altri byte, con un tipo sconosciuto o con un numero di
+     * elementi eccessivo vengano rifiutati dal costruttore, e che gli argomenti non validi vengano rifiutati.
+     * <p>
+     * Test Case Design: Costruendo l'indice il costruttore attraversa tutti i dati, quindi gli errori devono
+     * emergere subito e non alla lettura di un elemento.
+     * <p>
+     * Test Description: 1) Si costruisce la lista su metà dei byte e sui byte seguiti da un byte in più.
+     *                   2) Si costruisce la lista su un elemento con un tipo sconosciuto e su intestazioni con
+     *                      più elementi dei byte disponibili, fino a {@code Integer.MAX_VALUE}.
+     *                   3) Si passano byte null e un intervallo fuori dall'array.
+     * <p>
+     * Preconditions: Byte di una lista di 1000 elementi.
+     * <p>
+     * Postconditions: Nessuna.
+     * <p>
+     * Expected Result: {@code IOException} per i dati non validi, {@code NullPointerException} e
+     * {@code IndexOutOfBoundsException} per gli argomenti.
+     */
+    @Test
+    public void testInvalidData() throws IOException
+    {
+        assertRejected(bytes, 0, bytes.length / 2);
+        byte[] longer = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, longer, 0, bytes.length);
+        assertRejected(longer, 0, longer.length);
+        assertRejected(new byte[] { 1, 99 }, 0, 2);
+        assertRejected(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 }, 0, 5);
+        assertRejected(new byte[] { 3, 0, 0 }, 0, 3);
+        try
+        {
+            new LazyDecodedListAdapter(null, ElementCodecs.TAGGED);
+            fail("NullPointerException attesa");
+        }
+        catch (NullPointerException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new LazyDecodedListAdapter(bytes, 1, bytes.length, ElementCodecs.TAGGED);
+            fail("IndexOutOfBoundsException attesa");
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Scrive la lista con il codec specificato e restituisce i byte.
+     */
+    private static byte[] encode(ListAdapter source, HElementCodec codec) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        source.writeTo(out, codec);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Verifica che la lista pigra sui byte della lista specificata sia uguale alla lista, leggendola a ritroso.
+     */
+    private static void assertRoundTrip(ListAdapter source, HElementCodec codec) throws IOException
+    {
+        LazyDecodedListAdapter lazy = new LazyDecodedListAdapter(encode(source, codec), codec);
+        for (int i = source.size() - 1; i >= 0; i--)
+        {
+            assertEquals(source.get(i), lazy.get(i));
+        }
+        assertTrue(source.equals(lazy));
+    }
+
+    /**
+     * Verifica che la costruzione sull'intervallo specificato lanci {@code IOException}.
+     */
+    private static void assertRejected(byte[] data, int offset, int length)
+    {
+        try
+        {
+            new LazyDecodedListAdapter(data, offset, length, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+    }
+}
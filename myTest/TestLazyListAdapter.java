@@ -0,0 +1,342 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.LazyListAdapter}, la lista i cui elementi vengono calcolati
+ * da una funzione dell'indice ({@link myAdapter.HIntFunction}) solo quando vengono letti.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che il generatore venga chiamato solo per gli elementi letti (una
+ * sola volta per indice con la memorizzazione, a ogni lettura senza), che la lista si comporti come una
+ * {@link myAdapter.ListAdapter} con gli stessi elementi e che la prima modifica la copi in una
+ * {@code ListAdapter} senza perdere gli elementi già generati.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestLazyListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestLazyListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestLazyListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private HIntFunction keys;
+    private ListAdapter expected;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza un generatore di chiavi "k" + 3 * i (null per i multipli di 100) e la ListAdapter dei suoi
+     * primi 1000 elementi.
+     */
+    @Before
+    public void setUp()
+    {
+        keys = new HIntFunction()
+        {
+            public Object apply(int index)
+            {
+                return index % 100 == 0 ? null : "k" + (3 * index);
+            }
+        };
+        expected = new ListAdapter();
+        for (int i = 0; i < 1000; i++)
+        {
+            expected.add(keys.apply(i));
+        }
+    }
+
+    /**
+     * Test della generazione alla lettura con memorizzazione.
+     * <p>
+     * Summary: Verifica che la costruzione non generi alcun elemento, che il generatore venga chiamato una sola
+     * volta per ogni indice letto e che la memorizzazione non allochi spazio per gli elementi mai letti.
+     * <p>
+     * Test Case Design: Gli elementi non letti non devono mai essere creati; con la memorizzazione le letture
+     * successive restituiscono lo stesso oggetto.
+     * <p>
+     * Test Description: 1) Si costruisce la lista e se ne controlla la dimensione.
+     *                   2) Si leggono due elementi due volte ciascuno.
+     *                   3) Si leggono indici fuori dai limiti.
+     *                   4) Si leggono il primo e l'ultimo elemento di una lista di {@code Integer.MAX_VALUE} elementi.
+     * <p>
+     * Preconditions: Generatore di 1000 chiavi.
+     * <p>
+     * Postconditions: La lista non è stata copiata in una ListAdapter.
+     * <p>
+     * Expected Result: 0 elementi generati dopo la costruzione, 2 dopo le letture, stesso oggetto restituito e
+     * {@code IndexOutOfBoundsException} per gli indici non validi; la lista enorme conserva solo i blocchi letti.
+     */
+    @Test
+    public void testGeneratesOnDemand()
+    {
+        LazyListAdapter lazy = new LazyListAdapter(1000, keys);
+        assertTrue(lazy.isMemoized());
+        assertEquals(1000, lazy.size());
+        assertEquals(0, lazy.generatedCount());
+
+        Object element = lazy.get(777);
+        assertEquals("k2331", element);
+        assertNull(lazy.get(500));
+        assertSame(element, lazy.get(777));
+        assertNull(lazy.get(500));
+        assertEquals(2, lazy.generatedCount());
+        assertFalse(lazy.isMaterialized());
+
+        try
+        {
+            lazy.get(1000);
+            fail("IndexOutOfBoundsException attesa");
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            lazy.get(-1);
+            fail("IndexOutOfBoundsException attesa");
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            // Atteso
+        }
+        assertEquals(2, lazy.generatedCount());
+
+        LazyListAdapter huge = new LazyListAdapter(Integer.MAX_VALUE, keys);
+        Object last = huge.get(Integer.MAX_VALUE - 1);
+        assertEquals(keys.apply(Integer.MAX_VALUE - 1), last);
+        assertSame(last, huge.get(Integer.MAX_VALUE - 1));
+        assertEquals(keys.apply(0), huge.get(0));
+        assertEquals(2, huge.generatedCount());
+    }
+
+    /**
+     * Test della generazione senza memorizzazione.
+     * <p>
+     * Summary: Verifica che senza memorizzazione ogni lettura chiami il generatore e che la lista resti uguale a
+     * quella degli stessi elementi.
+     * <p>
+     * Test Case Design: Senza memorizzazione la lista non conserva alcun elemento, quindi le letture ripetute
+     * ripetono il calcolo e restituiscono oggetti distinti ma uguali.
+     * <p>
+     * Test Description: 1) Si legge due volte lo stesso elemento.
+     *                   2) Si confrontano uguaglianza, hash e array con la ListAdapter attesa.
+     * <p>
+     * Preconditions: Generatore di 1000 chiavi.
+     * <p>
+     * Postconditions: La lista non è stata copiata in una ListAdapter.
+     * <p>
+     * Expected Result: Una chiamata al generatore per ogni lettura e liste uguali.
+     */
+    @Test
+    public void testWithoutMemoization()
+    {
+        LazyListAdapter lazy = new LazyListAdapter(1000, keys, false);
+        assertFalse(lazy.isMemoized());
+        Object first = lazy.get(1);
+        Object second = lazy.get(1);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(2, lazy.generatedCount());
+
+        assertTrue(lazy.equals(expected));
+        assertEquals(expected.hashCode(), lazy.hashCode());
+        assertArrayEquals(expected.toArray(), lazy.toArray());
+        assertEquals(3002, lazy.generatedCount());
+        assertTrue(expected.equals(lazy));
+        assertFalse(lazy.isMaterialized());
+    }
+
+    /**
+     * Test delle ricerche e degli iteratori.
+     * <p>
+     * Summary: Verifica che ricerche e iteratori generino solo gli elementi che esaminano.
+     * <p>
+     * Test Case Design: Una ricerca che trova l'elemento all'inizio della lista non deve generare il resto.
+     * <p>
+     * Test Description: 1) Si cerca un elemento all'indice 5 con {@code indexOf} e {@code contains}.
+     *                   2) Si scorrono i primi 10 elementi con un iteratore.
+     *                   3) Si scorre la lista all'indietro da una posizione intermedia.
+     * <p>
+     * Preconditions: Generatore di 1000 chiavi.
+     * <p>
+     * Postconditions: La lista non è stata copiata in una ListAdapter.
+     * <p>
+     * Expected Result: 6 elementi generati dopo la ricerca, 10 dopo l'iteratore, elementi uguali a quelli attesi.
+     */
+    @Test
+    public void testSearchAndIterators()
+    {
+        LazyListAdapter lazy = new LazyListAdapter(1000, keys);
+        assertEquals(5, lazy.indexOf("k15"));
+        assertTrue(lazy.contains("k15"));
+        assertEquals(6, lazy.generatedCount());
+
+        HIterator it = lazy.iterator();
+        for (int i = 0; i < 10; i++)
+        {
+            assertEquals(expected.get(i), it.next());
+        }
+        assertEquals(10, lazy.generatedCount());
+
+        HListIterator back = lazy.listIterator(600);
+        while (back.hasPrevious())
+        {
+            assertEquals(expected.get(back.previousIndex()), back.previous());
+        }
+        assertEquals(600, lazy.generatedCount());
+        assertEquals(-1, lazy.lastIndexOf("k1"));
+        assertEquals(999, lazy.lastIndexOf("k2997"));
+        assertFalse(lazy.isMaterialized());
+    }
+
+    /**
+     * Test della copia alla prima modifica.
+     * <p>
+     * Summary: Verifica che la prima modifica copi gli elementi in una ListAdapter condivisa con la lista,
+     * mantenendo quelli già generati, e che {@code clear()} non generi alcun elemento.
+     * <p>
+     * Test Case Design: Dopo la copia la lista deve comportarsi esattamente come una ListAdapter, anche tramite
+     * iteratori e ordinamento.
+     * <p>
+     * Test Description: 1) Si legge un elemento, poi si aggiunge un elemento tramite un iteratore.
+     *                   2) Si ordina la lista e si modifica la ListAdapter restituita da {@code toListAdapter()}.
+     *                   3) Si svuota una seconda lista mai letta.
+     * <p>
+     * Preconditions: Generatore di 1000 chiavi.
+     * <p>
+     * Postconditions: La prima lista contiene 1002 elementi ordinati, la seconda è vuota.
+     * <p>
+     * Expected Result: Modifiche visibili in entrambe le viste, oggetto generato conservato e nessuna generazione
+     * nella lista svuotata.
+     */
+    @Test
+    public void testMutationMaterializes()
+    {
+        LazyListAdapter lazy = new LazyListAdapter(1000, keys);
+        Object kept = lazy.get(3);
+        HListIterator it = lazy.listIterator(2);
+        it.add("new");
+        assertTrue(lazy.isMaterialized());
+        assertEquals(1000, lazy.generatedCount());
+        assertEquals(1001, lazy.size());
+        assertEquals("new", lazy.get(2));
+        assertSame(kept, lazy.get(4));
+
+        lazy.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                if (o1 == null || o2 == null)
+                {
+                    return o1 == null ? (o2 == null ? 0 : -1) : 1;
+                }
+                return ((String) o1).compareTo((String) o2);
+            }
+        });
+        assertNull(lazy.get(0));
+        assertNull(lazy.get(9));
+        assertEquals("k1002", lazy.get(10));
+        lazy.toListAdapter().add("z");
+        assertEquals("z", lazy.get(1001));
+        assertEquals(1002, lazy.size());
+
+        LazyListAdapter untouched = new LazyListAdapter(1000, keys);
+        untouched.clear();
+        assertTrue(untouched.isEmpty());
+        assertEquals(0, untouched.generatedCount());
+        untouched.add("a");
+        assertEquals(1, untouched.size());
+    }
+
+    /**
+     * Test degli intervalli di interi e degli argomenti non validi.
+     * <p>
+     * Summary: Verifica {@code range} con intervalli negativi, vuoti e non validi, e i controlli del costruttore.
+     * <p>
+     * Test Case Design: {@code range} sostituisce la costruzione di una ListAdapter piena di interi consecutivi;
+     * la dimensione deve essere calcolata senza overflow.
+     * <p>
+     * Test Description: 1) Si costruisce l'intervallo da -3 a 3 e un intervallo vuoto.
+     *                   2) Si costruisce l'intervallo di tutti gli interi non negativi e se ne legge l'ultimo.
+     *                   3) Si passano intervalli invertiti o troppo grandi, dimensioni negative e generatori null.
+     * <p>
+     * Preconditions: Nessuna.
+     * <p>
+     * Postconditions: Nessuna.
+     * <p>
+     * Expected Result: Liste con gli interi attesi, {@code IllegalArgumentException} e {@code NullPointerException}
+     * per gli argomenti non validi.
+     */
+    @Test
+    public void testRangeAndArguments()
+    {
+        LazyListAdapter range = LazyListAdapter.range(-3, 3);
+        assertFalse(range.isMemoized());
+        ListAdapter ints = new ListAdapter();
+        for (int i = -3; i < 3; i++)
+        {
+            ints.add(Integer.valueOf(i));
+        }
+        assertTrue(ints.equals(range));
+        assertEquals(3, range.indexOf(Integer.valueOf(0)));
+        assertTrue(LazyListAdapter.range(7, 7).isEmpty());
+
+        LazyListAdapter huge = LazyListAdapter.range(0, Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, huge.size());
+        assertEquals(Integer.valueOf(Integer.MAX_VALUE - 1), huge.get(Integer.MAX_VALUE - 1));
+        assertEquals(1, huge.generatedCount());
+
+        try
+        {
+            LazyListAdapter.range(1, 0);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            LazyListAdapter.range(Integer.MIN_VALUE, 1);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new LazyListAdapter(-1, keys);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new LazyListAdapter(10, null);
+            fail("NullPointerException attesa");
+        }
+        catch (NullPointerException e)
+        {
+            // Atteso
+        }
+    }
+}
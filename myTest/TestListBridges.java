@@ -0,0 +1,256 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+import myJdk.ListBridges;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.ListBridges}, le viste senza copia tra {@link myAdapter.HList}
+ * e {@code java.util.List} in entrambe le direzioni.
+ * Vengono verificate la delega delle operazioni posizionali, delle sottoliste, degli iteratori e delle operazioni
+ * di massa, la traduzione delle eccezioni e l'assenza di doppi involucri.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che le viste siano davvero "backed" dalla lista originale:
+ * ogni modifica fatta attraverso la vista deve essere visibile nella lista originale e viceversa.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestListBridges
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestListBridges}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestListBridges()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter hlist;
+    private List<Object> jdkList;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter e una ArrayList contenenti entrambe ["zero", "uno", "due", "tre"].
+     */
+    @Before
+    public void setUp()
+    {
+        hlist = new ListAdapter();
+        jdkList = new ArrayList<Object>();
+        String[] values = { "zero", "uno", "due", "tre" };
+        for (int i = 0; i < values.length; i++)
+        {
+            hlist.add(values[i]);
+            jdkList.add(values[i]);
+        }
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ListBridges#asList(HList)}.
+     * <p>
+     * Summary: Verifica che la vista {@code java.util.List} rifletta e propaghi le modifiche.
+     * <p>
+     * Test Case Design: La vista non deve copiare gli elementi, quindi modifiche da entrambi i lati devono essere visibili.
+     * <p>
+     * Test Description: 1) Si modifica la vista con {@code set} e {@code add(int, Object)}.
+     *                   2) Si modifica la lista originale e si legge la vista.
+     * <p>
+     * Preconditions: La ListAdapter contiene ["zero", "uno", "due", "tre"].
+     * <p>
+     * Postconditions: La ListAdapter contiene ["ZERO", "mezzo", "uno", "due", "tre", "quattro"].
+     * <p>
+     * Expected Result: Vista e lista originale hanno sempre lo stesso contenuto.
+     */
+    @Test
+    public void testAsListIsBackedByHList()
+    {
+        List<Object> view = ListBridges.asList(hlist);
+        view.set(0, "ZERO");
+        view.add(1, "mezzo");
+        assertEquals("ZERO", hlist.get(0));
+        assertEquals("mezzo", hlist.get(1));
+
+        hlist.add("quattro");
+        assertEquals(6, view.size());
+        assertEquals("quattro", view.get(5));
+        assertEquals(Arrays.asList(hlist.toArray()), view);
+        assertEquals(view.hashCode(), hlist.hashCode());
+    }
+
+    /**
+     * Test di {@code subList} e {@code listIterator} sulla vista {@code java.util.List}.
+     * <p>
+     * Summary: Verifica che sottoliste e iteratori della vista operino sulla lista originale.
+     * <p>
+     * Test Case Design: La sottolista della vista deve essere a sua volta una vista della sottolista originale.
+     * <p>
+     * Test Description: 1) Si svuota la sottolista [1, 3) della vista.
+     *                   2) Si aggiunge un elemento tramite il {@code ListIterator} della vista.
+     * <p>
+     * Preconditions: La ListAdapter contiene ["zero", "uno", "due", "tre"].
+     * <p>
+     * Postconditions: La ListAdapter contiene ["zero", "nuovo", "tre"].
+     * <p>
+     * Expected Result: Il contenuto della ListAdapter riflette entrambe le modifiche.
+     */
+    @Test
+    public void testAsListSubListAndIterator()
+    {
+        List<Object> view = ListBridges.asList(hlist);
+        view.subList(1, 3).clear();
+        assertEquals(2, hlist.size());
+
+        ListIterator<Object> it = view.listIterator();
+        it.next();
+        it.add("nuovo");
+        Object[] expected = { "zero", "nuovo", "tre" };
+        assertArrayEquals(expected, hlist.toArray());
+    }
+
+    /**
+     * Test della traduzione delle eccezioni nella vista {@code java.util.List}.
+     * <p>
+     * Summary: Verifica che {@code myExceptions.IllegalStateException} venga presentata come {@code java.lang.IllegalStateException}.
+     * <p>
+     * Test Case Design: Il codice J2SE si aspetta le eccezioni standard di {@code java.lang}.
+     * <p>
+     * Test Description: Si chiama {@code remove()} su un iteratore della vista senza aver chiamato {@code next()}.
+     * <p>
+     * Preconditions: La ListAdapter contiene ["zero", "uno", "due", "tre"].
+     * <p>
+     * Postconditions: La ListAdapter rimane invariata.
+     * <p>
+     * Expected Result: Viene lanciata {@code java.lang.IllegalStateException}.
+     */
+    @Test(expected = java.lang.IllegalStateException.class)
+    public void testAsListTranslatesExceptions()
+    {
+        ListBridges.asList(hlist).iterator().remove();
+    }
+
+    /**
+     * Test delle operazioni di massa sulla vista {@code java.util.List}.
+     * <p>
+     * Summary: Verifica che {@code removeAll} e {@code addAll} con collezioni J2SE vengano delegate alla lista originale.
+     * <p>
+     * Test Case Design: Le collezioni J2SE vengono presentate alla {@code HList} come {@code HCollection} senza copia.
+     * <p>
+     * Test Description: 1) Si rimuovono "uno" e "tre" con un {@code HashSet}.
+     *                   2) Si aggiungono due elementi con una {@code ArrayList}.
+     * <p>
+     * Preconditions: La ListAdapter contiene ["zero", "uno", "due", "tre"].
+     * <p>
+     * Postconditions: La ListAdapter contiene ["zero", "due", "a", "b"].
+     * <p>
+     * Expected Result: Entrambe le operazioni restituiscono true e la lista ha il contenuto atteso.
+     */
+    @Test
+    public void testAsListBulkOperations()
+    {
+        List<Object> view = ListBridges.asList(hlist);
+        assertTrue(view.removeAll(new HashSet<Object>(Arrays.asList(new Object[] { "uno", "tre" }))));
+        assertTrue(view.addAll(Arrays.asList(new Object[] { "a", "b" })));
+        Object[] expected = { "zero", "due", "a", "b" };
+        assertArrayEquals(expected, hlist.toArray());
+        assertTrue(view.containsAll(Arrays.asList(new Object[] { "a", "zero" })));
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ListBridges#asHList(List)}.
+     * <p>
+     * Summary: Verifica che la vista {@code HList} di una {@code java.util.List} deleghi le operazioni.
+     * <p>
+     * Test Case Design: Le operazioni {@code HList}, comprese sottoliste e iteratori, devono agire sulla lista originale.
+     * <p>
+     * Test Description: 1) Si rimuove un elemento con l'{@code HListIterator} della vista.
+     *                   2) Si aggiungono gli elementi di una ListAdapter con {@code addAll(int, HCollection)}.
+     *                   3) Si confronta la vista con una ListAdapter dallo stesso contenuto.
+     * <p>
+     * Preconditions: La ArrayList contiene ["zero", "uno", "due", "tre"].
+     * <p>
+     * Postconditions: La ArrayList contiene ["x", "y", "uno", "due", "tre"].
+     * <p>
+     * Expected Result: La ArrayList ha il contenuto atteso e la vista è uguale alla ListAdapter con lo stesso contenuto.
+     */
+    @Test
+    public void testAsHListIsBackedByList()
+    {
+        HList view = ListBridges.asHList(jdkList);
+        HListIterator it = view.listIterator();
+        it.next();
+        it.remove();
+
+        ListAdapter toAdd = new ListAdapter();
+        toAdd.add("x");
+        toAdd.add("y");
+        assertTrue(view.addAll(0, toAdd));
+        assertEquals(Arrays.asList(new Object[] { "x", "y", "uno", "due", "tre" }), jdkList);
+
+        ListAdapter same = new ListAdapter();
+        same.addAll(view);
+        assertTrue(view.equals(same));
+        assertTrue(same.equals(view));
+        assertEquals(same.hashCode(), view.hashCode());
+        assertEquals("due", view.subList(2, 4).get(1));
+    }
+
+    /**
+     * Test della traduzione delle eccezioni nella vista {@code HList}.
+     * <p>
+     * Summary: Verifica che {@code java.lang.UnsupportedOperationException} venga presentata come {@code myExceptions.UnsupportedOperationException}.
+     * <p>
+     * Test Case Design: Il codice che usa {@code HList} si aspetta le eccezioni di {@code myExceptions}.
+     * <p>
+     * Test Description: Si aggiunge un elemento alla vista di una lista J2SE non modificabile.
+     * <p>
+     * Preconditions: Una lista J2SE a dimensione fissa.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Viene lanciata {@code myExceptions.UnsupportedOperationException}.
+     */
+    @Test(expected = myExceptions.UnsupportedOperationException.class)
+    public void testAsHListTranslatesExceptions()
+    {
+        ListBridges.asHList(Arrays.asList(new Object[] { "a" })).add("b");
+    }
+
+    /**
+     * Test dell'assenza di doppi involucri.
+     * <p>
+     * Summary: Verifica che avvolgere due volte una lista restituisca la lista originale.
+     * <p>
+     * Test Case Design: Passare ripetutamente una lista tra codice J2SE e codice {@code HList} non deve accumulare deleghe.
+     * <p>
+     * Test Description: Si applicano {@code asList} e {@code asHList} in sequenza in entrambi gli ordini.
+     * <p>
+     * Preconditions: Una ListAdapter e una ArrayList.
+     * <p>
+     * Postconditions: Nessuna.
+     * <p>
+     * Expected Result: Si ottengono le stesse istanze originali.
+     */
+    @Test
+    public void testDoubleWrapReturnsOriginal()
+    {
+        assertSame(hlist, ListBridges.asHList(ListBridges.asList(hlist)));
+        assertSame(jdkList, ListBridges.asList(ListBridges.asHList(jdkList)));
+    }
+}
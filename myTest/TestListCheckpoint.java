@@ -0,0 +1,314 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import myAdapter.*;
+import myJdk.ListCheckpoint;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.ListCheckpoint}, il salvataggio di una {@link myAdapter.ListAdapter}
+ * in un file e il suo caricamento rapido tramite mappatura in memoria o flusso bufferizzato.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che la lista caricata sia identica a quella salvata con entrambe
+ * le modalità di lettura, che un nuovo salvataggio sostituisca il precedente senza lasciare file temporanei, e
+ * che file danneggiati, troncati o non validi vengano rifiutati. Ogni test lavora in una cartella temporanea.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestListCheckpoint
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestListCheckpoint}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestListCheckpoint()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    /**
+     * Cartella temporanea che contiene i file dei test, eliminata al termine di ogni test.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private ListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter contenente 10000 elementi: interi, stringhe e null.
+     */
+    @Before
+    public void setUp()
+    {
+        file = folder.getRoot().toPath().resolve("list.ckpt");
+        list = new ListAdapter();
+        for (int i = 0; i < 10000; i++)
+        {
+            list.add(i % 10 == 0 ? null : (i % 3 == 0 ? (Object) ("s" + i) : Integer.valueOf(i)));
+        }
+    }
+
+    /**
+     * Test del salvataggio e del caricamento.
+     * <p>
+     * Summary: Verifica che la lista caricata dalla mappatura e dal flusso sia uguale a quella salvata.
+     * <p>
+     * Test Case Design: {@code load} decodifica dalla mappatura del file, {@code read} da un flusso
+     * bufferizzato (usato per i file oltre i 2 GiB): entrambe devono produrre la stessa lista.
+     * <p>
+     * Test Description: 1) Si salva la lista e la si carica con {@code load} e con {@code read}.
+     *                   2) Si salva e si carica una lista vuota.
+     * <p>
+     * Preconditions: Lista di 10000 elementi.
+     * <p>
+     * Postconditions: Il file contiene la lista vuota.
+     * <p>
+     * Expected Result: Le liste caricate sono uguali a quelle salvate.
+     */
+    @Test
+    public void testRoundTrip() throws IOException
+    {
+        ListCheckpoint.save(list, file, ElementCodecs.TAGGED);
+        ListAdapter mapped = ListCheckpoint.load(file, ElementCodecs.TAGGED);
+        assertTrue(list.equals(mapped));
+        assertEquals(list.hashCode(), mapped.hashCode());
+        try (InputStream in = Files.newInputStream(file))
+        {
+            assertTrue(list.equals(ListCheckpoint.read(in, ElementCodecs.TAGGED)));
+        }
+
+        ListCheckpoint.save(new ListAdapter(), file, ElementCodecs.TAGGED);
+        assertTrue(ListCheckpoint.load(file, ElementCodecs.TAGGED).isEmpty());
+    }
+
+    /**
+     * Test della sostituzione atomica del checkpoint.
+     * <p>
+     * Summary: Verifica che un nuovo salvataggio sostituisca il precedente, che un salvataggio non riuscito lasci
+     * intatto il precedente e che non rimangano file temporanei.
+     * <p>
+     * Test Case Design: Il checkpoint viene scritto in un file temporaneo e rinominato solo a scrittura completata.
+     * <p>
+     * Test Description: 1) Si salva la lista, poi la sottolista [0, 10).
+     *                   2) Si salva una lista con un elemento non supportato dal codec.
+     * <p>
+     * Preconditions: Lista di 10000 elementi.
+     * <p>
+     * Postconditions: Il file contiene la sottolista.
+     * <p>
+     * Expected Result: Il file contiene sempre l'ultimo checkpoint riuscito e la cartella contiene un solo file.
+     */
+    @Test
+    public void testReplaceAtomically() throws IOException
+    {
+        ListCheckpoint.save(list, file, ElementCodecs.TAGGED);
+        ListCheckpoint.save((ListAdapter) list.subList(0, 10), file, ElementCodecs.TAGGED);
+        ListAdapter invalid = new ListAdapter();
+        invalid.add(new Object());
+        try
+        {
+            ListCheckpoint.save(invalid, file, ElementCodecs.TAGGED);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        assertTrue(list.subList(0, 10).equals(ListCheckpoint.load(file, ElementCodecs.TAGGED)));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    /**
+     * Test dei file danneggiati.
+     * <p>
+     * Summary: Verifica che un byte alterato nel corpo venga rilevato da entrambe le modalità di lettura.
+     * <p>
+     * Test Case Design: Il CRC32 nell'intestazione copre l'intero corpo.
+     * <p>
+     * Test Description: Si salva la lista, si altera un byte a metà del file e lo si carica con {@code load} e {@code read}.
+     * <p>
+     * Preconditions: Lista di 10000 elementi.
+     * <p>
+     * Postconditions: Il file è danneggiato.
+     * <p>
+     * Expected Result: Entrambe le letture lanciano {@code IOException}.
+     */
+    @Test
+    public void testCorruptedFile() throws IOException
+    {
+        ListCheckpoint.save(list, file, ElementCodecs.TAGGED);
+        long middle = Files.size(file) / 2;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, middle);
+            b.put(0, (byte) ~b.get(0));
+            b.rewind();
+            channel.write(b, middle);
+        }
+        try
+        {
+            ListCheckpoint.load(file, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try (InputStream in = Files.newInputStream(file))
+        {
+            ListCheckpoint.read(in, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            ListCheckpoint.loadLazy(file, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Test dei file troncati e non validi.
+     * <p>
+     * Summary: Verifica che un checkpoint troncato, un file più corto dell'intestazione, un file con un
+     * identificativo diverso e un checkpoint con il numero di elementi alterato vengano rifiutati.
+     * <p>
+     * Test Case Design: Un checkpoint incompleto non deve mai produrre una lista parziale. Il numero di elementi
+     * dell'intestazione non è coperto dal CRC32: un valore enorme non deve esaurire la memoria.
+     * <p>
+     * Test Description: 1) Si salva la lista e si tronca il file a metà.
+     *                   2) Si scrive un file di 3 byte.
+     *                   3) Si scrive un file di 16 byte a zero.
+     *                   4) Si salva una lista di 10 elementi e si scrivono 0x7FFFFFF0 e 11 come numero di elementi.
+     * <p>
+     * Preconditions: Lista di 10000 elementi.
+     * <p>
+     * Postconditions: Il file non è un checkpoint valido.
+     * <p>
+     * Expected Result: Ogni caricamento lancia {@code IOException}.
+     */
+    @Test
+    public void testTruncatedAndInvalidFiles() throws IOException
+    {
+        ListCheckpoint.save(list, file, ElementCodecs.TAGGED);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.truncate(channel.size() / 2);
+        }
+        assertLoadFails();
+        Files.write(file, new byte[3]);
+        assertLoadFails();
+        Files.write(file, new byte[ListCheckpoint.HEADER_SIZE]);
+        assertLoadFails();
+
+        ListCheckpoint.save((ListAdapter) list.subList(0, 10), file, ElementCodecs.TAGGED);
+        int[] sizes = { 0x7FFFFFF0, 11 };
+        for (int k = 0; k < sizes.length; k++)
+        {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+            {
+                ByteBuffer size = ByteBuffer.allocate(4).putInt(0, sizes[k]);
+                channel.write(size, 8);
+            }
+            assertLoadFails();
+        }
+    }
+
+    /**
+     * Test del caricamento pigro.
+     * <p>
+     * Summary: Verifica che {@code loadLazy} restituisca una lista uguale a quella salvata che decodifica
+     * solo gli elementi letti.
+     * <p>
+     * Test Case Design: Il caricamento pigro verifica il file come {@code load} ma non crea gli elementi
+     * finché non vengono letti.
+     * <p>
+     * Test Description: 1) Si salva la lista e la si carica con {@code loadLazy}.
+     *                   2) Si leggono tre elementi, poi si confronta la lista con quella salvata.
+     * <p>
+     * Preconditions: Lista di 10000 elementi.
+     * <p>
+     * Postconditions: Tutti gli elementi della lista caricata sono stati decodificati.
+     * <p>
+     * Expected Result: Nessun elemento decodificato dopo il caricamento, 3 dopo le letture e lista uguale a quella salvata.
+     */
+    @Test
+    public void testLazyLoad() throws IOException
+    {
+        ListCheckpoint.save(list, file, ElementCodecs.TAGGED);
+        LazyDecodedListAdapter lazy = ListCheckpoint.loadLazy(file, ElementCodecs.TAGGED);
+        assertEquals(10000, lazy.size());
+        assertEquals(0, lazy.decodedCount());
+        assertNull(lazy.get(0));
+        assertEquals("s9999", lazy.get(9999));
+        assertEquals(Integer.valueOf(5002), lazy.get(5002));
+        assertEquals(3, lazy.decodedCount());
+        assertTrue(lazy.equals(list));
+        assertTrue(list.equals(lazy));
+        assertEquals(list.hashCode(), lazy.hashCode());
+        assertEquals(10000, lazy.decodedCount());
+    }
+
+    /**
+     * Verifica che il file non possa essere caricato con {@code load}, {@code read} e {@code loadLazy}.
+     */
+    private void assertLoadFails() throws IOException
+    {
+        try
+        {
+            ListCheckpoint.load(file, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try (InputStream in = Files.newInputStream(file))
+        {
+            ListCheckpoint.read(in, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            ListCheckpoint.loadLazy(file, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+    }
+}
@@ -0,0 +1,244 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+import myJdk.ListBridges;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per il confronto diretto di {@link myAdapter.ListAdapter#equals(Object)} tra
+ * due {@code ListAdapter} o loro sottoliste, che legge i Vector sottostanti, riconosce le viste dello stesso
+ * intervallo e confronta per primi i codici hash memorizzati.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che le scorciatoie non cambino mai il risultato del confronto:
+ * liste uguali restano uguali qualunque sia la loro origine (radice, sottolista, operazioni differite), e il
+ * confronto con altre implementazioni di {@link myAdapter.HList} continua a funzionare.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestListEquals
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestListEquals}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestListEquals()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    /**
+     * Elemento che conta le chiamate al proprio {@code equals}.
+     */
+    private static class Counting
+    {
+        int equalsCalls;
+
+        public boolean equals(Object o)
+        {
+            equalsCalls++;
+            return o == this;
+        }
+
+        public int hashCode()
+        {
+            return 7;
+        }
+    }
+
+    private ListAdapter list;
+    private ListAdapter copy;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza due ListAdapter distinte contenenti entrambe ["a", null, "b", "c", "a"].
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        copy = new ListAdapter();
+        Object[] values = { "a", null, "b", "c", "a" };
+        for (int i = 0; i < values.length; i++)
+        {
+            list.add(values[i]);
+            copy.add(values[i]);
+        }
+    }
+
+    /**
+     * Test del confronto tra due ListAdapter.
+     * <p>
+     * Summary: Verifica il confronto diretto tra liste uguali, di dimensione diversa e con un elemento diverso.
+     * <p>
+     * Test Case Design: Il confronto diretto deve gestire null in entrambe le liste come {@code get}.
+     * <p>
+     * Test Description: 1) Si confrontano le due liste uguali.
+     *                   2) Si sostituisce null con "x" in una delle due e si confrontano di nuovo.
+     *                   3) Si aggiunge un elemento.
+     * <p>
+     * Preconditions: Due liste contenenti ["a", null, "b", "c", "a"].
+     * <p>
+     * Postconditions: Le liste sono diverse.
+     * <p>
+     * Expected Result: Le liste sono uguali solo al passo 1, in entrambe le direzioni.
+     */
+    @Test
+    public void testEqualsBetweenAdapters()
+    {
+        assertTrue(list.equals(copy));
+        assertTrue(copy.equals(list));
+
+        copy.set(1, "x");
+        assertFalse(list.equals(copy));
+        assertFalse(copy.equals(list));
+
+        copy.set(1, null);
+        copy.add("d");
+        assertFalse(list.equals(copy));
+        assertFalse(new ListAdapter().equals(list));
+        assertTrue(new ListAdapter().equals(new ListAdapter()));
+    }
+
+    /**
+     * Test del confronto tra sottoliste.
+     * <p>
+     * Summary: Verifica il confronto tra sottoliste dello stesso intervallo, di intervalli diversi e con liste radice.
+     * <p>
+     * Test Case Design: Due viste dello stesso intervallo dello stesso Vector sono uguali senza confrontare gli elementi;
+     * viste di intervalli diversi vanno confrontate elemento per elemento, applicando i rispettivi offset.
+     * <p>
+     * Test Description: 1) Si confrontano due sottoliste [1, 4) della stessa lista.
+     *                   2) Si confronta la sottolista [0, 1) con la sottolista [4, 5), entrambe ["a"].
+     *                   3) Si confronta la sottolista [0, 5) con la lista e con la copia.
+     * <p>
+     * Preconditions: Due liste contenenti ["a", null, "b", "c", "a"].
+     * <p>
+     * Postconditions: Le liste rimangono invariate.
+     * <p>
+     * Expected Result: Tutti i confronti restituiscono true, tranne quello tra intervalli con contenuto diverso.
+     */
+    @Test
+    public void testEqualsBetweenSubLists()
+    {
+        assertTrue(list.subList(1, 4).equals(list.subList(1, 4)));
+        assertTrue(list.subList(0, 1).equals(list.subList(4, 5)));
+        assertFalse(list.subList(0, 2).equals(list.subList(3, 5)));
+        assertTrue(list.subList(0, 5).equals(list));
+        assertTrue(list.equals(list.subList(0, 5)));
+        assertTrue(copy.subList(1, 4).equals(list.subList(1, 4)));
+        assertFalse(copy.subList(1, 4).equals(list.subList(0, 3)));
+    }
+
+    /**
+     * Test della scorciatoia sui codici hash memorizzati.
+     * <p>
+     * Summary: Verifica che due liste con codici hash memorizzati diversi vengano riconosciute diverse senza
+     * confrontare gli elementi, e che senza codici hash memorizzati il confronto esamini gli elementi.
+     * <p>
+     * Test Case Design: Un elemento che conta le chiamate a {@code equals} permette di osservare se il confronto
+     * elemento per elemento è avvenuto.
+     * <p>
+     * Test Description: 1) Si confrontano due liste [e, "a"] e [e, "b"] con codici hash aggiornati.
+     *                   2) Si confrontano le corrispondenti sottoliste, che non memorizzano il codice hash.
+     * <p>
+     * Preconditions: Elemento {@code e} che conta le chiamate a {@code equals}.
+     * <p>
+     * Postconditions: Le liste rimangono invariate.
+     * <p>
+     * Expected Result: Al passo 1 {@code equals} di {@code e} non viene chiamato (elementi identici o hash diversi);
+     * al passo 2 il risultato resta false.
+     */
+    @Test
+    public void testCachedHashShortCircuit()
+    {
+        Counting e = new Counting();
+        ListAdapter first = new ListAdapter();
+        first.add(e);
+        first.add("a");
+        ListAdapter second = new ListAdapter();
+        second.add(new Counting());
+        second.add("b");
+        assertFalse(first.equals(second));
+        assertEquals(0, e.equalsCalls);
+
+        second.set(0, e);
+        assertFalse(first.subList(0, 2).equals(second.subList(0, 2)));
+        assertEquals(0, e.equalsCalls);     // Elementi identici: equals non serve
+        second.set(1, "a");
+        assertTrue(first.equals(second));
+    }
+
+    /**
+     * Test del confronto con operazioni differite in sospeso.
+     * <p>
+     * Summary: Verifica che il confronto completi prima le rimozioni differite di entrambe le liste.
+     * <p>
+     * Test Case Design: Le rimozioni di un {@code compactingIterator} vengono applicate al Vector solo al prossimo accesso:
+     * il confronto diretto deve vedere il contenuto aggiornato.
+     * <p>
+     * Test Description: Si rimuovono i due "a" da una lista con un {@code compactingIterator} e si confronta con una
+     * lista [null, "b", "c"].
+     * <p>
+     * Preconditions: Lista contenente ["a", null, "b", "c", "a"].
+     * <p>
+     * Postconditions: La lista contiene [null, "b", "c"].
+     * <p>
+     * Expected Result: Le liste sono uguali.
+     */
+    @Test
+    public void testEqualsSettlesPendingRemovals()
+    {
+        HIterator it = list.compactingIterator();
+        while (it.hasNext())
+        {
+            if ("a".equals(it.next()))
+            {
+                it.remove();
+            }
+        }
+        ListAdapter expected = new ListAdapter();
+        expected.add(null);
+        expected.add("b");
+        expected.add("c");
+        assertTrue(expected.equals(list));
+        assertTrue(list.equals(expected));
+    }
+
+    /**
+     * Test del confronto con altre implementazioni di {@link myAdapter.HList}.
+     * <p>
+     * Summary: Verifica che il confronto con una HList che non è una ListAdapter usi ancora il percorso generale.
+     * <p>
+     * Test Case Design: La vista di {@code ListBridges.asHList} non è una ListAdapter e non ha un Vector.
+     * <p>
+     * Test Description: Si confronta la lista con la vista su una {@code ArrayList} con gli stessi elementi.
+     * <p>
+     * Preconditions: Lista contenente ["a", null, "b", "c", "a"].
+     * <p>
+     * Postconditions: Le liste rimangono invariate.
+     * <p>
+     * Expected Result: Le liste sono uguali; la lista non è uguale a un oggetto che non è una HList.
+     */
+    @Test
+    public void testEqualsWithOtherHList()
+    {
+        ArrayList<Object> reference = new ArrayList<Object>(java.util.Arrays.asList(list.toArray()));
+        HList view = ListBridges.asHList(reference);
+        assertTrue(list.equals(view));
+        reference.set(2, "z");
+        assertFalse(list.equals(view));
+        assertFalse(list.equals("a"));
+    }
+}
@@ -0,0 +1,324 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per il codice hash memorizzato di {@link myAdapter.ListAdapter}, aggiornato
+ * in modo incrementale da inserimenti in coda, sostituzioni e rimozioni dalla coda e invalidato dalle altre modifiche.
+ * Dopo ogni operazione il valore viene confrontato con quello di una {@code java.util.ArrayList} con gli stessi elementi,
+ * che segue la stessa definizione polinomiale.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che il valore memorizzato coincida sempre con quello che si otterrebbe
+ * scorrendo la lista, qualunque sia il percorso della modifica: metodi pubblici, iteratori, sottoliste, ordinamento,
+ * compattazione e sottoclassi che scrivono direttamente nel Vector.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestListHashCode
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestListHashCode}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestListHashCode()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+    private ArrayList<Object> reference;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter e una ArrayList di riferimento contenenti le stringhe "e0" ... "e9" e un null.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        reference = new ArrayList<Object>();
+        for (int i = 0; i < 10; i++)
+        {
+            list.add("e" + i);
+            reference.add("e" + i);
+        }
+        list.add(null);
+        reference.add(null);
+    }
+
+    /**
+     * Test delle operazioni aggiornate in modo incrementale.
+     * <p>
+     * Summary: Verifica il codice hash dopo inserimenti in coda, sostituzioni e rimozioni dalla coda.
+     * <p>
+     * Test Case Design: Sono le operazioni che aggiornano il valore senza scorrere la lista, usando le potenze di 31
+     * e l'inverso di 31; anche null e le sostituzioni in testa (potenza più alta) devono essere gestiti.
+     * <p>
+     * Test Description: 1) Si sostituiscono il primo, un elemento centrale e l'ultimo elemento.
+     *                   2) Si rimuovono due elementi dalla coda e se ne aggiunge uno.
+     *                   3) Si svuota la lista.
+     * <p>
+     * Preconditions: La lista contiene "e0" ... "e9" e null.
+     * <p>
+     * Postconditions: La lista è vuota.
+     * <p>
+     * Expected Result: Dopo ogni passo il codice hash coincide con quello della ArrayList.
+     */
+    @Test
+    public void testIncrementalOperations()
+    {
+        assertEquals(reference.hashCode(), list.hashCode());
+        list.set(0, "x");
+        reference.set(0, "x");
+        assertEquals(reference.hashCode(), list.hashCode());
+        list.set(5, null);
+        reference.set(5, null);
+        list.set(10, "y");
+        reference.set(10, "y");
+        assertEquals(reference.hashCode(), list.hashCode());
+
+        list.remove(10);
+        reference.remove(10);
+        list.remove(list.size() - 1);
+        reference.remove(reference.size() - 1);
+        assertEquals(reference.hashCode(), list.hashCode());
+        list.add(list.size(), "z");
+        reference.add("z");
+        assertEquals(reference.hashCode(), list.hashCode());
+
+        list.clear();
+        assertEquals(1, list.hashCode());
+        list.add("a");
+        assertEquals(31 + "a".hashCode(), list.hashCode());
+    }
+
+    /**
+     * Test delle operazioni che invalidano il codice hash.
+     * <p>
+     * Summary: Verifica il codice hash dopo inserimenti e rimozioni in mezzo, rimozioni per valore, ordinamento,
+     * {@code removeAll} e inserimenti con iteratore.
+     * <p>
+     * Test Case Design: Queste operazioni spostano il peso di molti elementi: il valore va ricalcolato, e le
+     * operazioni incrementali successive devono partire dal valore ricalcolato.
+     * <p>
+     * Test Description: Si esegue ogni operazione seguita da un inserimento in coda, confrontando il codice hash.
+     * <p>
+     * Preconditions: La lista contiene "e0" ... "e9" e null.
+     * <p>
+     * Postconditions: Lista e ArrayList hanno lo stesso contenuto.
+     * <p>
+     * Expected Result: Dopo ogni passo il codice hash coincide con quello della ArrayList.
+     */
+    @Test
+    public void testInvalidatingOperations()
+    {
+        list.add(3, "m");
+        reference.add(3, "m");
+        assertEquals(reference.hashCode(), list.hashCode());
+        list.remove(0);
+        reference.remove(0);
+        list.add("t");
+        reference.add("t");
+        assertEquals(reference.hashCode(), list.hashCode());
+        list.remove("e5");
+        reference.remove("e5");
+        assertEquals(reference.hashCode(), list.hashCode());
+
+        list.remove((Object) null);
+        reference.remove((Object) null);
+        list.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((String) o2).compareTo((String) o1);
+            }
+        });
+        java.util.Collections.sort(reference, java.util.Collections.reverseOrder());
+        assertEquals(reference.hashCode(), list.hashCode());
+
+        ListAdapter toRemove = new ListAdapter();
+        toRemove.add("e2");
+        toRemove.add("m");
+        list.removeAll(toRemove);
+        reference.remove("e2");
+        reference.remove("m");
+        assertEquals(reference.hashCode(), list.hashCode());
+
+        HListIterator it = list.listIterator(2);
+        it.add("i1");
+        it.add("i2");
+        reference.add(2, "i1");
+        reference.add(3, "i2");
+        assertEquals(reference.hashCode(), list.hashCode());
+        it = list.listIterator(list.size());
+        it.add("i3");
+        reference.add("i3");
+        list.set(0, "s");
+        reference.set(0, "s");
+        assertEquals(reference.hashCode(), list.hashCode());
+    }
+
+    /**
+     * Test del codice hash delle sottoliste.
+     * <p>
+     * Summary: Verifica il codice hash di una sottolista e quello della lista dopo modifiche eseguite tramite la sottolista.
+     * <p>
+     * Test Case Design: La sottolista calcola il valore sul proprio intervallo; le sue modifiche passano dalla lista
+     * padre, che deve mantenere aggiornato il proprio valore.
+     * <p>
+     * Test Description: 1) Si calcola il codice hash della sottolista [2, 6).
+     *                   2) Si aggiunge, sostituisce e rimuove tramite la sottolista e infine la si svuota.
+     * <p>
+     * Preconditions: La lista contiene "e0" ... "e9" e null.
+     * <p>
+     * Postconditions: La lista non contiene gli elementi della sottolista.
+     * <p>
+     * Expected Result: I codici hash di sottolista e lista coincidono con quelli della ArrayList.
+     */
+    @Test
+    public void testSubListHashCode()
+    {
+        HList sub = list.subList(2, 6);
+        assertEquals(reference.subList(2, 6).hashCode(), sub.hashCode());
+
+        sub.add("s");
+        reference.add(6, "s");
+        sub.set(0, "t");
+        reference.set(2, "t");
+        sub.remove(1);
+        reference.remove(3);
+        assertEquals(reference.subList(2, 6).hashCode(), sub.hashCode());
+        assertEquals(reference.hashCode(), list.hashCode());
+
+        sub.clear();
+        reference.subList(2, 6).clear();
+        assertEquals(1, sub.hashCode());
+        assertEquals(reference.hashCode(), list.hashCode());
+    }
+
+    /**
+     * Test del codice hash delle sottoclassi che scrivono direttamente nel Vector.
+     * <p>
+     * Summary: Verifica il codice hash di {@link myAdapter.SortedListAdapter} dopo {@code addAll} e di
+     * {@link myAdapter.IndexedListAdapter} dopo un ordinamento.
+     * <p>
+     * Test Case Design: {@code SortedListAdapter.addAll} fonde gli elementi direttamente nel Vector, e
+     * {@code IndexedListAdapter} ridefinisce la notifica delle scritture dirette: entrambe devono invalidare il valore.
+     * <p>
+     * Test Description: 1) Si aggiungono in blocco elementi a una SortedListAdapter.
+     *                   2) Si ordina una IndexedListAdapter.
+     * <p>
+     * Preconditions: Liste contenenti alcuni interi.
+     * <p>
+     * Postconditions: Le liste sono ordinate.
+     * <p>
+     * Expected Result: I codici hash coincidono con quelli delle ArrayList ordinate corrispondenti.
+     */
+    @Test
+    public void testSubclassesWritingStorage()
+    {
+        HComparator natural = new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o1).compareTo((Integer) o2);
+            }
+        };
+        SortedListAdapter sorted = new SortedListAdapter(natural);
+        sorted.add(Integer.valueOf(5));
+        sorted.add(Integer.valueOf(1));
+        assertEquals(java.util.Arrays.asList(new Integer[] { 1, 5 }).hashCode(), sorted.hashCode());
+        ListAdapter more = new ListAdapter();
+        more.add(Integer.valueOf(3));
+        more.add(Integer.valueOf(0));
+        sorted.addAll(more);
+        assertEquals(java.util.Arrays.asList(new Integer[] { 0, 1, 3, 5 }).hashCode(), sorted.hashCode());
+
+        IndexedListAdapter indexed = new IndexedListAdapter();
+        indexed.add(Integer.valueOf(2));
+        indexed.add(Integer.valueOf(1));
+        assertEquals(java.util.Arrays.asList(new Integer[] { 2, 1 }).hashCode(), indexed.hashCode());
+        indexed.sort(natural);
+        assertEquals(java.util.Arrays.asList(new Integer[] { 1, 2 }).hashCode(), indexed.hashCode());
+    }
+
+    /**
+     * Test di una sequenza casuale di operazioni su una lista grande.
+     * <p>
+     * Summary: Verifica il codice hash dopo molte operazioni miste su una lista di migliaia di elementi.
+     * <p>
+     * Test Case Design: Le sostituzioni vicino alla testa usano potenze di 31 con esponenti grandi, e le rimozioni
+     * dalla coda accumulano moltiplicazioni per l'inverso: il valore deve restare esatto nell'aritmetica degli int.
+     * <p>
+     * Test Description: Si eseguono 5000 operazioni casuali controllando il codice hash ogni 50 operazioni.
+     * <p>
+     * Preconditions: Lista con 5000 interi.
+     * <p>
+     * Postconditions: Lista e ArrayList hanno lo stesso contenuto.
+     * <p>
+     * Expected Result: Tutti i controlli coincidono con il codice hash della ArrayList.
+     */
+    @Test
+    public void testRandomOperationsMatchArrayList()
+    {
+        list.clear();
+        reference.clear();
+        Random random = new Random(37);
+        for (int i = 0; i < 5000; i++)
+        {
+            Integer value = Integer.valueOf(random.nextInt());
+            list.add(value);
+            reference.add(value);
+        }
+        for (int step = 0; step < 5000; step++)
+        {
+            Integer value = Integer.valueOf(random.nextInt(1000));
+            int size = reference.size();
+            switch (random.nextInt(5))
+            {
+                case 0:
+                    list.add(value);
+                    reference.add(value);
+                    break;
+                case 1:
+                    int pos = random.nextInt(size);
+                    list.set(pos, value);
+                    reference.set(pos, value);
+                    break;
+                case 2:
+                    list.remove(size - 1);
+                    reference.remove(size - 1);
+                    break;
+                case 3:
+                    int at = random.nextInt(size);
+                    list.add(at, value);
+                    reference.add(at, value);
+                    break;
+                default:
+                    int head = random.nextInt(10);
+                    list.set(head, null);
+                    reference.set(head, null);
+                    break;
+            }
+            if (step % 50 == 0)
+            {
+                assertEquals(reference.hashCode(), list.hashCode());
+            }
+        }
+        assertEquals(reference.hashCode(), list.hashCode());
+    }
+}
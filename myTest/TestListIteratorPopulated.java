@@ -1145,4 +1145,132 @@ public class TestListIteratorPopulated
         assertEquals("previousIndex() non è 1 dopo il secondo next().", 1, iterator.previousIndex()); // previousIndex punta a "zero"
     }
 
+
+    // --- TEST ADD CONSECUTIVE (INSERIMENTO IN BLOCCO) ---
+
+    /**
+     * Test di chiamate consecutive a {@link myAdapter.ListIterator#add(Object)}.
+     * <p>
+     * Summary: Verifica che più {@code add()} consecutive nella stessa posizione inseriscano gli elementi nell'ordine di chiamata.
+     * <p>
+     * Test Case Design: Le {@code add()} consecutive vengono accumulate e inserite in blocco; l'ordine e lo stato
+     * del cursore devono restare quelli dell'inserimento elemento per elemento.
+     * <p>
+     * Test Description: 1) Si posiziona il cursore tra "zero" e "uno".
+     *                   2) Si aggiungono "a", "b", "c" e si verificano {@code nextIndex()} e {@code previousIndex()}.
+     *                   3) Si chiama {@code next()} e si verifica il contenuto della lista.
+     * <p>
+     * Preconditions: La lista è ["zero", "uno", "due"].
+     * <p>
+     * Postconditions: La lista è ["zero", "a", "b", "c", "uno", "due"].
+     * <p>
+     * Expected Result: {@code nextIndex()} vale 4 dopo le aggiunte, {@code next()} restituisce "uno" e la lista ha dimensione 6.
+     */
+    @Test
+    public void testConsecutiveAddsKeepOrder()
+    {
+        iterator.next();
+        iterator.add("a");
+        iterator.add("b");
+        iterator.add("c");
+        assertEquals(4, iterator.nextIndex());
+        assertEquals(3, iterator.previousIndex());
+        assertEquals("uno", iterator.next());
+
+        Object[] expected = { "zero", "a", "b", "c", "uno", "due" };
+        assertArrayEquals(expected, list.toArray());
+    }
+
+    /**
+     * Test di {@link myAdapter.ListIterator#previous()} dopo add consecutive.
+     * <p>
+     * Summary: Verifica che {@code previous()} dopo più {@code add()} restituisca l'ultimo elemento aggiunto.
+     * <p>
+     * Test Case Design: Lo spostamento del cursore all'indietro deve vedere gli elementi accumulati come già inseriti.
+     * <p>
+     * Test Description: 1) Si aggiungono "a" e "b" all'inizio della lista.
+     *                   2) Si chiama {@code previous()} due volte.
+     * <p>
+     * Preconditions: La lista è ["zero", "uno", "due"] e il cursore è a 0.
+     * <p>
+     * Postconditions: La lista è ["a", "b", "zero", "uno", "due"] e il cursore è a 0.
+     * <p>
+     * Expected Result: {@code previous()} restituisce prima "b" e poi "a".
+     */
+    @Test
+    public void testPreviousAfterConsecutiveAdds()
+    {
+        iterator.add("a");
+        iterator.add("b");
+        assertEquals("b", iterator.previous());
+        assertEquals("a", iterator.previous());
+        assertFalse(iterator.hasPrevious());
+        assertEquals(5, list.size());
+    }
+
+    /**
+     * Test dell'accesso alla lista durante add consecutive.
+     * <p>
+     * Summary: Verifica che un accesso diretto alla lista osservi gli elementi aggiunti tramite l'iteratore.
+     * <p>
+     * Test Case Design: Gli elementi accumulati devono essere inseriti prima che un altro chiamante legga la lista,
+     * e l'iteratore deve poter continuare ad aggiungere dopo tale accesso.
+     * <p>
+     * Test Description: 1) Si aggiunge "a" alla fine della lista tramite l'iteratore.
+     *                   2) Si leggono {@code size()} e {@code get(3)} dalla lista.
+     *                   3) Si aggiunge "b" tramite l'iteratore e si rilegge la lista.
+     * <p>
+     * Preconditions: La lista è ["zero", "uno", "due"].
+     * <p>
+     * Postconditions: La lista è ["zero", "uno", "due", "a", "b"].
+     * <p>
+     * Expected Result: Dopo la prima aggiunta la dimensione è 4 e {@code get(3)} restituisce "a";
+     * al termine la dimensione è 5 e {@code get(4)} restituisce "b".
+     */
+    @Test
+    public void testListAccessDuringConsecutiveAdds()
+    {
+        iterator = list.listIterator(3);
+        iterator.add("a");
+        assertEquals(4, list.size());
+        assertEquals("a", list.get(3));
+        iterator.add("b");
+        assertEquals(5, list.size());
+        assertEquals("b", list.get(4));
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Test di add consecutive su una sottolista.
+     * <p>
+     * Summary: Verifica che l'inserimento in blocco tramite l'iteratore di una sottolista aggiorni sottolista e lista padre.
+     * <p>
+     * Test Case Design: Il blocco deve essere inserito nella lista padre con l'offset della sottolista,
+     * aggiornando la dimensione della sottolista.
+     * <p>
+     * Test Description: 1) Si crea la sottolista ["uno", "due"].
+     *                   2) Si aggiungono "x" e "y" all'inizio della sottolista tramite il suo iteratore.
+     *                   3) Si verificano sottolista e lista padre.
+     * <p>
+     * Preconditions: La lista è ["zero", "uno", "due"].
+     * <p>
+     * Postconditions: La sottolista è ["x", "y", "uno", "due"], la lista padre ["zero", "x", "y", "uno", "due"].
+     * <p>
+     * Expected Result: Dimensioni 4 e 5 e contenuti nell'ordine atteso.
+     */
+    @Test
+    public void testConsecutiveAddsOnSubList()
+    {
+        HList sub = list.subList(1, 3);
+        HListIterator subIterator = sub.listIterator();
+        subIterator.add("x");
+        subIterator.add("y");
+        assertEquals("uno", subIterator.next());
+
+        Object[] expectedSub = { "x", "y", "uno", "due" };
+        assertArrayEquals(expectedSub, sub.toArray());
+        Object[] expectedParent = { "zero", "x", "y", "uno", "due" };
+        assertArrayEquals(expectedParent, list.toArray());
+    }
+
 }
\ No newline at end of file
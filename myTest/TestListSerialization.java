@@ -0,0 +1,352 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per la serializzazione binaria di {@link myAdapter.ListAdapter}:
+ * {@link myAdapter.ListAdapter#writeTo(java.io.DataOutput, HElementCodec)},
+ * {@link myAdapter.ListAdapter#readFrom(java.io.DataInput, HElementCodec)} e i codec di {@link myAdapter.ElementCodecs}.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che ogni lista scritta venga riletta identica, con valori limite
+ * di ogni tipo, che il formato sia compatto per i valori piccoli e che dati non validi producano
+ * {@code IOException} senza modificare la lista.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestListSerialization
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestListSerialization}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestListSerialization()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter contenente ["a", "b", "c"].
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        list.add("a");
+        list.add("b");
+        list.add("c");
+    }
+
+    /**
+     * Scrive la lista con il codec specificato e restituisce i byte prodotti.
+     */
+    private static byte[] write(ListAdapter source, HElementCodec codec) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        source.writeTo(new DataOutputStream(bytes), codec);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Legge i byte specificati in coda alla lista di destinazione.
+     */
+    private static int read(ListAdapter target, byte[] data, HElementCodec codec) throws IOException
+    {
+        return target.readFrom(new DataInputStream(new ByteArrayInputStream(data)), codec);
+    }
+
+    /**
+     * Test del codec {@link myAdapter.ElementCodecs#TAGGED} con elementi di tutti i tipi supportati.
+     * <p>
+     * Summary: Verifica che una lista con null, valori limite di ogni tipo e una stringa lunga venga riletta identica.
+     * <p>
+     * Test Case Design: Il codec con byte di tipo deve ricostruire ogni elemento con il tipo originale; la stringa supera
+     * i 65535 byte in UTF-8, limite di {@code writeUTF}, e contiene caratteri non ASCII.
+     * <p>
+     * Test Description: Si scrive e si rilegge una lista con un elemento per ogni tipo e null.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: La lista riletta contiene gli stessi elementi.
+     * <p>
+     * Expected Result: Gli elementi riletti sono uguali agli originali; l'array di byte ha lo stesso contenuto.
+     */
+    @Test
+    public void testTaggedRoundTrip() throws IOException
+    {
+        StringBuffer longText = new StringBuffer();
+        for (int i = 0; i < 30000; i++)
+        {
+            longText.append("àé");
+        }
+        ListAdapter source = new ListAdapter();
+        source.add(null);
+        source.add(Boolean.TRUE);
+        source.add(Byte.valueOf(Byte.MIN_VALUE));
+        source.add(Short.valueOf(Short.MAX_VALUE));
+        source.add(Character.valueOf('€'));
+        source.add(Integer.valueOf(Integer.MIN_VALUE));
+        source.add(Integer.valueOf(-1));
+        source.add(Long.valueOf(Long.MAX_VALUE));
+        source.add(Float.valueOf(Float.NaN));
+        source.add(Double.valueOf(-0.0));
+        source.add("");
+        source.add(longText.toString());
+        source.add(new byte[] { 1, -2, 3 });
+
+        ListAdapter copy = new ListAdapter();
+        assertEquals(13, read(copy, write(source, ElementCodecs.TAGGED), ElementCodecs.TAGGED));
+        assertEquals(13, copy.size());
+        for (int i = 0; i < 12; i++)
+        {
+            assertEquals("position " + i, source.get(i), copy.get(i));
+        }
+        assertArrayEquals(new byte[] { 1, -2, 3 }, (byte[]) copy.get(12));
+    }
+
+    /**
+     * Test della compattezza del formato.
+     * <p>
+     * Summary: Verifica che interi piccoli e la lunghezza della lista occupino pochi byte.
+     * <p>
+     * Test Case Design: Con la codifica a lunghezza variabile e zig-zag, gli interi tra -64 e 63 occupano un byte
+     * e una lunghezza di 1000 ne occupa due.
+     * <p>
+     * Test Description: Si scrive con {@link myAdapter.ElementCodecs#INTEGER} una lista di 1000 interi tra -50 e 49.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: La lista riletta contiene gli stessi interi.
+     * <p>
+     * Expected Result: Vengono scritti 1002 byte e la lista viene riletta identica.
+     */
+    @Test
+    public void testCompactIntegers() throws IOException
+    {
+        ListAdapter source = new ListAdapter();
+        for (int i = 0; i < 1000; i++)
+        {
+            source.add(Integer.valueOf(i % 100 - 50));
+        }
+        byte[] data = write(source, ElementCodecs.INTEGER);
+        assertEquals(1002, data.length);
+        ListAdapter copy = new ListAdapter();
+        read(copy, data, ElementCodecs.INTEGER);
+        assertTrue(source.equals(copy));
+    }
+
+    /**
+     * Test della gestione di null e dei tipi non supportati.
+     * <p>
+     * Summary: Verifica che i codec dei singoli tipi rifiutino null e i tipi sbagliati, e che
+     * {@link myAdapter.ElementCodecs#nullable(HElementCodec)} ammetta null.
+     * <p>
+     * Test Case Design: Un elemento che il codec non sa scrivere deve produrre un'eccezione chiara invece di dati illeggibili.
+     * <p>
+     * Test Description: 1) Si scrive una lista con null con {@code STRING} e con {@code nullable(STRING)}.
+     *                   2) Si scrive una lista con un {@code Object} con {@code TAGGED} e una di stringhe con {@code INTEGER}.
+     * <p>
+     * Preconditions: Lista contenente ["a", "b", "c"].
+     * <p>
+     * Postconditions: La lista contiene ["a", null, "c"].
+     * <p>
+     * Expected Result: {@code NullPointerException} e {@code IllegalArgumentException} nei casi non supportati;
+     * la lista con null viene riletta identica con il codec che ammette null.
+     */
+    @Test
+    public void testNullAndUnsupportedTypes() throws IOException
+    {
+        list.set(1, null);
+        try
+        {
+            write(list, ElementCodecs.STRING);
+            fail("NullPointerException attesa");
+        }
+        catch (NullPointerException e)
+        {
+            // Atteso
+        }
+        HElementCodec codec = ElementCodecs.nullable(ElementCodecs.STRING);
+        ListAdapter copy = new ListAdapter();
+        read(copy, write(list, codec), codec);
+        assertTrue(list.equals(copy));
+
+        ListAdapter objects = new ListAdapter();
+        objects.add(new Object());
+        try
+        {
+            write(objects, ElementCodecs.TAGGED);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            write(copy, ElementCodecs.INTEGER);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Test di scrittura e lettura con sottoliste e sottoclassi.
+     * <p>
+     * Summary: Verifica che una sottolista scriva solo il proprio intervallo e che la lettura aggiunga in coda,
+     * anche in una sottolista e in una {@link myAdapter.IndexedListAdapter}.
+     * <p>
+     * Test Case Design: La lettura inserisce un unico blocco tramite il meccanismo degli inserimenti in blocco,
+     * che sottoliste e sottoclassi già gestiscono.
+     * <p>
+     * Test Description: 1) Si scrive la sottolista [1, 3).
+     *                   2) La si legge in coda alla sottolista [0, 1) della lista.
+     *                   3) La si legge in una IndexedListAdapter non vuota.
+     * <p>
+     * Preconditions: Lista contenente ["a", "b", "c"].
+     * <p>
+     * Postconditions: La lista contiene ["a", "b", "c", "b", "c"].
+     * <p>
+     * Expected Result: Gli elementi vengono aggiunti nelle posizioni attese e l'indice li trova.
+     */
+    @Test
+    public void testSubListAndSubclasses() throws IOException
+    {
+        byte[] data = write((ListAdapter) list.subList(1, 3), ElementCodecs.STRING);
+        HList head = list.subList(0, 1);
+        assertEquals(2, read((ListAdapter) head, data, ElementCodecs.STRING));
+        assertEquals(3, head.size());
+        Object[] expected = { "a", "b", "c", "b", "c" };
+        assertArrayEquals(expected, list.toArray());
+
+        IndexedListAdapter indexed = new IndexedListAdapter();
+        indexed.add("z");
+        read(indexed, data, ElementCodecs.STRING);
+        assertEquals(1, indexed.indexOf("b"));
+        assertEquals(2, indexed.lastIndexOf("c"));
+    }
+
+    /**
+     * Test della lettura di dati non validi.
+     * <p>
+     * Summary: Verifica che dati troncati, con un byte di tipo sconosciuto, con un numero di elementi
+     * enorme nell'intestazione o con la lunghezza enorme di una stringa o di un array producano
+     * {@code IOException} senza modificare la lista.
+     * <p>
+     * Test Case Design: La lista viene modificata solo dopo aver letto tutti gli elementi, e il blocco degli
+     * elementi e i byte di stringhe e array crescono con i dati letti invece di essere allocati dalle lunghezze.
+     * <p>
+     * Test Description: 1) Si legge una lista scritta e poi troncata dell'ultimo byte.
+     *                   2) Si legge un'intestazione di un elemento seguita da un byte di tipo 99.
+     *                   3) Si legge un'intestazione di {@code Integer.MAX_VALUE} elementi seguita da due elementi.
+     *                   4) Si leggono una stringa e un array di byte con una lunghezza enorme seguita da pochi byte.
+     *                   5) Si rilegge una lista di 5000 elementi, più grande del blocco iniziale, e una lista con
+     *                      una stringa e un array di 50000 byte.
+     * <p>
+     * Preconditions: Lista contenente ["a", "b", "c"].
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Le letture non valide lanciano {@code IOException} senza esaurire la memoria, la lista
+     * contiene ancora 3 elementi e le liste grandi vengono rilette identiche.
+     */
+    @Test
+    public void testInvalidDataLeavesListUnchanged() throws IOException
+    {
+        byte[] data = write(list, ElementCodecs.TAGGED);
+        byte[] truncated = new byte[data.length - 1];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        try
+        {
+            read(list, truncated, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            read(list, new byte[] { 1, 99 }, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            read(list, new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 2, 4 }, ElementCodecs.INTEGER);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            read(list, new byte[] { 1, 9, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'a', 'b' }, ElementCodecs.TAGGED);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            read(list, new byte[] { 1, (byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3 }, ElementCodecs.BYTE_ARRAY);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        assertEquals(3, list.size());
+
+        ListAdapter large = new ListAdapter();
+        for (int i = 0; i < 5000; i++)
+        {
+            large.add(Integer.valueOf(i * 7 - 1000));
+        }
+        ListAdapter copy = new ListAdapter();
+        read(copy, write(large, ElementCodecs.INTEGER), ElementCodecs.INTEGER);
+        assertTrue(large.equals(copy));
+
+        StringBuffer text = new StringBuffer();
+        byte[] bytes = new byte[50000];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            text.append((char) ('a' + i % 26));
+            bytes[i] = (byte) i;
+        }
+        ListAdapter big = new ListAdapter();
+        big.add(text.toString());
+        big.add(bytes);
+        copy = new ListAdapter();
+        read(copy, write(big, ElementCodecs.TAGGED), ElementCodecs.TAGGED);
+        assertEquals(text.toString(), copy.get(0));
+        assertArrayEquals(bytes, (byte[]) copy.get(1));
+    }
+}
@@ -0,0 +1,339 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.ListAdapter#sort(HComparator)}, l'ordinamento stabile
+ * e sul posto di una lista o di una sua sottolista.
+ * Vengono verificati l'ordinamento di dati casuali, già ordinati, decrescenti e a run, la stabilità,
+ * l'ordinamento di una sottolista e la gestione di un comparatore null.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che l'ordinamento, che fonde sul posto le sequenze già ordinate
+ * presenti nella lista, produca lo stesso risultato di un ordinamento stabile di riferimento su dimensioni
+ * sia inferiori sia superiori alla soglia dell'insertion sort.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestListSort
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestListSort}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestListSort()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+    private HComparator byValue;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter vuota e un comparatore che ordina gli {@code Integer} per valore.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        byValue = new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                int a = ((Integer) o1).intValue();
+                int b = ((Integer) o2).intValue();
+                return a < b ? -1 : (a == b ? 0 : 1);
+            }
+        };
+    }
+
+    /**
+     * Verifica che la lista sia ordinata in modo non decrescente secondo il comparatore.
+     */
+    private void assertSorted(HList l, HComparator c)
+    {
+        for (int i = 1; i < l.size(); i++)
+        {
+            assertTrue("disordine in posizione " + i, c.compare(l.get(i - 1), l.get(i)) <= 0);
+        }
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#sort(HComparator)} su dati casuali.
+     * <p>
+     * Summary: Verifica che dati casuali di varie dimensioni vengano ordinati e che il contenuto sia preservato.
+     * <p>
+     * Test Case Design: Le dimensioni coprono il caso del solo insertion sort (meno di 32 elementi) e quello
+     * con fusione di molte run.
+     * <p>
+     * Test Description: Per ogni dimensione si riempie la lista con valori casuali, la si ordina e si confronta
+     * il risultato con un array ordinato con {@code java.util.Arrays.sort}.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: La lista contiene i valori dell'ultima dimensione, ordinati.
+     * <p>
+     * Expected Result: Per ogni dimensione la lista coincide con l'array di riferimento.
+     */
+    @Test
+    public void testSortRandom()
+    {
+        Random random = new Random(42);
+        int[] sizes = { 0, 1, 2, 31, 32, 33, 100, 1000, 5000 };
+        for (int s = 0; s < sizes.length; s++)
+        {
+            list.clear();
+            Integer[] expected = new Integer[sizes[s]];
+            for (int i = 0; i < sizes[s]; i++)
+            {
+                expected[i] = Integer.valueOf(random.nextInt(1000));
+                list.add(expected[i]);
+            }
+            list.sort(byValue);
+            java.util.Arrays.sort(expected);
+            assertArrayEquals(expected, list.toArray());
+        }
+    }
+
+    /**
+     * Test della stabilità di {@link myAdapter.ListAdapter#sort(HComparator)}.
+     * <p>
+     * Summary: Verifica che elementi uguali secondo il comparatore mantengano il loro ordine relativo.
+     * <p>
+     * Test Case Design: Si ordinano coppie (chiave, posizione originale) confrontando solo la chiave;
+     * con poche chiavi distinte ogni fusione incontra molti elementi uguali.
+     * <p>
+     * Test Description: 1) Si inseriscono 3000 coppie con chiavi casuali tra 0 e 9.
+     *                   2) Si ordina per chiave.
+     *                   3) Si verifica che a parità di chiave le posizioni originali siano crescenti.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: La lista contiene le coppie ordinate per chiave.
+     * <p>
+     * Expected Result: Le posizioni originali sono crescenti all'interno di ogni chiave.
+     */
+    @Test
+    public void testSortIsStable()
+    {
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++)
+        {
+            list.add(new int[] { random.nextInt(10), i });
+        }
+        HComparator byKey = new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((int[]) o1)[0] - ((int[]) o2)[0];
+            }
+        };
+        list.sort(byKey);
+        assertSorted(list, byKey);
+        for (int i = 1; i < list.size(); i++)
+        {
+            int[] prev = (int[]) list.get(i - 1);
+            int[] curr = (int[]) list.get(i);
+            if (prev[0] == curr[0])
+            {
+                assertTrue(prev[1] < curr[1]);
+            }
+        }
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#sort(HComparator)} su dati già ordinati.
+     * <p>
+     * Summary: Verifica che una lista già ordinata venga riconosciuta come una sola run.
+     * <p>
+     * Test Case Design: L'ordinamento sfrutta le run presenti: una lista ordinata deve costare n - 1 confronti.
+     * <p>
+     * Test Description: Si ordina una lista di 10000 elementi crescenti contando i confronti.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Vengono eseguiti esattamente 9999 confronti.
+     */
+    @Test
+    public void testSortPresortedUsesLinearComparisons()
+    {
+        for (int i = 0; i < 10000; i++)
+        {
+            list.add(Integer.valueOf(i));
+        }
+        final int[] comparisons = { 0 };
+        list.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                comparisons[0]++;
+                return byValue.compare(o1, o2);
+            }
+        });
+        assertEquals(9999, comparisons[0]);
+        assertEquals(Integer.valueOf(0), list.get(0));
+        assertEquals(Integer.valueOf(9999), list.get(9999));
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#sort(HComparator)} su dati decrescenti e a run.
+     * <p>
+     * Summary: Verifica l'ordinamento di una lista decrescente e di una lista formata da run alternate.
+     * <p>
+     * Test Case Design: Le run strettamente decrescenti vengono invertite sul posto; run crescenti e decrescenti
+     * alternate mettono alla prova la fusione.
+     * <p>
+     * Test Description: 1) Si ordina una lista di 2000 elementi decrescenti.
+     *                   2) Si ordina una lista formata da blocchi di 100 elementi alternativamente crescenti e decrescenti.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: La lista contiene gli elementi del secondo caso, ordinati.
+     * <p>
+     * Expected Result: In entrambi i casi la lista risulta ordinata con la dimensione invariata.
+     */
+    @Test
+    public void testSortDescendingAndRuns()
+    {
+        for (int i = 2000; i > 0; i--)
+        {
+            list.add(Integer.valueOf(i));
+        }
+        list.sort(byValue);
+        assertSorted(list, byValue);
+        assertEquals(Integer.valueOf(1), list.get(0));
+
+        list.clear();
+        for (int block = 0; block < 20; block++)
+        {
+            for (int i = 0; i < 100; i++)
+            {
+                int v = block % 2 == 0 ? i : 100 - i;
+                list.add(Integer.valueOf(v * 7 + block));
+            }
+        }
+        list.sort(byValue);
+        assertEquals(2000, list.size());
+        assertSorted(list, byValue);
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#sort(HComparator)} su una sottolista.
+     * <p>
+     * Summary: Verifica che l'ordinamento di una sottolista modifichi solo il suo intervallo.
+     * <p>
+     * Test Case Design: La sottolista condivide il Vector della lista padre: l'ordinamento deve applicare
+     * l'offset e non toccare gli elementi esterni.
+     * <p>
+     * Test Description: 1) Si crea la sottolista [100, 900) di una lista decrescente di 1000 elementi.
+     *                   2) Si ordina la sottolista.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 999 a 0.
+     * <p>
+     * Postconditions: Solo le posizioni da 100 a 899 sono ordinate in modo crescente.
+     * <p>
+     * Expected Result: La sottolista è ordinata e le posizioni esterne sono invariate.
+     */
+    @Test
+    public void testSortSubListOnlySortsRange()
+    {
+        for (int i = 999; i >= 0; i--)
+        {
+            list.add(Integer.valueOf(i));
+        }
+        HList sub = list.subList(100, 900);
+        sub.sort(byValue);
+        assertSorted(sub, byValue);
+        assertEquals(Integer.valueOf(100), sub.get(0));
+        assertEquals(Integer.valueOf(899), sub.get(799));
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(Integer.valueOf(999 - i), list.get(i));
+            assertEquals(Integer.valueOf(99 - i), list.get(900 + i));
+        }
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#sort(HComparator)} con comparatore null.
+     * <p>
+     * Summary: Verifica che un comparatore null provochi {@code NullPointerException}.
+     * <p>
+     * Test Case Design: CLDC 1.1 non dispone di {@code Comparable}, quindi non esiste un ordinamento naturale
+     * a cui ricorrere.
+     * <p>
+     * Test Description: Si chiama {@code sort(null)} su una lista con due elementi.
+     * <p>
+     * Preconditions: Lista contenente [2, 1].
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Viene lanciata {@code NullPointerException}.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSortNullComparator()
+    {
+        list.add(Integer.valueOf(2));
+        list.add(Integer.valueOf(1));
+        list.sort(null);
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#sort(HComparator)} con elementi non confrontabili.
+     * <p>
+     * Summary: Verifica che l'eccezione del comparatore venga propagata e la lista mantenga tutti gli elementi.
+     * <p>
+     * Test Case Design: Il comparatore lancia {@code ClassCastException} su un elemento di tipo diverso.
+     * <p>
+     * Test Description: 1) Si inserisce una stringa in una lista di interi.
+     *                   2) Si ordina con un comparatore per interi.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: La lista contiene ancora tutti i 50 elementi, in un ordine parziale.
+     * <p>
+     * Expected Result: Viene lanciata {@code ClassCastException} e nessun elemento va perso o duplicato.
+     */
+    @Test
+    public void testSortIncomparableElements()
+    {
+        for (int i = 0; i < 49; i++)
+        {
+            list.add(Integer.valueOf(i % 5));
+        }
+        list.add(25, "stringa");
+        try
+        {
+            list.sort(byValue);
+            fail("ClassCastException attesa");
+        }
+        catch (ClassCastException e)
+        {
+            assertEquals(50, list.size());
+            assertTrue(list.contains("stringa"));
+            int[] counts = new int[5];
+            for (int i = 0; i < list.size(); i++)
+            {
+                if (list.get(i) instanceof Integer)
+                {
+                    counts[((Integer) list.get(i)).intValue()]++;
+                }
+            }
+            assertArrayEquals(new int[] { 10, 10, 10, 10, 9 }, counts);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.ListSpliterator}, lo {@link myAdapter.HSpliterator}
+ * restituito da {@link myAdapter.ListAdapter#spliterator()} per la lista e per le sue sottoliste.
+ * Vengono verificati l'attraversamento singolo e in blocco, il partizionamento con {@code trySplit()},
+ * la dimensione stimata e le caratteristiche riportate.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che partizioni ottenute con {@code trySplit()} siano disgiunte,
+ * coprano esattamente la lista nell'ordine corretto e abbiano dimensioni esatte, requisito per la loro
+ * elaborazione da parte di esecutori indipendenti.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestListSpliterator
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestListSpliterator}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestListSpliterator()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+
+    /**
+     * Raccoglie in una {@link ListAdapter} gli elementi visitati da uno spliterator.
+     */
+    private static class Collector implements HConsumer
+    {
+        private ListAdapter seen = new ListAdapter();
+
+        public void accept(Object o)
+        {
+            seen.add(o);
+        }
+    }
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter contenente gli interi da 0 a 9.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        for (int i = 0; i < 10; i++)
+        {
+            list.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.HSpliterator#forEachRemaining(HConsumer)}.
+     * <p>
+     * Summary: Verifica che lo spliterator visiti tutti gli elementi della lista nell'ordine corretto.
+     * <p>
+     * Test Case Design: L'attraversamento in blocco deve equivalere a quello di un iteratore.
+     * <p>
+     * Test Description: Si raccolgono gli elementi visitati e si confrontano con la lista.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: Lo spliterator è esaurito.
+     * <p>
+     * Expected Result: Gli elementi visitati sono uguali alla lista e {@code estimateSize()} vale 0.
+     */
+    @Test
+    public void testForEachRemainingVisitsAll()
+    {
+        HSpliterator sp = list.spliterator();
+        assertEquals(10, sp.estimateSize());
+        Collector c = new Collector();
+        sp.forEachRemaining(c);
+        assertEquals(list, c.seen);
+        assertEquals(0, sp.estimateSize());
+        assertFalse(sp.tryAdvance(c));
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.HSpliterator#tryAdvance(HConsumer)}.
+     * <p>
+     * Summary: Verifica che {@code tryAdvance()} visiti un elemento per volta e aggiorni la dimensione stimata.
+     * <p>
+     * Test Case Design: L'attraversamento singolo e quello in blocco devono poter essere combinati.
+     * <p>
+     * Test Description: 1) Si visitano due elementi con {@code tryAdvance()}.
+     *                   2) Si visitano i rimanenti con {@code forEachRemaining()}.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: Lo spliterator è esaurito.
+     * <p>
+     * Expected Result: Dopo due avanzamenti la stima vale 8; in totale vengono visitati 10 elementi in ordine.
+     */
+    @Test
+    public void testTryAdvance()
+    {
+        HSpliterator sp = list.spliterator();
+        Collector c = new Collector();
+        assertTrue(sp.tryAdvance(c));
+        assertTrue(sp.tryAdvance(c));
+        assertEquals(8, sp.estimateSize());
+        assertEquals(Integer.valueOf(1), c.seen.get(1));
+        sp.forEachRemaining(c);
+        assertEquals(list, c.seen);
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.HSpliterator#trySplit()}.
+     * <p>
+     * Summary: Verifica che il partizionamento produca un prefisso e un suffisso disgiunti e di dimensione esatta.
+     * <p>
+     * Test Case Design: Il prefisso ceduto deve coprire la prima metà della lista, lo spliterator originale la seconda.
+     * <p>
+     * Test Description: 1) Si chiama {@code trySplit()}.
+     *                   2) Si verificano le dimensioni e si raccolgono prima il prefisso e poi il suffisso.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: Entrambi gli spliterator sono esauriti.
+     * <p>
+     * Expected Result: Prefisso e suffisso hanno dimensione 5 e la loro concatenazione è uguale alla lista.
+     */
+    @Test
+    public void testTrySplitHalves()
+    {
+        HSpliterator suffix = list.spliterator();
+        HSpliterator prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(5, prefix.estimateSize());
+        assertEquals(5, suffix.estimateSize());
+
+        Collector c = new Collector();
+        prefix.forEachRemaining(c);
+        suffix.forEachRemaining(c);
+        assertEquals(list, c.seen);
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.HSpliterator#trySplit()} ripetuto fino all'esaurimento.
+     * <p>
+     * Summary: Verifica che partizionando ricorsivamente si ottengano al massimo intervalli di un elemento.
+     * <p>
+     * Test Case Design: Uno spliterator con un solo elemento non deve essere ulteriormente partizionabile.
+     * <p>
+     * Test Description: Si crea uno spliterator su una lista di un elemento e si chiama {@code trySplit()}.
+     * <p>
+     * Preconditions: Lista contenente il solo elemento "a".
+     * <p>
+     * Postconditions: Lo spliterator copre ancora l'elemento.
+     * <p>
+     * Expected Result: {@code trySplit()} restituisce null e la stima resta 1.
+     */
+    @Test
+    public void testTrySplitSingleElement()
+    {
+        ListAdapter single = new ListAdapter();
+        single.add("a");
+        HSpliterator sp = single.spliterator();
+        assertNull(sp.trySplit());
+        assertEquals(1, sp.estimateSize());
+        assertNull(new ListAdapter().spliterator().trySplit());
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.HSpliterator#characteristics()}.
+     * <p>
+     * Summary: Verifica che lo spliterator della lista riporti {@code ORDERED}, {@code SIZED} e {@code SUBSIZED}.
+     * <p>
+     * Test Case Design: Le caratteristiche devono essere mantenute anche dalle partizioni.
+     * <p>
+     * Test Description: Si verificano le caratteristiche dello spliterator e del prefisso ottenuto con {@code trySplit()}.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Entrambe le caratteristiche valgono {@code ORDERED | SIZED | SUBSIZED}.
+     */
+    @Test
+    public void testCharacteristics()
+    {
+        int expected = HSpliterator.ORDERED | HSpliterator.SIZED | HSpliterator.SUBSIZED;
+        HSpliterator sp = list.spliterator();
+        assertEquals(expected, sp.characteristics());
+        assertEquals(expected, sp.trySplit().characteristics());
+    }
+
+    /**
+     * Test di {@link myAdapter.ListAdapter#spliterator()} su una sottolista.
+     * <p>
+     * Summary: Verifica che lo spliterator di una sottolista copra solo l'intervallo della sottolista.
+     * <p>
+     * Test Case Design: Lo spliterator legge dal Vector della lista padre applicando l'offset della sottolista.
+     * <p>
+     * Test Description: 1) Si crea la sottolista [3, 7).
+     *                   2) Si partiziona lo spliterator e si raccolgono gli elementi.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Vengono visitati in ordine gli elementi 3, 4, 5, 6.
+     */
+    @Test
+    public void testSubListSpliterator()
+    {
+        ListAdapter sub = (ListAdapter) list.subList(3, 7);
+        HSpliterator suffix = sub.spliterator();
+        assertEquals(4, suffix.estimateSize());
+        HSpliterator prefix = suffix.trySplit();
+
+        Collector c = new Collector();
+        prefix.forEachRemaining(c);
+        suffix.forEachRemaining(c);
+        assertEquals(sub, c.seen);
+        assertEquals(Integer.valueOf(3), c.seen.get(0));
+        assertEquals(Integer.valueOf(6), c.seen.get(3));
+    }
+
+    /**
+     * Test di {@link myAdapter.HSpliterator#forEachRemaining(HConsumer)} con azione null.
+     * <p>
+     * Summary: Verifica che un'azione null provochi {@code NullPointerException}.
+     * <p>
+     * Test Case Design: Lo spliterator deve rispettare il contratto di {@link myAdapter.HSpliterator}.
+     * <p>
+     * Test Description: Si chiama {@code forEachRemaining(null)}.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 9.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Viene lanciata {@code NullPointerException}.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testForEachRemainingNullAction()
+    {
+        list.spliterator().forEachRemaining(null);
+    }
+}
@@ -0,0 +1,316 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import myAdapter.*;
+import myJdk.FixedWidthCodecs;
+import myJdk.MappedListAdapter;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.MappedListAdapter}, la {@code HList} persistente su un file
+ * mappato in memoria con record di larghezza fissa, e per i codec di {@link myJdk.FixedWidthCodecs}.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che il contenuto della lista sopravviva alla chiusura e alla
+ * riapertura del file, che le estensioni del file e i confini tra i segmenti mappati non alterino i record,
+ * e che file non validi vengano rifiutati. Ogni test lavora su un file in una cartella temporanea.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestMappedListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestMappedListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestMappedListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    /**
+     * Cartella temporanea che contiene i file dei test, eliminata al termine di ogni test.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private MappedListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Apre su un nuovo file una lista di interi con segmenti di 10 record, contenente [0, 1, 2].
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        file = folder.getRoot().toPath().resolve("list.bin");
+        list = new MappedListAdapter(file, FixedWidthCodecs.INTEGER, 10);
+        for (int i = 0; i < 3; i++)
+        {
+            list.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Chiude la lista dopo ogni test case.
+     */
+    @After
+    public void tearDown() throws IOException
+    {
+        list.close();
+    }
+
+    /**
+     * Test della persistenza del contenuto.
+     * <p>
+     * Summary: Verifica che gli elementi aggiunti, modificati e rimossi vengano ritrovati riaprendo il file.
+     * <p>
+     * Test Case Design: Il numero di elementi è memorizzato nell'intestazione e aggiornato a ogni modifica;
+     * lo spazio libero in coda al file non deve apparire come elementi.
+     * <p>
+     * Test Description: 1) Si modifica, si inserisce in mezzo e si rimuove in testa.
+     *                   2) Si chiude e si riapre il file.
+     * <p>
+     * Preconditions: Lista contenente [0, 1, 2].
+     * <p>
+     * Postconditions: La lista riaperta contiene [1, 7, 20].
+     * <p>
+     * Expected Result: La lista riaperta contiene gli stessi elementi e la stessa dimensione.
+     */
+    @Test
+    public void testReopenKeepsContent() throws IOException
+    {
+        list.set(2, Integer.valueOf(20));
+        list.add(2, Integer.valueOf(7));
+        assertEquals(Integer.valueOf(0), list.remove(0));
+        list.close();
+
+        list = new MappedListAdapter(file, FixedWidthCodecs.INTEGER, 10);
+        assertEquals(3, list.size());
+        Object[] expected = { Integer.valueOf(1), Integer.valueOf(7), Integer.valueOf(20) };
+        assertArrayEquals(expected, list.toArray());
+    }
+
+    /**
+     * Test dell'estensione del file oltre più segmenti.
+     * <p>
+     * Summary: Verifica che molti inserimenti in coda estendano il file e che i record restino corretti
+     * attraverso i confini tra i segmenti, anche dopo spostamenti che li attraversano.
+     * <p>
+     * Test Case Design: Con segmenti di 10 record, 1000 elementi occupano 100 segmenti; le estensioni
+     * del file rimappano l'ultimo segmento, che prima era mappato solo in parte.
+     * <p>
+     * Test Description: 1) Si aggiungono 997 elementi leggendo l'ultimo dopo ogni inserimento.
+     *                   2) Si inserisce e si rimuove un elemento in testa, spostando tutti i record.
+     *                   3) Si riapre il file con la dimensione predefinita dei segmenti.
+     * <p>
+     * Preconditions: Lista contenente [0, 1, 2].
+     * <p>
+     * Postconditions: La lista contiene gli interi da 0 a 999.
+     * <p>
+     * Expected Result: Ogni elemento vale il proprio indice, prima e dopo la riapertura.
+     */
+    @Test
+    public void testGrowthAcrossSegments() throws IOException
+    {
+        for (int i = 3; i < 1000; i++)
+        {
+            list.add(Integer.valueOf(i));
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+        list.add(0, Integer.valueOf(-1));
+        assertEquals(Integer.valueOf(-1), list.remove(0));
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+        list.close();
+
+        list = new MappedListAdapter(file, FixedWidthCodecs.INTEGER);
+        assertEquals(1000, list.size());
+        assertEquals(Integer.valueOf(999), list.get(999));
+        assertEquals(499500, sum(list));
+    }
+
+    /**
+     * Test delle operazioni di {@code HList} ereditate dalla vista.
+     * <p>
+     * Summary: Verifica sottoliste, ordinamento, ricerche, iteratori e uguaglianza con una {@link myAdapter.ListAdapter}.
+     * <p>
+     * Test Case Design: Le operazioni non posizionali derivano da quelle posizionali della lista e devono
+     * comportarsi come in una {@code ListAdapter}, eccezioni di {@code myExceptions} comprese.
+     * <p>
+     * Test Description: 1) Si ordina la lista in ordine decrescente e la si confronta con una ListAdapter.
+     *                   2) Si svuota la sottolista [1, 3).
+     *                   3) Si chiama {@code remove()} su un iteratore non avanzato.
+     * <p>
+     * Preconditions: Lista contenente [0, 1, 2].
+     * <p>
+     * Postconditions: La lista contiene [2].
+     * <p>
+     * Expected Result: Le operazioni producono gli stessi risultati di una ListAdapter.
+     */
+    @Test
+    public void testHListOperations()
+    {
+        list.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o2).compareTo((Integer) o1);
+            }
+        });
+        ListAdapter expected = new ListAdapter();
+        expected.add(Integer.valueOf(2));
+        expected.add(Integer.valueOf(1));
+        expected.add(Integer.valueOf(0));
+        assertTrue(list.equals(expected));
+        assertTrue(expected.equals(list));
+        assertEquals(expected.hashCode(), list.hashCode());
+        assertEquals(2, list.indexOf(Integer.valueOf(0)));
+
+        list.subList(1, 3).clear();
+        assertEquals(1, list.size());
+        assertEquals(Integer.valueOf(2), list.get(0));
+        try
+        {
+            list.iterator().remove();
+            fail("IllegalStateException attesa");
+        }
+        catch (myExceptions.IllegalStateException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Test del codec per stringhe.
+     * <p>
+     * Summary: Verifica che il codec {@link myJdk.FixedWidthCodecs#string(int)} conservi stringhe non ASCII e null,
+     * e rifiuti stringhe troppo lunghe senza modificare la lista.
+     * <p>
+     * Test Case Design: Un record che non entra nello spazio riservato deve essere rifiutato prima di spostare
+     * i record successivi.
+     * <p>
+     * Test Description: 1) Si aggiungono a una lista di stringhe di al più 6 byte "àé", null e "".
+     *                   2) Si inserisce in testa una stringa di 7 byte.
+     *                   3) Si riapre il file.
+     * <p>
+     * Preconditions: Nessuna.
+     * <p>
+     * Postconditions: La lista di stringhe contiene ["àé", null, ""].
+     * <p>
+     * Expected Result: {@code IllegalArgumentException} per la stringa troppo lunga; la lista riaperta contiene gli stessi elementi.
+     */
+    @Test
+    public void testStringCodec() throws IOException
+    {
+        Path strings = folder.getRoot().toPath().resolve("strings.bin");
+        MappedListAdapter names = new MappedListAdapter(strings, FixedWidthCodecs.string(6));
+        names.add("àé");
+        names.add(null);
+        names.add("");
+        try
+        {
+            names.add(0, "abcdefg");
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        names.close();
+
+        names = new MappedListAdapter(strings, FixedWidthCodecs.string(6));
+        Object[] expected = { "àé", null, "" };
+        assertArrayEquals(expected, names.toArray());
+        names.close();
+    }
+
+    /**
+     * Test del rifiuto dei file non validi e delle liste chiuse.
+     * <p>
+     * Summary: Verifica che un file con una larghezza dei record diversa o con un'intestazione sconosciuta
+     * produca {@code IOException}, e che una lista chiusa non sia più utilizzabile.
+     * <p>
+     * Test Case Design: Interpretare un file con un codec incompatibile restituirebbe dati privi di senso.
+     * <p>
+     * Test Description: 1) Si chiude la lista e si chiama {@code get(0)}.
+     *                   2) Si riapre il file con il codec {@code LONG}.
+     *                   3) Si sovrascrive l'identificativo del formato e si riapre il file.
+     * <p>
+     * Preconditions: Lista contenente [0, 1, 2].
+     * <p>
+     * Postconditions: Il file non è più riconosciuto.
+     * <p>
+     * Expected Result: {@code IllegalStateException} sulla lista chiusa e {@code IOException} a ogni riapertura.
+     */
+    @Test
+    public void testInvalidFiles() throws IOException
+    {
+        list.close();
+        try
+        {
+            list.get(0);
+            fail("IllegalStateException attesa");
+        }
+        catch (myExceptions.IllegalStateException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new MappedListAdapter(file, FixedWidthCodecs.LONG);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.wrap(new byte[] { 'x' }), 0);
+        }
+        try
+        {
+            new MappedListAdapter(file, FixedWidthCodecs.INTEGER);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Somma gli interi della lista.
+     */
+    private static int sum(HList l)
+    {
+        int total = 0;
+        HIterator it = l.iterator();
+        while (it.hasNext())
+        {
+            total += ((Integer) it.next()).intValue();
+        }
+        return total;
+    }
+}
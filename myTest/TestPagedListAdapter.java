@@ -0,0 +1,351 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import myAdapter.*;
+import myJdk.FixedWidthCodecs;
+import myJdk.MappedListAdapter;
+import myJdk.PagedListAdapter;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.PagedListAdapter}, la {@code HList} persistente su file letta
+ * a pagine tramite una cache LRU, con lettura anticipata negli attraversamenti sequenziali.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che il contenuto della lista sopravviva alla chiusura qualunque
+ * sia la sequenza di modifiche, che i contatori della cache riflettano gli accessi, che un attraversamento
+ * sequenziale legga in modo sincrono solo la prima pagina, che le pagine modificate vengano riscritte nel file
+ * quando escono dalla cache e che il formato del file coincida con quello di {@link myJdk.MappedListAdapter}.
+ * Ogni test lavora su un file in una cartella temporanea.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestPagedListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestPagedListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestPagedListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    /**
+     * Cartella temporanea che contiene i file dei test, eliminata al termine di ogni test.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private PagedListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Scrive in un nuovo file gli interi da 0 a 999 e lo riapre con pagine di 10 record e una cache di 4 pagine.
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        file = folder.getRoot().toPath().resolve("list.bin");
+        list = new PagedListAdapter(file, FixedWidthCodecs.INTEGER, 10, 4);
+        for (int i = 0; i < 1000; i++)
+        {
+            list.add(Integer.valueOf(i));
+        }
+        list.close();
+        list = new PagedListAdapter(file, FixedWidthCodecs.INTEGER, 10, 4);
+    }
+
+    /**
+     * Chiude la lista dopo ogni test case.
+     */
+    @After
+    public void tearDown() throws IOException
+    {
+        list.close();
+    }
+
+    /**
+     * Test delle modifiche casuali e della riapertura.
+     * <p>
+     * Summary: Verifica che inserimenti, rimozioni e sostituzioni in qualsiasi posizione e cancellazioni di
+     * sottoliste producano gli stessi elementi di una {@code java.util.ArrayList}, anche dopo la riapertura.
+     * <p>
+     * Test Case Design: Inserimenti e rimozioni in mezzo spostano i record attraverso pagine che entrano ed escono
+     * dalla cache: i blocchi copiati non devono mai attraversare il confine di una pagina.
+     * <p>
+     * Test Description: 1) Si eseguono 2000 modifiche casuali confrontando periodicamente con la lista di riferimento.
+     *                   2) Si chiude e si riapre il file con pagine di dimensione diversa.
+     * <p>
+     * Preconditions: File con gli interi da 0 a 999.
+     * <p>
+     * Postconditions: Il file contiene gli stessi elementi della lista di riferimento.
+     * <p>
+     * Expected Result: Gli elementi coincidono a ogni confronto e dopo la riapertura.
+     */
+    @Test
+    public void testRandomOperationsAndReopen() throws IOException
+    {
+        List<Integer> reference = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+        {
+            reference.add(Integer.valueOf(i));
+        }
+        Random random = new Random(2101761);
+        for (int step = 0; step < 2000; step++)
+        {
+            int size = reference.size();
+            int index = size == 0 ? 0 : random.nextInt(size);
+            Integer value = Integer.valueOf(random.nextInt());
+            switch (random.nextInt(6))
+            {
+                case 0:
+                    list.add(value);
+                    reference.add(value);
+                    break;
+                case 1:
+                    int position = random.nextInt(size + 1);
+                    list.add(position, value);
+                    reference.add(position, value);
+                    break;
+                case 2:
+                case 3:
+                    if (size > 0)
+                    {
+                        assertEquals(reference.remove(index), list.remove(index));
+                    }
+                    break;
+                case 4:
+                    if (size > 0)
+                    {
+                        assertEquals(reference.set(index, value), list.set(index, value));
+                    }
+                    break;
+                default:
+                    if (size > 30)
+                    {
+                        list.subList(index / 2, index / 2 + 13).clear();
+                        reference.subList(index / 2, index / 2 + 13).clear();
+                    }
+                    break;
+            }
+            assertTrue(list.cachedPages() <= 4);
+            if (step % 100 == 0)
+            {
+                assertArrayEquals("step " + step, reference.toArray(), list.toArray());
+            }
+        }
+        list.close();
+        list = new PagedListAdapter(file, FixedWidthCodecs.INTEGER, 7, 3);
+        assertArrayEquals(reference.toArray(), list.toArray());
+    }
+
+    /**
+     * Test dei contatori della cache.
+     * <p>
+     * Summary: Verifica che gli accessi a pagine in cache contino come successi, quelli a pagine da leggere come
+     * mancati, e che la cache non superi il numero di pagine indicato.
+     * <p>
+     * Test Case Design: Gli accessi casuali non sono sequenziali e non avviano letture anticipate.
+     * <p>
+     * Test Description: 1) Si leggono gli elementi 0, 5, 500, 3 e 250.
+     *                   2) Si leggono gli elementi 900, 800, 700 e 0: la pagina 0 è uscita dalla cache.
+     * <p>
+     * Preconditions: File appena riaperto, cache vuota.
+     * <p>
+     * Postconditions: La cache contiene 4 pagine.
+     * <p>
+     * Expected Result: 2 successi e 3 mancati, poi 2 successi e 7 mancati, nessuna lettura anticipata.
+     */
+    @Test
+    public void testCacheCounters()
+    {
+        assertEquals(0, list.cachedPages());
+        assertEquals(Integer.valueOf(0), list.get(0));
+        assertEquals(Integer.valueOf(5), list.get(5));
+        assertEquals(Integer.valueOf(500), list.get(500));
+        assertEquals(Integer.valueOf(3), list.get(3));
+        assertEquals(Integer.valueOf(250), list.get(250));
+        assertEquals(2, list.hits());
+        assertEquals(3, list.misses());
+
+        list.get(900);
+        list.get(800);
+        list.get(700);
+        list.get(0);
+        assertEquals(2, list.hits());
+        assertEquals(7, list.misses());
+        assertEquals(4, list.cachedPages());
+        assertEquals(0, list.prefetches());
+    }
+
+    /**
+     * Test della lettura anticipata.
+     * <p>
+     * Summary: Verifica che un attraversamento sequenziale in avanti e all'indietro legga in modo sincrono solo
+     * la prima pagina e ottenga tutte le altre dalle letture anticipate.
+     * <p>
+     * Test Case Design: La pagina successiva viene letta in background appena l'attraversamento risulta sequenziale.
+     * <p>
+     * Test Description: 1) Si attraversa la lista con un iteratore in avanti.
+     *                   2) Si chiude e si riapre il file e lo si attraversa all'indietro con un {@code HListIterator}.
+     * <p>
+     * Preconditions: File appena riaperto, cache vuota.
+     * <p>
+     * Postconditions: Lista invariata.
+     * <p>
+     * Expected Result: Elementi nell'ordine atteso, un solo accesso mancato e 99 letture anticipate in ogni verso.
+     */
+    @Test
+    public void testSequentialPrefetch() throws IOException
+    {
+        HIterator it = list.iterator();
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(Integer.valueOf(i), it.next());
+        }
+        assertEquals(1, list.misses());
+        assertEquals(99, list.prefetches());
+        assertEquals(999, list.hits());
+
+        list.close();
+        list = new PagedListAdapter(file, FixedWidthCodecs.INTEGER, 10, 4);
+        HListIterator back = list.listIterator(1000);
+        for (int i = 999; i >= 0; i--)
+        {
+            assertEquals(Integer.valueOf(i), back.previous());
+        }
+        assertEquals(1, list.misses());
+        assertEquals(99, list.prefetches());
+    }
+
+    /**
+     * Test della riscrittura delle pagine uscite dalla cache.
+     * <p>
+     * Summary: Verifica che una pagina modificata venga scritta nel file quando esce dalla cache, mentre le pagine
+     * ancora in cache vengano scritte solo da {@code flush}.
+     * <p>
+     * Test Case Design: Le modifiche restano in memoria finché la pagina è in cache, così che più modifiche alla
+     * stessa pagina costino una sola scrittura.
+     * <p>
+     * Test Description: 1) Si sostituisce il primo elemento di ciascuna delle pagine da 0 a 9.
+     *                   2) Si leggono i record dal file senza passare dalla lista.
+     *                   3) Si esegue {@code flush} e si rileggono i record.
+     * <p>
+     * Preconditions: File con gli interi da 0 a 999, cache di 4 pagine.
+     * <p>
+     * Postconditions: Il file contiene i nuovi valori.
+     * <p>
+     * Expected Result: Prima di {@code flush} il file contiene i nuovi valori delle pagine da 0 a 5 e i vecchi
+     * valori delle pagine da 6 a 9; dopo {@code flush} tutti i nuovi valori.
+     */
+    @Test
+    public void testWriteBackOnEviction() throws IOException
+    {
+        for (int p = 0; p < 10; p++)
+        {
+            list.set(p * 10, Integer.valueOf(-p));
+        }
+        for (int p = 0; p < 10; p++)
+        {
+            assertEquals(p < 6 ? -p : p * 10, recordInFile(p * 10));
+        }
+        list.flush();
+        for (int p = 0; p < 10; p++)
+        {
+            assertEquals(-p, recordInFile(p * 10));
+        }
+    }
+
+    /**
+     * Test della compatibilità con MappedListAdapter e degli argomenti non validi.
+     * <p>
+     * Summary: Verifica che un file scritto da {@link myJdk.MappedListAdapter} sia leggibile e viceversa, e che
+     * larghezze dei record diverse, pagine vuote e cache vuote vengano rifiutate.
+     * <p>
+     * Test Case Design: Le due classi offrono due modalità di accesso allo stesso formato di file.
+     * <p>
+     * Test Description: 1) Si aggiunge un elemento, si chiude e si apre il file con {@code MappedListAdapter}.
+     *                   2) Si aggiunge un elemento tramite {@code MappedListAdapter} e si riapre il file.
+     *                   3) Si apre il file con un codec di 8 byte, con pagine di 0 record e con una cache di 0 pagine.
+     * <p>
+     * Preconditions: File con gli interi da 0 a 999.
+     * <p>
+     * Postconditions: Il file contiene 1002 elementi.
+     * <p>
+     * Expected Result: Entrambe le classi vedono tutti gli elementi; {@code IOException} e {@code IllegalArgumentException}.
+     */
+    @Test
+    public void testMappedCompatibilityAndErrors() throws IOException
+    {
+        list.add(Integer.valueOf(1000));
+        list.close();
+        try (MappedListAdapter mapped = new MappedListAdapter(file, FixedWidthCodecs.INTEGER))
+        {
+            assertEquals(1001, mapped.size());
+            assertEquals(Integer.valueOf(1000), mapped.get(1000));
+            mapped.add(Integer.valueOf(1001));
+        }
+        list = new PagedListAdapter(file, FixedWidthCodecs.INTEGER);
+        assertEquals(1002, list.size());
+        assertEquals(Integer.valueOf(1001), list.get(1001));
+        assertEquals(Integer.valueOf(500), list.get(500));
+        list.close();
+
+        try
+        {
+            new PagedListAdapter(file, FixedWidthCodecs.LONG);
+            fail("IOException attesa");
+        }
+        catch (IOException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new PagedListAdapter(file, FixedWidthCodecs.INTEGER, 0, 4);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new PagedListAdapter(file, FixedWidthCodecs.INTEGER, 10, 0);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Legge direttamente dal file il record intero specificato.
+     */
+    private int recordInFile(int index) throws IOException
+    {
+        return ByteBuffer.wrap(Files.readAllBytes(file)).getInt(MappedListAdapter.HEADER_SIZE + index * 4);
+    }
+}
@@ -0,0 +1,543 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+import myJdk.ParallelListOperations;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.ParallelListOperations}, le operazioni di massa parallele
+ * su {@link myAdapter.ListAdapter}: forEach, indexOf, contains, count, reduce, sort e hashCode.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che i risultati paralleli coincidano con quelli sequenziali.
+ * Si usa una soglia molto bassa, in modo che anche liste piccole vengano partizionate in molti task,
+ * e si verifica in particolare che {@code parallelIndexOf} restituisca sempre l'indice più basso.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestParallelListOperations
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestParallelListOperations}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestParallelListOperations()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private ListAdapter list;
+    private ForkJoinPool pool;
+    private ParallelListOperations ops;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una ListAdapter contenente i valori {@code i % 100} per i da 0 a 999
+     * e un esecutore con 4 thread e soglia 8.
+     */
+    @Before
+    public void setUp()
+    {
+        list = new ListAdapter();
+        for (int i = 0; i < 1000; i++)
+        {
+            list.add(Integer.valueOf(i % 100));
+        }
+        pool = new ForkJoinPool(4);
+        ops = new ParallelListOperations(pool, 8);
+    }
+
+    /**
+     * Arresta il pool creato per il test.
+     */
+    @After
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ParallelListOperations#parallelIndexOf(ListAdapter, Object)}.
+     * <p>
+     * Summary: Verifica che l'indice restituito sia quello della prima occorrenza, come per {@code indexOf}.
+     * <p>
+     * Test Case Design: Ogni valore compare 10 volte; le partizioni successive trovano occorrenze più a destra
+     * che non devono prevalere sulla prima.
+     * <p>
+     * Test Description: Si confronta {@code parallelIndexOf} con {@code indexOf} per diversi valori, incluso uno assente.
+     * <p>
+     * Preconditions: Lista con i valori {@code i % 100} per i da 0 a 999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: I risultati coincidono; per il valore assente si ottiene -1.
+     */
+    @Test
+    public void testParallelIndexOfReturnsLowestIndex()
+    {
+        for (int v = 0; v < 100; v += 7)
+        {
+            Integer value = Integer.valueOf(v);
+            assertEquals(list.indexOf(value), ops.parallelIndexOf(list, value));
+        }
+        assertEquals(-1, ops.parallelIndexOf(list, Integer.valueOf(1000)));
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ParallelListOperations#parallelIndexOf(ListAdapter, Object)} con null.
+     * <p>
+     * Summary: Verifica la ricerca parallela di un elemento null.
+     * <p>
+     * Test Case Design: Gli elementi null sono ammessi nella lista e devono essere trovati come da specifica.
+     * <p>
+     * Test Description: 1) Si inseriscono due null nelle posizioni 700 e 300.
+     *                   2) Si cerca null con {@code parallelIndexOf} e {@code parallelContains}.
+     * <p>
+     * Preconditions: Lista con i valori {@code i % 100} per i da 0 a 999.
+     * <p>
+     * Postconditions: La lista contiene due elementi null.
+     * <p>
+     * Expected Result: {@code parallelIndexOf(null)} restituisce 300 e {@code parallelContains(null)} true.
+     */
+    @Test
+    public void testParallelIndexOfNull()
+    {
+        assertFalse(ops.parallelContains(list, null));
+        list.set(700, null);
+        list.set(300, null);
+        assertEquals(300, ops.parallelIndexOf(list, null));
+        assertTrue(ops.parallelContains(list, null));
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ParallelListOperations#parallelCount(ListAdapter, HPredicate)}.
+     * <p>
+     * Summary: Verifica il conteggio parallelo degli elementi che soddisfano una condizione.
+     * <p>
+     * Test Case Design: I conteggi parziali delle partizioni devono sommarsi esattamente.
+     * <p>
+     * Test Description: Si contano gli elementi minori di 10.
+     * <p>
+     * Preconditions: Lista con i valori {@code i % 100} per i da 0 a 999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Il conteggio vale 100.
+     */
+    @Test
+    public void testParallelCount()
+    {
+        int count = ops.parallelCount(list, new HPredicate()
+        {
+            public boolean test(Object o)
+            {
+                return ((Integer) o).intValue() < 10;
+            }
+        });
+        assertEquals(100, count);
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ParallelListOperations#parallelReduce(ListAdapter, Object, HBinaryOperator)}.
+     * <p>
+     * Summary: Verifica che la riduzione rispetti l'ordine della lista con un'operazione non commutativa.
+     * <p>
+     * Test Case Design: La concatenazione di stringhe è associativa ma non commutativa: il risultato è corretto
+     * solo se i risultati parziali vengono combinati da sinistra a destra.
+     * <p>
+     * Test Description: Si concatenano, in parallelo, le stringhe di una lista e si confronta il risultato
+     * con la concatenazione sequenziale.
+     * <p>
+     * Preconditions: Lista con le stringhe "w0,", "w1,", ..., "w499,".
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Le due stringhe coincidono.
+     */
+    @Test
+    public void testParallelReduceKeepsOrder()
+    {
+        ListAdapter words = new ListAdapter();
+        StringBuffer expected = new StringBuffer();
+        for (int i = 0; i < 500; i++)
+        {
+            words.add("w" + i + ",");
+            expected.append("w" + i + ",");
+        }
+        Object result = ops.parallelReduce(words, "", new HBinaryOperator()
+        {
+            public Object apply(Object left, Object right)
+            {
+                return (String) left + (String) right;
+            }
+        });
+        assertEquals(expected.toString(), result);
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ParallelListOperations#parallelForEach(ListAdapter, HConsumer)}.
+     * <p>
+     * Summary: Verifica che l'azione venga eseguita esattamente una volta per ogni elemento.
+     * <p>
+     * Test Case Design: Le partizioni devono essere disgiunte e coprire l'intera lista.
+     * <p>
+     * Test Description: Si sommano gli elementi con un contatore atomico.
+     * <p>
+     * Preconditions: Lista con i valori {@code i % 100} per i da 0 a 999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: La somma vale 10 * (0 + 1 + ... + 99) = 49500.
+     */
+    @Test
+    public void testParallelForEachVisitsEachElementOnce()
+    {
+        final AtomicInteger sum = new AtomicInteger();
+        ops.parallelForEach(list, new HConsumer()
+        {
+            public void accept(Object o)
+            {
+                sum.addAndGet(((Integer) o).intValue());
+            }
+        });
+        assertEquals(49500, sum.get());
+    }
+
+    /**
+     * Test delle operazioni parallele su una sottolista.
+     * <p>
+     * Summary: Verifica che gli indici restituiti siano relativi alla sottolista.
+     * <p>
+     * Test Case Design: Lo spliterator della sottolista parte dall'offset della sottolista, ma gli indici
+     * devono essere quelli della sottolista stessa.
+     * <p>
+     * Test Description: Si crea la sottolista [150, 450) e si cerca il valore 60.
+     * <p>
+     * Preconditions: Lista con i valori {@code i % 100} per i da 0 a 999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: {@code parallelIndexOf} restituisce 10 (posizione 160 della lista).
+     */
+    @Test
+    public void testParallelIndexOfOnSubList()
+    {
+        ListAdapter sub = (ListAdapter) list.subList(150, 450);
+        assertEquals(sub.indexOf(Integer.valueOf(60)), ops.parallelIndexOf(sub, Integer.valueOf(60)));
+        assertEquals(10, ops.parallelIndexOf(sub, Integer.valueOf(60)));
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ParallelListOperations#parallelSort(ListAdapter, HComparator)}.
+     * <p>
+     * Summary: Verifica che l'ordinamento parallelo coincida con quello sequenziale e sia stabile.
+     * <p>
+     * Test Case Design: Con soglia 8 la lista viene divisa in molti blocchi e anche le fusioni vengono divise;
+     * ordinando coppie (chiave, posizione) per la sola chiave si verifica che nessuna fusione inverta elementi uguali.
+     * <p>
+     * Test Description: 1) Si riempie una lista con 5000 coppie con chiavi casuali tra 0 e 49.
+     *                   2) Si ordina la lista in parallelo e una sua copia con {@code sort}.
+     * <p>
+     * Preconditions: Lista vuota con 5000 coppie.
+     * <p>
+     * Postconditions: La lista è ordinata per chiave.
+     * <p>
+     * Expected Result: Le due liste contengono gli stessi oggetti nello stesso ordine.
+     */
+    @Test
+    public void testParallelSortIsStable()
+    {
+        Random random = new Random(3);
+        ListAdapter pairs = new ListAdapter();
+        for (int i = 0; i < 5000; i++)
+        {
+            pairs.add(new int[] { random.nextInt(50), i });
+        }
+        ListAdapter expected = new ListAdapter();
+        expected.addAll(pairs);
+        HComparator byKey = new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((int[]) o1)[0] - ((int[]) o2)[0];
+            }
+        };
+        expected.sort(byKey);
+        ops.parallelSort(pairs, byKey);
+        assertArrayEquals(expected.toArray(), pairs.toArray());
+    }
+
+    /**
+     * Test di {@link myJdk.ParallelListOperations#parallelSort(ListAdapter, HComparator)} su una sottolista.
+     * <p>
+     * Summary: Verifica che l'ordinamento parallelo di una sottolista modifichi solo il suo intervallo.
+     * <p>
+     * Test Case Design: Gli elementi ordinati vengono riscritti attraverso la sottolista, che applica il suo offset.
+     * <p>
+     * Test Description: Si ordina in ordine decrescente la sottolista [100, 900).
+     * <p>
+     * Preconditions: Lista con i valori {@code i % 100} per i da 0 a 999.
+     * <p>
+     * Postconditions: Solo le posizioni da 100 a 899 sono ordinate in modo decrescente.
+     * <p>
+     * Expected Result: La sottolista parte da 99 e termina con 0; le posizioni esterne sono invariate.
+     */
+    @Test
+    public void testParallelSortSubList()
+    {
+        ListAdapter sub = (ListAdapter) list.subList(100, 900);
+        ops.parallelSort(sub, new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o2).intValue() - ((Integer) o1).intValue();
+            }
+        });
+        assertEquals(Integer.valueOf(99), sub.get(0));
+        assertEquals(Integer.valueOf(0), sub.get(799));
+        for (int i = 1; i < sub.size(); i++)
+        {
+            assertTrue(((Integer) sub.get(i - 1)).intValue() >= ((Integer) sub.get(i)).intValue());
+        }
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(Integer.valueOf(i), list.get(i));
+            assertEquals(Integer.valueOf(i), list.get(900 + i));
+        }
+    }
+
+    /**
+     * Test di {@link myJdk.ParallelListOperations#parallelSort(ListAdapter, HComparator)} sulle liste che non possono
+     * essere riordinate e con un comparatore che fallisce.
+     * <p>
+     * Summary: Verifica che una sottolista di una lista ordinata venga rifiutata senza modificarla e che un errore del
+     * comparatore lasci la lista invariata.
+     * <p>
+     * Test Case Design: Il risultato viene riscritto in blocco solo dopo che l'ordinamento parallelo è terminato;
+     * una riscrittura elemento per elemento su una lista ordinata si interromperebbe a metà perdendo elementi.
+     * <p>
+     * Test Description: 1) Si ordina con un comparatore "pari prima" una sottolista di una SortedListAdapter degli
+     *                      interi da 0 a 7, con soglia 2.
+     *                   2) Si ordina la lista con un comparatore che lancia un'eccezione su un elemento.
+     * <p>
+     * Preconditions: SortedListAdapter degli interi da 0 a 7; lista con i valori {@code i % 100}.
+     * <p>
+     * Postconditions: Le liste sono invariate.
+     * <p>
+     * Expected Result: {@code UnsupportedOperationException} e poi l'eccezione del comparatore; contenuto e codice
+     * hash delle liste invariati.
+     */
+    @Test
+    public void testParallelSortRejectsOrderedViewsAndKeepsListOnFailure()
+    {
+        HComparator natural = new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o1).intValue() - ((Integer) o2).intValue();
+            }
+        };
+        SortedListAdapter sorted = new SortedListAdapter(natural);
+        for (int i = 0; i < 8; i++)
+        {
+            sorted.add(Integer.valueOf(i));
+        }
+        Object[] before = sorted.toArray();
+        try
+        {
+            new ParallelListOperations(pool, 2).parallelSort((ListAdapter) sorted.subList(0, 8), new HComparator()
+            {
+                public int compare(Object o1, Object o2)
+                {
+                    int p1 = ((Integer) o1).intValue() % 2;
+                    int p2 = ((Integer) o2).intValue() % 2;
+                    return p1 != p2 ? p1 - p2 : ((Integer) o1).intValue() - ((Integer) o2).intValue();
+                }
+            });
+            fail("UnsupportedOperationException attesa");
+        }
+        catch (myExceptions.UnsupportedOperationException e)
+        {
+            // Atteso
+        }
+        assertArrayEquals(before, sorted.toArray());
+
+        Object[] original = list.toArray();
+        int hash = list.hashCode();
+        try
+        {
+            ops.parallelSort(list, new HComparator()
+            {
+                public int compare(Object o1, Object o2)
+                {
+                    if (((Integer) o1).intValue() == 42)
+                    {
+                        throw new IllegalStateException("comparatore fallito");
+                    }
+                    return ((Integer) o1).intValue() - ((Integer) o2).intValue();
+                }
+            });
+            fail("IllegalStateException attesa");
+        }
+        catch (IllegalStateException e)
+        {
+            // Atteso
+        }
+        assertArrayEquals(original, list.toArray());
+        assertEquals(hash, list.hashCode());
+    }
+
+    /**
+     * Test di {@link myJdk.ParallelListOperations#parallelSort(ListAdapter, HComparator)} sotto la soglia.
+     * <p>
+     * Summary: Verifica che una lista non più grande della soglia venga ordinata sequenzialmente.
+     * <p>
+     * Test Case Design: Sotto la soglia si usa {@code ListAdapter.sort}, che su una lista già ordinata esegue n - 1 confronti,
+     * tutti nel thread chiamante.
+     * <p>
+     * Test Description: Si ordina con soglia predefinita una lista ordinata di 1000 elementi, contando i confronti
+     * e verificando il thread che li esegue.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 999.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Vengono eseguiti 999 confronti, tutti nel thread del test.
+     */
+    @Test
+    public void testParallelSortBelowThresholdIsSequential()
+    {
+        ListAdapter sorted = new ListAdapter();
+        for (int i = 0; i < 1000; i++)
+        {
+            sorted.add(Integer.valueOf(i));
+        }
+        final Thread caller = Thread.currentThread();
+        final AtomicInteger comparisons = new AtomicInteger();
+        new ParallelListOperations(pool, ParallelListOperations.DEFAULT_THRESHOLD).parallelSort(sorted, new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                assertSame(caller, Thread.currentThread());
+                comparisons.incrementAndGet();
+                return ((Integer) o1).intValue() - ((Integer) o2).intValue();
+            }
+        });
+        assertEquals(999, comparisons.get());
+        assertEquals(Integer.valueOf(999), sorted.get(999));
+    }
+
+    /**
+     * Test del metodo {@link myJdk.ParallelListOperations#parallelHashCode(ListAdapter)}.
+     * <p>
+     * Summary: Verifica che il codice hash parallelo coincida bit per bit con quello sequenziale.
+     * <p>
+     * Test Case Design: La combinazione delle partizioni usa prodotti e somme modulo 2^32 che traboccano di continuo;
+     * il risultato non deve dipendere dalla dimensione della lista né da come viene partizionata. Si provano liste
+     * di dimensioni attorno alla soglia, con null e hash negativi, e soglie diverse.
+     * <p>
+     * Test Description: Per diverse dimensioni e soglie si confronta {@code parallelHashCode} con il codice hash di una
+     * {@code java.util.ArrayList} con gli stessi elementi e con {@link myAdapter.ListAdapter#hashCode()}.
+     * <p>
+     * Preconditions: Liste riempite con interi casuali e alcuni null.
+     * <p>
+     * Postconditions: Le liste rimangono invariate.
+     * <p>
+     * Expected Result: Tutti i codici hash coincidono, anche per la lista vuota (1).
+     */
+    @Test
+    public void testParallelHashCodeMatchesSequential()
+    {
+        Random random = new Random(38);
+        int[] sizes = { 0, 1, 7, 8, 9, 63, 1000, 20001 };
+        int[] thresholds = { 1, 3, 8, 4096 };
+        for (int s = 0; s < sizes.length; s++)
+        {
+            ListAdapter values = new ListAdapter();
+            java.util.ArrayList<Object> reference = new java.util.ArrayList<Object>();
+            for (int i = 0; i < sizes[s]; i++)
+            {
+                Object value = random.nextInt(10) == 0 ? null : Integer.valueOf(random.nextInt());
+                values.add(value);
+                reference.add(value);
+            }
+            for (int t = 0; t < thresholds.length; t++)
+            {
+                ParallelListOperations withThreshold = new ParallelListOperations(pool, thresholds[t]);
+                int hash = withThreshold.parallelHashCode(values);
+                assertEquals("size " + sizes[s] + ", threshold " + thresholds[t], reference.hashCode(), hash);
+                assertEquals(values.hashCode(), hash);
+            }
+        }
+    }
+
+    /**
+     * Test di {@link myJdk.ParallelListOperations#parallelHashCode(ListAdapter)} su una sottolista e dopo un ordinamento.
+     * <p>
+     * Summary: Verifica il codice hash parallelo di una sottolista e di una lista il cui valore memorizzato è stato invalidato.
+     * <p>
+     * Test Case Design: La sottolista non memorizza il codice hash e il suo spliterator parte dall'offset della sottolista;
+     * dopo un ordinamento la lista deve ricalcolare il proprio valore.
+     * <p>
+     * Test Description: 1) Si calcola il codice hash parallelo della sottolista [150, 450).
+     *                   2) Si ordina la lista e si confrontano i codici hash.
+     * <p>
+     * Preconditions: Lista con i valori {@code i % 100} per i da 0 a 999.
+     * <p>
+     * Postconditions: La lista è ordinata.
+     * <p>
+     * Expected Result: I codici hash paralleli coincidono con quelli sequenziali.
+     */
+    @Test
+    public void testParallelHashCodeOnSubListAndAfterSort()
+    {
+        ListAdapter sub = (ListAdapter) list.subList(150, 450);
+        assertEquals(sub.hashCode(), ops.parallelHashCode(sub));
+
+        list.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o1).intValue() - ((Integer) o2).intValue();
+            }
+        });
+        java.util.ArrayList<Object> reference = new java.util.ArrayList<Object>(java.util.Arrays.asList(list.toArray()));
+        assertEquals(reference.hashCode(), ops.parallelHashCode(list));
+        assertEquals(reference.hashCode(), list.hashCode());
+    }
+
+    /**
+     * Test del costruttore {@link myJdk.ParallelListOperations#ParallelListOperations(ForkJoinPool, int)}.
+     * <p>
+     * Summary: Verifica che una soglia non positiva venga rifiutata.
+     * <p>
+     * Test Case Design: La soglia determina la dimensione minima delle partizioni e deve essere almeno 1.
+     * <p>
+     * Test Description: Si costruisce un esecutore con soglia 0.
+     * <p>
+     * Preconditions: Nessuna.
+     * <p>
+     * Postconditions: Nessuna.
+     * <p>
+     * Expected Result: Viene lanciata {@code IllegalArgumentException}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold()
+    {
+        new ParallelListOperations(pool, 0);
+    }
+}
@@ -0,0 +1,373 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import myAdapter.*;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myAdapter.SortedListAdapter}, la lista che mantiene i propri
+ * elementi ordinati secondo un {@link myAdapter.HComparator}.
+ * Vengono verificati l'inserimento ordinato e stabile, la ricerca binaria di indexOf, lastIndexOf e contains,
+ * e il rifiuto delle operazioni posizionali che violerebbero l'ordine, anche tramite iteratori e sottoliste.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che nessuna operazione, diretta o attraverso una vista,
+ * possa lasciare la lista disordinata, e che le ricerche binarie trovino l'occorrenza corretta anche
+ * tra elementi uguali secondo il comparatore ma diversi secondo {@code equals}.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestSortedListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestSortedListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestSortedListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    private SortedListAdapter list;
+    private HComparator byLength;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Inizializza una SortedListAdapter di stringhe ordinate per lunghezza, contenente
+     * nell'ordine di inserimento "ccc", "a", "bb", "dd", "e".
+     */
+    @Before
+    public void setUp()
+    {
+        byLength = new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((String) o1).length() - ((String) o2).length();
+            }
+        };
+        list = new SortedListAdapter(byLength);
+        list.add("ccc");
+        list.add("a");
+        list.add("bb");
+        list.add("dd");
+        list.add("e");
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.SortedListAdapter#add(Object)}.
+     * <p>
+     * Summary: Verifica che gli elementi vengano inseriti in ordine, dopo gli elementi uguali già presenti.
+     * <p>
+     * Test Case Design: Il comparatore confronta solo la lunghezza, quindi stringhe diverse risultano uguali
+     * e il loro ordine relativo deve essere quello di inserimento.
+     * <p>
+     * Test Description: Si confronta il contenuto della lista con l'ordine atteso.
+     * <p>
+     * Preconditions: Lista ordinata per lunghezza con "ccc", "a", "bb", "dd", "e" inseriti in quest'ordine.
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: La lista contiene ["a", "e", "bb", "dd", "ccc"].
+     */
+    @Test
+    public void testAddKeepsOrderAndInsertionStability()
+    {
+        Object[] expected = { "a", "e", "bb", "dd", "ccc" };
+        assertArrayEquals(expected, list.toArray());
+    }
+
+    /**
+     * Test dei metodi {@link myAdapter.SortedListAdapter#indexOf(Object)}, {@link myAdapter.SortedListAdapter#lastIndexOf(Object)}
+     * e {@link myAdapter.SortedListAdapter#contains(Object)}.
+     * <p>
+     * Summary: Verifica che la ricerca binaria trovi l'occorrenza uguale secondo {@code equals}.
+     * <p>
+     * Test Case Design: Tra gli elementi uguali secondo il comparatore deve essere restituito quello uguale
+     * secondo {@code equals}; un elemento della stessa lunghezza ma assente non deve essere trovato.
+     * <p>
+     * Test Description: 1) Si aggiunge un secondo "bb".
+     *                   2) Si cercano "bb", "dd", "zz" e "a".
+     *                   3) Si rimuovono "zz", "dd" e "bb" con {@code remove(Object)}.
+     * <p>
+     * Preconditions: La lista contiene ["a", "e", "bb", "dd", "ccc"].
+     * <p>
+     * Postconditions: La lista contiene ["a", "e", "bb", "ccc"].
+     * <p>
+     * Expected Result: indexOf("bb") = 2, lastIndexOf("bb") = 4, indexOf("dd") = 3, "zz" assente, indexOf("a") = 0;
+     * "zz" non viene rimosso e dopo le rimozioni resta un solo "bb" in posizione 2.
+     */
+    @Test
+    public void testBinarySearchFindsEqualElement()
+    {
+        list.add("bb");
+        assertEquals(2, list.indexOf("bb"));
+        assertEquals(4, list.lastIndexOf("bb"));
+        assertEquals(3, list.indexOf("dd"));
+        assertEquals(3, list.lastIndexOf("dd"));
+        assertFalse(list.contains("zz"));
+        assertEquals(-1, list.lastIndexOf("zz"));
+        assertEquals(0, list.indexOf("a"));
+        assertTrue(list.contains("ccc"));
+
+        assertFalse(list.remove("zz"));
+        assertTrue(list.remove("dd"));
+        assertTrue(list.remove("bb"));
+        assertEquals(2, list.indexOf("bb"));
+        assertEquals(2, list.lastIndexOf("bb"));
+        assertEquals(4, list.size());
+    }
+
+    /**
+     * Test della ricerca binaria su una lista grande.
+     * <p>
+     * Summary: Verifica che indexOf e lastIndexOf coincidano con una ricerca lineare su molti elementi.
+     * <p>
+     * Test Case Design: Con molti duplicati la ricerca binaria deve restituire gli estremi esatti di ogni gruppo.
+     * <p>
+     * Test Description: 1) Si inseriscono 2000 interi casuali tra 0 e 199 in ordine casuale.
+     *                   2) Si confrontano, per ogni valore, gli indici con quelli calcolati scorrendo la lista.
+     * <p>
+     * Preconditions: Lista di interi vuota.
+     * <p>
+     * Postconditions: La lista contiene 2000 interi ordinati.
+     * <p>
+     * Expected Result: Gli indici coincidono e la lista è ordinata.
+     */
+    @Test
+    public void testBinarySearchMatchesLinearScan()
+    {
+        SortedListAdapter numbers = new SortedListAdapter(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o1).intValue() - ((Integer) o2).intValue();
+            }
+        });
+        Random random = new Random(11);
+        for (int i = 0; i < 2000; i++)
+        {
+            numbers.add(Integer.valueOf(random.nextInt(200)));
+        }
+        for (int i = 1; i < numbers.size(); i++)
+        {
+            assertTrue(((Integer) numbers.get(i - 1)).intValue() <= ((Integer) numbers.get(i)).intValue());
+        }
+        for (int v = -1; v <= 200; v++)
+        {
+            int first = -1;
+            int last = -1;
+            for (int i = 0; i < numbers.size(); i++)
+            {
+                if (((Integer) numbers.get(i)).intValue() == v)
+                {
+                    last = i;
+                    if (first == -1)
+                    {
+                        first = i;
+                    }
+                }
+            }
+            assertEquals(first, numbers.indexOf(Integer.valueOf(v)));
+            assertEquals(last, numbers.lastIndexOf(Integer.valueOf(v)));
+        }
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.SortedListAdapter#add(int, Object)}.
+     * <p>
+     * Summary: Verifica che un inserimento posizionale sia accettato solo se rispetta l'ordine.
+     * <p>
+     * Test Case Design: Gli inserimenti tra elementi compatibili devono riuscire, quelli che violano l'ordine
+     * devono essere rifiutati lasciando la lista invariata.
+     * <p>
+     * Test Description: 1) Si inserisce "xx" in posizione 3, tra "bb" e "dd".
+     *                   2) Si tenta di inserire "zzzz" in posizione 0.
+     * <p>
+     * Preconditions: La lista contiene ["a", "e", "bb", "dd", "ccc"].
+     * <p>
+     * Postconditions: La lista contiene ["a", "e", "bb", "xx", "dd", "ccc"].
+     * <p>
+     * Expected Result: Il primo inserimento riesce, il secondo lancia {@code IllegalArgumentException}.
+     */
+    @Test
+    public void testPositionalAddRejectsDisorder()
+    {
+        list.add(3, "xx");
+        assertEquals("xx", list.get(3));
+        try
+        {
+            list.add(0, "zzzz");
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            Object[] expected = { "a", "e", "bb", "xx", "dd", "ccc" };
+            assertArrayEquals(expected, list.toArray());
+        }
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.SortedListAdapter#set(int, Object)} e di {@code set} tramite iteratore.
+     * <p>
+     * Summary: Verifica che una sostituzione sia accettata solo se rispetta l'ordine.
+     * <p>
+     * Test Case Design: La sostituzione confronta il nuovo elemento con i vicini, escluso quello sostituito.
+     * <p>
+     * Test Description: 1) Si sostituisce "dd" con "yy".
+     *                   2) Si tenta di sostituire "a" con "ccc" tramite un {@code HListIterator}.
+     * <p>
+     * Preconditions: La lista contiene ["a", "e", "bb", "dd", "ccc"].
+     * <p>
+     * Postconditions: La lista contiene ["a", "e", "bb", "yy", "ccc"].
+     * <p>
+     * Expected Result: La prima sostituzione riesce, la seconda lancia {@code IllegalArgumentException}.
+     */
+    @Test
+    public void testSetRejectsDisorder()
+    {
+        assertEquals("dd", list.set(3, "yy"));
+        HListIterator it = list.listIterator();
+        it.next();
+        try
+        {
+            it.set("ccc");
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            Object[] expected = { "a", "e", "bb", "yy", "ccc" };
+            assertArrayEquals(expected, list.toArray());
+        }
+    }
+
+    /**
+     * Test dell'inserimento tramite {@code HListIterator} e sottolista.
+     * <p>
+     * Summary: Verifica che le viste non permettano di violare l'ordine della lista.
+     * <p>
+     * Test Case Design: Iteratori e sottoliste scrivono nello stesso Vector della lista: gli inserimenti
+     * devono essere verificati subito, e il riordinamento di una sottolista non è ammesso.
+     * <p>
+     * Test Description: 1) Si inserisce "ff" con l'iteratore dopo "bb" e si tenta di inserire "" subito dopo.
+     *                   2) Si tenta di inserire un blocco disordinato con {@code addAll(int, HCollection)} su una sottolista.
+     *                   3) Si tenta di ordinare la sottolista.
+     * <p>
+     * Preconditions: La lista contiene ["a", "e", "bb", "dd", "ccc"].
+     * <p>
+     * Postconditions: La lista contiene ["a", "e", "bb", "ff", "dd", "ccc"].
+     * <p>
+     * Expected Result: Il primo inserimento riesce; gli altri tre tentativi vengono rifiutati senza modificare la lista.
+     */
+    @Test
+    public void testViewsCannotBreakOrder()
+    {
+        HListIterator it = list.listIterator(3);
+        it.add("ff");
+        try
+        {
+            it.add("");
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso: "" è più corta di "ff"
+        }
+
+        HList sub = list.subList(1, 4);
+        ListAdapter block = new ListAdapter();
+        block.add("gg");
+        block.add("h");
+        try
+        {
+            sub.addAll(2, block);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso: il blocco non è ordinato
+        }
+        try
+        {
+            sub.sort(byLength);
+            fail("UnsupportedOperationException attesa");
+        }
+        catch (myExceptions.UnsupportedOperationException e)
+        {
+            // Atteso: una sottolista non può riordinare la lista
+        }
+        Object[] expected = { "a", "e", "bb", "ff", "dd", "ccc" };
+        assertArrayEquals(expected, list.toArray());
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.SortedListAdapter#addAll(HCollection)}.
+     * <p>
+     * Summary: Verifica che l'aggiunta di una collezione disordinata produca una lista ordinata e stabile.
+     * <p>
+     * Test Case Design: Gli elementi aggiunti vengono ordinati e fusi con quelli presenti; a parità di confronto
+     * devono seguire quelli già presenti e mantenere tra loro l'ordine della collezione.
+     * <p>
+     * Test Description: Si aggiungono ["qqq", "q", "pp", "p"].
+     * <p>
+     * Preconditions: La lista contiene ["a", "e", "bb", "dd", "ccc"].
+     * <p>
+     * Postconditions: La lista contiene ["a", "e", "q", "p", "bb", "dd", "pp", "ccc", "qqq"].
+     * <p>
+     * Expected Result: La lista ha il contenuto atteso e addAll restituisce true.
+     */
+    @Test
+    public void testAddAllMergesStably()
+    {
+        ListAdapter added = new ListAdapter();
+        added.add("qqq");
+        added.add("q");
+        added.add("pp");
+        added.add("p");
+        assertTrue(list.addAll(added));
+        Object[] expected = { "a", "e", "q", "p", "bb", "dd", "pp", "ccc", "qqq" };
+        assertArrayEquals(expected, list.toArray());
+        assertFalse(list.addAll(new ListAdapter()));
+    }
+
+    /**
+     * Test del metodo {@link myAdapter.SortedListAdapter#sort(HComparator)}.
+     * <p>
+     * Summary: Verifica che l'ordinamento sia ammesso solo con il comparatore della lista.
+     * <p>
+     * Test Case Design: Con il proprio comparatore la lista è già ordinata; un comparatore diverso
+     * ne violerebbe l'ordine.
+     * <p>
+     * Test Description: 1) Si ordina con il comparatore della lista.
+     *                   2) Si tenta di ordinare con un altro comparatore.
+     * <p>
+     * Preconditions: La lista contiene ["a", "e", "bb", "dd", "ccc"].
+     * <p>
+     * Postconditions: La lista rimane invariata.
+     * <p>
+     * Expected Result: Il primo ordinamento non modifica la lista, il secondo lancia {@code UnsupportedOperationException}.
+     */
+    @Test(expected = myExceptions.UnsupportedOperationException.class)
+    public void testSortWithOtherComparator()
+    {
+        list.sort(list.comparator());
+        assertEquals("a", list.get(0));
+        list.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return 0;
+            }
+        });
+    }
+}
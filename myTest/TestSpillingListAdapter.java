@@ -0,0 +1,419 @@
+//Alberto Bortoletto 2101761
+
+package myTest;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import myAdapter.*;
+import myJdk.SpillingListAdapter;
+
+/**
+ * <b>Summary:</b>
+ * <p>
+ * Questa classe contiene i test per {@link myJdk.SpillingListAdapter}, la {@code HList} che tiene in memoria
+ * un numero limitato di elementi e scrive gli altri in un file temporaneo.
+ * <br>
+ * <b>Test Case Design:</b>
+ * <p>
+ * La motivazione di questa suite è assicurare che il budget di memoria venga rispettato, che gli elementi
+ * scritti su file vengano ricaricati identici da {@code get} e dagli iteratori qualunque sia la sequenza di
+ * modifiche, che un segmento riscritto riusi il proprio spazio nel file e che il file temporaneo venga
+ * eliminato alla chiusura. Ogni test crea il file temporaneo in una cartella temporanea.
+ * Versione JUnit: **JUnit 4.13.2**
+ * Versione Hamcrest: **Hamcrest 1.3**
+ */
+public class TestSpillingListAdapter
+{
+
+    /**
+     * Costruttore predefinito per i test di {@code TestSpillingListAdapter}.
+     * Non esegue inizializzazioni specifiche, affidandosi al metodo {@code setup()}.
+     */
+    public TestSpillingListAdapter()
+    {
+        // Nessuna logica di inizializzazione complessa qui, JUnit si occupa del setup.
+    }
+
+    /**
+     * Cartella temporanea che contiene i file dei test, eliminata al termine di ogni test.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private SpillingListAdapter list;
+
+    /**
+     * Configura l'ambiente di test prima di ogni test case.
+     * Crea una lista di interi con un budget di 100 elementi e segmenti di 10 elementi, contenente gli interi da 0 a 999.
+     */
+    @Before
+    public void setUp()
+    {
+        directory = folder.getRoot().toPath();
+        list = new SpillingListAdapter(ElementCodecs.INTEGER, 100, 10, directory);
+        for (int i = 0; i < 1000; i++)
+        {
+            list.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Chiude la lista dopo ogni test case.
+     */
+    @After
+    public void tearDown() throws IOException
+    {
+        list.close();
+    }
+
+    /**
+     * Test della scrittura su file e del ricaricamento.
+     * <p>
+     * Summary: Verifica che la lista rispetti il budget e che {@code get}, gli iteratori e le sottoliste
+     * restituiscano gli elementi scritti su file.
+     * <p>
+     * Test Case Design: Con 1000 elementi e un budget di 100 almeno 90 segmenti devono trovarsi nel file.
+     * <p>
+     * Test Description: 1) Si controllano il numero di elementi in memoria e la dimensione del file.
+     *                   2) Si leggono gli elementi con {@code get} all'indietro e con un iteratore in avanti.
+     *                   3) Si confronta una sottolista e si cerca un elemento.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 999.
+     * <p>
+     * Postconditions: Lista invariata.
+     * <p>
+     * Expected Result: Al più 100 elementi in memoria e gli stessi elementi inseriti.
+     */
+    @Test
+    public void testSpillAndReload()
+    {
+        assertEquals(1000, list.size());
+        assertTrue(list.residentElements() <= 100);
+        assertTrue(list.spilledBytes() > 0);
+        for (int i = 999; i >= 0; i--)
+        {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+        HIterator it = list.iterator();
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(Integer.valueOf(i), it.next());
+        }
+        assertFalse(it.hasNext());
+        assertTrue(list.residentElements() <= 100);
+
+        HList sub = list.subList(495, 505);
+        assertEquals(10, sub.size());
+        assertEquals(Integer.valueOf(495), sub.get(0));
+        assertEquals(Integer.valueOf(504), sub.get(9));
+        assertEquals(731, list.indexOf(Integer.valueOf(731)));
+    }
+
+    /**
+     * Test delle modifiche casuali.
+     * <p>
+     * Summary: Verifica che inserimenti, rimozioni e sostituzioni in qualsiasi posizione, cancellazioni di
+     * sottoliste e ordinamenti producano gli stessi elementi di una {@code java.util.ArrayList}.
+     * <p>
+     * Test Case Design: Gli inserimenti in segmenti pieni li dividono in due e le rimozioni possono svuotarli:
+     * gli indici dei segmenti devono restare coerenti anche per i segmenti che si trovano nel file.
+     * <p>
+     * Test Description: Si eseguono 3000 modifiche casuali su una lista con un budget di 8 elementi e segmenti di 4,
+     * confrontandola periodicamente con la lista di riferimento.
+     * <p>
+     * Preconditions: Lista vuota.
+     * <p>
+     * Postconditions: La lista contiene gli stessi elementi della lista di riferimento.
+     * <p>
+     * Expected Result: Gli elementi coincidono a ogni confronto e non più di 8 elementi sono in memoria.
+     */
+    @Test
+    public void testRandomOperations() throws IOException
+    {
+        SpillingListAdapter small = new SpillingListAdapter(ElementCodecs.INTEGER, 8, 4, directory);
+        try
+        {
+            List<Integer> reference = new ArrayList<Integer>();
+            Random random = new Random(2101761);
+            for (int step = 0; step < 3000; step++)
+            {
+                int size = reference.size();
+                int index = size == 0 ? 0 : random.nextInt(size);
+                Integer value = Integer.valueOf(random.nextInt(1000));
+                switch (random.nextInt(10))
+                {
+                    case 0:
+                    case 1:
+                    case 2:
+                        small.add(value);
+                        reference.add(value);
+                        break;
+                    case 3:
+                    case 4:
+                        int position = random.nextInt(size + 1);
+                        small.add(position, value);
+                        reference.add(position, value);
+                        break;
+                    case 5:
+                    case 6:
+                        if (size > 0)
+                        {
+                            assertEquals(reference.remove(index), small.remove(index));
+                        }
+                        break;
+                    case 7:
+                        if (size > 0)
+                        {
+                            assertEquals(reference.set(index, value), small.set(index, value));
+                        }
+                        break;
+                    case 8:
+                        if (size > 10)
+                        {
+                            small.subList(index / 2, index / 2 + 5).clear();
+                            reference.subList(index / 2, index / 2 + 5).clear();
+                        }
+                        break;
+                    default:
+                        if (step % 100 == 9)
+                        {
+                            small.sort(new IntegerComparator());
+                            Collections.sort(reference);
+                        }
+                        break;
+                }
+                assertTrue(small.residentElements() <= 8);
+                if (step % 50 == 0)
+                {
+                    assertArrayEquals("step " + step, reference.toArray(), small.toArray());
+                }
+            }
+            assertArrayEquals(reference.toArray(), small.toArray());
+        }
+        finally
+        {
+            small.close();
+        }
+    }
+
+    /**
+     * Test del riuso dello spazio nel file.
+     * <p>
+     * Summary: Verifica che un segmento riscritto con una codifica della stessa lunghezza non faccia crescere il file.
+     * <p>
+     * Test Case Design: Un job che aggiorna ripetutamente gli elementi non deve riempire il disco.
+     * <p>
+     * Test Description: 1) Si legge tutta la lista, così che ogni segmento venga scritto nel file, e si misura il file.
+     *                   2) Per tre volte si sostituisce ogni elemento {@code i} con {@code i ^ 1} o {@code i}, alternando,
+     *                      e si rilegge la lista.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 999.
+     * <p>
+     * Postconditions: La lista contiene gli ultimi valori scritti.
+     * <p>
+     * Expected Result: La dimensione del file non cambia e gli elementi sono gli ultimi scritti.
+     * I valori sono scelti in modo che la codifica compatta di ogni segmento non si allunghi.
+     */
+    @Test
+    public void testRewriteReusesSpace()
+    {
+        for (int i = 0; i < list.size(); i++)
+        {
+            list.get(i);
+        }
+        long bytes = list.spilledBytes();
+        for (int round = 1; round <= 3; round++)
+        {
+            for (int i = 0; i < list.size(); i++)
+            {
+                list.set(i, Integer.valueOf(i ^ (round % 2)));
+            }
+            for (int i = 0; i < list.size(); i++)
+            {
+                assertEquals(Integer.valueOf(i ^ (round % 2)), list.get(i));
+            }
+        }
+        assertEquals(bytes, list.spilledBytes());
+    }
+
+    /**
+     * Test degli argomenti non validi.
+     * <p>
+     * Summary: Verifica che gli elementi non supportati dal codec vengano rifiutati all'inserimento e che
+     * budget e dimensioni dei segmenti non validi vengano rifiutati alla costruzione.
+     * <p>
+     * Test Case Design: Un elemento non codificabile non deve far fallire la scrittura di un segmento in un
+     * momento successivo, lontano dal punto in cui è stato inserito.
+     * <p>
+     * Test Description: 1) Si inseriscono e si sostituiscono elementi con una stringa.
+     *                   2) Si costruiscono liste con budget minore di un segmento e con segmenti vuoti.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 999.
+     * <p>
+     * Postconditions: Lista invariata.
+     * <p>
+     * Expected Result: {@code IllegalArgumentException} in tutti i casi e lista invariata.
+     */
+    @Test
+    public void testInvalidArguments()
+    {
+        try
+        {
+            list.add("x");
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            list.set(3, "x");
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        assertEquals(1000, list.size());
+        assertEquals(Integer.valueOf(3), list.get(3));
+        try
+        {
+            new SpillingListAdapter(ElementCodecs.INTEGER, 9, 10, directory);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+        try
+        {
+            new SpillingListAdapter(ElementCodecs.INTEGER, 100, 0, directory);
+            fail("IllegalArgumentException attesa");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Test dell'ordinamento esterno.
+     * <p>
+     * Summary: Verifica che {@code sort} ordini in modo stabile una lista più grande del budget, rispettando il
+     * budget e senza lasciare file temporanei.
+     * <p>
+     * Test Case Design: L'ordinamento non deve copiare in memoria l'intera lista ma passare per run ordinate su
+     * file; il comparatore confronta solo le decine, così l'ordine tra elementi uguali verifica la stabilità.
+     * <p>
+     * Test Description: 1) Si ordina la lista per decine in ordine decrescente.
+     *                   2) Si controllano l'ordine, il budget e il contenuto della cartella.
+     *                   3) Si chiama {@code sort(null)}.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 999.
+     * <p>
+     * Postconditions: La lista contiene le decine da 99 a 0, ciascuna in ordine crescente.
+     * <p>
+     * Expected Result: Lista ordinata e stabile, al più 100 elementi in memoria, nessuna run rimasta nella
+     * cartella e {@code NullPointerException} per il comparatore null.
+     */
+    @Test
+    public void testExternalSort()
+    {
+        list.sort(new HComparator()
+        {
+            public int compare(Object o1, Object o2)
+            {
+                return ((Integer) o2).intValue() / 10 - ((Integer) o1).intValue() / 10;
+            }
+        });
+        assertEquals(1000, list.size());
+        HIterator it = list.iterator();
+        for (int tens = 99; tens >= 0; tens--)
+        {
+            for (int unit = 0; unit < 10; unit++)
+            {
+                assertEquals(Integer.valueOf(tens * 10 + unit), it.next());
+            }
+        }
+        assertTrue(list.residentElements() <= 100);
+        assertEquals(0, folder.getRoot().list().length);
+        try
+        {
+            list.sort(null);
+            fail("NullPointerException attesa");
+        }
+        catch (NullPointerException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Test di svuotamento e chiusura.
+     * <p>
+     * Summary: Verifica che {@code clear} svuoti il file, che {@code close} elimini il file temporaneo e che
+     * la lista chiusa non sia più utilizzabile.
+     * <p>
+     * Test Case Design: Il file temporaneo non deve sopravvivere alla lista.
+     * <p>
+     * Test Description: 1) Si svuota la lista e la si riempie di nuovo.
+     *                   2) Si chiude la lista due volte e la si legge.
+     * <p>
+     * Preconditions: Lista contenente gli interi da 0 a 999.
+     * <p>
+     * Postconditions: Lista chiusa, cartella vuota.
+     * <p>
+     * Expected Result: Dopo {@code clear} il file è vuoto, dopo {@code close} la cartella è vuota e la lettura
+     * lancia {@code IllegalStateException}.
+     */
+    @Test
+    public void testClearAndClose() throws IOException
+    {
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(0, list.spilledBytes());
+        for (int i = 0; i < 200; i++)
+        {
+            list.add(Integer.valueOf(-i));
+        }
+        assertEquals(Integer.valueOf(-7), list.get(7));
+
+        list.close();
+        list.close();
+        assertEquals(0, folder.getRoot().list().length);
+        try
+        {
+            list.get(0);
+            fail("IllegalStateException attesa");
+        }
+        catch (myExceptions.IllegalStateException e)
+        {
+            // Atteso
+        }
+    }
+
+    /**
+     * Comparatore di interi per gli ordinamenti.
+     */
+    private static class IntegerComparator implements HComparator
+    {
+        public int compare(Object o1, Object o2)
+        {
+            return ((Integer) o1).compareTo((Integer) o2);
+        }
+    }
+}